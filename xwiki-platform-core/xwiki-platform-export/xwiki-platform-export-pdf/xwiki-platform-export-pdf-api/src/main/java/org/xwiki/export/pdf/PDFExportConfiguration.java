@@ -26,6 +26,7 @@
 
 import org.xwiki.component.annotation.Role;
 import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.stability.Unstable;
 
 /**
  * PDF export configuration options.
@@ -159,4 +160,27 @@ default boolean isReplacingFOP()
     {
         return true;
     }
+
+    /**
+     * @return the number of threads used to render in parallel the documents included in a PDF export; defaults to
+     *         {@code 1}, meaning that the documents are rendered one after another, by the PDF export thread
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getRenderingThreadPoolSize()
+    {
+        return 1;
+    }
+
+    /**
+     * @return the maximum number of document rendering results to keep in memory in order to reuse them when the same
+     *         version of a document is exported again by the same user; defaults to {@code 0}, meaning that the
+     *         rendering results are not cached
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getRenderingCacheSize()
+    {
+        return 0;
+    }
 }
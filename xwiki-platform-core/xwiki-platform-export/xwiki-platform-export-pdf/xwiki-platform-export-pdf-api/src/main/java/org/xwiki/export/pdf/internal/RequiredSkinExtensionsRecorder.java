@@ -36,6 +36,16 @@
      */
     void start();
 
+    /**
+     * Start recording as if no skin extension was required before, so that {@link #stop()} returns all the skin
+     * extensions required while recording, including those that were already required before (e.g. by the content
+     * rendered previously in the same context). The skin extensions required before are required again when the
+     * recording stops.
+     *
+     * @since 16.2.0RC1
+     */
+    void startIsolated();
+
     /**
      * Stop recording.
      * 
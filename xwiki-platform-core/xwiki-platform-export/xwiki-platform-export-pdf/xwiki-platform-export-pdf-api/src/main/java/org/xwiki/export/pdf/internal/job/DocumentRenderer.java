@@ -49,4 +49,18 @@
      */
     DocumentRenderingResult render(DocumentReference documentReference, DocumentRendererParameters parameters)
         throws Exception;
+
+    /**
+     * Renders the specified document using the given id generator, instead of the one shared by all the documents
+     * rendered with this component.
+     * 
+     * @param documentReference the document to render
+     * @param parameters the rendering parameters
+     * @param idGenerator the id generator to use in order to generate unique identifiers
+     * @return the rendering result
+     * @throws Exception if rendering the specified document fails
+     * @since 16.2.0RC1
+     */
+    DocumentRenderingResult render(DocumentReference documentReference, DocumentRendererParameters parameters,
+        PDFExportIdGenerator idGenerator) throws Exception;
 }
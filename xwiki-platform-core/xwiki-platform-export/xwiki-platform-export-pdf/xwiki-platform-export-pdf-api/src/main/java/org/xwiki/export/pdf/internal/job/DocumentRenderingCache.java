@@ -0,0 +1,58 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.export.pdf.internal.job;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.model.reference.DocumentReference;
+
+/**
+ * Keeps the result of rendering a document for PDF export in order to reuse it when the same version of the document is
+ * exported again by the same user, with the same rendering parameters.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Role
+public interface DocumentRenderingCache
+{
+    /**
+     * @return {@code true} if the rendering results are cached, {@code false} otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * @param documentReference the rendered document
+     * @param parameters the rendering parameters
+     * @return the cached rendering result for the current version of the specified document, or {@code null} if there
+     *         is none
+     * @throws Exception if accessing the specified document fails
+     */
+    IsolatedDocumentRendering get(DocumentReference documentReference, DocumentRendererParameters parameters)
+        throws Exception;
+
+    /**
+     * @param documentReference the rendered document
+     * @param parameters the rendering parameters
+     * @param rendering the rendering result to cache for the current version of the specified document
+     * @throws Exception if accessing the specified document fails
+     */
+    void set(DocumentReference documentReference, DocumentRendererParameters parameters,
+        IsolatedDocumentRendering rendering) throws Exception;
+}
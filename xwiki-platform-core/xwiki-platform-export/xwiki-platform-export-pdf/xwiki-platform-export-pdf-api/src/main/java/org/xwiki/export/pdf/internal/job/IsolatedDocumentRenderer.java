@@ -0,0 +1,220 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.export.pdf.internal.job;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.context.concurrent.ContextStoreManager;
+import org.xwiki.export.pdf.internal.RequiredSkinExtensionsRecorder;
+import org.xwiki.export.pdf.job.PDFExportJobStatus.DocumentRenderingResult;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.rendering.block.Block;
+import org.xwiki.rendering.block.HeaderBlock;
+import org.xwiki.rendering.block.IdBlock;
+import org.xwiki.rendering.block.ImageBlock;
+import org.xwiki.rendering.block.LinkBlock;
+import org.xwiki.rendering.block.XDOM;
+import org.xwiki.rendering.listener.reference.DocumentResourceReference;
+import org.xwiki.rendering.listener.reference.ResourceReference;
+import org.xwiki.rendering.renderer.BlockRenderer;
+import org.xwiki.rendering.renderer.printer.DefaultWikiPrinter;
+import org.xwiki.rendering.renderer.printer.WikiPrinter;
+import org.xwiki.rendering.transformation.RenderingContext;
+
+/**
+ * Renders a document separately from the other documents included in the PDF export, with its own id generator, so
+ * that the documents can be rendered in parallel. The rendering results are cached when the
+ * {@link DocumentRenderingCache} is enabled.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = IsolatedDocumentRenderer.class)
+@Singleton
+public class IsolatedDocumentRenderer
+{
+    private static final String ID = "id";
+
+    @Inject
+    private Provider<DocumentRenderer> documentRendererProvider;
+
+    @Inject
+    private Provider<RequiredSkinExtensionsRecorder> requiredSkinExtensionsRecorderProvider;
+
+    @Inject
+    private DocumentRenderingCache cache;
+
+    @Inject
+    private ExecutionContextManager executionContextManager;
+
+    @Inject
+    private Execution execution;
+
+    @Inject
+    private ContextStoreManager contextStoreManager;
+
+    @Inject
+    private RenderingContext renderingContext;
+
+    @Inject
+    @Named("context")
+    private Provider<ComponentManager> contextComponentManagerProvider;
+
+    /**
+     * Renders the specified document in a new execution context, initialized from the given context entries. Use this
+     * when rendering documents from a thread that doesn't have an execution context.
+     * 
+     * @param documentReference the document to render
+     * @param parameters the rendering parameters
+     * @param context the context entries to restore before rendering the document (usually the context of the PDF
+     *            export job request)
+     * @return the rendering result
+     * @throws Exception if rendering the specified document fails
+     */
+    public IsolatedDocumentRendering renderInNewContext(DocumentReference documentReference,
+        DocumentRendererParameters parameters, Map<String, Serializable> context) throws Exception
+    {
+        this.executionContextManager.initialize(new ExecutionContext());
+        try {
+            if (context != null) {
+                this.contextStoreManager.restore(context);
+            }
+
+            return render(documentReference, parameters);
+        } finally {
+            this.execution.removeContext();
+        }
+    }
+
+    /**
+     * Renders the specified document in the current execution context.
+     * 
+     * @param documentReference the document to render
+     * @param parameters the rendering parameters
+     * @return the rendering result
+     * @throws Exception if rendering the specified document fails
+     */
+    public IsolatedDocumentRendering render(DocumentReference documentReference,
+        DocumentRendererParameters parameters) throws Exception
+    {
+        IsolatedDocumentRendering rendering = this.cache.get(documentReference, parameters);
+        if (rendering == null) {
+            // Collect all the skin extensions required by this document, even those already required by the documents
+            // rendered before in the same context, because the rendering result might be reused (from the cache)
+            // without the other documents.
+            RequiredSkinExtensionsRecorder requiredSkinExtensionsRecorder =
+                this.requiredSkinExtensionsRecorderProvider.get();
+            requiredSkinExtensionsRecorder.startIsolated();
+
+            PDFExportIdGenerator idGenerator = new PDFExportIdGenerator();
+            DocumentRenderingResult result;
+            String requiredSkinExtensions;
+            try {
+                result = this.documentRendererProvider.get().render(documentReference, parameters, idGenerator);
+            } finally {
+                // Stop in any case in order to require again the skin extensions required before.
+                requiredSkinExtensions = requiredSkinExtensionsRecorder.stop();
+            }
+
+            rendering = new IsolatedDocumentRendering(result, idGenerator, requiredSkinExtensions);
+            this.cache.set(documentReference, parameters, rendering);
+        }
+
+        return rendering;
+    }
+
+    /**
+     * Renames the identifiers generated while rendering a document separately, so that they match the identifiers
+     * generated when rendering the document after the previous documents included in the PDF export (see
+     * {@link PDFExportIdGenerator#replay(PDFExportIdGenerator)}), and renders again the modified XDOM.
+     * 
+     * @param result the rendering result to update, its XDOM is modified so it must not be shared
+     * @param renamedIds the identifiers to rename, mapped to their new value
+     * @return the updated rendering result
+     * @throws Exception if rendering the modified XDOM fails
+     */
+    public DocumentRenderingResult renameIds(DocumentRenderingResult result, Map<String, String> renamedIds)
+        throws Exception
+    {
+        XDOM xdom = result.getXDOM();
+        for (Block block : xdom.getBlocks(block -> true, Block.Axes.DESCENDANT)) {
+            renameIds(block, renamedIds);
+        }
+
+        Map<String, String> idMap = new HashMap<>();
+        result.getIdMap()
+            .forEach((localId, globalId) -> idMap.put(localId, renamedIds.getOrDefault(globalId, globalId)));
+
+        BlockRenderer renderer = this.contextComponentManagerProvider.get().getInstance(BlockRenderer.class,
+            this.renderingContext.getTargetSyntax().toIdString());
+        WikiPrinter printer = new DefaultWikiPrinter();
+        renderer.render(xdom, printer);
+
+        return new DocumentRenderingResult(result.getDocumentReference(), xdom, printer.toString(), idMap);
+    }
+
+    private void renameIds(Block block, Map<String, String> renamedIds)
+    {
+        // Some blocks (e.g. footnotes) use generated identifiers as parameter.
+        String id = renamedIds.get(block.getParameter(ID));
+        if (id != null) {
+            block.setParameter(ID, id);
+        }
+
+        if (block instanceof HeaderBlock) {
+            HeaderBlock header = (HeaderBlock) block;
+            String newId = renamedIds.get(header.getId());
+            if (newId != null) {
+                header.getParent().replaceChild(
+                    new HeaderBlock(header.getChildren(), header.getLevel(), header.getParameters(), newId), header);
+            }
+        } else if (block instanceof IdBlock) {
+            String newId = renamedIds.get(((IdBlock) block).getName());
+            if (newId != null) {
+                block.getParent().replaceChild(new IdBlock(newId), block);
+            }
+        } else if (block instanceof ImageBlock) {
+            ImageBlock image = (ImageBlock) block;
+            String newId = renamedIds.get(image.getId());
+            if (newId != null) {
+                image.getParent().replaceChild(new ImageBlock(image.getReference(), image.isFreeStandingURI(), newId,
+                    image.getParameters()), image);
+            }
+        } else if (block instanceof LinkBlock) {
+            ResourceReference reference = ((LinkBlock) block).getReference();
+            String anchor = renamedIds.get(reference.getParameter(DocumentResourceReference.ANCHOR));
+            if (anchor != null) {
+                reference.setParameter(DocumentResourceReference.ANCHOR, anchor);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.export.pdf.internal.job;
+
+import org.xwiki.export.pdf.job.PDFExportJobStatus.DocumentRenderingResult;
+
+/**
+ * The result of rendering a document separately from the other documents included in the PDF export, i.e. with its own
+ * id generator and its own execution context.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class IsolatedDocumentRendering
+{
+    private final DocumentRenderingResult result;
+
+    private final PDFExportIdGenerator idGenerator;
+
+    private final String requiredSkinExtensions;
+
+    /**
+     * Creates a new isolated rendering result.
+     * 
+     * @param result the document rendering result
+     * @param idGenerator the id generator used to render the document, holding the generated identifiers
+     * @param requiredSkinExtensions the HTML that needs to be placed in the page head in order to pull the skin
+     *            extensions required by the rendered document
+     */
+    public IsolatedDocumentRendering(DocumentRenderingResult result, PDFExportIdGenerator idGenerator,
+        String requiredSkinExtensions)
+    {
+        this.result = result;
+        this.idGenerator = idGenerator;
+        this.requiredSkinExtensions = requiredSkinExtensions;
+    }
+
+    /**
+     * @return the document rendering result
+     */
+    public DocumentRenderingResult getResult()
+    {
+        return this.result;
+    }
+
+    /**
+     * @return the id generator used to render the document, holding the generated identifiers
+     */
+    public PDFExportIdGenerator getIdGenerator()
+    {
+        return this.idGenerator;
+    }
+
+    /**
+     * @return the HTML that needs to be placed in the page head in order to pull the skin extensions required by the
+     *         rendered document
+     */
+    public String getRequiredSkinExtensions()
+    {
+        return this.requiredSkinExtensions;
+    }
+}
@@ -19,9 +19,12 @@
  */
 package org.xwiki.export.pdf.internal.job;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 
 import org.xwiki.rendering.util.IdGenerator;
 
@@ -44,12 +47,20 @@ public class PDFExportIdGenerator extends IdGenerator
      */
     private Map<String, String> idMap = new HashMap<>();
 
+    /**
+     * The operations performed since the last reset, in order to be able to replay them on another id generator. Each
+     * operation receives the id generator where to replay it and the mapping between the IDs generated by this id
+     * generator and the IDs generated by the other id generator.
+     */
+    private List<BiConsumer<IdGenerator, Map<String, String>>> operations = new ArrayList<>();
+
     @Override
     public String generateUniqueId(String prefix, String text)
     {
         String globalId = super.generateUniqueId(prefix, text);
         String localId = this.localIdGenerator.generateUniqueId(prefix, text);
         this.idMap.put(localId, globalId);
+        this.operations.add((idGenerator, ids) -> ids.put(globalId, idGenerator.generateUniqueId(prefix, text)));
         return globalId;
     }
 
@@ -57,6 +68,7 @@ public String generateUniqueId(String prefix, String text)
     public void remove(String globalId)
     {
         super.remove(globalId);
+        this.operations.add((idGenerator, ids) -> idGenerator.remove(ids.getOrDefault(globalId, globalId)));
         this.idMap.entrySet().stream().filter(entry -> Objects.equals(entry.getValue(), globalId)).findFirst()
             .ifPresent(entry -> {
                 String localId = entry.getKey();
@@ -70,6 +82,30 @@ public void reset()
     {
         super.reset();
         resetLocalIds();
+        this.operations.clear();
+    }
+
+    /**
+     * Replay on the given id generator the operations performed by this id generator since it was last reset, which
+     * generates the same IDs as if the document rendered with this id generator was rendered with the given id
+     * generator. Use this to merge, in the order of the documents, the IDs generated while rendering each document
+     * separately into the id generator shared by all the documents included in the PDF export. This id generator is
+     * left untouched.
+     * 
+     * @param idGenerator the id generator where to replay the operations
+     * @return the IDs generated by this id generator that have a different value when generated by the given id
+     *         generator (because they were already used), mapped to their new value
+     * @since 16.2.0RC1
+     */
+    public Map<String, String> replay(PDFExportIdGenerator idGenerator)
+    {
+        Map<String, String> ids = new HashMap<>();
+        this.operations.forEach(operation -> operation.accept(idGenerator, ids));
+        // The replayed IDs are not local IDs of the given id generator.
+        idGenerator.resetLocalIds();
+
+        ids.entrySet().removeIf(entry -> entry.getKey().equals(entry.getValue()));
+        return ids;
     }
 
     /**
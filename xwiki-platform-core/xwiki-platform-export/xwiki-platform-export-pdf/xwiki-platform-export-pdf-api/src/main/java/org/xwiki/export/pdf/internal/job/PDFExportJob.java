@@ -51,9 +51,25 @@
 @Named(PDFExportJob.JOB_TYPE)
 public class PDFExportJob extends AbstractPDFExportJob
 {
+    /**
+     * The name of the phase where the documents are rendered.
+     */
+    private static final String PHASE_RENDER = "render";
+
+    /**
+     * The name of the phase where the rendered documents are printed to PDF (server-side only).
+     */
+    private static final String PHASE_PRINT = "print";
+
     @Inject
     private DocumentRenderer documentRenderer;
 
+    @Inject
+    private IsolatedDocumentRenderer isolatedDocumentRenderer;
+
+    @Inject
+    private DocumentRenderingCache documentRenderingCache;
+
     @Inject
     private RequiredSkinExtensionsRecorder requiredSkinExtensionsRecorder;
 
@@ -79,42 +95,68 @@ protected void runInternal() throws Exception
     {
         if (!this.request.getDocuments().isEmpty()) {
             this.requiredSkinExtensionsRecorder.start();
-            render(this.request.getDocuments());
-            if (!this.status.isCanceled()) {
-                this.status.setRequiredSkinExtensions(this.requiredSkinExtensionsRecorder.stop());
+            long startTime = System.currentTimeMillis();
+            // We use the same rendering parameters for all the documents included in this PDF export.
+            DocumentRendererParameters rendererParameters = getDocumentRendererParameters();
+            try (ParallelDocumentRenderer parallelRenderer = createParallelRenderer(rendererParameters)) {
+                render(this.request.getDocuments(), rendererParameters, parallelRenderer);
+                if (!this.status.isCanceled()) {
+                    String requiredSkinExtensions = this.requiredSkinExtensionsRecorder.stop();
+                    if (parallelRenderer != null) {
+                        requiredSkinExtensions = parallelRenderer.getRequiredSkinExtensions(requiredSkinExtensions);
+                        this.logger.debug("[{}] documents had their identifiers renamed because of collisions.",
+                            parallelRenderer.getRenamedCount());
+                    }
+                    this.status.setRequiredSkinExtensions(requiredSkinExtensions);
+                }
             }
+            this.status.setPhaseDuration(PHASE_RENDER, System.currentTimeMillis() - startTime);
 
             if (this.request.isServerSide() && !this.status.isCanceled()) {
+                startTime = System.currentTimeMillis();
                 saveAsPDF();
+                this.status.setPhaseDuration(PHASE_PRINT, System.currentTimeMillis() - startTime);
                 this.status.getDocumentRenderingResults().clear();
             }
         }
     }
 
-    private void render(List<DocumentReference> documentReferences) throws Exception
+    private ParallelDocumentRenderer createParallelRenderer(DocumentRendererParameters rendererParameters)
+    {
+        int threadCount = this.configuration.getRenderingThreadPoolSize();
+        if (threadCount > 1 || this.documentRenderingCache.isEnabled()) {
+            ParallelDocumentRenderer parallelRenderer =
+                new ParallelDocumentRenderer(this.isolatedDocumentRenderer, rendererParameters, threadCount,
+                    this.request.getContext(), getMaxContentSize(this.request.getDocuments()));
+            parallelRenderer.start(this.request.getDocuments(),
+                documentReference -> hasAccess(Right.VIEW, documentReference));
+            return parallelRenderer;
+        } else {
+            return null;
+        }
+    }
+
+    private void render(List<DocumentReference> documentReferences, DocumentRendererParameters rendererParameters,
+        ParallelDocumentRenderer parallelRenderer) throws Exception
     {
         this.progressManager.pushLevelProgress(documentReferences.size(), this);
 
         try {
-            // We use the same rendering parameters for all the documents included in this PDF export.
-            DocumentRendererParameters rendererParameters = getDocumentRendererParameters();
-
-            // The max content size configuration is expressed in kilobytes (KB), so we approximate the actual limit by
-            // multiplying with 1000 (bytes).
-            int maxContentSize = this.configuration.getMaxContentSize() * 1000;
+            int maxContentSize = getMaxContentSize(documentReferences);
             int contentSize = 0;
-            for (DocumentReference documentReference : documentReferences) {
+            for (int i = 0; i < documentReferences.size(); i++) {
+                DocumentReference documentReference = documentReferences.get(i);
                 if (this.status.isCanceled()) {
                     break;
                 } else {
                     this.progressManager.startStep(this);
                     if (hasAccess(Right.VIEW, documentReference)) {
-                        contentSize += render(documentReference, rendererParameters);
+                        contentSize += render(i, documentReference, rendererParameters, parallelRenderer);
                         // We enforce the maximum content size (if specified) only when multiple pages are exported
                         // because for computing the aggregated table of contents we're currently keeping in memory the
                         // XDOM of each of the included pages which for large exports can take a considerable amount of
                         // memory. See https://jira.xwiki.org/browse/XWIKI-20377 .
-                        if (contentSize > maxContentSize && maxContentSize > 0 && documentReferences.size() > 1) {
+                        if (contentSize > maxContentSize && maxContentSize > 0) {
                             throw new RuntimeException(String.format(
                                 "The content size exceeds the configured %sKB limit."
                                     + " Wiki administrators can increase or disable this limit from the PDF Export "
@@ -131,6 +173,21 @@ private void render(List<DocumentReference> documentReferences) throws Exception
         }
     }
 
+    /**
+     * @return the maximum content size (approximated in bytes) of the given documents, {@code 0} for no limit
+     */
+    private int getMaxContentSize(List<DocumentReference> documentReferences)
+    {
+        // The maximum content size (if specified) is enforced only when multiple pages are exported.
+        if (documentReferences.size() > 1) {
+            // The max content size configuration is expressed in kilobytes (KB), so we approximate the actual limit by
+            // multiplying with 1000 (bytes).
+            return this.configuration.getMaxContentSize() * 1000;
+        } else {
+            return 0;
+        }
+    }
+
     private DocumentRendererParameters getDocumentRendererParameters()
     {
         DocumentRendererParameters rendererParameters =
@@ -143,13 +200,19 @@ private DocumentRendererParameters getDocumentRendererParameters()
         return rendererParameters;
     }
 
-    private int render(DocumentReference documentReference, DocumentRendererParameters rendererParameters)
-        throws Exception
+    private int render(int index, DocumentReference documentReference, DocumentRendererParameters rendererParameters,
+        ParallelDocumentRenderer parallelRenderer) throws Exception
     {
         // TODO: Don't render the same document twice.
         // TODO: Collect the XDOMs only when the table of content is requested.
         // TODO: Keep only the headings in the collected XDOMs in order to reduce the memory footprint.
-        DocumentRenderingResult renderingResult = this.documentRenderer.render(documentReference, rendererParameters);
+        DocumentRenderingResult renderingResult;
+        if (parallelRenderer != null) {
+            // The document was (or is being) rendered in a separate thread.
+            renderingResult = parallelRenderer.render(index, documentReference);
+        } else {
+            renderingResult = this.documentRenderer.render(documentReference, rendererParameters);
+        }
         this.status.getDocumentRenderingResults().add(renderingResult);
 
         // We approximate the size by counting the characters, which take 1 byte most of the time. We don't have to be
@@ -0,0 +1,253 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.export.pdf.internal.job;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.xwiki.export.pdf.job.PDFExportJobStatus.DocumentRenderingResult;
+import org.xwiki.model.reference.DocumentReference;
+
+/**
+ * Renders in parallel the documents included in a PDF export and gives back the rendering results in the order of the
+ * documents. Each document is rendered in its own execution context and with its own id generator. The generated
+ * identifiers are then merged, in the order of the documents, into the id generator shared by all the documents, and
+ * the identifiers that were already generated by a previous document are renamed, so that the result is the same as
+ * when rendering the documents sequentially.
+ * <p>
+ * Only a limited number of documents are rendered ahead of the document being requested, and no more documents are
+ * rendered ahead once the maximum content size is reached.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class ParallelDocumentRenderer implements AutoCloseable
+{
+    private static final String NEW_LINE = "\n";
+
+    private final IsolatedDocumentRenderer isolatedDocumentRenderer;
+
+    private final DocumentRendererParameters parameters;
+
+    private final Map<String, Serializable> context;
+
+    /**
+     * The thread pool used to render the documents, {@code null} if the documents are rendered in the current thread.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The id generator shared by all the documents included in the PDF export.
+     */
+    private final PDFExportIdGenerator idGenerator = new PDFExportIdGenerator();
+
+    private final int threadCount;
+
+    private final int maxContentSize;
+
+    private final List<Future<IsolatedDocumentRendering>> renderings = new ArrayList<>();
+
+    private List<DocumentReference> documentReferences = List.of();
+
+    private Predicate<DocumentReference> filter;
+
+    /**
+     * The size of the HTML of the documents rendered so far, in the order of the documents.
+     */
+    private int contentSize;
+
+    private final Set<String> requiredSkinExtensions = new LinkedHashSet<>();
+
+    private int renamedCount;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param isolatedDocumentRenderer the component used to render each document separately
+     * @param parameters the rendering parameters, shared by all the documents
+     * @param threadCount the number of threads to use, {@code 1} (or less) to render the documents in the current
+     *            thread
+     * @param context the context entries to restore in the rendering threads
+     * @param maxContentSize the size (approximated in bytes) of the rendered content after which no more documents are
+     *            rendered ahead, {@code 0} (or less) for no limit
+     */
+    public ParallelDocumentRenderer(IsolatedDocumentRenderer isolatedDocumentRenderer,
+        DocumentRendererParameters parameters, int threadCount, Map<String, Serializable> context, int maxContentSize)
+    {
+        this.isolatedDocumentRenderer = isolatedDocumentRenderer;
+        this.parameters = parameters;
+        this.context = context;
+        this.threadCount = threadCount;
+        this.maxContentSize = maxContentSize;
+        if (threadCount > 1) {
+            this.executor = Executors.newFixedThreadPool(threadCount, new BasicThreadFactory.Builder()
+                .namingPattern("PDF Export Rendering Thread %d").daemon(true).build());
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Start rendering the specified documents.
+     * 
+     * @param documentReferences the documents to render, in the order they are included in the PDF export
+     * @param filter the documents that can be rendered (e.g. that the user is allowed to view)
+     */
+    public void start(List<DocumentReference> documentReferences, Predicate<DocumentReference> filter)
+    {
+        this.documentReferences = documentReferences;
+        this.filter = filter;
+
+        renderAhead(0);
+    }
+
+    /**
+     * Start rendering the documents following the requested one, up to twice the number of threads ahead.
+     */
+    private void renderAhead(int index)
+    {
+        while (this.executor != null && this.renderings.size() < this.documentReferences.size()
+            && this.renderings.size() < index + this.threadCount * 2
+            && (this.maxContentSize <= 0 || this.contentSize <= this.maxContentSize)) {
+            DocumentReference documentReference = this.documentReferences.get(this.renderings.size());
+            Future<IsolatedDocumentRendering> rendering = null;
+            if (this.filter.test(documentReference)) {
+                rendering = this.executor.submit(() -> this.isolatedDocumentRenderer
+                    .renderInNewContext(documentReference, this.parameters, this.context));
+            }
+            this.renderings.add(rendering);
+        }
+    }
+
+    /**
+     * Waits for the specified document to be rendered. The documents must be requested in order.
+     * 
+     * @param index the index of the document in the list passed to {@link #start(List, Predicate)}
+     * @param documentReference the document to render
+     * @return the rendering result
+     * @throws Exception if rendering the specified document fails
+     */
+    public DocumentRenderingResult render(int index, DocumentReference documentReference) throws Exception
+    {
+        IsolatedDocumentRendering rendering = getIsolatedRendering(index, documentReference);
+
+        addRequiredSkinExtensions(rendering.getRequiredSkinExtensions());
+
+        DocumentRenderingResult result = rendering.getResult();
+        Map<String, String> renamedIds = rendering.getIdGenerator().replay(this.idGenerator);
+        if (!renamedIds.isEmpty()) {
+            // Some of the identifiers generated for this document were already generated for the previous documents.
+            this.renamedCount++;
+
+            result = this.isolatedDocumentRenderer.renameIds(result, renamedIds);
+        }
+
+        this.contentSize += result.getHTML().length();
+        renderAhead(index + 1);
+
+        return result;
+    }
+
+    private IsolatedDocumentRendering getIsolatedRendering(int index, DocumentReference documentReference)
+        throws Exception
+    {
+        Future<IsolatedDocumentRendering> future = index < this.renderings.size() ? this.renderings.get(index) : null;
+        if (future == null) {
+            // Render in the current thread.
+            future = CompletableFuture
+                .completedFuture(this.isolatedDocumentRenderer.render(documentReference, this.parameters));
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    private void addRequiredSkinExtensions(String html)
+    {
+        addLines(html, this.requiredSkinExtensions);
+    }
+
+    private static void addLines(String html, Set<String> lines)
+    {
+        if (StringUtils.isNotBlank(html)) {
+            for (String line : html.split(NEW_LINE)) {
+                if (StringUtils.isNotBlank(line)) {
+                    lines.add(line.trim());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param currentThreadSkinExtensions the skin extensions required by the documents rendered by the current thread
+     * @return the HTML that needs to be placed in the page head in order to pull the skin extensions required by all
+     *         the rendered documents
+     */
+    public String getRequiredSkinExtensions(String currentThreadSkinExtensions)
+    {
+        if (this.requiredSkinExtensions.isEmpty()) {
+            return currentThreadSkinExtensions;
+        }
+
+        // The same skin extension can be required by documents rendered in different threads.
+        Set<String> lines = new LinkedHashSet<>();
+        addLines(currentThreadSkinExtensions, lines);
+        lines.addAll(this.requiredSkinExtensions);
+
+        return StringUtils.join(lines, NEW_LINE);
+    }
+
+    /**
+     * @return the number of documents whose identifiers had to be renamed because they were colliding with those of
+     *         the previous documents
+     */
+    public int getRenamedCount()
+    {
+        return this.renamedCount;
+    }
+
+    @Override
+    public void close()
+    {
+        if (this.executor != null) {
+            // Stop the rendering of the remaining documents, if any (e.g. when the PDF export is canceled).
+            this.executor.shutdownNow();
+        }
+    }
+}
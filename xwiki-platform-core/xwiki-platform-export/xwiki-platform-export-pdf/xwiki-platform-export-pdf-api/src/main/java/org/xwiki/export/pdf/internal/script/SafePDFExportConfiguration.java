@@ -129,4 +129,16 @@ public boolean isReplacingFOP()
     {
         return getWrapped().isReplacingFOP();
     }
+
+    @Override
+    public int getRenderingThreadPoolSize()
+    {
+        return getWrapped().getRenderingThreadPoolSize();
+    }
+
+    @Override
+    public int getRenderingCacheSize()
+    {
+        return getWrapped().getRenderingCacheSize();
+    }
 }
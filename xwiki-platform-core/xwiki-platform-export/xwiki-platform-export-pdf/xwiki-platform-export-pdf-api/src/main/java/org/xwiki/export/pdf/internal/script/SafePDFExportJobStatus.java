@@ -21,6 +21,7 @@
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.xwiki.export.pdf.job.PDFExportJobStatus;
@@ -112,6 +113,15 @@ public TemporaryResourceReference getPDFFileReference()
         }
     }
 
+    /**
+     * @return the time spent in each phase of the PDF export, in milliseconds
+     * @since 16.2.0RC1
+     */
+    public Map<String, Long> getPhaseDurations()
+    {
+        return getWrapped().getPhaseDurations();
+    }
+
     @Override
     public void cancel()
     {
@@ -21,6 +21,7 @@
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,7 @@
 import org.xwiki.observation.ObservationManager;
 import org.xwiki.rendering.block.XDOM;
 import org.xwiki.resource.temporary.TemporaryResourceReference;
+import org.xwiki.stability.Unstable;
 
 /**
  * The status of the PDF export job.
@@ -140,6 +142,8 @@ public Map<String, String> getIdMap()
 
     private String requiredSkinExtensions;
 
+    private final Map<String, Long> phaseDurations = new LinkedHashMap<>();
+
     /**
      * Create a new PDF export job status.
      * 
@@ -198,4 +202,28 @@ public void setRequiredSkinExtensions(String requiredSkinExtensions)
     {
         this.requiredSkinExtensions = requiredSkinExtensions;
     }
+
+    /**
+     * @return the time spent in each phase of the PDF export (e.g. {@code render}, {@code print}), in milliseconds, in
+     *         the order in which the phases were executed
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    public Map<String, Long> getPhaseDurations()
+    {
+        return Collections.unmodifiableMap(this.phaseDurations);
+    }
+
+    /**
+     * Sets the time spent in a phase of the PDF export.
+     * 
+     * @param phase the phase name
+     * @param duration the time spent in the specified phase, in milliseconds
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    public void setPhaseDuration(String phase, long duration)
+    {
+        this.phaseDurations.put(phase, duration);
+    }
 }
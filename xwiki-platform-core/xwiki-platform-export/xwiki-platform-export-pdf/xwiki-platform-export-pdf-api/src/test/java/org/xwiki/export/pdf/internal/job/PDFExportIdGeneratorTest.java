@@ -79,4 +79,38 @@ void removeAndReset()
         expectedIdMap.put("ICarol", "ICarol");
         assertEquals(expectedIdMap, this.idGenerator.resetLocalIds());
     }
+
+    @Test
+    void replay()
+    {
+        PDFExportIdGenerator first = new PDFExportIdGenerator();
+        first.generateUniqueId("H", "Title");
+        first.generateUniqueId("Alice");
+        first.remove("IAlice");
+
+        assertEquals(Map.of(), first.replay(this.idGenerator));
+        // The replayed IDs are not local IDs.
+        assertEquals(new HashMap<>(), this.idGenerator.resetLocalIds());
+
+        // The second document generates the same IDs as the first document, plus one that has been removed.
+        PDFExportIdGenerator second = new PDFExportIdGenerator();
+        second.generateUniqueId("Bob");
+        second.generateUniqueId("H", "Title");
+        second.generateUniqueId("Alice");
+        second.generateUniqueId("H", "Title");
+        second.remove("HTitle");
+
+        // Only the IDs already used by the first document are renamed, as if the documents were rendered sequentially.
+        Map<String, String> expectedRenamedIds = new HashMap<>();
+        expectedRenamedIds.put("HTitle", "HTitle-1");
+        expectedRenamedIds.put("HTitle-1", "HTitle-2");
+        assertEquals(expectedRenamedIds, second.replay(this.idGenerator));
+
+        // The renamed "HTitle" has been removed.
+        assertEquals("HTitle-1", this.idGenerator.generateUniqueId("H", "Title"));
+        assertEquals("IBob-1", this.idGenerator.generateUniqueId("Bob"));
+
+        // The replayed id generator is left untouched ("HTitle" was removed from it).
+        assertEquals("HTitle", second.generateUniqueId("H", "Title"));
+    }
 }
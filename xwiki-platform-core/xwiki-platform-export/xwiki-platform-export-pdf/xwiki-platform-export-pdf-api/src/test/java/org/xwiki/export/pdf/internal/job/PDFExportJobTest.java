@@ -22,6 +22,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -35,6 +36,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Named;
 
@@ -80,6 +82,9 @@
     @MockComponent
     private RequiredSkinExtensionsRecorder requiredSkinExtensionsRecorder;
 
+    @MockComponent
+    private IsolatedDocumentRenderer isolatedDocumentRenderer;
+
     @MockComponent
     @Named("chrome")
     private PDFPrinter<URL> pdfPrinter;
@@ -277,4 +282,44 @@ void runWithoutMaxContentSizeLimit() throws Exception
         PDFExportJobStatus jobStatus = this.pdfExportJob.getStatus();
         assertEquals(1000, jobStatus.getDocumentRenderingResults().get(1).getHTML().length());
     }
+
+    @Test
+    void runWithParallelRendering() throws Exception
+    {
+        when(this.configuration.getRenderingThreadPoolSize()).thenReturn(2);
+        when(this.requiredSkinExtensionsRecorder.stop()).thenReturn("<link first/>");
+
+        PDFExportIdGenerator firstIdGenerator = new PDFExportIdGenerator();
+        firstIdGenerator.generateUniqueId("H", "Title");
+        when(this.isolatedDocumentRenderer.renderInNewContext(this.firstPageReference, this.rendererParameters,
+            this.request.getContext()))
+                .thenReturn(new IsolatedDocumentRendering(this.firstPageRendering, firstIdGenerator, "<link first/>"));
+
+        // The second page generates an identifier that is already used by the first page so it has to be renamed.
+        PDFExportIdGenerator secondIdGenerator = new PDFExportIdGenerator();
+        secondIdGenerator.generateUniqueId("H", "Title");
+        DocumentRenderingResult isolatedSecondPageRendering = new DocumentRenderingResult(this.secondPageReference,
+            new XDOM(Collections.singletonList(new WordBlock("second"))), "isolated second HTML");
+        when(this.isolatedDocumentRenderer.renderInNewContext(this.secondPageReference, this.rendererParameters,
+            this.request.getContext()))
+                .thenReturn(new IsolatedDocumentRendering(isolatedSecondPageRendering, secondIdGenerator,
+                    "<link second/>"));
+        when(this.isolatedDocumentRenderer.renameIds(isolatedSecondPageRendering, Map.of("HTitle", "HTitle-1")))
+            .thenReturn(this.secondPageRendering);
+
+        this.pdfExportJob.initialize(this.request);
+        this.pdfExportJob.runInternal();
+
+        PDFExportJobStatus jobStatus = this.pdfExportJob.getStatus();
+        List<DocumentRenderingResult> renderingResults = jobStatus.getDocumentRenderingResults();
+        assertEquals(2, renderingResults.size());
+        assertSame(this.firstPageRendering, renderingResults.get(0));
+        assertSame(this.secondPageRendering, renderingResults.get(1));
+
+        assertEquals("<link first/>\n<link second/>", jobStatus.getRequiredSkinExtensions());
+        assertTrue(jobStatus.getPhaseDurations().containsKey("render"));
+
+        verify(this.documentRenderer, never()).render(any(), any());
+        verify(this.documentRenderer, never()).render(any(), any(), any());
+    }
 }
@@ -0,0 +1,220 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.export.pdf.internal.job;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.inject.Named;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.export.pdf.internal.RequiredSkinExtensionsRecorder;
+import org.xwiki.export.pdf.job.PDFExportJobStatus.DocumentRenderingResult;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.rendering.block.Block;
+import org.xwiki.rendering.block.HeaderBlock;
+import org.xwiki.rendering.block.LinkBlock;
+import org.xwiki.rendering.block.WordBlock;
+import org.xwiki.rendering.block.XDOM;
+import org.xwiki.rendering.listener.HeaderLevel;
+import org.xwiki.rendering.listener.reference.DocumentResourceReference;
+import org.xwiki.rendering.renderer.BlockRenderer;
+import org.xwiki.rendering.renderer.printer.WikiPrinter;
+import org.xwiki.rendering.syntax.Syntax;
+import org.xwiki.rendering.transformation.RenderingContext;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ParallelDocumentRenderer}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+class ParallelDocumentRendererTest
+{
+    private IsolatedDocumentRenderer isolatedDocumentRenderer = mock(IsolatedDocumentRenderer.class);
+
+    private DocumentRendererParameters parameters = new DocumentRendererParameters();
+
+    private Map<String, Serializable> context = Collections.emptyMap();
+
+    @InjectMockComponents
+    private IsolatedDocumentRenderer realIsolatedDocumentRenderer;
+
+    @MockComponent
+    private DocumentRenderer documentRenderer;
+
+    @MockComponent
+    private RequiredSkinExtensionsRecorder requiredSkinExtensionsRecorder;
+
+    @MockComponent
+    private DocumentRenderingCache cache;
+
+    @MockComponent
+    private RenderingContext renderingContext;
+
+    @MockComponent
+    @Named("context")
+    private ComponentManager contextComponentManager;
+
+    @Test
+    void renderStopsRenderingAheadWhenMaxContentSizeIsReached() throws Exception
+    {
+        List<DocumentReference> documentReferences = new ArrayList<>();
+        List<DocumentRenderingResult> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            DocumentReference documentReference = new DocumentReference("test", "Space", "Page" + i);
+            documentReferences.add(documentReference);
+            DocumentRenderingResult result =
+                new DocumentRenderingResult(documentReference, new XDOM(Collections.emptyList()), "HTML " + i);
+            results.add(result);
+            PDFExportIdGenerator idGenerator = new PDFExportIdGenerator();
+            idGenerator.generateUniqueId("H", "Page" + i);
+            IsolatedDocumentRendering rendering = new IsolatedDocumentRendering(result, idGenerator, "");
+            when(this.isolatedDocumentRenderer.renderInNewContext(documentReference, this.parameters, this.context))
+                .thenReturn(rendering);
+            when(this.isolatedDocumentRenderer.render(documentReference, this.parameters)).thenReturn(rendering);
+        }
+
+        // The content of the first document is enough to reach the limit.
+        try (ParallelDocumentRenderer renderer =
+            new ParallelDocumentRenderer(this.isolatedDocumentRenderer, this.parameters, 2, this.context, 5)) {
+            renderer.start(documentReferences, documentReference -> true);
+
+            for (int i = 0; i < documentReferences.size(); i++) {
+                assertSame(results.get(i), renderer.render(i, documentReferences.get(i)));
+            }
+
+            assertEquals(0, renderer.getRenamedCount());
+        }
+
+        // Only the documents rendered ahead before reaching the limit (twice the number of threads) were rendered in
+        // separate threads.
+        for (int i = 0; i < 4; i++) {
+            verify(this.isolatedDocumentRenderer).renderInNewContext(documentReferences.get(i), this.parameters,
+                this.context);
+        }
+        for (int i = 4; i < documentReferences.size(); i++) {
+            verify(this.isolatedDocumentRenderer, never()).renderInNewContext(documentReferences.get(i),
+                this.parameters, this.context);
+        }
+        verify(this.isolatedDocumentRenderer, never()).renameIds(any(), any());
+    }
+
+    @Test
+    void renderGeneratesTheSameIdentifiersAsSequentialRendering() throws Exception
+    {
+        when(this.renderingContext.getTargetSyntax()).thenReturn(Syntax.XHTML_1_0);
+        BlockRenderer blockRenderer = mock(BlockRenderer.class);
+        when(this.contextComponentManager.getInstance(BlockRenderer.class, Syntax.XHTML_1_0.toIdString()))
+            .thenReturn(blockRenderer);
+        doAnswer(invocation -> {
+            invocation.<WikiPrinter>getArgument(1).print(print(invocation.getArgument(0)));
+            return null;
+        }).when(blockRenderer).render(any(Block.class), any(WikiPrinter.class));
+        when(this.documentRenderer.render(any(), eq(this.parameters), any())).then(
+            invocation -> renderDocument(invocation.getArgument(0), invocation.getArgument(2)));
+
+        List<DocumentReference> documentReferences = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            documentReferences.add(new DocumentReference("test", "Space", "Page" + i));
+        }
+
+        // Render the documents sequentially, with the same id generator.
+        PDFExportIdGenerator idGenerator = new PDFExportIdGenerator();
+        List<DocumentRenderingResult> expectedResults = new ArrayList<>();
+        for (DocumentReference documentReference : documentReferences) {
+            expectedResults.add(renderDocument(documentReference, idGenerator));
+        }
+
+        try (ParallelDocumentRenderer renderer = new ParallelDocumentRenderer(this.realIsolatedDocumentRenderer,
+            this.parameters, 2, this.context, 0)) {
+            renderer.start(documentReferences, documentReference -> true);
+
+            for (int i = 0; i < documentReferences.size(); i++) {
+                DocumentRenderingResult result = renderer.render(i, documentReferences.get(i));
+                DocumentRenderingResult expectedResult = expectedResults.get(i);
+
+                assertEquals(print(expectedResult.getXDOM()), print(result.getXDOM()));
+                assertEquals(expectedResult.getHTML(), result.getHTML());
+                assertEquals(expectedResult.getIdMap(), result.getIdMap());
+            }
+
+            // All the documents but the first one have the same headings.
+            assertEquals(2, renderer.getRenamedCount());
+        }
+
+        assertEquals("H:HIntroduction-2 L:HIntroduction-2 H:HUsage-2 L:HIntroduction-2",
+            expectedResults.get(2).getHTML());
+    }
+
+    /**
+     * Renders a document with two headings, each followed by a link to the first heading.
+     */
+    private DocumentRenderingResult renderDocument(DocumentReference documentReference,
+        PDFExportIdGenerator idGenerator)
+    {
+        List<Block> blocks = new ArrayList<>();
+        String firstId = null;
+        for (String heading : List.of("Introduction", "Usage")) {
+            String id = idGenerator.generateUniqueId("H", heading);
+            firstId = firstId == null ? id : firstId;
+            blocks.add(new HeaderBlock(List.of(new WordBlock(heading)), HeaderLevel.LEVEL1, id));
+            DocumentResourceReference reference = new DocumentResourceReference("");
+            reference.setAnchor(firstId);
+            blocks.add(new LinkBlock(List.of(), reference, false));
+        }
+        XDOM xdom = new XDOM(blocks);
+
+        return new DocumentRenderingResult(documentReference, xdom, print(xdom), idGenerator.resetLocalIds());
+    }
+
+    /**
+     * @return the identifiers of the headings and the anchors of the links
+     */
+    private String print(Block xdom)
+    {
+        return xdom.getBlocks(block -> block instanceof HeaderBlock || block instanceof LinkBlock,
+            Block.Axes.DESCENDANT).stream().map(block -> {
+                if (block instanceof HeaderBlock) {
+                    return "H:" + ((HeaderBlock) block).getId();
+                } else {
+                    return "L:" + ((LinkBlock) block).getReference().getParameter(DocumentResourceReference.ANCHOR);
+                }
+            }).collect(Collectors.joining(" "));
+    }
+}
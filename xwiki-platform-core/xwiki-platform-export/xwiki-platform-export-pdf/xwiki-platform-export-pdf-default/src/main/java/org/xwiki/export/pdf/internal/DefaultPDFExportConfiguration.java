@@ -151,6 +151,22 @@ public int getThreadPoolSize()
             PDFExportConfiguration.super.getThreadPoolSize());
     }
 
+    @Override
+    public int getRenderingThreadPoolSize()
+    {
+        // The rendering threads are not a content related setting so we read it only from xwiki.properties file.
+        return this.xwikiProperties.getProperty("export.pdf.renderingThreadPoolSize",
+            PDFExportConfiguration.super.getRenderingThreadPoolSize());
+    }
+
+    @Override
+    public int getRenderingCacheSize()
+    {
+        // The cache size cannot be modified once set so we read it only from xwiki.properties file.
+        return this.xwikiProperties.getProperty("export.pdf.renderingCacheSize",
+            PDFExportConfiguration.super.getRenderingCacheSize());
+    }
+
     @Override
     public boolean isReplacingFOP()
     {
@@ -20,9 +20,12 @@
 package org.xwiki.export.pdf.internal;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -34,6 +37,8 @@
 
 import com.xpn.xwiki.XWikiContext;
 import com.xpn.xwiki.api.Api;
+import com.xpn.xwiki.internal.cache.rendering.RenderingCacheAware;
+import com.xpn.xwiki.plugin.XWikiPluginInterface;
 import com.xpn.xwiki.plugin.skinx.SkinExtensionPluginApi;
 
 /**
@@ -52,6 +57,11 @@ public class DefaultRequiredSkinExtensionsRecorder implements RequiredSkinExtens
 
     private final Map<String, String> requiredSkinExtensionsMap = new LinkedHashMap<>();
 
+    /**
+     * The skin extensions that were required before the isolated recording started, per skin extension plugin.
+     */
+    private final Map<String, Set<String>> previousPulledResources = new HashMap<>();
+
     @Inject
     private Provider<XWikiContext> xcontextProvider;
 
@@ -64,6 +74,21 @@ public void start()
         }
     }
 
+    @Override
+    public void startIsolated()
+    {
+        this.previousPulledResources.clear();
+        for (String pluginName : SKIN_EXTENSION_PLUGINS) {
+            Set<String> pulledResources = getPulledResources(pluginName);
+            if (pulledResources != null) {
+                this.previousPulledResources.put(pluginName, new LinkedHashSet<>(pulledResources));
+                pulledResources.clear();
+            }
+        }
+
+        start();
+    }
+
     @Override
     public String stop()
     {
@@ -72,9 +97,37 @@ public String stop()
             requiredSkinExtensions
                 .append(StringUtils.removeStart(getImportString(entry.getKey()), entry.getValue()).trim());
         }
+
+        // Require again the skin extensions that were required before the isolated recording, in the same order.
+        for (Map.Entry<String, Set<String>> entry : this.previousPulledResources.entrySet()) {
+            Set<String> pulledResources = getPulledResources(entry.getKey());
+            if (pulledResources != null) {
+                Set<String> allPulledResources = entry.getValue();
+                allPulledResources.addAll(pulledResources);
+                pulledResources.clear();
+                pulledResources.addAll(allPulledResources);
+            }
+        }
+        this.previousPulledResources.clear();
+
         return requiredSkinExtensions.toString();
     }
 
+    /**
+     * @return the (modifiable) skin extensions pulled by the specified plugin in the current context, {@code null} if
+     *         the plugin is not available
+     */
+    private Set<String> getPulledResources(String skinExtensionPluginName)
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+        XWikiPluginInterface plugin = xcontext.getWiki().getPluginManager().getPlugin(skinExtensionPluginName);
+        if (plugin instanceof RenderingCacheAware) {
+            return ((RenderingCacheAware) plugin).getCacheResources(xcontext).resources;
+        } else {
+            return null;
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private String getImportString(String skinExtensionPluginName)
     {
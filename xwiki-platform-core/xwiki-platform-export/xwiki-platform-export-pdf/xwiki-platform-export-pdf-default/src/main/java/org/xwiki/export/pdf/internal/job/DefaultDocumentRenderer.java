@@ -85,6 +85,13 @@ public class DefaultDocumentRenderer implements DocumentRenderer
     @Override
     public DocumentRenderingResult render(DocumentReference documentReference,
         DocumentRendererParameters rendererParameters) throws Exception
+    {
+        return render(documentReference, rendererParameters, this.idGenerator);
+    }
+
+    @Override
+    public DocumentRenderingResult render(DocumentReference documentReference,
+        DocumentRendererParameters rendererParameters, PDFExportIdGenerator idGenerator) throws Exception
     {
         Syntax targetSyntax = this.renderingContext.getTargetSyntax();
 
@@ -99,11 +106,11 @@ public DocumentRenderingResult render(DocumentReference documentReference,
         // Use the same id generator while rendering all the documents included in a PDF export in order to ensure that
         // the generated identifiers are unique across the aggregated content (as if all the exported documents are
         // included in the same parent document).
-        displayerParameters.setIdGenerator(this.idGenerator);
+        displayerParameters.setIdGenerator(idGenerator);
 
         XDOM xdom = display(getDocument(documentReference), displayerParameters, rendererParameters);
         String html = renderXDOM(xdom, targetSyntax);
-        return new DocumentRenderingResult(documentReference, xdom, html, this.idGenerator.resetLocalIds());
+        return new DocumentRenderingResult(documentReference, xdom, html, idGenerator.resetLocalIds());
     }
 
     private XWikiDocument getDocument(DocumentReference documentReference) throws Exception
@@ -0,0 +1,174 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.export.pdf.internal.job;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.export.pdf.PDFExportConfiguration;
+import org.xwiki.export.pdf.job.PDFExportJobStatus.DocumentRenderingResult;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.rendering.block.XDOM;
+import org.xwiki.rendering.transformation.RenderingContext;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+
+/**
+ * Default implementation of {@link DocumentRenderingCache}. The cache key is made of the document reference, locale and
+ * version, the current user, the target syntax and the rendering parameters.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Singleton
+public class DefaultDocumentRenderingCache implements DocumentRenderingCache, Initializable, Disposable
+{
+    private static final char SEPARATOR = '|';
+
+    @Inject
+    private PDFExportConfiguration configuration;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private Provider<XWikiContext> xcontextProvider;
+
+    @Inject
+    private RenderingContext renderingContext;
+
+    @Inject
+    @Named("uid")
+    private EntityReferenceSerializer<String> uidSerializer;
+
+    private Cache<IsolatedDocumentRendering> cache;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        int cacheSize = this.configuration.getRenderingCacheSize();
+        if (cacheSize > 0) {
+            try {
+                this.cache = this.cacheManager
+                    .createNewCache(new LRUCacheConfiguration("export.pdf.rendering", cacheSize));
+            } catch (CacheException e) {
+                throw new InitializationException("Failed to create the PDF export rendering cache.", e);
+            }
+        }
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        if (this.cache != null) {
+            this.cache.dispose();
+        }
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return this.cache != null;
+    }
+
+    @Override
+    public IsolatedDocumentRendering get(DocumentReference documentReference, DocumentRendererParameters parameters)
+        throws Exception
+    {
+        String key = getKey(documentReference, parameters);
+        IsolatedDocumentRendering rendering = key != null ? this.cache.get(key) : null;
+
+        return rendering != null ? copy(rendering) : null;
+    }
+
+    @Override
+    public void set(DocumentReference documentReference, DocumentRendererParameters parameters,
+        IsolatedDocumentRendering rendering) throws Exception
+    {
+        String key = getKey(documentReference, parameters);
+        if (key != null) {
+            // Don't share the XDOM with the PDF export that produced it.
+            this.cache.set(key, copy(rendering));
+        }
+    }
+
+    private IsolatedDocumentRendering copy(IsolatedDocumentRendering rendering)
+    {
+        // The XDOM is mutable (e.g. the identifiers can be renamed, the table of contents aggregates the XDOMs) so each
+        // PDF export needs its own copy. The id generator is only read when merging the identifiers.
+        DocumentRenderingResult result = rendering.getResult();
+        XDOM xdom = result.getXDOM() != null ? result.getXDOM().clone() : null;
+        return new IsolatedDocumentRendering(
+            new DocumentRenderingResult(result.getDocumentReference(), xdom, result.getHTML(), result.getIdMap()),
+            rendering.getIdGenerator(), rendering.getRequiredSkinExtensions());
+    }
+
+    private String getKey(DocumentReference documentReference, DocumentRendererParameters parameters)
+        throws Exception
+    {
+        if (this.cache == null) {
+            return null;
+        }
+
+        XWikiDocument document = getDocument(documentReference);
+        if (document.isNew()) {
+            return null;
+        }
+
+        XWikiContext xcontext = this.xcontextProvider.get();
+        DocumentReference userReference = xcontext.getUserReference();
+
+        StringBuilder key = new StringBuilder();
+        key.append(this.uidSerializer.serialize(document.getDocumentReferenceWithLocale()));
+        key.append(SEPARATOR).append(document.getVersion());
+        key.append(SEPARATOR).append(userReference != null ? this.uidSerializer.serialize(userReference) : "");
+        key.append(SEPARATOR).append(this.renderingContext.getTargetSyntax());
+        key.append(SEPARATOR).append(parameters);
+
+        return key.toString();
+    }
+
+    private XWikiDocument getDocument(DocumentReference documentReference) throws Exception
+    {
+        // Same as DefaultDocumentRenderer: the current document is rendered as found in the XWiki context (e.g. the
+        // user might be looking at a document revision).
+        XWikiContext xcontext = this.xcontextProvider.get();
+        XWikiDocument currentDocument = xcontext.getDoc();
+        if (currentDocument != null && documentReference.equals(currentDocument.getDocumentReference())) {
+            return currentDocument;
+        } else {
+            return xcontext.getWiki().getDocument(documentReference, xcontext).getTranslatedDocument(xcontext);
+        }
+    }
+}
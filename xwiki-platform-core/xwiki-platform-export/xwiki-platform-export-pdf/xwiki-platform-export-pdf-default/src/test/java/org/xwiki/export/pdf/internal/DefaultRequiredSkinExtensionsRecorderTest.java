@@ -19,6 +19,11 @@
  */
 package org.xwiki.export.pdf.internal;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import javax.inject.Provider;
 
 import org.junit.jupiter.api.Test;
@@ -28,9 +33,13 @@
 
 import com.xpn.xwiki.XWiki;
 import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.internal.cache.rendering.CachedItem.UsedExtension;
+import com.xpn.xwiki.plugin.XWikiPluginManager;
+import com.xpn.xwiki.plugin.skinx.AbstractSkinExtensionPlugin;
 import com.xpn.xwiki.plugin.skinx.SkinExtensionPluginApi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -65,4 +74,35 @@ void startStop()
 
         assertEquals("after", this.recorder.stop());
     }
+
+    @Test
+    void startIsolatedStop()
+    {
+        XWikiContext xcontext = mock(XWikiContext.class);
+        when(this.xcontextProvider.get()).thenReturn(xcontext);
+
+        XWiki xwiki = mock(XWiki.class);
+        when(xcontext.getWiki()).thenReturn(xwiki);
+
+        // The "a" and "b" extensions were required before the recording started.
+        Set<String> pulledResources = new LinkedHashSet<>(List.of("a", "b"));
+        AbstractSkinExtensionPlugin jsxPlugin = mock(AbstractSkinExtensionPlugin.class);
+        when(jsxPlugin.getCacheResources(any())).thenReturn(new UsedExtension(pulledResources, Map.of()));
+        XWikiPluginManager pluginManager = mock(XWikiPluginManager.class);
+        when(xwiki.getPluginManager()).thenReturn(pluginManager);
+        when(pluginManager.getPlugin("jsx")).thenReturn(jsxPlugin);
+
+        SkinExtensionPluginApi jsx = mock(SkinExtensionPluginApi.class, "jsx");
+        when(xwiki.getPluginApi("jsx", xcontext)).thenReturn(jsx);
+        when(jsx.getImportString()).then(invocation -> "always " + String.join(" ", pulledResources));
+
+        this.recorder.startIsolated();
+
+        // "b" is required again and "c" is new.
+        pulledResources.add("b");
+        pulledResources.add("c");
+
+        assertEquals("b c", this.recorder.stop());
+        assertEquals(List.of("a", "b", "c"), List.copyOf(pulledResources));
+    }
 }
@@ -55,6 +55,9 @@ public class AttachmentsTreeNode extends AbstractDocumentTreeNode
     @Inject
     private Provider<XWikiContext> xcontextProvider;
 
+    @Inject
+    private ChildCountCache childCountCache;
+
     /**
      * Default constructor.
      */
@@ -91,9 +94,10 @@ protected int getChildCount(DocumentReference documentReference) throws Exceptio
             count++;
         }
 
-        XWikiContext xcontext = this.xcontextProvider.get();
-        XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
-        count += document.getAttachmentList().size();
+        count += this.childCountCache.getCount(documentReference, "attachments", () -> {
+            XWikiContext xcontext = this.xcontextProvider.get();
+            return xcontext.getWiki().getDocument(documentReference, xcontext).getAttachmentList().size();
+        });
 
         return count;
     }
@@ -0,0 +1,199 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.index.tree.internal.nestedpages;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentDeletedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.bridge.event.WikiDeletedEvent;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.observation.event.Event;
+
+import com.xpn.xwiki.doc.XWikiDocument;
+
+/**
+ * Keep in memory the number of children of the nested pages tree nodes (child pages of a space, attachments, objects,
+ * translations and class properties of a document) so that expanding a node doesn't require to load each child
+ * document or to count its children again.
+ * <p>
+ * The counts are computed lazily and removed from the cache when a document is created, modified or deleted: the
+ * counts of the document itself are always removed while the child page counts of its ancestor spaces are removed only
+ * when the document is created, deleted or its hidden flag changes.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = ChildCountCache.class)
+@Singleton
+public class ChildCountCache implements Initializable, Disposable
+{
+    private static final int SIZE = 10000;
+
+    private static final List<Event> EVENTS = Arrays.asList(new DocumentCreatedEvent(), new DocumentUpdatedEvent(),
+        new DocumentDeletedEvent(), new WikiDeletedEvent());
+
+    /**
+     * Count the children of a node.
+     *
+     * @param <E> the type of exception thrown when failing to count the children
+     * @version $Id$
+     */
+    @FunctionalInterface
+    public interface Counter<E extends Exception>
+    {
+        /**
+         * @return the number of children
+         * @throws E when failing to count the children
+         */
+        int count() throws E;
+    }
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private ObservationManager observation;
+
+    @Inject
+    private EntityReferenceSerializer<String> serializer;
+
+    /**
+     * The counts associated with each entity, indexed by the type of children.
+     */
+    private Cache<Map<String, Integer>> cache;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        try {
+            this.cache = this.cacheManager.createNewCache(new LRUCacheConfiguration("index.tree.childCount", SIZE));
+        } catch (CacheException e) {
+            throw new InitializationException("Failed to create the tree child count cache", e);
+        }
+
+        this.observation.addListener(new EventListener()
+        {
+            @Override
+            public void onEvent(Event event, Object source, Object data)
+            {
+                if (event instanceof WikiDeletedEvent) {
+                    cache.removeAll();
+                } else {
+                    invalidate(event, (XWikiDocument) source);
+                }
+            }
+
+            @Override
+            public String getName()
+            {
+                return ChildCountCache.class.getName();
+            }
+
+            @Override
+            public List<Event> getEvents()
+            {
+                return EVENTS;
+            }
+        });
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.observation.removeListener(ChildCountCache.class.getName());
+        this.cache.dispose();
+    }
+
+    /**
+     * @param <E> the type of exception thrown when failing to count the children
+     * @param reference the entity whose children are counted
+     * @param type the type of children that are counted, including any option that has an impact on the count
+     * @param counter used to count the children when the count is not cached
+     * @return the number of children
+     * @throws E when failing to count the children
+     */
+    public <E extends Exception> int getCount(EntityReference reference, String type, Counter<E> counter) throws E
+    {
+        String key = getKey(reference);
+
+        Map<String, Integer> counts = this.cache.get(key);
+        if (counts == null) {
+            counts = new ConcurrentHashMap<>();
+            this.cache.set(key, counts);
+        } else {
+            Integer count = counts.get(type);
+            if (count != null) {
+                return count;
+            }
+        }
+
+        int count = counter.count();
+
+        // Don't keep a count which might have been computed before the entity was invalidated.
+        if (this.cache.get(key) == counts) {
+            counts.put(type, count);
+        }
+
+        return count;
+    }
+
+    private void invalidate(Event event, XWikiDocument document)
+    {
+        DocumentReference documentReference = document.getDocumentReference();
+
+        this.cache.remove(getKey(documentReference));
+
+        // The number of child pages changes only when a page is added or removed or when its visibility changes.
+        if (!(event instanceof DocumentUpdatedEvent) || document.getOriginalDocument() == null
+            || document.isHidden() != document.getOriginalDocument().isHidden()) {
+            for (EntityReference parent = documentReference.getParent(); parent != null; parent =
+                parent.getParent()) {
+                this.cache.remove(getKey(parent));
+            }
+        }
+    }
+
+    private String getKey(EntityReference reference)
+    {
+        // The serialized reference doesn't contain the locale so all the translations of a document share the same
+        // counts.
+        return reference.getType().name() + ':' + this.serializer.serialize(reference);
+    }
+}
@@ -51,6 +51,9 @@ public class ClassPropertiesTreeNode extends AbstractDocumentTreeNode
     @Inject
     private Provider<XWikiContext> xcontextProvider;
 
+    @Inject
+    private ChildCountCache childCountCache;
+
     /**
      * Default constructor.
      */
@@ -76,8 +79,10 @@ protected List<String> getChildren(DocumentReference documentReference, int offs
     @Override
     protected int getChildCount(DocumentReference documentReference) throws Exception
     {
-        XWikiContext xcontext = this.xcontextProvider.get();
-        XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
-        return document.getXClass().getPropertyList().size();
+        return this.childCountCache.getCount(documentReference, "classProperties", () -> {
+            XWikiContext xcontext = this.xcontextProvider.get();
+            XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
+            return document.getXClass().getPropertyList().size();
+        });
     }
 }
@@ -103,6 +103,9 @@ public class DocumentTreeNode extends AbstractDocumentTreeNode implements Initia
     @Named("documentReferenceResolver/nestedPages")
     private QueryFilter documentReferenceResolverFilter;
 
+    @Inject
+    private ChildCountCache childCountCache;
+
     /**
      * We use a {@link LinkedHashMap} because the order of the key is important.
      */
@@ -256,9 +259,17 @@ protected int getChildDocumentsCount(DocumentReference documentReference) throws
             return 0;
         }
 
-        int count = getChildSpacesCount(documentReference);
+        EntityReference spaceReference = documentReference.getParent();
+        // The cached counts don't take into account the exclusions.
+        boolean cacheable =
+            getExcludedSpaces(spaceReference).isEmpty() && getExcludedDocuments(spaceReference).isEmpty();
+        String countSuffix = areHiddenEntitiesShown() ? "" : "/withoutHidden";
+
+        int count = cacheable ? this.childCountCache.getCount(spaceReference, "childSpaces" + countSuffix,
+            () -> getChildSpacesCount(documentReference)) : getChildSpacesCount(documentReference);
         if (areTerminalDocumentsShown()) {
-            count += getChildTerminalPagesCount(documentReference);
+            count += cacheable ? this.childCountCache.getCount(spaceReference, "childTerminalPages" + countSuffix,
+                () -> getChildTerminalPagesCount(documentReference)) : getChildTerminalPagesCount(documentReference);
         }
         return count;
     }
@@ -50,6 +50,9 @@ public class ObjectsTreeNode extends AbstractDocumentTreeNode
     @Inject
     private Provider<XWikiContext> xcontextProvider;
 
+    @Inject
+    private ChildCountCache childCountCache;
+
     /**
      * Default constructor.
      */
@@ -79,8 +82,10 @@ protected List<String> getChildren(DocumentReference documentReference, int offs
     @Override
     protected int getChildCount(DocumentReference documentReference) throws Exception
     {
-        XWikiContext xcontext = this.xcontextProvider.get();
-        XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
-        return document.getXObjects().size();
+        return this.childCountCache.getCount(documentReference, "objects", () -> {
+            XWikiContext xcontext = this.xcontextProvider.get();
+            XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
+            return document.getXObjects().size();
+        });
     }
 }
@@ -50,6 +50,9 @@ public class TranslationsTreeNode extends AbstractDocumentTreeNode
     @Inject
     private Provider<XWikiContext> xcontextProvider;
 
+    @Inject
+    private ChildCountCache childCountCache;
+
     /**
      * Default constructor.
      */
@@ -75,8 +78,10 @@ protected List<String> getChildren(DocumentReference documentReference, int offs
     @Override
     protected int getChildCount(DocumentReference documentReference) throws Exception
     {
-        XWikiContext xcontext = this.xcontextProvider.get();
-        XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
-        return document.getTranslationLocales(xcontext).size();
+        return this.childCountCache.getCount(documentReference, "translations", () -> {
+            XWikiContext xcontext = this.xcontextProvider.get();
+            XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
+            return document.getTranslationLocales(xcontext).size();
+        });
     }
 }
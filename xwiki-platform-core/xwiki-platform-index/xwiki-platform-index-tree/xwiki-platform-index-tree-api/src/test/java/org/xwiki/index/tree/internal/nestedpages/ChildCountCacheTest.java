@@ -0,0 +1,172 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.index.tree.internal.nestedpages;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.test.annotation.BeforeComponent;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import com.xpn.xwiki.doc.XWikiDocument;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ChildCountCache}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class ChildCountCacheTest
+{
+    private static final DocumentReference DOCUMENT =
+        new DocumentReference("wiki", Arrays.asList("Path", "To"), "Page");
+
+    @MockComponent
+    private CacheManager cacheManager;
+
+    @MockComponent
+    private ObservationManager observation;
+
+    @MockComponent
+    private EntityReferenceSerializer<String> serializer;
+
+    @InjectMockComponents
+    private ChildCountCache childCountCache;
+
+    private final Map<String, Object> cacheMap = new HashMap<>();
+
+    private final AtomicInteger counts = new AtomicInteger();
+
+    private EventListener listener;
+
+    @BeforeComponent
+    void beforeComponent() throws Exception
+    {
+        Cache<Object> cache = mock();
+        when(cache.get(any())).then(invocation -> this.cacheMap.get(invocation.getArgument(0)));
+        doAnswer(invocation -> this.cacheMap.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache)
+            .set(any(), any());
+        doAnswer(invocation -> this.cacheMap.remove(invocation.getArgument(0))).when(cache).remove(any());
+        when(this.cacheManager.createNewCache(any())).thenReturn(cache);
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        when(this.serializer.serialize(any())).then(invocation -> invocation.getArgument(0).toString());
+
+        ArgumentCaptor<EventListener> listenerCaptor = ArgumentCaptor.forClass(EventListener.class);
+        verify(this.observation).addListener(listenerCaptor.capture());
+        this.listener = listenerCaptor.getValue();
+    }
+
+    private int count(EntityReference reference, String type)
+    {
+        return this.childCountCache.getCount(reference, type, this.counts::incrementAndGet);
+    }
+
+    private XWikiDocument mockDocument(boolean hidden, boolean previouslyHidden)
+    {
+        XWikiDocument document = mock();
+        when(document.getDocumentReference()).thenReturn(DOCUMENT);
+        when(document.isHidden()).thenReturn(hidden);
+        XWikiDocument originalDocument = mock();
+        when(originalDocument.isHidden()).thenReturn(previouslyHidden);
+        when(document.getOriginalDocument()).thenReturn(originalDocument);
+        return document;
+    }
+
+    @Test
+    void getCount()
+    {
+        assertEquals(1, count(DOCUMENT, "attachments"));
+        assertEquals(1, count(DOCUMENT, "attachments"));
+        assertEquals(2, count(DOCUMENT, "objects"));
+        assertEquals(3, count(DOCUMENT.getParent(), "childSpaces"));
+        assertEquals(3, count(DOCUMENT.getParent(), "childSpaces"));
+        assertEquals(2, count(DOCUMENT, "objects"));
+    }
+
+    @Test
+    void documentUpdated()
+    {
+        assertEquals(1, count(DOCUMENT, "attachments"));
+        assertEquals(2, count(DOCUMENT.getParent(), "childSpaces"));
+
+        this.listener.onEvent(new DocumentUpdatedEvent(), mockDocument(false, false), null);
+
+        assertEquals(3, count(DOCUMENT, "attachments"));
+        assertEquals(2, count(DOCUMENT.getParent(), "childSpaces"));
+
+        this.listener.onEvent(new DocumentUpdatedEvent(), mockDocument(true, false), null);
+
+        assertEquals(4, count(DOCUMENT, "attachments"));
+        assertEquals(5, count(DOCUMENT.getParent(), "childSpaces"));
+    }
+
+    @Test
+    void documentCreated()
+    {
+        assertEquals(1, count(DOCUMENT.getParent(), "childTerminalPages"));
+        assertEquals(2, count(DOCUMENT.getParent().getParent(), "childSpaces"));
+        assertEquals(3, count(DOCUMENT.getWikiReference(), "childSpaces"));
+
+        this.listener.onEvent(new DocumentCreatedEvent(), mockDocument(false, false), null);
+
+        assertEquals(4, count(DOCUMENT.getParent(), "childTerminalPages"));
+        assertEquals(5, count(DOCUMENT.getParent().getParent(), "childSpaces"));
+        assertEquals(6, count(DOCUMENT.getWikiReference(), "childSpaces"));
+    }
+
+    @Test
+    void invalidatedWhileCounting()
+    {
+        assertEquals(1, this.childCountCache.getCount(DOCUMENT, "objects", () -> {
+            this.listener.onEvent(new DocumentUpdatedEvent(), mockDocument(false, false), null);
+            return this.counts.incrementAndGet();
+        }));
+
+        assertEquals(2, count(DOCUMENT, "objects"));
+        assertEquals(2, count(DOCUMENT, "objects"));
+    }
+}
@@ -55,6 +55,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -131,6 +132,9 @@
     @Named("test")
     private TreeFilter filter;
 
+    @MockComponent
+    private ChildCountCache childCountCache;
+
     private DocumentReference documentReference =
         new DocumentReference("wiki", Arrays.asList("Path", "To", "Page"), "WebHome");
 
@@ -358,6 +362,19 @@ public void getChildCount() throws Exception
         assertEquals(2L, this.documentTreeNode.getChildCount("document:wiki:Path.To.Page.WebHome"));
     }
 
+    @Test
+    public void getCachedChildCount() throws Exception
+    {
+        when(this.childCountCache.getCount(eq(this.documentReference.getParent()), eq("childSpaces"), any()))
+            .thenReturn(2);
+        when(this.childCountCache.getCount(eq(this.documentReference.getParent()), eq("childTerminalPages"), any()))
+            .thenReturn(3);
+
+        assertEquals(5L, this.documentTreeNode.getChildCount("document:wiki:Path.To.Page.WebHome"));
+
+        verify(this.queryManager, never()).createQuery(any(), any());
+    }
+
     @Test
     public void getPseudoChildCount()
     {
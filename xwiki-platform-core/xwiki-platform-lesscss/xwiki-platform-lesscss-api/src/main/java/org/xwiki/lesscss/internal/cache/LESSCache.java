@@ -42,6 +42,21 @@
      */
     T get(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorTheme);
 
+    /**
+     * Get the last object that was cached for the name of the LESS source, the skin and the name of the color theme
+     * before it was cleared. Such an object is outdated but can be served while the up-to-date object is computed.
+     *
+     * @param lessResourceReference reference of the code to compile
+     * @param skin reference of the skin
+     * @param colorTheme reference of the color theme
+     * @return the outdated object, or {@code null} if there is none
+     * @since 16.2.0RC1
+     */
+    default T getStale(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorTheme)
+    {
+        return null;
+    }
+
     /**
      * Add an object in the cache.
      *
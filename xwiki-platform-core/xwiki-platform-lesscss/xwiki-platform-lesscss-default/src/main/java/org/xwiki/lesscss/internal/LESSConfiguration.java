@@ -56,4 +56,34 @@ public boolean isGenerateInlineSourceMaps()
     {
         return configurationSource.getProperty(CONFIGURATION_PREFIX + "generateInlineSourceMaps", false);
     }
+
+    /**
+     * @return whether the outdated compilation results should be served while they are recompiled in the background,
+     *         instead of making the requests wait for the new compilation
+     * @since 16.2.0RC1
+     */
+    public boolean isBackgroundCompilationEnabled()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "backgroundCompilation.enabled", false);
+    }
+
+    /**
+     * @return whether the LESS resources should be compiled in the background for all the color themes of the wiki
+     *         the first time they are compiled for one of them
+     * @since 16.2.0RC1
+     */
+    public boolean isColorThemesWarmUpEnabled()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "backgroundCompilation.warmUp", true);
+    }
+
+    /**
+     * @return whether the compiled CSS should be stored on disk, to be served (and recompiled in the background) after
+     *         a restart
+     * @since 16.2.0RC1
+     */
+    public boolean isPersistentCacheEnabled()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "backgroundCompilation.persistent", true);
+    }
 }
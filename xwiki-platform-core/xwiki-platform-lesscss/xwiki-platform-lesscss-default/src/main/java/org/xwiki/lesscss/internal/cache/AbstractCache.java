@@ -20,7 +20,9 @@
 package org.xwiki.lesscss.internal.cache;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +30,7 @@
 
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheManager;
+import org.xwiki.lesscss.internal.LESSConfiguration;
 import org.xwiki.lesscss.internal.colortheme.ColorThemeReference;
 import org.xwiki.lesscss.resources.LESSResourceReference;
 import org.xwiki.lesscss.internal.skin.SkinReference;
@@ -42,9 +45,17 @@
  */
 public abstract class AbstractCache<T> implements LESSCache<T>
 {
+    /**
+     * The maximum number of stale entries kept while they are recompiled in the background.
+     */
+    private static final int MAX_STALE_ENTRIES = 100;
+
     @Inject
     protected CacheManager cacheManager;
 
+    @Inject
+    protected LESSConfiguration lessConfiguration;
+
     /**
      * Whether or not the cache should handle the current XWikiContext object (true by default).
      */
@@ -73,6 +84,20 @@
      */
     private Map<Object, List<String>> cachedFilesKeysMapPerLESSResource = new HashMap<>();
 
+    /**
+     * This map stores the content removed from the cache when the background compilation is enabled, in order to serve
+     * it while the up-to-date content is computed. The least recently used entries are dropped when the map is full.
+     */
+    private Map<String, T> staleContent =
+        Collections.synchronizedMap(new LinkedHashMap<>(MAX_STALE_ENTRIES, 0.75F, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest)
+            {
+                return size() > MAX_STALE_ENTRIES;
+            }
+        });
+
     @Inject
     private CacheKeyFactory cacheKeyFactory;
 
@@ -81,7 +106,26 @@
     @Override
     public T get(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorTheme)
     {
-        return cache.get(cacheKeyFactory.getCacheKey(lessResourceReference, skin, colorTheme, isContextHandled));
+        return cache.get(getCacheKey(lessResourceReference, skin, colorTheme));
+    }
+
+    @Override
+    public T getStale(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorTheme)
+    {
+        return staleContent.get(getCacheKey(lessResourceReference, skin, colorTheme));
+    }
+
+    /**
+     * @param lessResourceReference reference of the code to compile
+     * @param skin reference of the skin
+     * @param colorTheme reference of the color theme
+     * @return the key of the corresponding cache entry
+     * @since 16.2.0RC1
+     */
+    protected String getCacheKey(LESSResourceReference lessResourceReference, SkinReference skin,
+        ColorThemeReference colorTheme)
+    {
+        return cacheKeyFactory.getCacheKey(lessResourceReference, skin, colorTheme, isContextHandled);
     }
 
     @Override
@@ -89,8 +133,9 @@ public void set(LESSResourceReference lessResourceReference, SkinReference skin,
         ColorThemeReference colorTheme, T content)
     {
         // Store the content in the cache
-        String cacheKey = cacheKeyFactory.getCacheKey(lessResourceReference, skin, colorTheme, isContextHandled);
+        String cacheKey = getCacheKey(lessResourceReference, skin, colorTheme);
         cache.set(cacheKey, content);
+        staleContent.remove(cacheKey);
 
         // Add the new key to maps
         registerCacheKey(cachedFilesKeysMapPerSkin, cacheKey, skin);
@@ -122,6 +167,12 @@ private void registerCacheKey(Map<Object, List<String>> cachedFilesKeysMap, Stri
     @Override
     public void clear()
     {
+        for (List<String> cachedFilesKeys : cachedFilesKeysMapPerSkin.values()) {
+            cachedFilesKeys.forEach(this::keepStaleContent);
+        }
+        if (!lessConfiguration.isBackgroundCompilationEnabled()) {
+            staleContent.clear();
+        }
         cache.removeAll();
         cachedFilesKeysMapPerSkin.clear();
         cachedFilesKeysMapPerColorTheme.clear();
@@ -137,12 +188,26 @@ private void clearFromCriteria(Map<Object, List<String>> cachedFilesKeysMap, Obj
         }
         // Remove all the cached files corresponding to the cached keys
         for (String cachedFileKey : cachedFilesKeys) {
+            keepStaleContent(cachedFileKey);
             cache.remove(cachedFileKey);
         }
         // Remove the list of cached keys corresponding to the criteria
         cachedFilesKeysMap.remove(criteria);
     }
 
+    private void keepStaleContent(String cacheKey)
+    {
+        // Keep the removed content to serve it while it's recompiled in the background
+        if (lessConfiguration.isBackgroundCompilationEnabled()) {
+            T content = cache.get(cacheKey);
+            if (content != null) {
+                staleContent.put(cacheKey, content);
+            }
+        } else {
+            staleContent.remove(cacheKey);
+        }
+    }
+
     @Override
     public void clearFromSkin(SkinReference skin)
     {
@@ -166,7 +231,7 @@ public synchronized Object getMutex(LESSResourceReference lessResourceReference,
         ColorThemeReference colorTheme)
     {
         // The mutex is a string (actually the cache key) to help debugging.
-        String cacheKey = cacheKeyFactory.getCacheKey(lessResourceReference, skin, colorTheme, isContextHandled);
+        String cacheKey = getCacheKey(lessResourceReference, skin, colorTheme);
         String mutex = mutexList.get(cacheKey);
         if (mutex == null) {
             // the mutex is the key, so no extra memory is needed
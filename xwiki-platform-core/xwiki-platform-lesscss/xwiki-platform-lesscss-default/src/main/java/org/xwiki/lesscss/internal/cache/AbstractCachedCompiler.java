@@ -67,6 +67,9 @@
     @Inject
     protected Logger logger;
 
+    @Inject
+    protected BackgroundCompiler backgroundCompiler;
+
     /**
      * Get the result of the compilation.
      * @param lessResourceReference reference to the LESS content
@@ -110,6 +113,17 @@ public T getResult(LESSResourceReference lessResourceReference, boolean includeS
         ColorThemeReference colorThemeReference = colorThemeReferenceFactory.createReference(
                 currentColorThemeGetter.getCurrentColorTheme(true, "default"));
 
+        boolean backgroundCompilation = backgroundCompiler.isEnabled() && !lessContext.isHtmlExport();
+
+        // Serve the outdated result, if any, instead of waiting for the new one which is compiled in the background
+        if (!force && backgroundCompilation) {
+            result = getCachedOrStaleResult(lessResourceReference, includeSkinStyle, useVelocity, skin,
+                skinReference, colorThemeReference);
+            if (result != null) {
+                return cloneResult(result);
+            }
+        }
+
         // Only one computation is allowed in the same time per color theme, then the waiting threads will be able to
         // use the last result stored in the cache.
         Object mutex = cache.getMutex(lessResourceReference, skinReference, colorThemeReference);
@@ -146,9 +160,34 @@ public T getResult(LESSResourceReference lessResourceReference, boolean includeS
             }
         }
 
+        // Compile the resource for the other color themes too, so that switching the color theme doesn't block
+        if (backgroundCompilation) {
+            String warmUpKey = String.format("%s/%s/%s/%s", getClass().getName(), lessResourceReference.serialize(),
+                skinReference.serialize(), xcontextProvider.get().getWikiId());
+            backgroundCompiler.warmUp(warmUpKey,
+                () -> getResult(lessResourceReference, includeSkinStyle, useVelocity, skin, false));
+        }
+
         return cloneResult(result);
     }
 
+    private T getCachedOrStaleResult(LESSResourceReference lessResourceReference, boolean includeSkinStyle,
+        boolean useVelocity, String skin, SkinReference skinReference, ColorThemeReference colorThemeReference)
+    {
+        T result = cache.get(lessResourceReference, skinReference, colorThemeReference);
+        if (result == null) {
+            result = cache.getStale(lessResourceReference, skinReference, colorThemeReference);
+            if (result != null) {
+                String key = String.format("%s/%s/%s/%s", getClass().getName(), lessResourceReference.serialize(),
+                    skinReference.serialize(), colorThemeReference.serialize());
+                backgroundCompiler.compile(key,
+                    () -> getResult(lessResourceReference, includeSkinStyle, useVelocity, skin, true));
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Returns a clone of the result to avoid returning the instance stored in the cache. Need to be implemented by
      * subclasses.
@@ -0,0 +1,260 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.lesscss.internal.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.context.concurrent.ContextStoreManager;
+import org.xwiki.lesscss.internal.LESSConfiguration;
+import org.xwiki.query.Query;
+import org.xwiki.query.QueryException;
+import org.xwiki.query.QueryManager;
+import org.xwiki.wiki.descriptor.WikiDescriptorManager;
+
+import com.xpn.xwiki.internal.context.XWikiContextContextStore;
+
+/**
+ * Execute the LESS compilations which should not block the current request: the recompilation of the outdated results
+ * which are served in the meantime, and the compilation of a LESS resource for all the color themes of the wiki. The
+ * compilations are executed one by one by a dedicated thread, in a context similar to the one of the request which
+ * triggered them.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = BackgroundCompiler.class)
+@Singleton
+public class BackgroundCompiler implements Initializable, Disposable
+{
+    /**
+     * A compilation to execute in the background.
+     *
+     * @version $Id$
+     */
+    @FunctionalInterface
+    public interface BackgroundCompilation
+    {
+        /**
+         * Execute the compilation (and cache its result).
+         *
+         * @throws Exception when failing to compile
+         */
+        void compile() throws Exception;
+    }
+
+    private static final String COLOR_THEME_PARAMETER = "colorTheme";
+
+    private static final List<String> CONTEXT_ENTRIES = List.of(XWikiContextContextStore.PROP_WIKI,
+        XWikiContextContextStore.PROP_USER, XWikiContextContextStore.PROP_LOCALE,
+        XWikiContextContextStore.PROP_REQUEST_URL, XWikiContextContextStore.PROP_REQUEST_PARAMETERS);
+
+    private static final String COLOR_THEMES_QUERY =
+        "select distinct obj.name from BaseObject obj where obj.className in (:classes)";
+
+    private static final List<String> COLOR_THEME_CLASSES =
+        List.of("ColorThemes.ColorThemeClass", "FlamingoThemesCode.ThemeClass");
+
+    @Inject
+    private LESSConfiguration configuration;
+
+    @Inject
+    private ContextStoreManager contextStoreManager;
+
+    @Inject
+    private ExecutionContextManager executionContextManager;
+
+    @Inject
+    private Execution execution;
+
+    @Inject
+    private QueryManager queryManager;
+
+    @Inject
+    private WikiDescriptorManager wikiDescriptorManager;
+
+    @Inject
+    private Logger logger;
+
+    private ExecutorService executor;
+
+    private boolean warmUpEnabled;
+
+    /**
+     * The keys of the compilations which are waiting to be executed, to avoid executing the same compilation several
+     * times when it's requested by concurrent requests.
+     */
+    private final Set<String> pendingCompilations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The keys of the resources which have already been compiled for all the color themes.
+     */
+    private final Set<String> warmedUpResources = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        if (this.configuration.isBackgroundCompilationEnabled()) {
+            this.executor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("LESS Background Compilation Thread").daemon(true).priority(Thread.MIN_PRIORITY)
+                .build());
+            this.warmUpEnabled = this.configuration.isColorThemesWarmUpEnabled();
+        }
+    }
+
+    /**
+     * @return {@code true} if the outdated compilation results should be served while they are recompiled in the
+     *         background
+     */
+    public boolean isEnabled()
+    {
+        return this.executor != null;
+    }
+
+    /**
+     * Execute the passed compilation in the background, in a context similar to the current one. Nothing is done if
+     * a compilation with the same key is already waiting to be executed.
+     *
+     * @param key the key identifying the compilation
+     * @param compilation the compilation to execute
+     */
+    public void compile(String key, BackgroundCompilation compilation)
+    {
+        if (isEnabled() && this.pendingCompilations.add(key)) {
+            Map<String, Serializable> context = saveContext();
+            if (context != null) {
+                submit(key, context, compilation);
+            } else {
+                this.pendingCompilations.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Execute the passed compilation in the background for each color theme of the current wiki, in a context similar
+     * to the current one. Nothing is done if it was already done for the same key since the startup.
+     *
+     * @param key the key identifying the compiled resource
+     * @param compilation the compilation to execute for each color theme, which takes the color theme from the
+     *            context
+     */
+    public void warmUp(String key, BackgroundCompilation compilation)
+    {
+        if (!isEnabled() || !this.warmUpEnabled || !this.warmedUpResources.add(key)) {
+            return;
+        }
+
+        Map<String, Serializable> context = saveContext();
+        if (context == null) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, String[]> parameters = (Map<String, String[]>) context
+            .getOrDefault(XWikiContextContextStore.PROP_REQUEST_PARAMETERS, new LinkedHashMap<String, String[]>());
+        for (String colorTheme : getColorThemes()) {
+            String compilationKey = key + '/' + colorTheme;
+            if (this.pendingCompilations.add(compilationKey)) {
+                Map<String, String[]> colorThemeParameters = new LinkedHashMap<>(parameters);
+                colorThemeParameters.put(COLOR_THEME_PARAMETER, new String[] {colorTheme});
+                Map<String, Serializable> colorThemeContext = new HashMap<>(context);
+                colorThemeContext.put(XWikiContextContextStore.PROP_REQUEST_PARAMETERS,
+                    (Serializable) colorThemeParameters);
+
+                submit(compilationKey, colorThemeContext, compilation);
+            }
+        }
+    }
+
+    private List<String> getColorThemes()
+    {
+        try {
+            return this.queryManager.createQuery(COLOR_THEMES_QUERY, Query.HQL)
+                .setWiki(this.wikiDescriptorManager.getCurrentWikiId()).bindValue("classes", COLOR_THEME_CLASSES)
+                .execute();
+        } catch (QueryException e) {
+            this.logger.warn("Failed to get the color themes of the current wiki. Root cause is [{}].",
+                ExceptionUtils.getRootCauseMessage(e));
+
+            return Collections.emptyList();
+        }
+    }
+
+    private Map<String, Serializable> saveContext()
+    {
+        try {
+            return this.contextStoreManager.save(CONTEXT_ENTRIES);
+        } catch (ComponentLookupException e) {
+            this.logger.warn("Failed to save the context of the LESS compilation. Root cause is [{}].",
+                ExceptionUtils.getRootCauseMessage(e));
+
+            return null;
+        }
+    }
+
+    private void submit(String key, Map<String, Serializable> context, BackgroundCompilation compilation)
+    {
+        this.executor.execute(() -> {
+            try {
+                this.executionContextManager.initialize(new ExecutionContext());
+                this.contextStoreManager.restore(context);
+
+                compilation.compile();
+            } catch (Exception e) {
+                this.logger.warn("Failed to execute the background LESS compilation [{}]. Root cause is [{}].", key,
+                    ExceptionUtils.getRootCauseMessage(e));
+            } finally {
+                this.execution.removeContext();
+                this.pendingCompilations.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+}
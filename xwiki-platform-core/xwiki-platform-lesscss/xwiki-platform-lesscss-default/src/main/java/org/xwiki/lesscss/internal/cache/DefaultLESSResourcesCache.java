@@ -19,9 +19,20 @@
  */
 package org.xwiki.lesscss.internal.cache;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
 import org.xwiki.cache.CacheException;
 import org.xwiki.cache.CacheFactory;
 import org.xwiki.cache.CacheManager;
@@ -30,6 +41,10 @@
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.phase.Initializable;
 import org.xwiki.component.phase.InitializationException;
+import org.xwiki.environment.Environment;
+import org.xwiki.lesscss.internal.colortheme.ColorThemeReference;
+import org.xwiki.lesscss.internal.skin.SkinReference;
+import org.xwiki.lesscss.resources.LESSResourceReference;
 
 /**
  * Default implementation for {@link org.xwiki.lesscss.internal.cache.LESSResourcesCache}.
@@ -46,9 +61,22 @@ public class DefaultLESSResourcesCache extends AbstractCache<String> implements
      */
     public static final String LESS_FILES_CACHE_ID = "lesscss.skinfiles.cache";
 
+    private static final String PERSISTENT_DIRECTORY = "cache/lesscss";
+
     @Inject
     private CacheManager cacheManager;
 
+    @Inject
+    private Environment environment;
+
+    @Inject
+    private Logger logger;
+
+    /**
+     * The directory where the generated CSS is stored when the persistent cache is enabled, {@code null} otherwise.
+     */
+    private File persistentDirectory;
+
     @Override
     public void initialize() throws InitializationException
     {
@@ -60,5 +88,77 @@ public void initialize() throws InitializationException
             throw new InitializationException(
                     String.format("Failed to initialize LESS skin files cache [%s].", LESS_FILES_CACHE_ID), e);
         }
+
+        // The stored CSS might be outdated so it can only be served while it's recompiled in the background
+        if (lessConfiguration.isBackgroundCompilationEnabled() && lessConfiguration.isPersistentCacheEnabled()) {
+            this.persistentDirectory = new File(environment.getPermanentDirectory(), PERSISTENT_DIRECTORY);
+        }
+    }
+
+    @Override
+    public void set(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorTheme,
+        String content)
+    {
+        super.set(lessResourceReference, skin, colorTheme, content);
+
+        if (this.persistentDirectory != null) {
+            store(getCacheKey(lessResourceReference, skin, colorTheme), content);
+        }
+    }
+
+    @Override
+    public String getStale(LESSResourceReference lessResourceReference, SkinReference skin,
+        ColorThemeReference colorTheme)
+    {
+        String content = super.getStale(lessResourceReference, skin, colorTheme);
+
+        // Fallback on the CSS stored before the restart
+        if (content == null && this.persistentDirectory != null) {
+            content = load(getCacheKey(lessResourceReference, skin, colorTheme));
+        }
+
+        return content;
+    }
+
+    private File getPersistentFile(String cacheKey)
+    {
+        return new File(this.persistentDirectory, DigestUtils.sha256Hex(cacheKey) + ".css");
+    }
+
+    private void store(String cacheKey, String content)
+    {
+        File file = getPersistentFile(cacheKey);
+        Path temporaryFile = null;
+        try {
+            // Write a temporary file first to not expose a partially written file. Each writer gets its own temporary
+            // file, in the same directory so that it can be moved atomically.
+            Files.createDirectories(this.persistentDirectory.toPath());
+            temporaryFile = Files.createTempFile(this.persistentDirectory.toPath(), file.getName(), ".tmp");
+            Files.writeString(temporaryFile, content, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.logger.warn("Failed to store the compiled LESS resource in [{}]. Root cause is [{}].", file,
+                ExceptionUtils.getRootCauseMessage(e));
+
+            if (temporaryFile != null) {
+                FileUtils.deleteQuietly(temporaryFile.toFile());
+            }
+        }
+    }
+
+    private String load(String cacheKey)
+    {
+        File file = getPersistentFile(cacheKey);
+        if (file.exists()) {
+            try {
+                return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                this.logger.warn("Failed to load the compiled LESS resource from [{}]. Root cause is [{}].", file,
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        return null;
     }
 }
@@ -25,6 +25,8 @@
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
 import org.xwiki.test.junit5.mockito.MockComponent;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -55,4 +57,18 @@ public void generateSourceMaps() throws Exception
         lessConfiguration.isGenerateInlineSourceMaps();
         verify(configurationSource).getProperty("lesscss.generateInlineSourceMaps", false);
     }
+
+    @Test
+    void backgroundCompilation()
+    {
+        assertFalse(lessConfiguration.isBackgroundCompilationEnabled());
+        when(configurationSource.getProperty("lesscss.backgroundCompilation.enabled", false)).thenReturn(true);
+        assertTrue(lessConfiguration.isBackgroundCompilationEnabled());
+
+        when(configurationSource.getProperty("lesscss.backgroundCompilation.warmUp", true)).thenReturn(true);
+        assertTrue(lessConfiguration.isColorThemesWarmUpEnabled());
+
+        when(configurationSource.getProperty("lesscss.backgroundCompilation.persistent", true)).thenReturn(false);
+        assertFalse(lessConfiguration.isPersistentCacheEnabled());
+    }
 }
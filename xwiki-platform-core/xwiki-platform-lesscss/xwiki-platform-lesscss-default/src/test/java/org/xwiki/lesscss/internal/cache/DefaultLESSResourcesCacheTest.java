@@ -26,12 +26,14 @@
 import org.xwiki.cache.CacheFactory;
 import org.xwiki.cache.CacheManager;
 import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.lesscss.internal.LESSConfiguration;
 import org.xwiki.lesscss.internal.colortheme.NamedColorThemeReference;
 import org.xwiki.lesscss.internal.resources.LESSSkinFileResourceReference;
 import org.xwiki.lesscss.internal.skin.FSSkinReference;
 import org.xwiki.test.mockito.MockitoComponentMockingRule;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -218,4 +220,62 @@ public void clearFromLESSResource() throws Exception
         verify(cache, never()).remove("k3");
     }
 
+
+    @Test
+    public void getStaleWhenBackgroundCompilationEnabled() throws Exception
+    {
+        // Mocks
+        LESSConfiguration lessConfiguration = mocker.getInstance(LESSConfiguration.class);
+        when(lessConfiguration.isBackgroundCompilationEnabled()).thenReturn(true);
+        LESSSkinFileResourceReference file1 = createLESSSkinFileResourceReference("file1");
+        FSSkinReference skin = new FSSkinReference("skin");
+        NamedColorThemeReference colorTheme = new NamedColorThemeReference("colorTheme");
+        when(cacheKeyFactory.getCacheKey(eq(file1), eq(skin), eq(colorTheme), eq(true))).thenReturn("k1");
+        when(cache.get("k1")).thenReturn("css1");
+
+        mocker.getComponentUnderTest().set(file1, skin, colorTheme, "css1");
+        assertNull(mocker.getComponentUnderTest().getStale(file1, skin, colorTheme));
+
+        // Test
+        mocker.getComponentUnderTest().clearFromSkin(skin);
+
+        // Verify
+        verify(cache).remove("k1");
+        assertEquals("css1", mocker.getComponentUnderTest().getStale(file1, skin, colorTheme));
+
+        // The stale content is forgotten as soon as the up-to-date content is cached
+        mocker.getComponentUnderTest().set(file1, skin, colorTheme, "css2");
+        assertNull(mocker.getComponentUnderTest().getStale(file1, skin, colorTheme));
+    }
+
+    @Test
+    public void getStaleIsBounded() throws Exception
+    {
+        // Mocks
+        LESSConfiguration lessConfiguration = mocker.getInstance(LESSConfiguration.class);
+        when(lessConfiguration.isBackgroundCompilationEnabled()).thenReturn(true);
+        FSSkinReference skin = new FSSkinReference("skin");
+        NamedColorThemeReference colorTheme = new NamedColorThemeReference("colorTheme");
+        for (int i = 0; i <= 100; i++) {
+            LESSSkinFileResourceReference file = createLESSSkinFileResourceReference("file" + i);
+            when(cacheKeyFactory.getCacheKey(eq(file), eq(skin), eq(colorTheme), eq(true))).thenReturn("k" + i);
+            when(cache.get("k" + i)).thenReturn("css" + i);
+            mocker.getComponentUnderTest().set(file, skin, colorTheme, "css" + i);
+        }
+
+        // Test
+        mocker.getComponentUnderTest().clearFromSkin(skin);
+
+        // Verify: only the most recent stale entries are kept
+        assertNull(mocker.getComponentUnderTest().getStale(createLESSSkinFileResourceReference("file0"), skin,
+            colorTheme));
+        assertEquals("css100", mocker.getComponentUnderTest().getStale(createLESSSkinFileResourceReference("file100"),
+            skin, colorTheme));
+
+        // The stale entries are dropped when the background compilation is disabled
+        when(lessConfiguration.isBackgroundCompilationEnabled()).thenReturn(false);
+        mocker.getComponentUnderTest().clear();
+        assertNull(mocker.getComponentUnderTest().getStale(createLESSSkinFileResourceReference("file100"), skin,
+            colorTheme));
+    }
 }
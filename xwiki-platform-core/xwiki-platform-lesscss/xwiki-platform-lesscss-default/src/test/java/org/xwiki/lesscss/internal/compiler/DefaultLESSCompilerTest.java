@@ -27,6 +27,7 @@
 import org.junit.Test;
 import org.xwiki.lesscss.compiler.LESSCompilerException;
 import org.xwiki.lesscss.internal.LESSContext;
+import org.xwiki.lesscss.internal.cache.BackgroundCompiler;
 import org.xwiki.lesscss.internal.cache.LESSResourcesCache;
 import org.xwiki.lesscss.internal.colortheme.ColorThemeReference;
 import org.xwiki.lesscss.internal.colortheme.ColorThemeReferenceFactory;
@@ -76,6 +77,8 @@
 
     private LESSContext lessContext;
 
+    private BackgroundCompiler backgroundCompiler;
+
     private XWikiContext xcontext;
 
     private XWiki xwiki;
@@ -95,6 +98,7 @@ public void setUp() throws Exception
         skinReferenceFactory = mocker.getInstance(SkinReferenceFactory.class);
         colorThemeReferenceFactory = mocker.getInstance(ColorThemeReferenceFactory.class);
         lessContext = mocker.getInstance(LESSContext.class);
+        backgroundCompiler = mocker.getInstance(BackgroundCompiler.class);
         xcontextProvider = mocker.registerMockComponent(XWikiContext.TYPE_PROVIDER);
         xcontext = mock(XWikiContext.class);
         when(xcontextProvider.get()).thenReturn(xcontext);
@@ -217,4 +221,42 @@ public void compileWhenError() throws Exception
                 eq(lessResourceReference), eq(expectedException));
     }
 
+    @Test
+    public void compileWhenStaleAndBackgroundCompilation() throws Exception
+    {
+        // Mocks
+        when(backgroundCompiler.isEnabled()).thenReturn(true);
+        when(cache.getStale(eq(lessResourceReference), eq(skinReference), eq(colorThemeReference)))
+            .thenReturn("stale output");
+
+        // Test
+        assertEquals("stale output",
+                mocker.getComponentUnderTest().compile(lessResourceReference, false, false, false));
+
+        // Verify that the compilation is done in the background
+        verify(backgroundCompiler).compile(any(), any());
+        verify(cachedLESSCompiler, never()).compute(any(LESSResourceReference.class), anyBoolean(), anyBoolean(),
+                anyBoolean(), any());
+        verify(cache, never()).set(any(LESSResourceReference.class), any(SkinReference.class),
+                any(ColorThemeReference.class), any());
+    }
+
+    @Test
+    public void compileWhenNotInCacheAndBackgroundCompilation() throws Exception
+    {
+        // Mocks
+        when(backgroundCompiler.isEnabled()).thenReturn(true);
+        when(cachedLESSCompiler.compute(eq(lessResourceReference), eq(false), eq(false), eq(true), eq("skin"))).
+                thenReturn("compiled output");
+
+        // Test
+        assertEquals("compiled output",
+                mocker.getComponentUnderTest().compile(lessResourceReference, false, false, false));
+
+        // Verify that the resource is compiled for the other color themes in the background
+        verify(cache).set(eq(lessResourceReference), eq(skinReference), eq(colorThemeReference),
+                eq("compiled output"));
+        verify(backgroundCompiler, never()).compile(any(), any());
+        verify(backgroundCompiler).warmUp(any(), any());
+    }
 }
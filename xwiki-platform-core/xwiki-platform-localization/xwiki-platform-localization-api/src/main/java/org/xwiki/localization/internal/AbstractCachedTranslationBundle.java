@@ -21,6 +21,7 @@
 
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.xwiki.localization.LocaleUtils;
@@ -35,10 +36,46 @@
 public abstract class AbstractCachedTranslationBundle extends AbstractTranslationBundle
 {
     /**
-     * The bundle cache.
+     * The bundle cache. Removing a bundle from the cache notifies the invalidation listeners.
      */
     protected Map<Locale, LocalizedTranslationBundle> bundleCache =
-        new ConcurrentHashMap<Locale, LocalizedTranslationBundle>();
+        new ConcurrentHashMap<Locale, LocalizedTranslationBundle>()
+        {
+            @Override
+            public LocalizedTranslationBundle remove(Object key)
+            {
+                LocalizedTranslationBundle bundle = super.remove(key);
+                if (bundle != null) {
+                    notifyInvalidated();
+                }
+
+                return bundle;
+            }
+
+            @Override
+            public boolean remove(Object key, Object value)
+            {
+                boolean removed = super.remove(key, value);
+                if (removed) {
+                    notifyInvalidated();
+                }
+
+                return removed;
+            }
+
+            @Override
+            public void clear()
+            {
+                super.clear();
+
+                notifyInvalidated();
+            }
+        };
+
+    /**
+     * The locales for which the bundle could not be created (yet).
+     */
+    private final Set<Locale> unavailableLocales = ConcurrentHashMap.newKeySet();
 
     /**
      * Default constructor.
@@ -95,6 +132,13 @@ private synchronized LocalizedTranslationBundle getSynchLocalizedBundle(Locale l
             } catch (Exception e) {
                 this.logger.error("Failed to get localization bundle", e);
             }
+
+            // Remember the locales for which the translations are not the final ones
+            if (bundle == null) {
+                this.unavailableLocales.add(locale);
+            } else if (this.unavailableLocales.remove(locale)) {
+                notifyInvalidated();
+            }
         }
 
         return bundle;
@@ -121,6 +165,14 @@ public Translation getTranslation(String key, Locale locale)
         return translation;
     }
 
+    @Override
+    public boolean isIndexable()
+    {
+        // The translations are only known to change when the cache is modified, unless the bundle failed to be created
+        // for some locale (in which case it will be created again later)
+        return this.unavailableLocales.isEmpty();
+    }
+
     /**
      * @param locale the locale
      * @return the bundle containing translation for the passed Locale
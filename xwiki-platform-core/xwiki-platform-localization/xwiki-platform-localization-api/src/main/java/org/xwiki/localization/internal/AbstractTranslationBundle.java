@@ -19,7 +19,10 @@
  */
 package org.xwiki.localization.internal;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 
@@ -64,6 +67,11 @@ public Translation getTranslation(String key, Locale locale)
      */
     private int priority = DEFAULTPRIORITY;
 
+    /**
+     * The listeners to notify when the translations of the bundle change.
+     */
+    private final List<Consumer<TranslationBundle>> invalidationListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Default constructor.
      */
@@ -147,6 +155,50 @@ public int compareTo(TranslationBundle otherBundle)
         return result;
     }
 
+    /**
+     * Indicate if the translations currently returned by this bundle can be remembered by the caller (for example in a
+     * {@link TranslationIndex}), which implies that {@link #notifyInvalidated()} is called whenever they change.
+     * <p>
+     * Return {@code false} by default since a bundle is not expected to notify the changes of its translations.
+     * 
+     * @return {@code true} if the translations currently returned by this bundle can be remembered
+     * @since 16.2.0RC1
+     */
+    public boolean isIndexable()
+    {
+        return false;
+    }
+
+    /**
+     * @param listener the listener to call when the translations of this bundle change
+     * @since 16.2.0RC1
+     */
+    public void addInvalidationListener(Consumer<TranslationBundle> listener)
+    {
+        this.invalidationListeners.add(listener);
+    }
+
+    /**
+     * @param listener the listener to remove
+     * @since 16.2.0RC1
+     */
+    public void removeInvalidationListener(Consumer<TranslationBundle> listener)
+    {
+        this.invalidationListeners.remove(listener);
+    }
+
+    /**
+     * Notify the listeners that the translations of this bundle changed.
+     * 
+     * @since 16.2.0RC1
+     */
+    protected void notifyInvalidated()
+    {
+        for (Consumer<TranslationBundle> listener : this.invalidationListeners) {
+            listener.accept(this);
+        }
+    }
+
     @Override
     public String toString()
     {
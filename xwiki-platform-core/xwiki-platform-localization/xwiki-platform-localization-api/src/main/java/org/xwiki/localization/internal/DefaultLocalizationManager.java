@@ -26,11 +26,11 @@
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
-import org.xwiki.localization.LocaleUtils;
 import org.xwiki.localization.LocalizationException;
 import org.xwiki.localization.LocalizationManager;
 import org.xwiki.localization.Translation;
@@ -68,6 +68,12 @@ public class DefaultLocalizationManager implements LocalizationManager
     @Inject
     private TranslationBundleContext bundleContext;
 
+    /**
+     * Used to avoid searching the translations in each bundle for each lookup.
+     */
+    @Inject
+    private TranslationIndexManager indexManager;
+
     /**
      * The logger to log.
      */
@@ -77,24 +83,7 @@ public class DefaultLocalizationManager implements LocalizationManager
     @Override
     public Translation getTranslation(String key, Locale locale)
     {
-        for (TranslationBundle bundle : this.bundleContext.getBundles()) {
-            try {
-                Translation translation = bundle.getTranslation(key, locale);
-                if (translation != null && translation.getLocale().equals(locale)) {
-                    return translation;
-                }
-            } catch (Exception e) {
-                this.logger.error("Failed to get translation", e);
-            }
-        }
-
-        // Try parent locale
-        Locale parentLocale = LocaleUtils.getParentLocale(locale);
-        if (parentLocale != null) {
-            return getTranslation(key, parentLocale);
-        }
-
-        return null;
+        return this.indexManager.getIndex(this.bundleContext.getBundles()).get(key, locale).getTranslation();
     }
 
     @Override
@@ -116,20 +105,31 @@ public String getTranslation(String key, Locale locale, Syntax targetSyntax, Obj
     {
         String result;
 
-        Translation translation = getTranslation(key, locale);
+        TranslationIndex index = this.indexManager.getIndex(this.bundleContext.getBundles());
+        TranslationIndex.Entry entry = index.get(key, locale);
+        Translation translation = entry.getTranslation();
         if (translation == null) {
             result = null;
-        } else {
-            Block block = translation.render(parameters);
-            DefaultWikiPrinter wikiPrinter = new DefaultWikiPrinter();
+        } else if (Syntax.PLAIN_1_0.equals(targetSyntax) && ArrayUtils.isEmpty(parameters)) {
+            // The plain text of the messages without parameters is the most common need so we remember it
             BlockRenderer renderer = getSyntaxRenderer(targetSyntax);
-            renderer.render(block, wikiPrinter);
-            result = wikiPrinter.toString();
+            result = index.getPlainText(entry, () -> render(translation, renderer, parameters));
+        } else {
+            result = render(translation, getSyntaxRenderer(targetSyntax), parameters);
         }
 
         return result;
     }
 
+    private String render(Translation translation, BlockRenderer renderer, Object... parameters)
+    {
+        Block block = translation.render(parameters);
+        DefaultWikiPrinter wikiPrinter = new DefaultWikiPrinter();
+        renderer.render(block, wikiPrinter);
+
+        return wikiPrinter.toString();
+    }
+
     @Override
     public TranslationBundle getTranslationBundle(String bundleType, String bundleId)
         throws TranslationBundleDoesNotExistsException, TranslationBundleFactoryDoesNotExistsException
@@ -0,0 +1,274 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.localization.internal;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.xwiki.localization.LocaleUtils;
+import org.xwiki.localization.Translation;
+import org.xwiki.localization.TranslationBundle;
+
+/**
+ * Remember the translation resolved for each key and locale from a specific list of bundles (in priority order), so
+ * that it's not searched again in each bundle for each lookup.
+ * <p>
+ * The resolved translations are only remembered when all the consulted bundles are indexable (see
+ * {@link AbstractTranslationBundle#isIndexable()}). When a bundle notifies a change, only the resolved translations
+ * which could be impacted are forgotten: the ones coming from that bundle or a bundle with a lower priority, the ones
+ * coming from a parent locale and the missing ones.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class TranslationIndex implements Consumer<TranslationBundle>
+{
+    /**
+     * The resolution of a key for a locale.
+     * 
+     * @version $Id$
+     */
+    public static final class Entry
+    {
+        private final Translation translation;
+
+        /**
+         * The position of the bundle providing the translation in the index bundles, -1 if there is no translation.
+         */
+        private final int position;
+
+        /**
+         * {@code true} if the translation locale is the requested locale (and not a parent locale).
+         */
+        private final boolean exactLocale;
+
+        private volatile String plainText;
+
+        Entry(Translation translation, int position, boolean exactLocale)
+        {
+            this.translation = translation;
+            this.position = position;
+            this.exactLocale = exactLocale;
+        }
+
+        /**
+         * @return the translation, or {@code null} if none could be found
+         */
+        public Translation getTranslation()
+        {
+            return this.translation;
+        }
+
+        private boolean isImpactedBy(int bundlePosition)
+        {
+            return this.position < 0 || this.position >= bundlePosition || !this.exactLocale;
+        }
+    }
+
+    /**
+     * The maximum number of resolved translations to remember (including the missing ones) to not let unexpected keys
+     * fill the memory.
+     */
+    private static final int MAX_ENTRIES = 100000;
+
+    private final List<TranslationBundle> bundles;
+
+    private final Logger logger;
+
+    private final Map<Locale, Map<String, Entry>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The number of times the index was invalidated, to not remember a translation resolved before an invalidation.
+     */
+    private volatile long version;
+
+    private int size;
+
+    private volatile boolean disposed;
+
+    /**
+     * @param bundles the bundles in priority order
+     * @param logger the logger to use to log the bundle failures
+     */
+    public TranslationIndex(List<TranslationBundle> bundles, Logger logger)
+    {
+        this.bundles = bundles;
+        this.logger = logger;
+
+        for (TranslationBundle bundle : bundles) {
+            if (bundle instanceof AbstractTranslationBundle) {
+                ((AbstractTranslationBundle) bundle).addInvalidationListener(this);
+            }
+        }
+    }
+
+    /**
+     * @return the bundles in priority order
+     */
+    public List<TranslationBundle> getBundles()
+    {
+        return this.bundles;
+    }
+
+    /**
+     * @param key the key to translate
+     * @param locale the locale to translate into
+     * @return the resolution of the key for the passed locale
+     */
+    public Entry get(String key, Locale locale)
+    {
+        Map<String, Entry> localeEntries = this.entries.get(locale);
+        Entry entry = localeEntries != null ? localeEntries.get(key) : null;
+
+        if (entry == null) {
+            entry = resolve(key, locale);
+        }
+
+        return entry;
+    }
+
+    private Entry resolve(String key, Locale locale)
+    {
+        long resolutionVersion = this.version;
+
+        boolean indexable = true;
+        for (Locale currentLocale = locale; currentLocale != null;
+            currentLocale = LocaleUtils.getParentLocale(currentLocale)) {
+            for (int i = 0; i < this.bundles.size(); ++i) {
+                TranslationBundle bundle = this.bundles.get(i);
+                try {
+                    Translation translation = bundle.getTranslation(key, currentLocale);
+                    if (translation != null && translation.getLocale().equals(currentLocale)) {
+                        Entry entry = new Entry(translation, i, currentLocale.equals(locale));
+                        if (indexable && isIndexable(bundle)) {
+                            put(key, locale, entry, resolutionVersion);
+                        }
+
+                        return entry;
+                    }
+                } catch (Exception e) {
+                    this.logger.error("Failed to get translation", e);
+
+                    indexable = false;
+                }
+
+                indexable &= isIndexable(bundle);
+            }
+        }
+
+        Entry entry = new Entry(null, -1, false);
+        if (indexable) {
+            put(key, locale, entry, resolutionVersion);
+        }
+
+        return entry;
+    }
+
+    private boolean isIndexable(TranslationBundle bundle)
+    {
+        return bundle instanceof AbstractTranslationBundle && ((AbstractTranslationBundle) bundle).isIndexable();
+    }
+
+    private synchronized void put(String key, Locale locale, Entry entry, long resolutionVersion)
+    {
+        // Don't remember a translation which might have been invalidated during its resolution
+        if (this.version == resolutionVersion && this.size < MAX_ENTRIES) {
+            if (this.entries.computeIfAbsent(locale, k -> new ConcurrentHashMap<>()).put(key, entry) == null) {
+                ++this.size;
+            }
+        }
+    }
+
+    /**
+     * @param entry the resolution of a key
+     * @param renderer the renderer of the translation to plain text, without parameters
+     * @return the plain text of the translation
+     */
+    public String getPlainText(Entry entry, Supplier<String> renderer)
+    {
+        String plainText = entry.plainText;
+        if (plainText == null) {
+            long renderVersion = this.version;
+            plainText = renderer.get();
+            setPlainText(entry, plainText, renderVersion);
+        }
+
+        return plainText;
+    }
+
+    private synchronized void setPlainText(Entry entry, String plainText, long renderVersion)
+    {
+        // The rendering might use other translations which have been invalidated during the rendering
+        if (this.version == renderVersion) {
+            entry.plainText = plainText;
+        }
+    }
+
+    /**
+     * Forget the resolved translations which might be impacted by a change of the passed bundle.
+     * 
+     * @param bundle the bundle which changed
+     */
+    @Override
+    public synchronized void accept(TranslationBundle bundle)
+    {
+        ++this.version;
+
+        int position = this.bundles.indexOf(bundle);
+        if (position < 0) {
+            this.entries.clear();
+            this.size = 0;
+        } else {
+            for (Map<String, Entry> localeEntries : this.entries.values()) {
+                localeEntries.values().removeIf(entry -> entry.isImpactedBy(position));
+                // The plain text of the other translations might include the translations of the bundle
+                localeEntries.values().forEach(entry -> entry.plainText = null);
+            }
+            this.size = this.entries.values().stream().mapToInt(Map::size).sum();
+        }
+    }
+
+    /**
+     * Stop listening to the changes of the bundles.
+     */
+    public void dispose()
+    {
+        this.disposed = true;
+
+        for (TranslationBundle bundle : this.bundles) {
+            if (bundle instanceof AbstractTranslationBundle) {
+                ((AbstractTranslationBundle) bundle).removeInvalidationListener(this);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the index does not listen to the changes of the bundles anymore
+     */
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.localization.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.localization.TranslationBundle;
+import org.xwiki.model.EntityType;
+import org.xwiki.model.ModelContext;
+import org.xwiki.model.reference.EntityReference;
+
+/**
+ * Provide the {@link TranslationIndex} corresponding to the current bundles. The indexes are shared between the
+ * requests using the same bundles in the same wiki.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = TranslationIndexManager.class)
+@Singleton
+public class TranslationIndexManager implements Disposable
+{
+    /**
+     * The key associated to the index of the current bundles in the {@link ExecutionContext}.
+     */
+    private static final String CKEY_INDEX = "localization.index";
+
+    /**
+     * The maximum number of indexes to keep, since the bundles loaded on demand can produce many combinations.
+     */
+    private static final int MAX_INDEXES = 100;
+
+    private static final class CurrentIndex
+    {
+        private final Collection<TranslationBundle> bundles;
+
+        private final int size;
+
+        private final TranslationIndex index;
+
+        CurrentIndex(Collection<TranslationBundle> bundles, TranslationIndex index)
+        {
+            this.bundles = bundles;
+            this.size = bundles.size();
+            this.index = index;
+        }
+
+        boolean isValid(Collection<TranslationBundle> currentBundles)
+        {
+            // The bundles of the context can only be added
+            return this.bundles == currentBundles && this.size == currentBundles.size() && !this.index.isDisposed();
+        }
+    }
+
+    @Inject
+    private Execution execution;
+
+    @Inject
+    private ModelContext modelContext;
+
+    @Inject
+    private Logger logger;
+
+    private final Map<Pair<String, List<TranslationBundle>>, TranslationIndex> indexes =
+        new LinkedHashMap<>(MAX_INDEXES, 0.75F, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Pair<String, List<TranslationBundle>>, TranslationIndex> eldest)
+            {
+                if (size() > MAX_INDEXES) {
+                    eldest.getValue().dispose();
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+    /**
+     * @param bundles the current bundles, in priority order
+     * @return the index of the passed bundles
+     */
+    public TranslationIndex getIndex(Collection<TranslationBundle> bundles)
+    {
+        ExecutionContext context = this.execution.getContext();
+
+        // Avoid looking for the index of the bundles for each translation of the request
+        CurrentIndex currentIndex = context != null ? (CurrentIndex) context.getProperty(CKEY_INDEX) : null;
+        if (currentIndex == null || !currentIndex.isValid(bundles)) {
+            currentIndex = new CurrentIndex(bundles, getIndex(getCurrentWiki(), new ArrayList<>(bundles)));
+
+            if (context != null) {
+                context.setProperty(CKEY_INDEX, currentIndex);
+            }
+        }
+
+        return currentIndex.index;
+    }
+
+    private synchronized TranslationIndex getIndex(String wiki, List<TranslationBundle> bundles)
+    {
+        // Some bundles (e.g. the XWikiPreferences one) depend on the current wiki
+        return this.indexes.computeIfAbsent(Pair.of(wiki, bundles), key -> new TranslationIndex(bundles, this.logger));
+    }
+
+    private String getCurrentWiki()
+    {
+        EntityReference currentReference = this.modelContext.getCurrentEntityReference();
+        if (currentReference != null) {
+            EntityReference wikiReference = currentReference.extractReference(EntityType.WIKI);
+            if (wikiReference != null) {
+                return wikiReference.getName();
+            }
+        }
+
+        return "";
+    }
+
+    @Override
+    public synchronized void dispose()
+    {
+        this.indexes.values().forEach(TranslationIndex::dispose);
+        this.indexes.clear();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.localization.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.xwiki.localization.Translation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TranslationIndex}.
+ *
+ * @version $Id$
+ */
+class TranslationIndexTest
+{
+    private static class TestBundle extends AbstractTranslationBundle
+    {
+        private final Map<String, Translation> translations = new HashMap<>();
+
+        private boolean indexable = true;
+
+        private int calls;
+
+        TestBundle(String id, int priority)
+        {
+            super(id, priority);
+        }
+
+        @Override
+        public Translation getTranslation(String key, Locale locale)
+        {
+            ++this.calls;
+
+            return this.translations.get(key + '/' + locale);
+        }
+
+        @Override
+        public boolean isIndexable()
+        {
+            return this.indexable;
+        }
+
+        Translation set(String key, Locale locale)
+        {
+            Translation translation = mock(Translation.class);
+            when(translation.getLocale()).thenReturn(locale);
+            this.translations.put(key + '/' + locale, translation);
+
+            notifyInvalidated();
+
+            return translation;
+        }
+    }
+
+    private final TestBundle bundle1 = new TestBundle("bundle1", 1);
+
+    private final TestBundle bundle2 = new TestBundle("bundle2", 2);
+
+    private final TranslationIndex index =
+        new TranslationIndex(Arrays.asList(this.bundle1, this.bundle2), mock(Logger.class));
+
+    @Test
+    void getWithPriorityAndParentLocale()
+    {
+        Translation translation2 = this.bundle2.set("key", Locale.FRENCH);
+
+        assertSame(translation2, this.index.get("key", Locale.FRENCH).getTranslation());
+        assertSame(translation2, this.index.get("key", Locale.FRANCE).getTranslation());
+        assertNull(this.index.get("key", Locale.ENGLISH).getTranslation());
+
+        Translation translation1 = this.bundle1.set("key", Locale.FRENCH);
+
+        assertSame(translation1, this.index.get("key", Locale.FRENCH).getTranslation());
+        assertSame(translation1, this.index.get("key", Locale.FRANCE).getTranslation());
+    }
+
+    @Test
+    void getIsRemembered()
+    {
+        Translation translation = this.bundle2.set("key", Locale.FRENCH);
+
+        assertSame(translation, this.index.get("key", Locale.FRENCH).getTranslation());
+        int calls = this.bundle1.calls + this.bundle2.calls;
+        assertSame(translation, this.index.get("key", Locale.FRENCH).getTranslation());
+        assertEquals(calls, this.bundle1.calls + this.bundle2.calls);
+    }
+
+    @Test
+    void invalidationOnlyForgetsImpactedTranslations()
+    {
+        Translation translation1 = this.bundle1.set("key1", Locale.FRENCH);
+        Translation translation2 = this.bundle2.set("key2", Locale.FRENCH);
+
+        assertSame(translation1, this.index.get("key1", Locale.FRENCH).getTranslation());
+        assertSame(translation2, this.index.get("key2", Locale.FRENCH).getTranslation());
+
+        // A change in the lowest priority bundle cannot impact the translation coming from the highest priority one
+        this.bundle2.set("key3", Locale.FRENCH);
+
+        int calls = this.bundle1.calls;
+        assertSame(translation1, this.index.get("key1", Locale.FRENCH).getTranslation());
+        assertEquals(calls, this.bundle1.calls);
+
+        // A change in the highest priority bundle impacts the translations coming from the lowest priority one
+        Translation newTranslation2 = this.bundle1.set("key2", Locale.FRENCH);
+
+        assertSame(newTranslation2, this.index.get("key2", Locale.FRENCH).getTranslation());
+    }
+
+    @Test
+    void getWhenNotIndexable()
+    {
+        this.bundle2.indexable = false;
+        this.bundle2.set("key", Locale.FRENCH);
+
+        this.index.get("key", Locale.FRENCH);
+        int calls = this.bundle2.calls;
+        this.index.get("key", Locale.FRENCH);
+        assertEquals(calls + 1, this.bundle2.calls);
+    }
+
+    @Test
+    void getPlainText()
+    {
+        this.bundle1.set("key", Locale.FRENCH);
+
+        TranslationIndex.Entry entry = this.index.get("key", Locale.FRENCH);
+        assertSame("plain", this.index.getPlainText(entry, () -> "plain"));
+        assertSame("plain", this.index.getPlainText(entry, () -> "other"));
+
+        this.bundle2.set("other", Locale.FRENCH);
+
+        assertSame("other", this.index.getPlainText(entry, () -> "other"));
+    }
+}
@@ -49,6 +49,7 @@
 import org.xwiki.localization.TranslationBundleFactoryDoesNotExistsException;
 import org.xwiki.localization.internal.DefaultLocalizationManager;
 import org.xwiki.localization.internal.DefaultTranslationBundleContext;
+import org.xwiki.localization.internal.TranslationIndexManager;
 import org.xwiki.localization.messagetool.internal.MessageToolTranslationMessageParser;
 import org.xwiki.model.internal.DefaultModelContext;
 import org.xwiki.observation.EventListener;
@@ -68,7 +69,8 @@
 
 @ComponentList({JARTranslationBundleFactory.class, MessageToolTranslationMessageParser.class,
     PlainTextBlockParser.class, ContextComponentManagerProvider.class, DefaultLocalizationManager.class,
-    DefaultTranslationBundleContext.class, DefaultModelContext.class, DefaultExecution.class,
+    DefaultTranslationBundleContext.class, TranslationIndexManager.class, DefaultModelContext.class,
+    DefaultExecution.class,
     DefaultObservationManager.class, JARTranslationBundleFactoryListener.class, DefaultComponentManagerManager.class,
     EmbeddableComponentManagerFactory.class})
 @ComponentTest
@@ -31,6 +31,7 @@
 import org.xwiki.localization.Translation;
 import org.xwiki.localization.internal.DefaultLocalizationManager;
 import org.xwiki.localization.internal.DefaultTranslationBundleContext;
+import org.xwiki.localization.internal.TranslationIndexManager;
 import org.xwiki.localization.messagetool.internal.MessageToolTranslationMessageParser;
 import org.xwiki.model.internal.DefaultModelContext;
 import org.xwiki.rendering.internal.parser.plain.PlainTextBlockParser;
@@ -47,7 +48,8 @@
 
 @ComponentList({MessageToolTranslationMessageParser.class, PlainTextBlockParser.class,
     ContextComponentManagerProvider.class, DefaultLocalizationManager.class, DefaultTranslationBundleContext.class,
-    DefaultExecution.class, DefaultModelContext.class, RootClassLoaderTranslationBundle.class})
+    TranslationIndexManager.class, DefaultExecution.class, DefaultModelContext.class,
+    RootClassLoaderTranslationBundle.class})
 @ComponentTest
 public class RootClassLoaderTranslationBundleTest
 {
@@ -136,6 +136,21 @@ public Translation getTranslation(String key, Locale locale)
         return xcontext != null && xcontext.getWiki() != null ? getBundle().getTranslation(key, locale) : null;
     }
 
+    @Override
+    public boolean isIndexable()
+    {
+        XWikiContext xcontext = this.contextProvider.get();
+
+        // The translations found before XWiki is ready should not be remembered
+        if (xcontext != null && xcontext.getWiki() != null) {
+            XWikiPreferencesWikiTranslationBundle bundle = getBundle();
+
+            return bundle != null && bundle.isIndexable();
+        }
+
+        return false;
+    }
+
     /**
      * @return the {@link XWikiPreferencesTranslationBundle} for the current wiki
      */
@@ -172,6 +187,7 @@ private synchronized XWikiPreferencesWikiTranslationBundle getBundleSynchronized
         if (bundle == null) {
             try {
                 bundle = createWikiBundle(wiki);
+                bundle.addInvalidationListener(wikiBundle -> notifyInvalidated());
                 this.wikiBundlesCache.put(wiki, bundle);
             } catch (ComponentLookupException e) {
                 this.logger.error("Failed to create preferences bundle for wiki [{}]", wiki, e);
@@ -225,6 +241,7 @@ private synchronized XWikiPreferencesDocumentTranslationBundle getDocumentTransl
                 documentBundle =
                     new XWikiPreferencesDocumentTranslationBundle(IDPREFIX, document, this.componentManager,
                         this.translationMessageParser);
+                documentBundle.addInvalidationListener(bundle -> notifyInvalidated());
                 this.documentBundlesCache.set(uid, documentBundle);
             } catch (ComponentLookupException e) {
                 // Should never happen
@@ -161,10 +161,24 @@ public List<Event> getEvents()
     public void onEvent(Event arg0, Object arg1, Object arg2)
     {
         intializeBundles();
+
+        notifyInvalidated();
     }
 
     // Bundle
 
+    @Override
+    public boolean isIndexable()
+    {
+        for (XWikiPreferencesDocumentTranslationBundle bundle : this.bundles.values()) {
+            if (bundle == null || !bundle.isIndexable()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public Translation getTranslation(String key, Locale locale)
     {
@@ -245,9 +245,9 @@ public void dispose()
     public void onEvent(Event event, Object source, Object data)
     {
         if (event instanceof WikiDeletedEvent) {
-            this.bundleCache.clear();
-
             this.disposed = true;
+
+            this.bundleCache.clear();
         } else {
             XWikiDocument document = (XWikiDocument) source;
 
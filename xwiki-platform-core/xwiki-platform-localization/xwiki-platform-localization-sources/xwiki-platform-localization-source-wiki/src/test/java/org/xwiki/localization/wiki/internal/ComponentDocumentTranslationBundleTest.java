@@ -38,6 +38,7 @@
 import org.xwiki.localization.TranslationBundleFactory;
 import org.xwiki.localization.internal.DefaultLocalizationManager;
 import org.xwiki.localization.internal.DefaultTranslationBundleContext;
+import org.xwiki.localization.internal.TranslationIndexManager;
 import org.xwiki.localization.messagetool.internal.MessageToolTranslationMessageParser;
 import org.xwiki.model.internal.DefaultModelContext;
 import org.xwiki.model.reference.DocumentReference;
@@ -82,6 +83,7 @@
     DocumentTranslationBundleFactory.class,
     DefaultLocalizationManager.class,
     DefaultTranslationBundleContext.class,
+    TranslationIndexManager.class,
     TranslationDocumentClassInitializer.class,
     DefaultModelContext.class,
     PlainTextBlockRenderer.class,
@@ -42,6 +42,7 @@
 import org.xwiki.localization.TranslationBundleFactoryDoesNotExistsException;
 import org.xwiki.localization.internal.DefaultLocalizationManager;
 import org.xwiki.localization.internal.DefaultTranslationBundleContext;
+import org.xwiki.localization.internal.TranslationIndexManager;
 import org.xwiki.localization.messagetool.internal.MessageToolTranslationMessageParser;
 import org.xwiki.localization.wiki.internal.TranslationDocumentModel.Scope;
 import org.xwiki.model.internal.DefaultModelContext;
@@ -88,6 +89,7 @@
     DocumentTranslationBundleFactory.class,
     DefaultLocalizationManager.class,
     DefaultTranslationBundleContext.class,
+    TranslationIndexManager.class,
     DefaultModelContext.class,
     PlainTextBlockRenderer.class,
     PlainTextRendererFactory.class,
@@ -23,6 +23,7 @@
 import java.util.Properties;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
 
 /**
  * Represents all XWiki configuration options for the Mail Sending feature.
@@ -121,4 +122,16 @@ default int getSendQueueCapacity()
     {
         return 1000;
     }
+
+    /**
+     * @return the number of threads sending the mails found in the send queue, each one using its own SMTP connection.
+     *         Note that the {@link #getSendWaitTime() wait time} is still respected between two mails sent to the same
+     *         SMTP host, whatever the number of threads
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getSendThreadCount()
+    {
+        return 1;
+    }
 }
@@ -104,6 +104,8 @@ public class DefaultMailSenderConfiguration implements MailSenderConfiguration
     private static final String PREPARE_QUEUE_CAPACITY_PROPERTY = "prepareQueueCapacity";
     private static final String SEND_QUEUE_CAPACITY_PROPERTY = "sendQueueCapacity";
 
+    private static final String SEND_THREAD_COUNT_PROPERTY = "sendThreadCount";
+
     /**
      * The default size of the prepare queue.
      */
@@ -114,6 +116,11 @@ public class DefaultMailSenderConfiguration implements MailSenderConfiguration
      */
     private static final int SEND_QUEUE_CAPACITY_DEFAULT = 1000;
 
+    /**
+     * The default number of threads sending mails.
+     */
+    private static final int SEND_THREAD_COUNT_DEFAULT = 1;
+
     @Inject
     private Logger logger;
 
@@ -349,6 +356,12 @@ public int getSendQueueCapacity()
             SEND_QUEUE_CAPACITY_DEFAULT);
     }
 
+    @Override
+    public int getSendThreadCount()
+    {
+        return this.xwikiPropertiesSource.getProperty(PREFIX + SEND_THREAD_COUNT_PROPERTY, SEND_THREAD_COUNT_DEFAULT);
+    }
+
     private boolean isMainWiki()
     {
         return this.wikiDescriptorManager.isMainWiki(this.wikiDescriptorManager.getCurrentWikiId());
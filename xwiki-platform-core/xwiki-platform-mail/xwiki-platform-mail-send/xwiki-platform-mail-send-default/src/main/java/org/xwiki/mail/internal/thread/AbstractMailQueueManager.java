@@ -82,4 +82,16 @@ public boolean removeMessageFromQueue(T mailQueueItem)
     {
         return getMailQueue().remove(mailQueueItem);
     }
+
+    @Override
+    public T takeMessage(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return getMailQueue().poll(timeout, unit);
+    }
+
+    @Override
+    public int getQueueSize()
+    {
+        return getMailQueue().size();
+    }
 }
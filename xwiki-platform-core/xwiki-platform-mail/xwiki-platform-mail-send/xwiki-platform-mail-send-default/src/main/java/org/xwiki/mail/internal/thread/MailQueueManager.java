@@ -93,4 +93,36 @@ default boolean addMessageToQueue(T mailQueueItem, long timeout, TimeUnit unit)
      * @return true if the removal was successful, false otherwise
      */
     boolean removeMessageFromQueue(T mailQueueItem);
+
+    /**
+     * Removes the next mail from the queue, waiting up to the specified time if no mail is available.
+     *
+     * @param timeout how long to wait before giving up, in units of {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the {@code timeout} parameter
+     * @return the next mail on the queue or {@code null} if none was available before the timeout
+     * @throws InterruptedException if interrupted while waiting
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default T takeMessage(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        T mailQueueItem = peekMessage();
+        if (mailQueueItem != null) {
+            removeMessageFromQueue(mailQueueItem);
+        } else {
+            unit.sleep(timeout);
+        }
+
+        return mailQueueItem;
+    }
+
+    /**
+     * @return the number of mails waiting in the queue
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getQueueSize()
+    {
+        return hasMessage() ? 1 : 0;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.mail.internal.thread;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+
+/**
+ * The SMTP connection of a thread sending mails, reused between the mails sent with the same {@link Session}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class SendMailConnection
+{
+    private final Logger logger;
+
+    private Transport currentTransport;
+
+    private Session currentSession;
+
+    private int count;
+
+    /**
+     * @param logger the logger to use to report connection problems
+     */
+    public SendMailConnection(Logger logger)
+    {
+        this.logger = logger;
+    }
+
+    /**
+     * @param session the session of the mail to send
+     * @return a connected transport to use to send the mail
+     * @throws MessagingException when failing to connect to the SMTP server
+     */
+    public Transport getTransport(Session session) throws MessagingException
+    {
+        // If the current Session in use is different from the one passed then close the current Transport, get a new
+        // one and reconnect.
+        // Also do that every 100 mails sent.
+        // TODO: explain why!
+        if (session != this.currentSession || (this.count % 100) == 0) {
+            close();
+            this.currentSession = session;
+            this.currentTransport = this.currentSession.getTransport("smtp");
+            this.currentTransport.connect();
+        } else if (!this.currentTransport.isConnected()) {
+            this.currentTransport.connect();
+        }
+
+        return this.currentTransport;
+    }
+
+    /**
+     * Indicate that a mail was sent with the current transport.
+     */
+    public void onMessageSent()
+    {
+        this.count++;
+    }
+
+    /**
+     * Close the current transport, if any.
+     */
+    public void close()
+    {
+        if (this.currentTransport != null) {
+            try {
+                this.currentTransport.close();
+            } catch (MessagingException e) {
+                this.logger.warn("Failed to close JavaMail Transport connection. Reason [{}]",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+    }
+}
@@ -20,16 +20,19 @@
 package org.xwiki.mail.internal.thread;
 
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
-import javax.mail.MessagingException;
 import javax.mail.Session;
 import javax.mail.Transport;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.context.ExecutionContext;
 import org.xwiki.context.ExecutionContextException;
@@ -37,11 +40,16 @@
 import org.xwiki.mail.ExtendedMimeMessage;
 import org.xwiki.mail.MailContentStore;
 import org.xwiki.mail.MailListener;
+import org.xwiki.mail.internal.thread.jmx.JMXMailSender;
+import org.xwiki.management.JMXBeanRegistration;
 
 import com.xpn.xwiki.XWikiContext;
 
 /**
  * Runnable that regularly check for mails on a Queue, and for each mail tries to send it.
+ * <p>
+ * The mails are sent by a configurable number of threads (the thread running this runnable and additional worker
+ * threads), each one keeping its own SMTP connection open between two mails.
  *
  * @version $Id$
  * @since 6.4
@@ -51,9 +59,26 @@
 @Singleton
 public class SendMailRunnable extends AbstractMailRunnable
 {
+    private static final String MBEAN_NAME = "type=Mail,name=sender";
+
+    private static final String WORKER_THREAD_NAME = "Mail Sender Worker Thread %d";
+
+    /**
+     * How long to wait for a new mail before checking again if the thread should stop, in milliseconds.
+     */
+    private static final long TAKE_TIMEOUT = 500L;
+
+    /**
+     * How long to wait for the worker threads to close their connection when stopping, in seconds.
+     */
+    private static final long STOP_TIMEOUT = 10L;
+
     @Inject
     private MailQueueManager<SendMailQueueItem> sendMailQueueManager;
 
+    @Inject
+    private MailQueueManager<PrepareMailQueueItem> prepareMailQueueManager;
+
     @Inject
     @Named("filesystem")
     private MailContentStore mailContentStore;
@@ -64,25 +89,78 @@ public class SendMailRunnable extends AbstractMailRunnable
     @Inject
     private Provider<XWikiContext> contextProvider;
 
-    private Transport currentTransport;
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
 
-    private Session currentSession;
+    private final SendMailThrottler throttler = new SendMailThrottler();
 
-    private int count;
+    private final SendMailStatistics statistics = new SendMailStatistics();
 
     @Override
     public void run()
     {
+        int threadCount = Math.max(1, this.configuration.getSendThreadCount());
+
+        this.jmxRegistration.registerMBean(new JMXMailSender(this.prepareMailQueueManager::getQueueSize,
+            this.sendMailQueueManager::getQueueSize, this.statistics), MBEAN_NAME);
+
+        // Start the additional worker threads, the current thread being the first worker.
+        ExecutorService executor = null;
+        if (threadCount > 1) {
+            executor = Executors.newFixedThreadPool(threadCount - 1,
+                new BasicThreadFactory.Builder().namingPattern(WORKER_THREAD_NAME).daemon(true).build());
+            for (int i = 1; i < threadCount; i++) {
+                executor.execute(this::runWorker);
+            }
+        }
+
+        try {
+            runWorker();
+        } finally {
+            if (executor != null) {
+                stopWorkers(executor);
+            }
+
+            this.jmxRegistration.unregisterMBean(MBEAN_NAME);
+        }
+    }
+
+    private void stopWorkers(ExecutorService executor)
+    {
+        // Make sure the worker threads go out of sleep so that they stop immediately.
+        executor.shutdownNow();
+
+        // The current thread is usually interrupted when stopping: clear the flag while waiting for the workers to
+        // close their connection and restore it afterward.
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (!executor.awaitTermination(STOP_TIMEOUT, TimeUnit.SECONDS)) {
+                this.logger.warn("Some Mail Sender Threads did not stop after [{}] seconds", STOP_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runWorker()
+    {
+        SendMailConnection connection = new SendMailConnection(this.logger);
+        this.statistics.updateThreadCount(1);
         try {
             // Make sure we initialize an execution context.
             prepareContext();
 
-            runInternal();
+            runInternal(connection);
         } catch (ExecutionContextException e) {
             // Not much to do but log.
             logger.error("Failed to initialize the send mail thread's execution context", e);
         } finally {
-            closeTransport();
+            connection.close();
+            this.statistics.updateThreadCount(-1);
         }
     }
 
@@ -101,28 +179,16 @@ private void prepareContextForQueueItem(SendMailQueueItem mailItem)
         xcontext.setWikiId(mailItem.getWikiId());
     }
 
-    private void runInternal()
+    private void runInternal(SendMailConnection connection)
     {
         do {
             try {
-                // Handle next message in the queue
-                if (this.sendMailQueueManager.hasMessage()) {
-                    // Important: only remove the mail item from the queue after the mail has been sent as
-                    // otherwise, MailSender.waitTillSent() may return before the mail is actually sent!
-                    SendMailQueueItem mailItem = this.sendMailQueueManager.peekMessage();
-                    try {
-                        sendMail(mailItem);
-                    } finally {
-                        this.sendMailQueueManager.removeMessageFromQueue(mailItem);
-                    }
-                    // Email throttling: Wait before processing the next mail queue item
-                    // Note: it's important that we wait after the previous item has been removed from the queue in
-                    // order to let users know as soon as possible that their mail has been sent (otherwise when sending
-                    // a synchronous mail, the user would have to wait the send wait time!).
-                    waitSendWaitTime();
+                // Handle next message in the queue, waiting for one to be available if the queue is empty.
+                SendMailQueueItem mailItem =
+                    this.sendMailQueueManager.takeMessage(TAKE_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (mailItem != null) {
+                    sendMail(mailItem, connection);
                 }
-                // Note: a short pause to catch thread interruptions and to be kind on CPU.
-                Thread.sleep(50L);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 // Thread has been interrupted, exit
@@ -132,15 +198,17 @@ private void runInternal()
                 // There was an unexpected problem, we just log the problem but keep the thread alive!
                 this.logger.error("Unexpected error in the Mail Sender Thread", e);
             }
-        } while (!this.shouldStop);
+        } while (!this.shouldStop && !Thread.currentThread().isInterrupted());
     }
 
     /**
      * Send the mail.
      *
      * @param item the queue item containing all the data for sending the mail
+     * @param connection the SMTP connection of the current thread
+     * @throws InterruptedException if interrupted while waiting to send the mail
      */
-    protected void sendMail(SendMailQueueItem item)
+    private void sendMail(SendMailQueueItem item, SendMailConnection connection) throws InterruptedException
     {
         prepareContextForQueueItem(item);
 
@@ -151,38 +219,38 @@ protected void sendMail(SendMailQueueItem item)
             // Step 1: Load the message from the filesystem store
             message = this.mailContentStore.load(item.getSession(), item.getBatchId(), item.getUniqueMessageId());
         } catch (Exception e) {
+            this.statistics.onSendError();
             if (listener != null) {
                 listener.onSendMessageFatalError(item.getUniqueMessageId(), e, Collections.emptyMap());
             }
             return;
         }
 
+        // Step 2: Email throttling: wait for the send slot of the SMTP host.
+        // Note: the first mail sent to a host is sent right away, the wait being between two mails, so that users
+        // know as soon as possible that their mail has been sent (otherwise when sending a synchronous mail, the user
+        // would have to wait the send wait time!).
+        waitSendWaitTime(item.getSession());
+
+        long start = System.currentTimeMillis();
         try {
-            // Step 2: If the current Session in use is different from the one passed then close
-            // the current Transport, get a new one and reconnect.
-            // Also do that every 100 mails sent.
-            // TODO: explain why!
-            if (item.getSession() != this.currentSession || (this.count % 100) == 0) {
-                closeTransport();
-                this.currentSession = item.getSession();
-                this.currentTransport = this.currentSession.getTransport("smtp");
-                this.currentTransport.connect();
-            } else if (!this.currentTransport.isConnected()) {
-                this.currentTransport.connect();
-            }
+            // Step 3: Get a connected Transport, reusing the one of the current thread when possible.
+            Transport transport = connection.getTransport(item.getSession());
 
-            // Step 3: Send the mail
+            // Step 4: Send the mail
             // Unlike the static send method, the sendMessage method does not call the saveChanges method on the
             // message; this prevent the MessageID header to be changed.
-            this.currentTransport.sendMessage(message, message.getAllRecipients());
-            this.count++;
+            transport.sendMessage(message, message.getAllRecipients());
+            connection.onMessageSent();
+            this.statistics.onSendSuccess(System.currentTimeMillis() - start);
 
-            // Step 4: Notify the user of the success if a listener has been provided
+            // Step 5: Notify the user of the success if a listener has been provided
             // Note that the listener is in charge of deleting the message from the mail content store.
             if (listener != null) {
                 listener.onSendMessageSuccess(message, Collections.emptyMap());
             }
         } catch (Exception e) {
+            this.statistics.onSendError();
             // An error occurred, notify the user if a listener has been provided.
             if (listener != null) {
                 listener.onSendMessageError(message, e, Collections.emptyMap());
@@ -190,21 +258,22 @@ protected void sendMail(SendMailQueueItem item)
         }
     }
 
-    private void waitSendWaitTime() throws InterruptedException
+    private void waitSendWaitTime(Session session) throws InterruptedException
     {
         long sendWaitTime = this.configuration.getSendWaitTime();
-        Thread.sleep(sendWaitTime);
+        String host = StringUtils.defaultString(session.getProperty("mail.smtp.host"));
+        long delay = this.throttler.reserve(host, sendWaitTime, System.currentTimeMillis());
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
     }
 
-    private void closeTransport()
+    /**
+     * @return the statistics of the mails sent
+     * @since 16.2.0RC1
+     */
+    public SendMailStatistics getStatistics()
     {
-        if (this.currentTransport != null) {
-            try {
-                this.currentTransport.close();
-            } catch (MessagingException e) {
-                this.logger.warn("Failed to close JavaMail Transport connection. Reason [{}]",
-                    ExceptionUtils.getRootCauseMessage(e));
-            }
-        }
+        return this.statistics;
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.mail.internal.thread;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the mails sent by the {@link SendMailRunnable} threads.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class SendMailStatistics
+{
+    private final LongAdder sentCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final LongAdder totalSendTime = new LongAdder();
+
+    private final LongAccumulator maxSendTime = new LongAccumulator(Math::max, 0);
+
+    private final AtomicLong threadCount = new AtomicLong();
+
+    /**
+     * @param sendTime the time it took to send the mail, in milliseconds
+     */
+    public void onSendSuccess(long sendTime)
+    {
+        this.sentCount.increment();
+        this.totalSendTime.add(sendTime);
+        this.maxSendTime.accumulate(sendTime);
+    }
+
+    /**
+     * A mail could not be sent.
+     */
+    public void onSendError()
+    {
+        this.errorCount.increment();
+    }
+
+    /**
+     * @param delta the number of threads which started (positive) or stopped (negative) sending mails
+     */
+    public void updateThreadCount(int delta)
+    {
+        this.threadCount.addAndGet(delta);
+    }
+
+    /**
+     * @return the number of mails successfully sent
+     */
+    public long getSentCount()
+    {
+        return this.sentCount.sum();
+    }
+
+    /**
+     * @return the number of mails which could not be sent
+     */
+    public long getErrorCount()
+    {
+        return this.errorCount.sum();
+    }
+
+    /**
+     * @return the average time it took to send a mail, in milliseconds
+     */
+    public long getAverageSendTime()
+    {
+        long count = getSentCount();
+
+        return count > 0 ? this.totalSendTime.sum() / count : 0;
+    }
+
+    /**
+     * @return the maximum time it took to send a mail, in milliseconds
+     */
+    public long getMaxSendTime()
+    {
+        return this.maxSendTime.get();
+    }
+
+    /**
+     * @return the number of threads currently sending mails
+     */
+    public long getThreadCount()
+    {
+        return this.threadCount.get();
+    }
+
+    /**
+     * Reset the counters.
+     */
+    public void reset()
+    {
+        this.sentCount.reset();
+        this.errorCount.reset();
+        this.totalSendTime.reset();
+        this.maxSendTime.reset();
+    }
+}
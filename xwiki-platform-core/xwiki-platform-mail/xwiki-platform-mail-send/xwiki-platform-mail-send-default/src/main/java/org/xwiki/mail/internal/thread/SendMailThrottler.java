@@ -0,0 +1,59 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.mail.internal.thread;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Throttle the mails sent to the same SMTP host by several threads: each call reserves the next send slot for the
+ * host, the slots being separated by the configured send wait time.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class SendMailThrottler
+{
+    private final Map<String, Long> nextSlots = new ConcurrentHashMap<>();
+
+    /**
+     * Reserve the next send slot for the passed host.
+     *
+     * @param host the SMTP host to which the mail is going to be sent
+     * @param waitTime the minimum time to wait between two mails sent to the host, in milliseconds
+     * @param now the current time, in milliseconds
+     * @return the time to wait before sending the mail, in milliseconds
+     */
+    public long reserve(String host, long waitTime, long now)
+    {
+        if (waitTime <= 0) {
+            return 0;
+        }
+
+        long[] slot = new long[1];
+        this.nextSlots.compute(host, (key, next) -> {
+            slot[0] = next != null ? Math.max(now, next) : now;
+
+            return slot[0] + waitTime;
+        });
+
+        return slot[0] - now;
+    }
+}
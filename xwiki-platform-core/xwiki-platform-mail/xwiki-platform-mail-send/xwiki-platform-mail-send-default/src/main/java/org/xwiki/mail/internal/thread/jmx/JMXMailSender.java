@@ -0,0 +1,101 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.mail.internal.thread.jmx;
+
+import java.util.function.IntSupplier;
+
+import org.xwiki.mail.internal.thread.SendMailStatistics;
+
+/**
+ * Implementation of the JMXMailSender MBean.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class JMXMailSender implements JMXMailSenderMBean
+{
+    private final IntSupplier prepareQueueSize;
+
+    private final IntSupplier sendQueueSize;
+
+    private final SendMailStatistics statistics;
+
+    /**
+     * Default constructor, let the method initializing the MBean provide the suppliers for the MBean operations.
+     *
+     * @param prepareQueueSize the prepare queue size supplier
+     * @param sendQueueSize the send queue size supplier
+     * @param statistics the statistics of the send mail threads
+     */
+    public JMXMailSender(IntSupplier prepareQueueSize, IntSupplier sendQueueSize, SendMailStatistics statistics)
+    {
+        this.prepareQueueSize = prepareQueueSize;
+        this.sendQueueSize = sendQueueSize;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public int getPrepareQueueSize()
+    {
+        return this.prepareQueueSize.getAsInt();
+    }
+
+    @Override
+    public int getSendQueueSize()
+    {
+        return this.sendQueueSize.getAsInt();
+    }
+
+    @Override
+    public long getSendThreadCount()
+    {
+        return this.statistics.getThreadCount();
+    }
+
+    @Override
+    public long getSentCount()
+    {
+        return this.statistics.getSentCount();
+    }
+
+    @Override
+    public long getErrorCount()
+    {
+        return this.statistics.getErrorCount();
+    }
+
+    @Override
+    public long getAverageSendTime()
+    {
+        return this.statistics.getAverageSendTime();
+    }
+
+    @Override
+    public long getMaxSendTime()
+    {
+        return this.statistics.getMaxSendTime();
+    }
+
+    @Override
+    public void resetStatistics()
+    {
+        this.statistics.reset();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.mail.internal.thread.jmx;
+
+/**
+ * Interface of the {@link JMXMailSender} MBean.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public interface JMXMailSenderMBean
+{
+    /**
+     * @return the number of mails waiting to be prepared
+     */
+    int getPrepareQueueSize();
+
+    /**
+     * @return the number of mails waiting to be sent
+     */
+    int getSendQueueSize();
+
+    /**
+     * @return the number of threads currently sending mails
+     */
+    long getSendThreadCount();
+
+    /**
+     * @return the number of mails successfully sent
+     */
+    long getSentCount();
+
+    /**
+     * @return the number of mails which could not be sent
+     */
+    long getErrorCount();
+
+    /**
+     * @return the average time it took to send a mail, in milliseconds
+     */
+    long getAverageSendTime();
+
+    /**
+     * @return the maximum time it took to send a mail, in milliseconds
+     */
+    long getMaxSendTime();
+
+    /**
+     * Reset the sent and error counters and the send times.
+     */
+    void resetStatistics();
+}
@@ -62,6 +62,7 @@
 import org.xwiki.mail.internal.thread.SendMailQueueManager;
 import org.xwiki.mail.internal.thread.SendMailRunnable;
 import org.xwiki.mail.internal.thread.context.Copier;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.ModelContext;
 import org.xwiki.model.reference.WikiReference;
 import org.xwiki.observation.EventListener;
@@ -151,6 +152,7 @@ public void registerConfiguration() throws Exception
         when(xwikiContextProvider.get()).thenReturn(Mockito.mock(XWikiContext.class));
 
         this.componentManager.registerMockComponent(ExecutionContextManager.class);
+        this.componentManager.registerMockComponent(JMXBeanRegistration.class);
         this.componentManager.registerMockComponent(Execution.class);
 
         this.componentManager.registerMockComponent(new DefaultParameterizedType(null, Copier.class,
@@ -69,6 +69,7 @@
 import org.xwiki.mail.internal.thread.SendMailQueueManager;
 import org.xwiki.mail.internal.thread.SendMailRunnable;
 import org.xwiki.mail.internal.thread.context.Copier;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.ModelContext;
 import org.xwiki.model.reference.WikiReference;
 import org.xwiki.observation.EventListener;
@@ -160,6 +161,7 @@ public void registerConfiguration() throws Exception
         when(xwikiContextProvider.get()).thenReturn(xcontext);
 
         this.componentManager.registerMockComponent(ExecutionContextManager.class);
+        this.componentManager.registerMockComponent(JMXBeanRegistration.class);
         this.componentManager.registerMockComponent(Execution.class);
 
         this.componentManager.registerMockComponent(new DefaultParameterizedType(null, Copier.class,
@@ -63,6 +63,7 @@
 import org.xwiki.mail.script.ScriptMailResult;
 import org.xwiki.mail.script.ScriptMimeMessage;
 import org.xwiki.mail.script.ScriptServicePermissionChecker;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.ModelContext;
 import org.xwiki.model.reference.WikiReference;
 import org.xwiki.observation.EventListener;
@@ -148,6 +149,7 @@ public void registerConfiguration() throws Exception
         when(xwikiContextProvider.get()).thenReturn(Mockito.mock(XWikiContext.class));
 
         this.componentManager.registerMockComponent(ExecutionContextManager.class);
+        this.componentManager.registerMockComponent(JMXBeanRegistration.class);
         this.componentManager.registerMockComponent(new DefaultParameterizedType(null, Copier.class,
             ExecutionContext.class));
 
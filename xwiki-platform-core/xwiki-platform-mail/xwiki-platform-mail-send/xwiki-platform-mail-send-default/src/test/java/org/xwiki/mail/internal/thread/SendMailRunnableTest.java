@@ -25,7 +25,9 @@
 import java.util.UUID;
 
 import javax.inject.Provider;
+import javax.mail.Message.RecipientType;
 import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +50,9 @@
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
 import org.xwiki.test.mockito.MockitoComponentManager;
 
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
 import com.xpn.xwiki.XWikiContext;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -220,4 +225,60 @@ public void sendMailWhenMailRetrievalFails() throws Exception
         }
         assertEquals(2, errorCount);
     }
+
+    @Test
+    public void sendMailWithSeveralThreads() throws Exception
+    {
+        ServerSetup serverSetup = ServerSetupTest.SMTP.createCopy();
+        serverSetup.setServerStartupTimeout(5000L);
+        GreenMail greenMail = new GreenMail(serverSetup);
+        greenMail.start();
+
+        MailSenderConfiguration configuration = this.componentManager.getInstance(MailSenderConfiguration.class);
+        when(configuration.getSendThreadCount()).thenReturn(4);
+
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.host", "localhost");
+        properties.setProperty("mail.smtp.port", String.valueOf(greenMail.getSmtp().getPort()));
+        Session session = Session.getInstance(properties);
+
+        MemoryMailListener listener = this.componentManager.getInstance(MailListener.class, "memory");
+        String batchId = UUID.randomUUID().toString();
+        listener.onPrepareBegin(batchId, Collections.emptyMap());
+        ((UpdateableMailStatusResult) listener.getMailStatusResult()).setTotalSize(10);
+
+        MailQueueManager mailQueueManager = this.componentManager.getInstance(
+            new DefaultParameterizedType(null, MailQueueManager.class, SendMailQueueItem.class));
+        MailContentStore contentStore = this.componentManager.getInstance(MailContentStore.class, "filesystem");
+
+        for (int i = 0; i < 10; i++) {
+            MimeMessage msg = new MimeMessage(session);
+            msg.setFrom(new InternetAddress("john@doe.com"));
+            msg.setRecipient(RecipientType.TO, new InternetAddress("user" + i + "@doe.com"));
+            msg.setSubject("Subject" + i);
+            msg.setText("Content" + i);
+            ExtendedMimeMessage message = new ExtendedMimeMessage(msg);
+            String id = message.getUniqueMessageId();
+            listener.onPrepareMessageSuccess(message, Collections.emptyMap());
+            when(contentStore.load(session, batchId, id)).thenReturn(message);
+            mailQueueManager.addToQueue(new SendMailQueueItem(id, session, listener, batchId, "xwiki"));
+        }
+
+        Thread thread = new Thread(this.sendMailRunnable);
+        thread.start();
+
+        try {
+            listener.getMailStatusResult().waitTillProcessed(30000L);
+        } finally {
+            this.sendMailRunnable.stopProcessing();
+            thread.interrupt();
+            thread.join();
+            greenMail.stop();
+        }
+
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertEquals(10, this.sendMailRunnable.getStatistics().getSentCount());
+        assertEquals(0, this.sendMailRunnable.getStatistics().getErrorCount());
+        assertEquals(0, this.sendMailRunnable.getStatistics().getThreadCount());
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.mail.internal.thread;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for {@link SendMailThrottler}.
+ *
+ * @version $Id$
+ */
+class SendMailThrottlerTest
+{
+    private final SendMailThrottler throttler = new SendMailThrottler();
+
+    @Test
+    void reserve()
+    {
+        assertEquals(0, this.throttler.reserve("host1", 1000, 0));
+        assertEquals(1000, this.throttler.reserve("host1", 1000, 0));
+        assertEquals(1500, this.throttler.reserve("host1", 1000, 500));
+
+        // Other hosts are not impacted
+        assertEquals(0, this.throttler.reserve("host2", 1000, 500));
+
+        // The wait time is respected from the last reserved slot
+        assertEquals(0, this.throttler.reserve("host1", 1000, 5000));
+        assertEquals(1000, this.throttler.reserve("host1", 1000, 5000));
+    }
+
+    @Test
+    void reserveWithoutWaitTime()
+    {
+        assertEquals(0, this.throttler.reserve("host", 0, 0));
+        assertEquals(0, this.throttler.reserve("host", 0, 0));
+    }
+}
@@ -31,6 +31,13 @@
  */
 public abstract class AbstractStringEntityReferenceSerializer implements EntityReferenceSerializer<String>
 {
+    /**
+     * The maximum number of serialized references to remember.
+     */
+    private static final int MEMOIZED_MAX_SIZE = 10000;
+
+    private final MemoizedValues<EntityReference, String> memoized = new MemoizedValues<>(MEMOIZED_MAX_SIZE);
+
     @Override
     public String serialize(EntityReference reference, Object... parameters)
     {
@@ -38,6 +45,15 @@ public String serialize(EntityReference reference, Object... parameters)
             return null;
         }
 
+        if (isMemoizable(reference, parameters)) {
+            return this.memoized.get(reference, key -> serializeReference(key));
+        }
+
+        return serializeReference(reference, parameters);
+    }
+
+    private String serializeReference(EntityReference reference, Object... parameters)
+    {
         StringBuilder representation = new StringBuilder();
 
         for (EntityReference currentReference : reference.getReversedReferenceChain()) {
@@ -47,6 +63,21 @@ public String serialize(EntityReference reference, Object... parameters)
         return representation.toString();
     }
 
+    /**
+     * Indicate if the serialization of the passed reference can be remembered and reused for any equal reference,
+     * which is the case when the result only depends on the reference content (and not on the context, the parameters
+     * or the class of the reference).
+     * 
+     * @param reference the reference to serialize
+     * @param parameters optional parameters
+     * @return {@code true} if the serialization of the passed reference can be remembered, {@code false} by default
+     * @since 16.2.0RC1
+     */
+    protected boolean isMemoizable(EntityReference reference, Object... parameters)
+    {
+        return false;
+    }
+
     /**
      * Serialize a single reference element into the representation string builder.
      *
@@ -22,10 +22,12 @@
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.model.EntityType;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceResolver;
 
 /**
@@ -41,16 +43,44 @@
 @Singleton
 public class DefaultStringDocumentReferenceResolver implements DocumentReferenceResolver<String>
 {
+    /**
+     * The maximum number of resolved references to remember.
+     */
+    private static final int MEMOIZED_MAX_SIZE = 10000;
+
     /**
      * Default entity reference resolver used for resolution.
      */
     @Inject
     private EntityReferenceResolver<String> entityReferenceResolver;
 
+    /**
+     * The resolved references, indexed by representation and base reference. The default values don't depend on the
+     * context so the same representation is always resolved to the same (immutable) reference.
+     */
+    private final MemoizedValues<Pair<String, EntityReference>, DocumentReference> memoized =
+        new MemoizedValues<>(MEMOIZED_MAX_SIZE);
+
     @Override
     public DocumentReference resolve(String documentReferenceRepresentation, Object... parameters)
     {
+        // Only remember the resolutions relative to an immutable base reference
+        if (parameters.length == 0) {
+            return this.memoized.get(Pair.of(documentReferenceRepresentation, null), this::resolveDocumentReference);
+        } else if (parameters.length == 1 && parameters[0] instanceof EntityReference) {
+            return this.memoized.get(Pair.of(documentReferenceRepresentation, (EntityReference) parameters[0]),
+                this::resolveDocumentReference);
+        }
+
         return new DocumentReference(this.entityReferenceResolver.resolve(documentReferenceRepresentation,
             EntityType.DOCUMENT, parameters));
     }
+
+    private DocumentReference resolveDocumentReference(Pair<String, EntityReference> key)
+    {
+        Object[] parameters = key.getRight() != null ? new Object[] {key.getRight()} : new Object[0];
+
+        return new DocumentReference(
+            this.entityReferenceResolver.resolve(key.getLeft(), EntityType.DOCUMENT, parameters));
+    }
 }
@@ -63,6 +63,13 @@ public DefaultStringEntityReferenceSerializer(SymbolScheme symbolScheme)
         this.symbolScheme = symbolScheme;
     }
 
+    @Override
+    protected boolean isMemoizable(EntityReference reference, Object... parameters)
+    {
+        // The extending serializers might depend on something else than the reference
+        return parameters.length == 0 && getClass() == DefaultStringEntityReferenceSerializer.class;
+    }
+
     @Override
     protected void serializeEntityReference(EntityReference currentReference, StringBuilder representation,
         boolean isLastReference, Object... parameters)
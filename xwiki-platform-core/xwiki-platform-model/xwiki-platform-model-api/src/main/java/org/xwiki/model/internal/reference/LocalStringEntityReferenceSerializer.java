@@ -59,6 +59,13 @@ public LocalStringEntityReferenceSerializer(SymbolScheme symbolScheme)
         super(symbolScheme);
     }
 
+    @Override
+    protected boolean isMemoizable(EntityReference reference, Object... parameters)
+    {
+        // The extending serializers might depend on something else than the reference
+        return parameters.length == 0 && getClass() == LocalStringEntityReferenceSerializer.class;
+    }
+
     @Override
     protected void serializeEntityReference(EntityReference currentReference, StringBuilder representation,
         boolean isLastReference, Object... parameters)
@@ -0,0 +1,92 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.model.internal.reference;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A bounded and thread safe memory of computed values, used to avoid parsing or serializing again the most common
+ * references.
+ * <p>
+ * The values are computed outside of any lock (the same value might be computed several times concurrently) since the
+ * computation of a reference can trigger the computation of other references. When the maximum size is reached, all
+ * the values are forgotten, which is cheap and enough for the typical set of references manipulated by a wiki.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class MemoizedValues<K, V>
+{
+    private final int maxSize;
+
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSize the maximum number of values to remember
+     */
+    public MemoizedValues(int maxSize)
+    {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param key the key of the value
+     * @param computer used to compute the value if it's not already known
+     * @return the value associated to the passed key
+     */
+    public V get(K key, Function<K, V> computer)
+    {
+        V value = this.values.get(key);
+
+        if (value == null) {
+            value = computer.apply(key);
+
+            if (value != null) {
+                if (this.values.size() >= this.maxSize) {
+                    this.values.clear();
+                }
+
+                this.values.put(key, value);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * @return the number of remembered values
+     */
+    public int size()
+    {
+        return this.values.size();
+    }
+
+    /**
+     * Forget all the values.
+     */
+    public void clear()
+    {
+        this.values.clear();
+    }
+}
@@ -48,6 +48,24 @@
 @Singleton
 public class UidStringEntityReferenceSerializer extends AbstractStringEntityReferenceSerializer
 {
+    @Override
+    protected boolean isMemoizable(EntityReference reference, Object... parameters)
+    {
+        // The locale is only serialized for localized references, so a reference with parameters could be equal to a
+        // reference serialized differently
+        if (parameters.length > 0 || getClass() != UidStringEntityReferenceSerializer.class) {
+            return false;
+        }
+
+        for (EntityReference current = reference; current != null; current = current.getParent()) {
+            if (!current.getParameters().isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     protected void serializeEntityReference(EntityReference currentReference, StringBuilder representation,
         boolean isLastReference, Object... parameters)
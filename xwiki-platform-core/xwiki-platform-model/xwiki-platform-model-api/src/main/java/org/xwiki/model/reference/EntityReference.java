@@ -28,7 +28,6 @@
 import java.util.TreeMap;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.xwiki.model.EntityType;
 import org.xwiki.model.internal.reference.DefaultSymbolScheme;
 import org.xwiki.model.internal.reference.LocalizedStringEntityReferenceSerializer;
@@ -78,6 +77,11 @@ public class EntityReference implements Serializable, Cloneable, Comparable<Enti
 
     private transient List<EntityReference> referenceList;
 
+    /**
+     * The memoized hash code, 0 when not computed yet.
+     */
+    private transient int hash;
+
     /**
      * Clone an EntityReference.
      *
@@ -213,6 +217,7 @@ protected void setName(String name)
             throw new IllegalArgumentException("An Entity Reference name cannot be null or empty");
         }
         this.name = name;
+        this.hash = 0;
     }
 
     /**
@@ -234,6 +239,7 @@ public final String getName()
     protected void setParent(EntityReference parent)
     {
         this.parent = parent;
+        this.hash = 0;
     }
 
     /**
@@ -256,6 +262,7 @@ protected void setType(EntityType type)
             throw new IllegalArgumentException("An Entity Reference type cannot be null");
         }
         this.type = type;
+        this.hash = 0;
     }
 
     /**
@@ -293,6 +300,7 @@ protected void setParameters(Map<String, Serializable> parameters)
      */
     protected void setParameter(String name, Serializable value)
     {
+        this.hash = 0;
         if (value != null) {
             if (this.parameters == null) {
                 this.parameters = new TreeMap<>();
@@ -573,6 +581,11 @@ public boolean equals(Object obj)
 
         EntityReference ref = (EntityReference) obj;
 
+        // Two references with different (already computed) hash codes cannot be equal
+        if (this.hash != 0 && ref.hash != 0 && this.hash != ref.hash) {
+            return false;
+        }
+
         return name.equals(ref.name) && type.equals(ref.type)
             && (parent == null ? ref.parent == null : parent.equals(ref.parent))
             && (parameters == null ? ref.parameters == null : parameters.equals(ref.parameters));
@@ -673,8 +686,21 @@ public boolean equalsNonRecursive(EntityReference otherReference)
     @Override
     public int hashCode()
     {
-        return new HashCodeBuilder(3, 17).append(getName()).append(getType()).append(getParent())
-            .append(this.parameters).toHashCode();
+        // References are immutable (and used as keys in many caches) so the hash code is only computed once
+        int h = this.hash;
+        if (h == 0) {
+            // Same as new HashCodeBuilder(3, 17).append(name).append(type).append(parent).append(parameters) but
+            // without allocating a builder
+            h = 3;
+            h = h * 17 + this.name.hashCode();
+            h = h * 17 + this.type.hashCode();
+            h = h * 17 + (this.parent != null ? this.parent.hashCode() : 0);
+            h = h * 17 + (this.parameters != null ? this.parameters.hashCode() : 0);
+
+            this.hash = h;
+        }
+
+        return h;
     }
 
     /**
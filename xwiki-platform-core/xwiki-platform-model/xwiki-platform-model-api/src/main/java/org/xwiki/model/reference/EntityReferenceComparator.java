@@ -0,0 +1,125 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.model.reference;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * Compare {@link EntityReference}s element by element, starting from the root of the reference chain, without
+ * serializing them.
+ * <p>
+ * Contrary to {@link EntityReference#compareTo(EntityReference)} the order is not the one of the serialized references
+ * but it's a lot cheaper, which makes it a better fit for sorted collections used as caches or indexes.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Unstable
+public final class EntityReferenceComparator implements Comparator<EntityReference>
+{
+    /**
+     * The unique instance of this comparator.
+     */
+    public static final EntityReferenceComparator INSTANCE = new EntityReferenceComparator();
+
+    private EntityReferenceComparator()
+    {
+    }
+
+    @Override
+    public int compare(EntityReference reference1, EntityReference reference2)
+    {
+        if (reference1 == reference2) {
+            return 0;
+        }
+
+        // The references without parent come first
+        if (reference1 == null) {
+            return -1;
+        }
+        if (reference2 == null) {
+            return 1;
+        }
+
+        int result = compare(reference1.getParent(), reference2.getParent());
+        if (result != 0) {
+            return result;
+        }
+
+        result = reference1.getType().compareTo(reference2.getType());
+        if (result != 0) {
+            return result;
+        }
+
+        result = reference1.getName().compareTo(reference2.getName());
+        if (result != 0) {
+            return result;
+        }
+
+        return compareParameters(reference1.getParameters(), reference2.getParameters());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private int compareParameters(Map<String, Serializable> parameters1, Map<String, Serializable> parameters2)
+    {
+        if (parameters1.isEmpty() || parameters2.isEmpty()) {
+            return Boolean.compare(!parameters1.isEmpty(), !parameters2.isEmpty());
+        }
+
+        int result = Integer.compare(parameters1.size(), parameters2.size());
+        if (result != 0) {
+            return result;
+        }
+
+        // The parameters are sorted by name
+        Iterator<Map.Entry<String, Serializable>> iterator2 = parameters2.entrySet().iterator();
+        for (Map.Entry<String, Serializable> entry1 : parameters1.entrySet()) {
+            Map.Entry<String, Serializable> entry2 = iterator2.next();
+
+            result = entry1.getKey().compareTo(entry2.getKey());
+            if (result != 0) {
+                return result;
+            }
+
+            Serializable value1 = entry1.getValue();
+            Serializable value2 = entry2.getValue();
+            if (!value1.equals(value2)) {
+                if (value1 instanceof Comparable && value1.getClass() == value2.getClass()) {
+                    result = ((Comparable) value1).compareTo(value2);
+                } else {
+                    result = value1.getClass().getName().compareTo(value2.getClass().getName());
+                }
+                if (result == 0) {
+                    result = Integer.compare(value1.hashCode(), value2.hashCode());
+                }
+                if (result != 0) {
+                    return result;
+                }
+            }
+        }
+
+        return 0;
+    }
+}
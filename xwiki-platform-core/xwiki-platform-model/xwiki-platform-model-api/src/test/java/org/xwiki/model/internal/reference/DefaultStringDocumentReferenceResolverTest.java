@@ -61,4 +61,16 @@ public void resolveWithExplicitDocumentReference()
         Assert.assertEquals("space", reference.getLastSpaceReference().getName());
         Assert.assertEquals("wiki", reference.getWikiReference().getName());
     }
+
+    @Test
+    public void resolveIsRemembered()
+    {
+        DocumentReference reference = this.resolver.resolve("space.page", new DocumentReference("wiki", "s", "p"));
+
+        Assert.assertEquals(new DocumentReference("wiki", "space", "page"), reference);
+        Assert.assertSame(reference,
+            this.resolver.resolve("space.page", new DocumentReference("wiki", "s", "p")));
+        Assert.assertEquals(new DocumentReference("wiki2", "space", "page"),
+            this.resolver.resolve("space.page", new DocumentReference("wiki2", "s", "p")));
+    }
 }
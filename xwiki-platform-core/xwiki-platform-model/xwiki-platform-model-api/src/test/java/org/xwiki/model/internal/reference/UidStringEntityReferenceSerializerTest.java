@@ -20,7 +20,9 @@
 
 package org.xwiki.model.internal.reference;
 
+import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Locale;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +37,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Unit tests for {@link UidStringEntityReferenceSerializer}.
@@ -72,6 +75,21 @@ public void serializeDocumentReference()
         assertNull(serializer.serialize(null));
     }
 
+    @Test
+    public void serializeIsRemembered()
+    {
+        EntityReference reference = new DocumentReference("wiki", "space", "page");
+        String serialized = serializer.serialize(reference);
+
+        assertSame(serialized, serializer.serialize(new DocumentReference("wiki", "space", "page")));
+
+        // Equal references with a locale parameter are not serialized the same way depending on their class
+        assertEquals("4:wiki5:space4:page5:en_US",
+            serializer.serialize(new DocumentReference("wiki", "space", "page", Locale.US)));
+        assertEquals("4:wiki5:space4:page", serializer.serialize(new EntityReference("page", EntityType.DOCUMENT,
+            reference.getParent(), Collections.<String, Serializable>singletonMap("locale", Locale.US))));
+    }
+
     @Test
     public void serializeDocumentReferenceWithLocale()
     {
@@ -0,0 +1,88 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.model.reference;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.model.EntityType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link EntityReferenceComparator}.
+ *
+ * @version $Id$
+ */
+class EntityReferenceComparatorTest
+{
+    private static final EntityReferenceComparator COMPARATOR = EntityReferenceComparator.INSTANCE;
+
+    @Test
+    void compare()
+    {
+        DocumentReference reference = new DocumentReference("wiki", "space", "page");
+
+        assertEquals(0, COMPARATOR.compare(reference, reference));
+        assertEquals(0, COMPARATOR.compare(reference, new DocumentReference("wiki", "space", "page")));
+
+        assertTrue(COMPARATOR.compare(reference, new DocumentReference("wiki", "space", "page2")) < 0);
+        assertTrue(COMPARATOR.compare(reference, new DocumentReference("wiki", "a", "z")) > 0);
+        assertTrue(COMPARATOR.compare(reference, new DocumentReference("a", "z", "z")) > 0);
+
+        // Parents come first
+        assertTrue(COMPARATOR.compare(reference.getLastSpaceReference(), reference) < 0);
+        assertTrue(COMPARATOR.compare(reference.getWikiReference(), reference.getLastSpaceReference()) < 0);
+
+        // Same elements with different types
+        assertTrue(COMPARATOR.compare(reference, new EntityReference("page", EntityType.ATTACHMENT,
+            reference.getLastSpaceReference())) != 0);
+    }
+
+    @Test
+    void compareWithParameters()
+    {
+        DocumentReference reference = new DocumentReference("wiki", "space", "page");
+        DocumentReference referenceFR = new DocumentReference(reference, Locale.FRENCH);
+        DocumentReference referenceEN = new DocumentReference(reference, Locale.ENGLISH);
+
+        assertEquals(0, COMPARATOR.compare(referenceFR, new DocumentReference(reference, Locale.FRENCH)));
+        assertTrue(COMPARATOR.compare(reference, referenceFR) < 0);
+        assertTrue(COMPARATOR.compare(referenceFR, reference) > 0);
+        assertEquals(-COMPARATOR.compare(referenceEN, referenceFR), COMPARATOR.compare(referenceFR, referenceEN));
+        assertTrue(COMPARATOR.compare(referenceFR, referenceEN) != 0);
+    }
+
+    @Test
+    void sort()
+    {
+        DocumentReference reference1 = new DocumentReference("wiki", "space", "page");
+        DocumentReference reference2 = new DocumentReference("wiki", "space", "page2");
+        DocumentReference reference3 = new DocumentReference("wiki", "space2", "page");
+
+        List<EntityReference> references = Arrays.asList(reference3, reference2, reference1);
+        references.sort(COMPARATOR);
+
+        assertEquals(Arrays.asList(reference1, reference2, reference3), references);
+    }
+}
@@ -31,6 +31,7 @@
 import java.util.Map;
 import java.util.UUID;
 
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.junit.jupiter.api.Test;
 import org.xwiki.model.EntityType;
 
@@ -289,6 +290,19 @@ public void validateHashCode()
         assertFalse(reference7.hashCode() == reference10.hashCode());
     }
 
+    @Test
+    public void hashCodeIsStable()
+    {
+        EntityReference reference = new EntityReference(PAGE_NAME, EntityType.DOCUMENT,
+            new EntityReference(SPACE_NAME, EntityType.SPACE, new EntityReference(WIKI_NAME, EntityType.WIKI)),
+            getParamMap(2));
+
+        // The memoized hash code is the same as the one which used to be computed each time
+        assertEquals(new HashCodeBuilder(3, 17).append(reference.getName()).append(reference.getType())
+            .append(reference.getParent()).append(reference.getParameters()).toHashCode(), reference.hashCode());
+        assertEquals(reference.hashCode(), new EntityReference(reference).hashCode());
+    }
+
     @Test
     public void compareTo()
     {
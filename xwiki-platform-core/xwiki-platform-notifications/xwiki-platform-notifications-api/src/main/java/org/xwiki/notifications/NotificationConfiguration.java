@@ -87,4 +87,43 @@ default String getEmailGroupingStrategyHint()
     {
         return "default";
     }
+
+    /**
+     * When enabled, the notifications of a user which are computed from the user preferences are searched only among
+     * the events associated with the user when they were pre-filtered, the other filters being applied on the found
+     * events, instead of translating all the user preferences and filters into the query.
+     *
+     * @return true if the notifications of a user should be searched in the user pre-filtered events
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default boolean isPrefilteredInboxEnabled()
+    {
+        return false;
+    }
+
+    /**
+     * Searching the notifications of a user might require to go through a lot of events, for example when the user
+     * follows very active locations but is not allowed to see most of the events, or when many events are grouped in
+     * the same composite event. This limits the number of events which are looked at for a single search.
+     *
+     * @return the maximum number of events to look at when searching the notifications, 0 or less for no limit
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getMaxScannedEvents()
+    {
+        return 0;
+    }
+
+    /**
+     * @return the number of threads to use for computing the notifications of the users receiving periodic emails, 1
+     *         or less to compute them in the thread sending the emails
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getEmailDigestPoolSize()
+    {
+        return 1;
+    }
 }
@@ -147,6 +147,11 @@ private BestSimilarity getBestSimilarity(List<CompositeEvent> results, Event eve
                     bestSimilarity.value = similarity;
                     bestSimilarity.event = existingEvent;
                     bestSimilarity.compositeEvent = existingCompositeEvent;
+
+                    // No other event can be more similar, no need to look at the other composite events
+                    if (similarity >= SimilarityCalculator.SAME_GROUP_ID_AND_DOCUMENT_BUT_DIFFERENT_TYPES) {
+                        return bestSimilarity;
+                    }
                 }
             }
         }
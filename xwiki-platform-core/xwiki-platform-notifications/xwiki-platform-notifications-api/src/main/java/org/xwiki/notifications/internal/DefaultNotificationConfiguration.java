@@ -84,4 +84,22 @@ public String getEmailGroupingStrategyHint()
     {
         return configurationSource.getProperty(CONFIGURATION_PREFIX + "emailGroupingStrategyHint", "default");
     }
+
+    @Override
+    public boolean isPrefilteredInboxEnabled()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "prefilteredInbox", false);
+    }
+
+    @Override
+    public int getMaxScannedEvents()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "maxScannedEvents", 0);
+    }
+
+    @Override
+    public int getEmailDigestPoolSize()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "emails.digest.poolSize", 1);
+    }
 }
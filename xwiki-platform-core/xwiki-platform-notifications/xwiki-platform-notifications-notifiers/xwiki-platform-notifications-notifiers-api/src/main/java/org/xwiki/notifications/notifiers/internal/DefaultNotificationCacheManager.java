@@ -20,6 +20,9 @@
 package org.xwiki.notifications.notifiers.internal;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -35,6 +38,7 @@
 import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.notifications.CompositeEvent;
 import org.xwiki.notifications.NotificationConfiguration;
+import org.xwiki.notifications.filters.internal.status.ForUserEventFilter;
 import org.xwiki.notifications.sources.NotificationParameters;
 
 /**
@@ -44,6 +48,10 @@
  * computed with an instance of {@link NotificationParameters}.
  *
  * Note that this component is useless if the property {@code notifications.rest.cache} is set to true.
+ * <p>
+ * The results which only depend on the events associated with a user during the pre-filtering are invalidated
+ * independently for each user, so that a new event or a status change for a user does not force to compute again the
+ * notifications of all the other users.
  *
  * @since 12.2
  * @version $Id$
@@ -87,6 +95,16 @@ public class DefaultNotificationCacheManager implements Initializable, Disposabl
      */
     private Cache<Integer> longCompositeEventCountCache;
 
+    /**
+     * Version of the results which depend on the events associated with a specific user, indexed by user.
+     */
+    private final Map<String, Long> userVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Version of the results which don't only depend on the events associated with a specific user.
+     */
+    private final AtomicLong sharedVersion = new AtomicLong();
+
     @Override
     public void initialize() throws InitializationException
     {
@@ -146,7 +164,16 @@ public String createCacheKey(NotificationParameters notificationParameters)
             .append(CACHE_KEY_SEPARATOR)
             .append(notificationParameters.onlyUnread)
             .append(CACHE_KEY_SEPARATOR)
-            .append(notificationParameters.hashCode());
+            .append(notificationParameters.hashCode())
+            .append(CACHE_KEY_SEPARATOR);
+
+        // Make sure results computed before the last invalidation are not reused
+        if (isUserResult(notificationParameters)) {
+            cacheKeyBuilder.append('u').append(this.userVersions.getOrDefault(
+                this.entityReferenceSerializer.serialize(notificationParameters.user), 0L));
+        } else {
+            cacheKeyBuilder.append('s').append(this.sharedVersion.get());
+        }
 
         return cacheKeyBuilder.toString();
     }
@@ -197,11 +224,45 @@ public void setInCache(String cacheKey, List<Object> events, boolean count, bool
         }
     }
 
+    private boolean isUserResult(NotificationParameters notificationParameters)
+    {
+        // The results are limited to the events associated with the user when the parameters were generated from the
+        // user preferences
+        return notificationParameters.user != null
+            && notificationParameters.filters.stream().anyMatch(ForUserEventFilter.class::isInstance);
+    }
+
+    /**
+     * Invalidate the results which depend on the events associated with the passed user (the entries are not removed
+     * but won't be used anymore and will be evicted from the cache at some point).
+     *
+     * @param userId the serialized reference of the user (or any other entity) for which the associated events changed
+     * @since 16.2.0RC1
+     */
+    public void flushUserCache(String userId)
+    {
+        this.userVersions.merge(userId, 1L, Long::sum);
+        flushSharedCache();
+    }
+
+    /**
+     * Invalidate the results which don't only depend on the events associated with a specific user (the entries are
+     * not removed but won't be used anymore and will be evicted from the cache at some point).
+     *
+     * @since 16.2.0RC1
+     */
+    public void flushSharedCache()
+    {
+        this.sharedVersion.incrementAndGet();
+    }
+
     /**
      * Empty the long cache.
      */
     public void flushLongCache()
     {
+        this.userVersions.clear();
+
         if (this.configuration.isRestCacheEnabled()) {
             this.longEventCache.removeAll();
             this.longIndividualEventCountCache.removeAll();
@@ -34,6 +34,7 @@
 import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationFormat;
 import org.xwiki.notifications.filters.NotificationFilter;
+import org.xwiki.notifications.filters.internal.status.ForUserEventFilter;
 import org.xwiki.notifications.sources.NotificationParameters;
 import org.xwiki.test.annotation.BeforeComponent;
 import org.xwiki.test.junit5.mockito.ComponentTest;
@@ -152,7 +153,7 @@ public void createCacheKey()
         notificationParameters.onlyUnread = true;
 
         int hashCode = notificationParameters.hashCode();
-        assertEquals("5ALERT/18xwiki:XWiki.Foobar/42/true/22/true/" + hashCode,
+        assertEquals("5ALERT/18xwiki:XWiki.Foobar/42/true/22/true/" + hashCode + "/s0",
             this.defaultNotificationCacheManager.createCacheKey(notificationParameters));
 
         NotificationParameters notificationParameters2 = new NotificationParameters();
@@ -163,7 +164,7 @@ public void createCacheKey()
         notificationParameters2.onlyUnread = true;
 
         hashCode = notificationParameters2.hashCode();
-        assertEquals("5ALERT/18xwiki:XWiki.Foobar/42/true/22/true/" + hashCode,
+        assertEquals("5ALERT/18xwiki:XWiki.Foobar/42/true/22/true/" + hashCode + "/s0",
             this.defaultNotificationCacheManager.createCacheKey(notificationParameters2));
 
         assertNotEquals(notificationParameters, notificationParameters2);
@@ -178,7 +179,7 @@ public void createCacheKey()
         notificationParameters.onlyUnread = false;
 
         hashCode = notificationParameters.hashCode();
-        assertEquals("5EMAIL/19xwiki:XWiki.another/84/true/444/false/" + hashCode,
+        assertEquals("5EMAIL/19xwiki:XWiki.another/84/true/444/false/" + hashCode + "/s0",
             this.defaultNotificationCacheManager.createCacheKey(notificationParameters));
 
         notificationParameters = new NotificationParameters();
@@ -190,7 +191,7 @@ public void createCacheKey()
         notificationParameters.onlyUnread = false;
 
         hashCode = notificationParameters.hashCode();
-        assertEquals("5EMAIL/19xwiki:XWiki.another/84/false/444/false/" + hashCode,
+        assertEquals("5EMAIL/19xwiki:XWiki.another/84/false/444/false/" + hashCode + "/s0",
             this.defaultNotificationCacheManager.createCacheKey(notificationParameters));
 
         notificationParameters = new NotificationParameters();
@@ -200,7 +201,7 @@ public void createCacheKey()
         notificationParameters.onlyUnread = false;
 
         hashCode = notificationParameters.hashCode();
-        assertEquals("5EMAIL/19xwiki:XWiki.another/444/false/" + hashCode,
+        assertEquals("5EMAIL/19xwiki:XWiki.another/444/false/" + hashCode + "/s0",
             this.defaultNotificationCacheManager.createCacheKey(notificationParameters));
 
         notificationParameters = new NotificationParameters();
@@ -208,7 +209,41 @@ public void createCacheKey()
         notificationParameters.user = userReference2;
 
         hashCode = notificationParameters.hashCode();
-        assertEquals("5EMAIL/19xwiki:XWiki.another/0/null/" + hashCode,
+        assertEquals("5EMAIL/19xwiki:XWiki.another/0/null/" + hashCode + "/s0",
             this.defaultNotificationCacheManager.createCacheKey(notificationParameters));
     }
+
+    @Test
+    void flushUserCache()
+    {
+        DocumentReference userReference = new DocumentReference("xwiki", "XWiki", "Foobar");
+        when(this.entityReferenceSerializer.serialize(userReference)).thenReturn("xwiki:XWiki.Foobar");
+
+        NotificationParameters userParameters = new NotificationParameters();
+        userParameters.format = NotificationFormat.ALERT;
+        userParameters.user = userReference;
+        userParameters.filters = Collections.singletonList(new ForUserEventFilter(NotificationFormat.ALERT, null));
+
+        NotificationParameters sharedParameters = new NotificationParameters();
+        sharedParameters.format = NotificationFormat.ALERT;
+        sharedParameters.user = userReference;
+
+        String userKey = this.defaultNotificationCacheManager.createCacheKey(userParameters);
+        String sharedKey = this.defaultNotificationCacheManager.createCacheKey(sharedParameters);
+        assertEquals("5ALERT/18xwiki:XWiki.Foobar/0/null/" + userParameters.hashCode() + "/u0", userKey);
+
+        // A new event only invalidates the results which are not limited to the user events
+        this.defaultNotificationCacheManager.flushSharedCache();
+        assertEquals(userKey, this.defaultNotificationCacheManager.createCacheKey(userParameters));
+        assertNotEquals(sharedKey, this.defaultNotificationCacheManager.createCacheKey(sharedParameters));
+
+        // Another user status change does not invalidate the user results
+        this.defaultNotificationCacheManager.flushUserCache("xwiki:XWiki.Other");
+        assertEquals(userKey, this.defaultNotificationCacheManager.createCacheKey(userParameters));
+
+        this.defaultNotificationCacheManager.flushUserCache("xwiki:XWiki.Foobar");
+        assertNotEquals(userKey, this.defaultNotificationCacheManager.createCacheKey(userParameters));
+
+        verify(this.longCountCache, never()).removeAll();
+    }
 }
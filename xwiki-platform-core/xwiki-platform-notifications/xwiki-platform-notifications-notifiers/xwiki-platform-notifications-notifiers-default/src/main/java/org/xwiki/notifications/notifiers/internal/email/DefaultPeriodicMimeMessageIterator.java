@@ -19,20 +19,40 @@
  */
 package org.xwiki.notifications.notifiers.internal.email;
 
+import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.annotation.InstantiationStrategy;
 import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.context.concurrent.ContextStoreManager;
 import org.xwiki.eventstream.Event;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.notifications.CompositeEvent;
 import org.xwiki.notifications.GroupingEventManager;
+import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationException;
 import org.xwiki.notifications.NotificationFormat;
 import org.xwiki.notifications.sources.NotificationParameters;
@@ -41,8 +61,13 @@
 import org.xwiki.user.UserReference;
 import org.xwiki.user.UserReferenceResolver;
 
+import com.xpn.xwiki.internal.context.XWikiContextContextStore;
+
 /**
  * Default implementation of {@link PeriodicMimeMessageIterator}.
+ * <p>
+ * When a pool size greater than 1 is configured, the notifications of the next users are computed in parallel (each
+ * user in its own execution context) while the emails are generated and sent one after the other.
  *
  * @version $Id$
  * @since 9.10RC1
@@ -52,6 +77,12 @@
 public class DefaultPeriodicMimeMessageIterator extends AbstractMimeMessageIterator
     implements PeriodicMimeMessageIterator
 {
+    /**
+     * The time after which an idle thread of the pool stops, so that the threads don't leak when the iteration is not
+     * completed (e.g. when the sending of the emails is interrupted).
+     */
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 30;
+
     @Inject
     private ParametrizedNotificationManager notificationManager;
 
@@ -65,19 +96,185 @@ public class DefaultPeriodicMimeMessageIterator extends AbstractMimeMessageItera
     @Named("document")
     private UserReferenceResolver<DocumentReference> userReferenceResolver;
 
+    @Inject
+    private NotificationConfiguration configuration;
+
+    @Inject
+    private ExecutionContextManager executionContextManager;
+
+    @Inject
+    private Execution execution;
+
+    @Inject
+    private ContextStoreManager contextStoreManager;
+
     private Date lastTrigger;
 
+    private ExecutorService executor;
+
+    private Map<String, Serializable> context;
+
+    private int prefetchSize;
+
+    /**
+     * The users for which the notifications are being computed, in the order they will be requested.
+     */
+    private final Deque<Pair<DocumentReference, Future<List<CompositeEvent>>>> pendingUsers = new ArrayDeque<>();
+
+    private int userCount;
+
+    private long startTime;
+
+    /**
+     * Start computing the notifications of the next users as soon as they are known.
+     *
+     * @version $Id$
+     */
+    private final class PrefetchingUserIterator implements Iterator<DocumentReference>
+    {
+        private final Iterator<DocumentReference> users;
+
+        private final Deque<DocumentReference> prefetchedUsers = new ArrayDeque<>();
+
+        PrefetchingUserIterator(Iterator<DocumentReference> users)
+        {
+            this.users = users;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            boolean hasNext = !this.prefetchedUsers.isEmpty() || this.users.hasNext();
+
+            if (!hasNext) {
+                stopExecutor();
+            }
+
+            return hasNext;
+        }
+
+        @Override
+        public DocumentReference next()
+        {
+            while (this.prefetchedUsers.size() < prefetchSize && this.users.hasNext()) {
+                DocumentReference user = this.users.next();
+                this.prefetchedUsers.add(user);
+                pendingUsers.add(Pair.of(user, executor.submit(() -> retrieveCompositeEventListInContext(user))));
+            }
+
+            if (this.prefetchedUsers.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            return this.prefetchedUsers.poll();
+        }
+    }
+
     @Override
     public void initialize(NotificationUserIterator userIterator, Map<String, Object> factoryParameters,
         Date lastTrigger, DocumentReference templateReference)
     {
         this.lastTrigger = lastTrigger;
+        this.startTime = System.currentTimeMillis();
 
-        super.initialize(userIterator, factoryParameters, templateReference, userIterator.getInterval());
+        Iterator<DocumentReference> users = userIterator;
+        int poolSize = this.configuration.getEmailDigestPoolSize();
+        if (poolSize > 1) {
+            this.context = saveContext();
+            this.prefetchSize = poolSize * 2;
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder()
+                    .namingPattern("Notification email thread %d").daemon(true).priority(Thread.MIN_PRIORITY).build());
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+
+            users = new PrefetchingUserIterator(userIterator);
+        }
+
+        super.initialize(users, factoryParameters, templateReference, userIterator.getInterval());
+    }
+
+    private Map<String, Serializable> saveContext()
+    {
+        try {
+            return this.contextStoreManager.save(List.of(XWikiContextContextStore.PROP_WIKI,
+                XWikiContextContextStore.PROP_USER, XWikiContextContextStore.PROP_LOCALE));
+        } catch (ComponentLookupException e) {
+            this.logger.warn("Failed to save the context of the notification emails. Root cause is [{}].",
+                ExceptionUtils.getRootCauseMessage(e));
+
+            return null;
+        }
+    }
+
+    private void stopExecutor()
+    {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+            this.pendingUsers.clear();
+
+            this.logger.debug("Computed the notification emails of [{}] users in [{}] ms", this.userCount,
+                System.currentTimeMillis() - this.startTime);
+        }
+    }
+
+    private List<CompositeEvent> retrieveCompositeEventListInContext(DocumentReference user) throws Exception
+    {
+        // Isolate each user in a dedicated execution context
+        this.executionContextManager.initialize(new ExecutionContext());
+
+        try {
+            if (this.context != null) {
+                this.contextStoreManager.restore(this.context);
+            }
+
+            return retrieveUserCompositeEventList(user);
+        } finally {
+            this.execution.removeContext();
+        }
     }
 
     @Override
     protected List<CompositeEvent> retrieveCompositeEventList(DocumentReference user) throws NotificationException
+    {
+        ++this.userCount;
+
+        // Get the result of the notifications computed in parallel, if any
+        Pair<DocumentReference, Future<List<CompositeEvent>>> pendingUser;
+        while ((pendingUser = this.pendingUsers.poll()) != null) {
+            if (pendingUser.getLeft().equals(user)) {
+                return getCompositeEventList(user, pendingUser.getRight());
+            }
+
+            // The notifications of this user are not needed anymore (e.g. the user does not have a valid email)
+            pendingUser.getRight().cancel(true);
+        }
+
+        return retrieveUserCompositeEventList(user);
+    }
+
+    private List<CompositeEvent> getCompositeEventList(DocumentReference user, Future<List<CompositeEvent>> future)
+        throws NotificationException
+    {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new NotificationException(
+                String.format("Interrupted while computing the notifications of user [%s]", user), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NotificationException) {
+                throw (NotificationException) e.getCause();
+            }
+
+            throw new NotificationException(
+                String.format("Failed to compute the notifications of user [%s]", user), e.getCause());
+        }
+    }
+
+    private List<CompositeEvent> retrieveUserCompositeEventList(DocumentReference user) throws NotificationException
     {
         NotificationParameters notificationParameters = new NotificationParameters();
         notificationParameters.user = user;
@@ -23,8 +23,13 @@
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.inject.Named;
@@ -33,6 +38,8 @@
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.internal.util.collections.Sets;
 import org.xwiki.bridge.DocumentAccessBridge;
 import org.xwiki.component.manager.ComponentManager;
@@ -73,6 +80,7 @@
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -148,18 +156,29 @@ void beforeEach()
         when(this.documentReferenceResolver.resolve(eq(TEMPLATE_REFERENCE), any())).thenReturn(TEMPLATE_REFERENCE);
     }
 
-    @Test
-    void test() throws Exception
+    private NotificationUserIterator mockUserIterator(DocumentReference... users)
+    {
+        Iterator<DocumentReference> iterator = List.of(users).iterator();
+        NotificationUserIterator userIterator = mock(NotificationUserIterator.class);
+        when(userIterator.hasNext()).then(invocation -> iterator.hasNext());
+        when(userIterator.next()).then(invocation -> iterator.next());
+
+        return userIterator;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2 })
+    void test(int poolSize) throws Exception
     {
+        when(this.notificationConfiguration.getEmailDigestPoolSize()).thenReturn(poolSize);
+
         Map<String, Object> factoryParameters = new HashMap<>();
 
         // Mocks
-        NotificationUserIterator userIterator = mock(NotificationUserIterator.class);
         DocumentReference userA = new DocumentReference("xwiki", "XWiki", "UserA");
         DocumentReference userB = new DocumentReference("xwiki", "XWiki", "UserB");
         DocumentReference userC = new DocumentReference("xwiki", "XWiki", "UserC");
-        when(userIterator.hasNext()).thenReturn(true, true, true, false);
-        when(userIterator.next()).thenReturn(userA, userB, userC);
+        NotificationUserIterator userIterator = mockUserIterator(userA, userB, userC);
         DocumentReference userClass = new DocumentReference("xwiki", "XWiki", "XWikiUsers");
         when(this.documentAccessBridge.getProperty(userA, userClass, 0, "email")).thenReturn("userA@xwiki.org");
         when(this.documentAccessBridge.getProperty(userB, userClass, 0, "email")).thenReturn("bad email");
@@ -293,4 +312,38 @@ void test() throws Exception
         assertEquals(this.iterator, this.iterator.iterator());
     }
 
+    @Test
+    void computeNotificationsInParallel() throws Exception
+    {
+        when(this.notificationConfiguration.getEmailDigestPoolSize()).thenReturn(2);
+
+        DocumentReference userA = new DocumentReference("xwiki", "XWiki", "UserA");
+        DocumentReference userB = new DocumentReference("xwiki", "XWiki", "UserB");
+        NotificationUserIterator userIterator = mockUserIterator(userA, userB);
+        DocumentReference userClass = new DocumentReference("xwiki", "XWiki", "XWikiUsers");
+        when(this.documentAccessBridge.getProperty(any(DocumentReference.class), eq(userClass), eq(0), eq("email")))
+            .thenReturn("user@xwiki.org");
+
+        // The notifications of each user can only be computed once the computation for the other user has started,
+        // which is only possible when they are computed in parallel
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(this.notificationManager.getRawEvents(any())).then(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            barrier.await(10, TimeUnit.SECONDS);
+
+            return List.of();
+        });
+
+        this.iterator.initialize(userIterator, new HashMap<>(), new Date(0L), TEMPLATE_REFERENCE);
+
+        // None of the users has notifications
+        assertFalse(this.iterator.hasNext());
+
+        verify(this.notificationManager, times(2)).getRawEvents(any());
+        assertFalse(barrier.isBroken());
+        assertEquals(2, threads.size());
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+    }
+
 }
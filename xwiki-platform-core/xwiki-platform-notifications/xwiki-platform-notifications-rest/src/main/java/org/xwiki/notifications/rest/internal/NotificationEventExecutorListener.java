@@ -26,6 +26,7 @@
 import org.xwiki.bridge.event.WikiCreatedEvent;
 import org.xwiki.bridge.event.WikiDeletedEvent;
 import org.xwiki.component.annotation.Component;
+import org.xwiki.eventstream.EventStatus;
 import org.xwiki.eventstream.events.EventStreamAddedEvent;
 import org.xwiki.eventstream.events.EventStreamDeletedEvent;
 import org.xwiki.eventstream.internal.events.EventStatusAddOrUpdatedEvent;
@@ -41,6 +42,9 @@
 
 /**
  * A listener used to invalidate the notification event cache when a new event is stored.
+ * <p>
+ * New events and status changes only invalidate the results of the concerned user (and the results which are not
+ * specific to a user) instead of the whole cache.
  * 
  * @version $Id$
  * @since 10.11.4
@@ -74,6 +78,14 @@ public NotificationEventExecutorListener()
     @Override
     public void onEvent(Event event, Object source, Object data)
     {
-        this.cache.flushLongCache();
+        if (event instanceof EventStreamAddedEvent) {
+            // A new event is only associated with users through the pre-filtering, which saves a status
+            this.cache.flushSharedCache();
+        } else if ((event instanceof EventStatusAddOrUpdatedEvent || event instanceof EventStatusDeletedEvent)
+            && source instanceof EventStatus) {
+            this.cache.flushUserCache(((EventStatus) source).getEntityId());
+        } else {
+            this.cache.flushLongCache();
+        }
     }
 }
@@ -36,6 +36,7 @@
 import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.notifications.CompositeEvent;
 import org.xwiki.notifications.GroupingEventManager;
+import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationException;
 import org.xwiki.notifications.filters.NotificationFilter;
 import org.xwiki.notifications.filters.internal.status.EventReadAlertFilter;
@@ -97,6 +98,9 @@ public class DefaultParametrizedNotificationManager implements ParametrizedNotif
     @Inject
     private GroupingEventManager groupingEventManager;
 
+    @Inject
+    private NotificationConfiguration configuration;
+
     @Inject
     private Logger logger;
 
@@ -133,13 +137,20 @@ private List<Event> getRawEvents(NotificationParameters parameters, List<Composi
         // more events than expected and we will filter afterwards.
         int batchSize = parameters.expectedCount * 2;
         int offset = 0;
+        int maxScannedEvents = this.configuration.getMaxScannedEvents();
+        UserReference userReference = parameters.user != null ? this.userReferenceResolver.resolve(parameters.user)
+            : null;
         try {
             boolean done = false;
             while (!done) {
+                if (maxScannedEvents > 0) {
+                    batchSize = Math.min(batchSize, maxScannedEvents - offset);
+                }
+
                 // Get a batch of events
                 List<Event> batch = this.eventSearcher.searchEvents(offset, batchSize, parameters);
 
-                done = addMatchingEventsToResults(batch, parameters, results, compositeEvents);
+                done = addMatchingEventsToResults(batch, parameters, userReference, results, compositeEvents);
                 if (!done) {
                     if (batch.size() < batchSize) {
                         // there are no more results to expect. stop.
@@ -147,7 +158,12 @@ private List<Event> getRawEvents(NotificationParameters parameters, List<Composi
                     } else {
                         // grab a larger batch size next time to get more possible results
                         offset += batchSize;
-                        if (batchSize < MAX_BATCH_SIZE) {
+                        if (maxScannedEvents > 0 && offset >= maxScannedEvents) {
+                            // Don't look at more events than allowed
+                            this.logger.debug("Stopped searching notifications after [{}] events for user [{}]",
+                                offset, parameters.user);
+                            done = true;
+                        } else if (batchSize < MAX_BATCH_SIZE) {
                             batchSize <<= 1;
                         }
                     }
@@ -161,7 +177,8 @@ private List<Event> getRawEvents(NotificationParameters parameters, List<Composi
     }
 
     private boolean addMatchingEventsToResults(List<Event> batch, NotificationParameters parameters,
-        List<Event> results, List<CompositeEvent> compositeEvents) throws EventStreamException, NotificationException
+        UserReference userReference, List<Event> results, List<CompositeEvent> compositeEvents)
+        throws EventStreamException, NotificationException
     {
         boolean done = false;
         // Add to the results the events the user has the right to see
@@ -186,10 +203,6 @@ private boolean addMatchingEventsToResults(List<Event> batch, NotificationParame
             // if what's requested is the composite events, then we only stop when the number of composite events
             // is reached
             if (compositeEvents != null) {
-                UserReference userReference = null;
-                if (parameters.user != null) {
-                    userReference = this.userReferenceResolver.resolve(parameters.user);
-                }
                 this.groupingEventManager.augmentCompositeEvents(compositeEvents, List.of(event), userReference,
                     parameters.groupingEventTarget);
                 reachedSize = compositeEvents.size();
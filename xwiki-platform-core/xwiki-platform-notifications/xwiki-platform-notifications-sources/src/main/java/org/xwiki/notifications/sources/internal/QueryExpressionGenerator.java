@@ -31,6 +31,7 @@
 import org.xwiki.eventstream.EventStreamException;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.LocalDocumentReference;
+import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.filters.NotificationFilter;
 import org.xwiki.notifications.filters.NotificationFilterManager;
 import org.xwiki.notifications.filters.NotificationFilterPreference;
@@ -51,6 +52,8 @@
 import org.xwiki.notifications.filters.expression.StringValueNode;
 import org.xwiki.notifications.filters.expression.generics.AbstractOperatorNode;
 import org.xwiki.notifications.filters.expression.generics.AbstractValueNode;
+import org.xwiki.notifications.filters.internal.status.AbstractForUserEventFilter;
+import org.xwiki.notifications.filters.internal.status.ForUserEventFilter;
 import org.xwiki.notifications.preferences.NotificationPreference;
 import org.xwiki.notifications.preferences.NotificationPreferenceProperty;
 import org.xwiki.notifications.sources.NotificationParameters;
@@ -88,6 +91,9 @@
     @Named("document")
     private UserReferenceResolver<DocumentReference> userReferenceResolver;
 
+    @Inject
+    private NotificationConfiguration configuration;
+
     /**
      * Generate the query.
      *
@@ -105,6 +111,10 @@ public ExpressionNode generateQueryExpression(NotificationParameters parameters)
             return null;
         }
 
+        if (isPrefilteredInboxQuery(parameters)) {
+            return generatePrefilteredInboxQueryExpression(parameters);
+        }
+
         AbstractOperatorNode topNode = null;
 
         // Condition 1: (maybe) events have happened after the given start date
@@ -153,6 +163,55 @@ public ExpressionNode generateQueryExpression(NotificationParameters parameters)
         return topNode;
     }
 
+    private boolean isPrefilteredInboxQuery(NotificationParameters parameters)
+    {
+        // Only when the parameters were generated from the user preferences: all event types are enabled and the
+        // events are expected to have been associated with the user during the pre-filtering
+        return parameters.user != null && this.configuration.isPrefilteredInboxEnabled()
+            && parameters.filters.stream().anyMatch(ForUserEventFilter.class::isInstance)
+            && parameters.preferences.stream().allMatch(InternalNotificationPreference.class::isInstance);
+    }
+
+    /**
+     * Generate a query which only targets the events associated with the user during the pre-filtering (and their
+     * status), whatever the number of preferences and filters. The events have already been checked against the user
+     * preferences and filters when they were pre-filtered, and the post-filtering is still applied on the found events.
+     *
+     * @param parameters parameters
+     * @return the query expression
+     */
+    private ExpressionNode generatePrefilteredInboxQueryExpression(NotificationParameters parameters)
+    {
+        AbstractOperatorNode topNode = null;
+
+        if (parameters.fromDate != null) {
+            topNode =
+                new GreaterThanNode(new PropertyValueNode(EventProperty.DATE), new DateValueNode(parameters.fromDate));
+        }
+
+        for (NotificationFilter filter : parameters.filters) {
+            if (filter instanceof AbstractForUserEventFilter) {
+                ExpressionNode node = filter.filterExpression(parameters.user, parameters.filterPreferences,
+                    NotificationFilterType.EXCLUSIVE, parameters.format);
+                if (node instanceof AbstractOperatorNode) {
+                    if (topNode == null) {
+                        topNode = (AbstractOperatorNode) node;
+                    } else {
+                        topNode = topNode.and((AbstractOperatorNode) node);
+                    }
+                }
+            }
+        }
+
+        topNode = handleBlackList(parameters, topNode);
+        topNode = handleEndDate(parameters, topNode);
+        topNode = handleHiddenEvents(parameters, topNode);
+        topNode = handleWiki(parameters, topNode);
+        topNode = handleOrder(topNode);
+
+        return topNode;
+    }
+
     /**
      * For each notification preference of the given user, add a constraint on the events to - have one of the
      * notification types that have been subscribed by the user; - have a date superior to the start date corresponding
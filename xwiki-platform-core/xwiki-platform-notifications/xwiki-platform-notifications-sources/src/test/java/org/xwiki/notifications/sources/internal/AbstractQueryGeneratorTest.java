@@ -26,6 +26,7 @@
 
 import org.junit.jupiter.api.BeforeEach;
 import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationFormat;
 import org.xwiki.notifications.filters.NotificationFilterManager;
 import org.xwiki.notifications.filters.NotificationFilterPreference;
@@ -69,6 +70,9 @@
     @Named("document")
     protected UserReferenceResolver<DocumentReference> userReferenceResolver;
 
+    @MockComponent
+    protected NotificationConfiguration notificationConfiguration;
+
     protected Date startDate;
 
     protected Date pref1StartDate;
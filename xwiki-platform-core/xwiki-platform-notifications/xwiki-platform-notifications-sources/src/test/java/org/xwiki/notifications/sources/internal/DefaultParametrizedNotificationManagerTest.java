@@ -32,6 +32,7 @@
 import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.notifications.CompositeEvent;
 import org.xwiki.notifications.GroupingEventManager;
+import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationException;
 import org.xwiki.notifications.NotificationFormat;
 import org.xwiki.notifications.filters.NotificationFilter;
@@ -95,6 +96,9 @@
     @MockComponent
     private GroupingEventManager groupingEventManager;
 
+    @MockComponent
+    private NotificationConfiguration configuration;
+
     private DocumentReference userReference = new DocumentReference("xwiki", "XWiki", "UserA");
 
     @BeforeEach
@@ -223,6 +227,31 @@ void getEventsWhenException() throws Exception
         assertEquals(exception, notificationException.getCause());
     }
 
+    @Test
+    void getEventsWithMaxScannedEvents() throws Exception
+    {
+        when(this.configuration.getMaxScannedEvents()).thenReturn(6);
+
+        // The user is not allowed to see any of the events
+        DocumentReference document = new DocumentReference("xwiki", "PrivateSpace", "WebHome");
+        Event event = createMockedEvent();
+        when(event.getDocument()).thenReturn(document);
+
+        NotificationParameters parameters = new NotificationParameters();
+        parameters.user = this.userReference;
+        parameters.expectedCount = 2;
+
+        when(this.eventSearcher.searchEvents(0, 4, parameters)).thenReturn(List.of(event, event, event, event));
+        when(this.eventSearcher.searchEvents(4, 2, parameters)).thenReturn(List.of(event, event));
+
+        assertEquals(0, this.defaultParametrizedNotificationManager.getEvents(parameters).size());
+
+        // Only 6 events were looked at even if more are available
+        verify(this.eventSearcher).searchEvents(0, 4, parameters);
+        verify(this.eventSearcher).searchEvents(4, 2, parameters);
+        verify(this.eventSearcher, times(2)).searchEvents(anyInt(), anyInt(), any());
+    }
+
     @Test
     void getEventsCount() throws Exception
     {
@@ -28,6 +28,7 @@
 
 import org.junit.jupiter.api.Test;
 import org.xwiki.eventstream.Event;
+import org.xwiki.eventstream.RecordableEventDescriptor;
 import org.xwiki.eventstream.query.CompareQueryCondition;
 import org.xwiki.eventstream.query.CompareQueryCondition.CompareType;
 import org.xwiki.eventstream.query.GroupQueryCondition;
@@ -45,7 +46,9 @@
 import org.xwiki.notifications.filters.NotificationFilter;
 import org.xwiki.notifications.filters.expression.EmptyNode;
 import org.xwiki.notifications.filters.expression.EventProperty;
+import org.xwiki.notifications.filters.NotificationFilterType;
 import org.xwiki.notifications.filters.expression.NotNode;
+import org.xwiki.notifications.filters.internal.status.ForUserEventFilter;
 import org.xwiki.notifications.filters.internal.status.ForUserNode;
 import org.xwiki.notifications.preferences.NotificationPreference;
 import org.xwiki.notifications.sources.NotificationParameters;
@@ -55,9 +58,12 @@
 import org.xwiki.user.UserReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.xwiki.notifications.filters.expression.generics.ExpressionBuilder.value;
 
@@ -536,4 +542,39 @@ void generateQueryWithPreFilteringEmailReadFilter() throws Exception
 
         assertEquals(new SortClause(Event.FIELD_DATE, Order.DESC), sortClause.get(0));
     }
+
+    @Test
+    void generateQueryWithPrefilteredInbox() throws Exception
+    {
+        when(this.notificationConfiguration.isPrefilteredInboxEnabled()).thenReturn(true);
+
+        RecordableEventDescriptor descriptor = mock(RecordableEventDescriptor.class);
+        when(descriptor.getEventType()).thenReturn("create");
+
+        NotificationFilter notificationFilter = mock(NotificationFilter.class);
+
+        NotificationParameters parameters = new NotificationParameters();
+        parameters.user = USER_REFERENCE;
+        parameters.format = NotificationFormat.ALERT;
+        parameters.fromDate = this.startDate;
+        parameters.filters = Arrays.asList(notificationFilter, new ForUserEventFilter(NotificationFormat.ALERT, null));
+        parameters.preferences = Arrays.asList(new InternalNotificationPreference(descriptor));
+        parameters.filterPreferences = Arrays.asList(this.fakeFilterPreference);
+
+        SimpleEventQuery query = this.generator.generateQuery(parameters);
+
+        Iterator<QueryCondition> conditions = query.getConditions().iterator();
+
+        assertEquals(new CompareQueryCondition(Event.FIELD_DATE, this.startDate, CompareType.GREATER_OR_EQUALS, false),
+            conditions.next());
+        assertEquals(new StatusQueryCondition(SERIALIZED_USER_REFERENCE, null, false), conditions.next());
+        assertEquals(new CompareQueryCondition(Event.FIELD_HIDDEN, true, CompareType.EQUALS, true), conditions.next());
+        assertFalse(conditions.hasNext());
+
+        assertEquals(new SortClause(Event.FIELD_DATE, Order.DESC), query.getSorts().get(0));
+
+        // The other filters are not translated into the query
+        verify(notificationFilter, never()).filterExpression(any(), any(), any(NotificationFilterType.class),
+            any());
+    }
 }
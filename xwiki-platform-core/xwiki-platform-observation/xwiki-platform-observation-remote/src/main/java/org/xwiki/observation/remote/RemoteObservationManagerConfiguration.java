@@ -22,6 +22,7 @@
 import java.util.List;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
 
 /**
  * Provide configuration for remote observation manager.
@@ -56,4 +57,47 @@ default String getId()
     {
         return null;
     }
+
+    /**
+     * @return the identifier of the {@link org.xwiki.observation.remote.codec.RemoteEventDataCodec} to use to encode
+     *     the events sent on the network
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default String getCodec()
+    {
+        return "java";
+    }
+
+    /**
+     * @return the number of milliseconds during which events are accumulated before being sent as a single message, 0
+     *     to send each event as soon as it's produced
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default long getBatchDelay()
+    {
+        return 0;
+    }
+
+    /**
+     * @return the maximum number of events sent in a single message
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getBatchMaxSize()
+    {
+        return 100;
+    }
+
+    /**
+     * @return the number of milliseconds during which the invalidations produced outside of an explicit batch are
+     *     collected before being sent to the other members, 0 to send them right away
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default long getInvalidationDelay()
+    {
+        return 100;
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.IOException;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * The input used by {@link BinaryValueSerializer} to read a value written with the matching {@link BinaryValueOutput}
+ * methods.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Unstable
+public interface BinaryValueInput
+{
+    /**
+     * @return the read boolean
+     * @throws IOException when failing to read the value
+     */
+    boolean readBoolean() throws IOException;
+
+    /**
+     * @return the read integer
+     * @throws IOException when failing to read the value
+     */
+    int readInt() throws IOException;
+
+    /**
+     * @return the read long
+     * @throws IOException when failing to read the value
+     */
+    long readLong() throws IOException;
+
+    /**
+     * @return the read string, can be {@code null}
+     * @throws IOException when failing to read the value
+     */
+    String readString() throws IOException;
+
+    /**
+     * @return the read bytes, can be {@code null}
+     * @throws IOException when failing to read the value
+     */
+    byte[] readBytes() throws IOException;
+
+    /**
+     * @return the read value, can be {@code null}
+     * @throws IOException when failing to read the value
+     */
+    Object readValue() throws IOException;
+
+    /**
+     * @return the class loader to use to resolve classes
+     */
+    ClassLoader getClassLoader();
+}
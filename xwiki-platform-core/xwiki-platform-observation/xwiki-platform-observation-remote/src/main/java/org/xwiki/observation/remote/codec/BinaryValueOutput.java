@@ -0,0 +1,78 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.IOException;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * The output used by {@link BinaryValueSerializer} to write a value.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Unstable
+public interface BinaryValueOutput
+{
+    /**
+     * @param value the boolean to write
+     * @throws IOException when failing to write the value
+     */
+    void writeBoolean(boolean value) throws IOException;
+
+    /**
+     * Write an integer using a variable length encoding (small values, positive or negative, take less space).
+     *
+     * @param value the integer to write
+     * @throws IOException when failing to write the value
+     */
+    void writeInt(int value) throws IOException;
+
+    /**
+     * Write a long using a variable length encoding (small values, positive or negative, take less space).
+     *
+     * @param value the long to write
+     * @throws IOException when failing to write the value
+     */
+    void writeLong(long value) throws IOException;
+
+    /**
+     * Write a string. Strings repeated in the same message are only written once.
+     *
+     * @param value the string to write, can be {@code null}
+     * @throws IOException when failing to write the value
+     */
+    void writeString(String value) throws IOException;
+
+    /**
+     * @param value the bytes to write, can be {@code null}
+     * @throws IOException when failing to write the value
+     */
+    void writeBytes(byte[] value) throws IOException;
+
+    /**
+     * Write any value, using the best available {@link BinaryValueSerializer}.
+     *
+     * @param value the value to write, can be {@code null}
+     * @throws IOException when failing to write the value
+     */
+    void writeValue(Object value) throws IOException;
+}
@@ -0,0 +1,60 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.IOException;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Write and read a specific type of value in the compact binary format of the {@code binary}
+ * {@link RemoteEventDataCodec}. Values which are not supported by any serializer fallback on Java serialization.
+ * <p>
+ * The role hint of the component is written in the stream to identify the serializer to use when reading the value so
+ * it must be the same on all the members of the cluster.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Role
+@Unstable
+public interface BinaryValueSerializer
+{
+    /**
+     * @param value the value to write, never {@code null}
+     * @return {@code true} if this serializer can write the passed value
+     */
+    boolean canSerialize(Object value);
+
+    /**
+     * @param value the value to write
+     * @param output the output where to write the value
+     * @throws IOException when failing to write the value
+     */
+    void write(Object value, BinaryValueOutput output) throws IOException;
+
+    /**
+     * @param input the input from where to read the value
+     * @return the read value
+     * @throws IOException when failing to read the value
+     */
+    Object read(BinaryValueInput input) throws IOException;
+}
@@ -0,0 +1,58 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Encode and decode a batch of {@link RemoteEventData} to and from the bytes sent on the network.
+ * <p>
+ * The codec to use is selected with the {@code observation.remote.codec} configuration property which is matched with
+ * the component role hint.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Role
+@Unstable
+public interface RemoteEventDataCodec
+{
+    /**
+     * @param events the events to encode, in the order in which they should be notified on the other members
+     * @return the encoded events
+     * @throws IOException when failing to encode the events
+     */
+    byte[] encode(List<RemoteEventData> events) throws IOException;
+
+    /**
+     * @param bytes the buffer containing the encoded events
+     * @param offset the index of the first byte to read in the buffer
+     * @param length the number of bytes to read in the buffer
+     * @param classLoader the class loader to use to resolve the classes of the decoded values
+     * @return the decoded events, in the order in which they were encoded
+     * @throws IOException when failing to decode the events
+     */
+    List<RemoteEventData> decode(byte[] bytes, int offset, int length, ClassLoader classLoader) throws IOException;
+}
@@ -83,6 +83,30 @@ public String getNetworkAdapter()
         return this.configurationSource.getProperty("observation.remote.networkadapter", "jgroups");
     }
 
+    @Override
+    public String getCodec()
+    {
+        return this.configurationSource.getProperty("observation.remote.codec", "java");
+    }
+
+    @Override
+    public long getBatchDelay()
+    {
+        return this.configurationSource.getProperty("observation.remote.batch.delay", 0L);
+    }
+
+    @Override
+    public int getBatchMaxSize()
+    {
+        return this.configurationSource.getProperty("observation.remote.batch.maxSize", 100);
+    }
+
+    @Override
+    public long getInvalidationDelay()
+    {
+        return this.configurationSource.getProperty("observation.remote.invalidation.delay", 100L);
+    }
+
     @Override
     public String getId()
     {
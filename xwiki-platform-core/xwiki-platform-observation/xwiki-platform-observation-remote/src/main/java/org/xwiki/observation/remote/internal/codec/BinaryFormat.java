@@ -0,0 +1,73 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+/**
+ * Constants of the format produced by {@link BinaryRemoteEventDataCodec}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public final class BinaryFormat
+{
+    /**
+     * The version of the format, written at the beginning of each message.
+     */
+    public static final byte VERSION = 1;
+
+    static final byte TYPE_NULL = 0;
+
+    static final byte TYPE_STRING = 1;
+
+    static final byte TYPE_BOOLEAN_TRUE = 2;
+
+    static final byte TYPE_BOOLEAN_FALSE = 3;
+
+    static final byte TYPE_INTEGER = 4;
+
+    static final byte TYPE_LONG = 5;
+
+    static final byte TYPE_BYTES = 6;
+
+    static final byte TYPE_LOCALE = 7;
+
+    static final byte TYPE_DATE = 8;
+
+    static final byte TYPE_LIST = 9;
+
+    static final byte TYPE_SET = 10;
+
+    static final byte TYPE_MAP = 11;
+
+    static final byte TYPE_CUSTOM = 12;
+
+    static final byte TYPE_SERIALIZED = 13;
+
+    static final long STRING_NULL = 0;
+
+    static final long STRING_NEW = 1;
+
+    static final long STRING_REFERENCE_OFFSET = 2;
+
+    private BinaryFormat()
+    {
+        // Utility class
+    }
+}
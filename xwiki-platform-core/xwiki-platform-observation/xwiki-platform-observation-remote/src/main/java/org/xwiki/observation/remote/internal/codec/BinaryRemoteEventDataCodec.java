@@ -0,0 +1,120 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+import org.xwiki.observation.remote.codec.RemoteEventDataCodec;
+
+/**
+ * Encode events in a compact binary format: common values (strings, numbers, collections, etc.) are written with a
+ * type tag, strings repeated in a message are written only once, other values are written by the matching
+ * {@link BinaryValueSerializer} components and Java serialization is only used as a last resort.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(BinaryRemoteEventDataCodec.HINT)
+@Singleton
+public class BinaryRemoteEventDataCodec implements RemoteEventDataCodec
+{
+    /**
+     * The role hint of the component.
+     */
+    public static final String HINT = "binary";
+
+    @Inject
+    private Provider<ComponentManager> componentManagerProvider;
+
+    @Override
+    public byte[] encode(List<RemoteEventData> events) throws IOException
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutput = new DataOutputStream(stream)) {
+            dataOutput.writeByte(BinaryFormat.VERSION);
+
+            BinaryValueOutput output = new DefaultBinaryValueOutput(dataOutput, getSerializers());
+
+            output.writeInt(events.size());
+            for (RemoteEventData event : events) {
+                output.writeValue(event.getEvent());
+                output.writeValue(event.getSource());
+                output.writeValue(event.getData());
+            }
+        }
+
+        return stream.toByteArray();
+    }
+
+    @Override
+    public List<RemoteEventData> decode(byte[] bytes, int offset, int length, ClassLoader classLoader)
+        throws IOException
+    {
+        try (DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+            byte version = dataInput.readByte();
+            if (version != BinaryFormat.VERSION) {
+                throw new IOException("Unsupported binary format version [" + version + "]");
+            }
+
+            BinaryValueInput input = new DefaultBinaryValueInput(dataInput, getSerializers(), classLoader);
+
+            int size = input.readInt();
+            List<RemoteEventData> events = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                events.add(new RemoteEventData((Serializable) input.readValue(), (Serializable) input.readValue(),
+                    (Serializable) input.readValue()));
+            }
+
+            return events;
+        }
+    }
+
+    private Map<String, BinaryValueSerializer> getSerializers() throws IOException
+    {
+        try {
+            // Keep the order of the component manager so that the choice of the serializer is predictable
+            return new LinkedHashMap<>(this.componentManagerProvider.get().getInstanceMap(BinaryValueSerializer.class));
+        } catch (ComponentLookupException e) {
+            throw new IOException("Failed to lookup the binary value serializers", e);
+        }
+    }
+}
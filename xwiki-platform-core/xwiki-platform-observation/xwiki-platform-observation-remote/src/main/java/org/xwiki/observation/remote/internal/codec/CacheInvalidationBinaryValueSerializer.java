@@ -0,0 +1,97 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+import org.xwiki.observation.remote.invalidation.CacheInvalidationEvent;
+
+/**
+ * Write the {@link CacheInvalidationEvent} and their {@link CacheInvalidation} source in a compact form.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named("cacheinvalidation")
+@Singleton
+public class CacheInvalidationBinaryValueSerializer implements BinaryValueSerializer
+{
+    private static final int EVENT = 0;
+
+    private static final int INVALIDATION = 1;
+
+    @Override
+    public boolean canSerialize(Object value)
+    {
+        return value.getClass() == CacheInvalidationEvent.class || value.getClass() == CacheInvalidation.class;
+    }
+
+    @Override
+    public void write(Object value, BinaryValueOutput output) throws IOException
+    {
+        if (value instanceof CacheInvalidationEvent) {
+            output.writeInt(EVENT);
+            output.writeString(((CacheInvalidationEvent) value).getCacheId());
+        } else {
+            CacheInvalidation invalidation = (CacheInvalidation) value;
+
+            output.writeInt(INVALIDATION);
+            output.writeBoolean(invalidation.isAll());
+            output.writeLong(invalidation.getDate());
+            output.writeInt(invalidation.getKeys().size());
+            for (String key : invalidation.getKeys()) {
+                output.writeString(key);
+            }
+        }
+    }
+
+    @Override
+    public Object read(BinaryValueInput input) throws IOException
+    {
+        int type = input.readInt();
+
+        if (type == EVENT) {
+            return new CacheInvalidationEvent(input.readString());
+        } else if (type == INVALIDATION) {
+            boolean all = input.readBoolean();
+            long date = input.readLong();
+            int size = input.readInt();
+            Set<String> keys = new LinkedHashSet<>(size * 2);
+            for (int i = 0; i < size; ++i) {
+                keys.add(input.readString());
+            }
+
+            return new CacheInvalidation(keys, all, date);
+        }
+
+        throw new IOException("Unknown cache invalidation value type [" + type + "]");
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+/**
+ * An {@link ObjectInputStream} resolving classes with a specific class loader.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class ClassLoaderObjectInputStream extends ObjectInputStream
+{
+    private final ClassLoader classLoader;
+
+    /**
+     * @param in the stream to read
+     * @param classLoader the class loader to use to resolve classes
+     * @throws IOException when failing to read the stream header
+     */
+    public ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException
+    {
+        super(in);
+
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+    {
+        if (this.classLoader != null) {
+            try {
+                return Class.forName(desc.getName(), false, this.classLoader);
+            } catch (ClassNotFoundException e) {
+                // Fallback on the standard behavior (which also handles primitive types)
+            }
+        }
+
+        return super.resolveClass(desc);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+
+/**
+ * Default implementation of {@link BinaryValueInput}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class DefaultBinaryValueInput implements BinaryValueInput
+{
+    private final DataInputStream input;
+
+    private final Map<String, BinaryValueSerializer> serializers;
+
+    private final ClassLoader classLoader;
+
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * @param input the stream from where to read
+     * @param serializers the custom serializers indexed by role hint
+     * @param classLoader the class loader to use to resolve classes
+     */
+    public DefaultBinaryValueInput(DataInputStream input, Map<String, BinaryValueSerializer> serializers,
+        ClassLoader classLoader)
+    {
+        this.input = input;
+        this.serializers = serializers;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public ClassLoader getClassLoader()
+    {
+        return this.classLoader;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException
+    {
+        return this.input.readBoolean();
+    }
+
+    @Override
+    public int readInt() throws IOException
+    {
+        long value = readUnsignedVarLong();
+
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    @Override
+    public long readLong() throws IOException
+    {
+        long value = readUnsignedVarLong();
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readUnsignedVarLong() throws IOException
+    {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new IOException("Malformed variable length number");
+            }
+            b = this.input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    @Override
+    public String readString() throws IOException
+    {
+        long code = readUnsignedVarLong();
+
+        if (code == BinaryFormat.STRING_NULL) {
+            return null;
+        } else if (code == BinaryFormat.STRING_NEW) {
+            long length = readUnsignedVarLong();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid string length [" + length + "]");
+            }
+            byte[] bytes = new byte[(int) length];
+            this.input.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            this.strings.add(value);
+
+            return value;
+        }
+
+        long index = code - BinaryFormat.STRING_REFERENCE_OFFSET;
+        if (index >= this.strings.size()) {
+            throw new IOException("Unknown string reference [" + index + "]");
+        }
+
+        return this.strings.get((int) index);
+    }
+
+    @Override
+    public byte[] readBytes() throws IOException
+    {
+        int length = readInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        this.input.readFully(bytes);
+
+        return bytes;
+    }
+
+    @Override
+    public Object readValue() throws IOException
+    {
+        byte type = this.input.readByte();
+
+        switch (type) {
+            case BinaryFormat.TYPE_NULL:
+                return null;
+            case BinaryFormat.TYPE_STRING:
+                return readString();
+            case BinaryFormat.TYPE_BOOLEAN_TRUE:
+                return Boolean.TRUE;
+            case BinaryFormat.TYPE_BOOLEAN_FALSE:
+                return Boolean.FALSE;
+            case BinaryFormat.TYPE_INTEGER:
+                return readInt();
+            case BinaryFormat.TYPE_LONG:
+                return readLong();
+            case BinaryFormat.TYPE_BYTES:
+                return readBytes();
+            case BinaryFormat.TYPE_LOCALE:
+                return new Locale(readString(), readString(), readString());
+            case BinaryFormat.TYPE_DATE:
+                return new Date(readLong());
+            case BinaryFormat.TYPE_LIST:
+                return readCollection(new ArrayList<>());
+            case BinaryFormat.TYPE_SET:
+                return readCollection(new LinkedHashSet<>());
+            case BinaryFormat.TYPE_MAP:
+                return readMap();
+            case BinaryFormat.TYPE_CUSTOM:
+                return readCustom();
+            case BinaryFormat.TYPE_SERIALIZED:
+                return readSerialized();
+            default:
+                throw new IOException("Unknown value type [" + type + "]");
+        }
+    }
+
+    private <C extends Collection<Object>> C readCollection(C collection) throws IOException
+    {
+        int size = readInt();
+        for (int i = 0; i < size; ++i) {
+            collection.add(readValue());
+        }
+
+        return collection;
+    }
+
+    private Map<Object, Object> readMap() throws IOException
+    {
+        int size = readInt();
+        Map<Object, Object> map = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; ++i) {
+            map.put(readValue(), readValue());
+        }
+
+        return map;
+    }
+
+    private Object readCustom() throws IOException
+    {
+        String hint = readString();
+
+        BinaryValueSerializer serializer = this.serializers.get(hint);
+        if (serializer == null) {
+            throw new IOException("No binary value serializer could be found for hint [" + hint + "]");
+        }
+
+        return serializer.read(this);
+    }
+
+    private Object readSerialized() throws IOException
+    {
+        byte[] bytes = readBytes();
+
+        try (ObjectInputStream objectInput =
+            new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes), this.classLoader)) {
+            return objectInput.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to resolve the class of a serialized value", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+
+/**
+ * Default implementation of {@link BinaryValueOutput}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class DefaultBinaryValueOutput implements BinaryValueOutput
+{
+    private final DataOutputStream output;
+
+    private final Map<String, BinaryValueSerializer> serializers;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    /**
+     * @param output the stream where to write
+     * @param serializers the custom serializers indexed by role hint, in priority order
+     */
+    public DefaultBinaryValueOutput(DataOutputStream output, Map<String, BinaryValueSerializer> serializers)
+    {
+        this.output = output;
+        this.serializers = serializers;
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException
+    {
+        this.output.writeBoolean(value);
+    }
+
+    @Override
+    public void writeInt(int value) throws IOException
+    {
+        // Zig-zag encoding to make small negative numbers small too
+        writeUnsignedVarLong(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException
+    {
+        // Zig-zag encoding to make small negative numbers small too
+        writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeUnsignedVarLong(long value) throws IOException
+    {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            this.output.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        this.output.writeByte((int) remaining);
+    }
+
+    @Override
+    public void writeString(String value) throws IOException
+    {
+        if (value == null) {
+            writeUnsignedVarLong(BinaryFormat.STRING_NULL);
+        } else {
+            Integer index = this.strings.get(value);
+            if (index != null) {
+                writeUnsignedVarLong(BinaryFormat.STRING_REFERENCE_OFFSET + (long) index);
+            } else {
+                this.strings.put(value, this.strings.size());
+                writeUnsignedVarLong(BinaryFormat.STRING_NEW);
+                // Not using DataOutput#writeUTF since it's limited to 64KB
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeUnsignedVarLong(bytes.length);
+                this.output.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void writeBytes(byte[] value) throws IOException
+    {
+        if (value == null) {
+            writeInt(-1);
+        } else {
+            writeInt(value.length);
+            this.output.write(value);
+        }
+    }
+
+    @Override
+    public void writeValue(Object value) throws IOException
+    {
+        if (value == null) {
+            this.output.writeByte(BinaryFormat.TYPE_NULL);
+        } else if (value instanceof String) {
+            this.output.writeByte(BinaryFormat.TYPE_STRING);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            this.output.writeByte(
+                Boolean.TRUE.equals(value) ? BinaryFormat.TYPE_BOOLEAN_TRUE : BinaryFormat.TYPE_BOOLEAN_FALSE);
+        } else if (value instanceof Integer) {
+            this.output.writeByte(BinaryFormat.TYPE_INTEGER);
+            writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            this.output.writeByte(BinaryFormat.TYPE_LONG);
+            writeLong((Long) value);
+        } else if (value instanceof byte[]) {
+            this.output.writeByte(BinaryFormat.TYPE_BYTES);
+            writeBytes((byte[]) value);
+        } else if (value instanceof Locale) {
+            this.output.writeByte(BinaryFormat.TYPE_LOCALE);
+            writeLocale((Locale) value);
+        } else if (value.getClass() == Date.class) {
+            this.output.writeByte(BinaryFormat.TYPE_DATE);
+            writeLong(((Date) value).getTime());
+        } else if (value instanceof ArrayList) {
+            this.output.writeByte(BinaryFormat.TYPE_LIST);
+            writeCollection((Collection<?>) value);
+        } else if (value instanceof HashSet) {
+            this.output.writeByte(BinaryFormat.TYPE_SET);
+            writeCollection((Collection<?>) value);
+        } else if (value instanceof HashMap) {
+            this.output.writeByte(BinaryFormat.TYPE_MAP);
+            writeMap((Map<?, ?>) value);
+        } else {
+            writeCustom(value);
+        }
+    }
+
+    private void writeLocale(Locale locale) throws IOException
+    {
+        writeString(locale.getLanguage());
+        writeString(locale.getCountry());
+        writeString(locale.getVariant());
+    }
+
+    private void writeCollection(Collection<?> collection) throws IOException
+    {
+        writeInt(collection.size());
+        for (Object element : collection) {
+            writeValue(element);
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) throws IOException
+    {
+        writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(entry.getKey());
+            writeValue(entry.getValue());
+        }
+    }
+
+    private void writeCustom(Object value) throws IOException
+    {
+        for (Map.Entry<String, BinaryValueSerializer> entry : this.serializers.entrySet()) {
+            if (entry.getValue().canSerialize(value)) {
+                this.output.writeByte(BinaryFormat.TYPE_CUSTOM);
+                writeString(entry.getKey());
+                entry.getValue().write(value, this);
+
+                return;
+            }
+        }
+
+        // Fallback on Java serialization
+        this.output.writeByte(BinaryFormat.TYPE_SERIALIZED);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutput = new ObjectOutputStream(stream)) {
+            objectOutput.writeObject(value);
+        }
+        writeBytes(stream.toByteArray());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.codec.RemoteEventDataCodec;
+
+/**
+ * Encode events using standard Java serialization.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(JavaRemoteEventDataCodec.HINT)
+@Singleton
+public class JavaRemoteEventDataCodec implements RemoteEventDataCodec
+{
+    /**
+     * The role hint of the component.
+     */
+    public static final String HINT = "java";
+
+    @Override
+    public byte[] encode(List<RemoteEventData> events) throws IOException
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(stream)) {
+            output.writeInt(events.size());
+            for (RemoteEventData event : events) {
+                output.writeObject(event);
+            }
+        }
+
+        return stream.toByteArray();
+    }
+
+    @Override
+    public List<RemoteEventData> decode(byte[] bytes, int offset, int length, ClassLoader classLoader)
+        throws IOException
+    {
+        try (ObjectInputStream input =
+            new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes, offset, length), classLoader)) {
+            int size = input.readInt();
+            List<RemoteEventData> events = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                events.add((RemoteEventData) input.readObject());
+            }
+
+            return events;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to resolve the class of a remote event", e);
+        }
+    }
+}
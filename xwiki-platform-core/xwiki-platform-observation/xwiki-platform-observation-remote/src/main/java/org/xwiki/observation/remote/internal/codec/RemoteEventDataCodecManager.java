@@ -0,0 +1,205 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.RemoteObservationManagerConfiguration;
+import org.xwiki.observation.remote.codec.RemoteEventDataCodec;
+
+/**
+ * Encode events with the configured {@link RemoteEventDataCodec} and decode them with the codec indicated in the
+ * message.
+ * <p>
+ * Each message starts with a marker, which allows distinguishing these messages from the ones sent by older members
+ * (which contain a single Java serialized {@link RemoteEventData}), followed by the events. Each event is encoded
+ * separately and prefixed by the role hint of its codec, which allows members using different codecs to understand
+ * each other and an event which cannot be encoded with the configured codec to fallback on Java serialization without
+ * impacting the other events of the message.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = RemoteEventDataCodecManager.class)
+@Singleton
+public class RemoteEventDataCodecManager
+{
+    /**
+     * The first bytes of a message produced by this component. JGroups never start a serialized object with those.
+     */
+    private static final byte[] MARKER = {'X', 'W', 'E'};
+
+    @Inject
+    private RemoteObservationManagerConfiguration configuration;
+
+    @Inject
+    private Provider<ComponentManager> componentManagerProvider;
+
+    @Inject
+    private Logger logger;
+
+    /**
+     * @param events the events to encode
+     * @return the message to send, {@code null} if none of the events could be encoded
+     * @throws IOException when failing to find the configured codec
+     */
+    public byte[] encode(List<RemoteEventData> events) throws IOException
+    {
+        String hint = this.configuration.getCodec();
+        RemoteEventDataCodec codec = getCodec(hint);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        int count = 0;
+        try (DataOutputStream output = new DataOutputStream(stream)) {
+            output.write(MARKER);
+
+            for (RemoteEventData event : events) {
+                if (encode(event, codec, hint, output)) {
+                    ++count;
+                }
+            }
+        }
+
+        return count > 0 ? stream.toByteArray() : null;
+    }
+
+    private boolean encode(RemoteEventData event, RemoteEventDataCodec codec, String hint, DataOutputStream output)
+        throws IOException
+    {
+        List<RemoteEventData> events = Collections.singletonList(event);
+
+        byte[] payload;
+        String payloadHint = hint;
+        try {
+            payload = codec.encode(events);
+        } catch (Exception e) {
+            if (JavaRemoteEventDataCodec.HINT.equals(hint)) {
+                this.logger.error("Failed to encode remote event [{}]", event, e);
+
+                return false;
+            }
+
+            this.logger.debug("Failed to encode remote event [{}] with codec [{}], fallback on Java serialization",
+                event, hint, e);
+
+            payloadHint = JavaRemoteEventDataCodec.HINT;
+            try {
+                payload = getCodec(payloadHint).encode(events);
+            } catch (Exception javaException) {
+                this.logger.error("Failed to encode remote event [{}]", event, javaException);
+
+                return false;
+            }
+        }
+
+        output.writeUTF(payloadHint);
+        output.writeInt(payload.length);
+        output.write(payload);
+
+        return true;
+    }
+
+    /**
+     * @param bytes the buffer containing the received message
+     * @param offset the index of the first byte of the message in the buffer
+     * @param length the length of the message
+     * @return {@code true} if the message was produced by {@link #encode(List)}
+     */
+    public boolean isEncoded(byte[] bytes, int offset, int length)
+    {
+        if (bytes == null || length < MARKER.length) {
+            return false;
+        }
+
+        for (int i = 0; i < MARKER.length; ++i) {
+            if (bytes[offset + i] != MARKER[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param bytes the buffer containing the received message
+     * @param offset the index of the first byte of the message in the buffer
+     * @param length the length of the message
+     * @param classLoader the class loader to use to resolve the classes of the decoded values
+     * @return the decoded events
+     * @throws IOException when failing to decode the message
+     */
+    public List<RemoteEventData> decode(byte[] bytes, int offset, int length, ClassLoader classLoader)
+        throws IOException
+    {
+        List<RemoteEventData> events = new ArrayList<>();
+
+        int end = offset + length;
+        try (DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(bytes, offset + MARKER.length, length - MARKER.length))) {
+            int payloadOffset = offset + MARKER.length;
+            while (payloadOffset < end) {
+                String hint = input.readUTF();
+                int payloadLength = input.readInt();
+
+                // The hint is written with DataOutput#writeUTF (2 bytes for the length)
+                payloadOffset += 2 + hint.getBytes(StandardCharsets.UTF_8).length + 4;
+                if (payloadLength < 0 || payloadOffset + payloadLength > end) {
+                    throw new IOException("Truncated remote event message");
+                }
+
+                events.addAll(getCodec(hint).decode(bytes, payloadOffset, payloadLength, classLoader));
+
+                input.skipBytes(payloadLength);
+                payloadOffset += payloadLength;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated remote event message", e);
+        }
+
+        return events;
+    }
+
+    private RemoteEventDataCodec getCodec(String hint) throws IOException
+    {
+        try {
+            return this.componentManagerProvider.get().getInstance(RemoteEventDataCodec.class, hint);
+        } catch (ComponentLookupException e) {
+            throw new IOException("Failed to lookup the remote event codec with hint [" + hint + "]", e);
+        }
+    }
+}
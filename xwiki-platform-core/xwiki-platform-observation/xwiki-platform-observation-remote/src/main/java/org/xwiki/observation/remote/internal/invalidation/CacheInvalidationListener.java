@@ -0,0 +1,101 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.invalidation;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.observation.AbstractEventListener;
+import org.xwiki.observation.event.Event;
+import org.xwiki.observation.remote.RemoteObservationManagerContext;
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+import org.xwiki.observation.remote.invalidation.CacheInvalidationEvent;
+import org.xwiki.observation.remote.invalidation.CacheInvalidationHandler;
+
+/**
+ * Apply the invalidations received from the other members of the cluster to the matching
+ * {@link CacheInvalidationHandler}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(CacheInvalidationListener.NAME)
+@Singleton
+public class CacheInvalidationListener extends AbstractEventListener
+{
+    /**
+     * The name of the listener.
+     */
+    public static final String NAME = "org.xwiki.observation.remote.internal.invalidation.CacheInvalidationListener";
+
+    @Inject
+    private RemoteObservationManagerContext remoteObservationManagerContext;
+
+    @Inject
+    private Provider<ComponentManager> componentManagerProvider;
+
+    @Inject
+    private ClusterInvalidationStatistics statistics;
+
+    @Inject
+    private Logger logger;
+
+    /**
+     * Default constructor.
+     */
+    public CacheInvalidationListener()
+    {
+        super(NAME, new CacheInvalidationEvent());
+    }
+
+    @Override
+    public void onEvent(Event event, Object source, Object data)
+    {
+        // The local caches are invalidated directly, only the invalidations coming from the other members matter
+        if (!this.remoteObservationManagerContext.isRemoteState()) {
+            return;
+        }
+
+        String cacheId = ((CacheInvalidationEvent) event).getCacheId();
+        CacheInvalidation invalidation = (CacheInvalidation) source;
+
+        ComponentManager componentManager = this.componentManagerProvider.get();
+        if (componentManager.hasComponent(CacheInvalidationHandler.class, cacheId)) {
+            try {
+                componentManager.<CacheInvalidationHandler>getInstance(CacheInvalidationHandler.class, cacheId)
+                    .invalidate(invalidation);
+            } catch (ComponentLookupException e) {
+                this.logger.error("Failed to lookup the invalidation handler of cache [{}]", cacheId, e);
+            }
+        } else {
+            this.logger.debug("No invalidation handler could be found for cache [{}]", cacheId);
+        }
+
+        this.statistics.onReceived(invalidation.getKeys().size(),
+            Math.max(0, System.currentTimeMillis() - invalidation.getDate()));
+    }
+}
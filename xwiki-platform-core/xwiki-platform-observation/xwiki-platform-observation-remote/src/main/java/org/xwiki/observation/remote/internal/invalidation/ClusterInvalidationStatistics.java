@@ -0,0 +1,198 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.invalidation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.management.JMXBeanRegistration;
+
+/**
+ * Gather metrics about the invalidations sent and received through the
+ * {@link org.xwiki.observation.remote.invalidation.ClusterInvalidationBus}, and expose them through JMX.
+ * <p>
+ * The invalidation lag is computed with the clock of the member which produced the invalidation, so it assumes the
+ * clocks of the cluster members are synchronized.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = ClusterInvalidationStatistics.class)
+@Singleton
+public class ClusterInvalidationStatistics implements ClusterInvalidationStatisticsMBean, Initializable, Disposable
+{
+    private static final String MBEAN_NAME = "type=Observation,name=ClusterInvalidation";
+
+    private static final int RATE_WINDOW = 60;
+
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
+    private final AtomicLong messagesSent = new AtomicLong();
+
+    private final AtomicLong keysSent = new AtomicLong();
+
+    private final AtomicLong keysDeduplicated = new AtomicLong();
+
+    private final AtomicLong messagesReceived = new AtomicLong();
+
+    private final AtomicLong keysReceived = new AtomicLong();
+
+    private final AtomicLong totalLag = new AtomicLong();
+
+    private final AtomicLong maxLag = new AtomicLong();
+
+    private volatile long lastLag;
+
+    /**
+     * The number of messages sent during each of the last seconds.
+     */
+    private final long[] sentPerSecond = new long[RATE_WINDOW];
+
+    /**
+     * The second associated with each entry of {@link #sentPerSecond}.
+     */
+    private final long[] sentSeconds = new long[RATE_WINDOW];
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        this.jmxRegistration.registerMBean(this, MBEAN_NAME);
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.jmxRegistration.unregisterMBean(MBEAN_NAME);
+    }
+
+    /**
+     * @param keys the number of keys sent in the message
+     */
+    public void onSent(int keys)
+    {
+        this.messagesSent.incrementAndGet();
+        this.keysSent.addAndGet(keys);
+
+        long second = System.currentTimeMillis() / 1000;
+        int index = (int) (second % RATE_WINDOW);
+        synchronized (this.sentPerSecond) {
+            if (this.sentSeconds[index] != second) {
+                this.sentSeconds[index] = second;
+                this.sentPerSecond[index] = 0;
+            }
+            ++this.sentPerSecond[index];
+        }
+    }
+
+    /**
+     * @param count the number of invalidations which did not need to be sent
+     */
+    public void onDeduplicated(int count)
+    {
+        this.keysDeduplicated.addAndGet(count);
+    }
+
+    /**
+     * @param keys the number of keys received
+     * @param lag the time in milliseconds between the first invalidation of the batch and its application
+     */
+    public void onReceived(int keys, long lag)
+    {
+        this.messagesReceived.incrementAndGet();
+        this.keysReceived.addAndGet(keys);
+        this.totalLag.addAndGet(lag);
+        this.maxLag.accumulateAndGet(lag, Math::max);
+        this.lastLag = lag;
+    }
+
+    @Override
+    public long getMessagesSent()
+    {
+        return this.messagesSent.get();
+    }
+
+    @Override
+    public double getMessagesSentPerSecond()
+    {
+        long second = System.currentTimeMillis() / 1000;
+
+        long total = 0;
+        synchronized (this.sentPerSecond) {
+            for (int i = 0; i < RATE_WINDOW; ++i) {
+                if (second - this.sentSeconds[i] < RATE_WINDOW) {
+                    total += this.sentPerSecond[i];
+                }
+            }
+        }
+
+        return (double) total / RATE_WINDOW;
+    }
+
+    @Override
+    public long getKeysSent()
+    {
+        return this.keysSent.get();
+    }
+
+    @Override
+    public long getKeysDeduplicated()
+    {
+        return this.keysDeduplicated.get();
+    }
+
+    @Override
+    public long getMessagesReceived()
+    {
+        return this.messagesReceived.get();
+    }
+
+    @Override
+    public long getKeysReceived()
+    {
+        return this.keysReceived.get();
+    }
+
+    @Override
+    public long getLastInvalidationLag()
+    {
+        return this.lastLag;
+    }
+
+    @Override
+    public long getAverageInvalidationLag()
+    {
+        long received = this.messagesReceived.get();
+
+        return received > 0 ? this.totalLag.get() / received : 0;
+    }
+
+    @Override
+    public long getMaxInvalidationLag()
+    {
+        return this.maxLag.get();
+    }
+}
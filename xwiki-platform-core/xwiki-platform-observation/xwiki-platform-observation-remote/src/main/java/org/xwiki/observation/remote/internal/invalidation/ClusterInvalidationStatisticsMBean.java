@@ -0,0 +1,75 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.invalidation;
+
+/**
+ * Interface of the {@link ClusterInvalidationStatistics} MBean.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public interface ClusterInvalidationStatisticsMBean
+{
+    /**
+     * @return the number of invalidation messages sent to the other members of the cluster
+     */
+    long getMessagesSent();
+
+    /**
+     * @return the average number of invalidation messages sent per second during the last minute
+     */
+    double getMessagesSentPerSecond();
+
+    /**
+     * @return the number of keys sent to the other members of the cluster
+     */
+    long getKeysSent();
+
+    /**
+     * @return the number of invalidations which did not need to be sent because the same key was already part of the
+     *     batch
+     */
+    long getKeysDeduplicated();
+
+    /**
+     * @return the number of invalidation messages received from the other members of the cluster
+     */
+    long getMessagesReceived();
+
+    /**
+     * @return the number of keys received from the other members of the cluster
+     */
+    long getKeysReceived();
+
+    /**
+     * @return the time in milliseconds between the first invalidation of the last received batch and its application
+     */
+    long getLastInvalidationLag();
+
+    /**
+     * @return the average time in milliseconds between the first invalidation of a batch and its application
+     */
+    long getAverageInvalidationLag();
+
+    /**
+     * @return the maximum time in milliseconds between the first invalidation of a batch and its application
+     */
+    long getMaxInvalidationLag();
+}
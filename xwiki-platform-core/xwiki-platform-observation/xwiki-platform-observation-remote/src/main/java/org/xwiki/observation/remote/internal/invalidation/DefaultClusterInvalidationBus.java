@@ -0,0 +1,172 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.invalidation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.observation.remote.RemoteObservationManagerConfiguration;
+import org.xwiki.observation.remote.invalidation.CacheInvalidationEvent;
+import org.xwiki.observation.remote.invalidation.ClusterInvalidationBus;
+
+/**
+ * Default implementation of {@link ClusterInvalidationBus}.
+ * <p>
+ * The collected invalidations are sent as {@link CacheInvalidationEvent}s through the {@link ObservationManager},
+ * which means they are distributed to the other members by the remote observation manager like any other event.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Singleton
+public class DefaultClusterInvalidationBus implements ClusterInvalidationBus, Disposable
+{
+    @Inject
+    private RemoteObservationManagerConfiguration configuration;
+
+    @Inject
+    private ObservationManager observationManager;
+
+    @Inject
+    private ClusterInvalidationStatistics statistics;
+
+    @Inject
+    private Logger logger;
+
+    /**
+     * The invalidations waiting for the delay to expire.
+     */
+    private final Map<String, PendingInvalidation> pending = new HashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    private ScheduledFuture<?> future;
+
+    @Override
+    public void invalidate(String cacheId, String key)
+    {
+        add(cacheId, key);
+    }
+
+    @Override
+    public void invalidateAll(String cacheId)
+    {
+        add(cacheId, null);
+    }
+
+    private void add(String cacheId, String key)
+    {
+        if (!this.configuration.isEnabled()) {
+            // Nobody to send the invalidation to
+            return;
+        }
+
+        long delay = this.configuration.getInvalidationDelay();
+
+        synchronized (this.pending) {
+            PendingInvalidation invalidation = this.pending.computeIfAbsent(cacheId, k -> new PendingInvalidation());
+
+            if (key == null) {
+                invalidation.addAll();
+            } else if (!invalidation.add(key)) {
+                this.statistics.onDeduplicated(1);
+            }
+
+            if (delay > 0 && this.future == null) {
+                this.future = getExecutor().schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        // Send outside of the lock to not block the other producers while the listeners are called
+        if (delay <= 0) {
+            flush();
+        }
+    }
+
+    private ScheduledExecutorService getExecutor()
+    {
+        if (this.executor == null) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "XWiki cluster invalidation sender");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+
+        return this.executor;
+    }
+
+    @Override
+    public void flush()
+    {
+        Map<String, PendingInvalidation> invalidations;
+        synchronized (this.pending) {
+            if (this.future != null) {
+                this.future.cancel(false);
+                this.future = null;
+            }
+
+            invalidations = new HashMap<>(this.pending);
+            this.pending.clear();
+        }
+
+        send(invalidations);
+    }
+
+    private void send(Map<String, PendingInvalidation> invalidations)
+    {
+        for (Map.Entry<String, PendingInvalidation> entry : invalidations.entrySet()) {
+            try {
+                this.observationManager.notify(new CacheInvalidationEvent(entry.getKey()),
+                    entry.getValue().toCacheInvalidation(), null);
+
+                this.statistics.onSent(entry.getValue().size());
+            } catch (Exception e) {
+                this.logger.error("Failed to send the invalidations of cache [{}]", entry.getKey(), e);
+            }
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        flush();
+
+        synchronized (this.pending) {
+            if (this.executor != null) {
+                this.executor.shutdownNow();
+                this.executor = null;
+            }
+        }
+    }
+}
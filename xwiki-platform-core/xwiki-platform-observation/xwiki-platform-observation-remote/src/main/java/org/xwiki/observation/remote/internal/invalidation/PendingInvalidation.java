@@ -0,0 +1,78 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.invalidation;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+
+/**
+ * The invalidations of a cache waiting to be sent.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class PendingInvalidation
+{
+    private final Set<String> keys = new LinkedHashSet<>();
+
+    private final long date = System.currentTimeMillis();
+
+    private boolean all;
+
+    /**
+     * @param key the key to invalidate
+     * @return {@code false} if the key was already invalidated by this batch
+     */
+    public boolean add(String key)
+    {
+        if (this.all) {
+            return false;
+        }
+
+        return this.keys.add(key);
+    }
+
+    /**
+     * Invalidate the whole cache.
+     */
+    public void addAll()
+    {
+        this.all = true;
+        this.keys.clear();
+    }
+
+    /**
+     * @return the number of keys to invalidate
+     */
+    public int size()
+    {
+        return this.keys.size();
+    }
+
+    /**
+     * @return the invalidations to send
+     */
+    public CacheInvalidation toCacheInvalidation()
+    {
+        return new CacheInvalidation(this.keys, this.all, this.date);
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.xwiki.observation.remote.internal.jgroups;
 
+import java.util.List;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -32,6 +34,7 @@
 import org.xwiki.component.manager.ComponentManager;
 import org.xwiki.observation.remote.RemoteEventData;
 import org.xwiki.observation.remote.RemoteObservationManager;
+import org.xwiki.observation.remote.internal.codec.RemoteEventDataCodecManager;
 import org.xwiki.observation.remote.jgroups.JGroupsReceiver;
 
 /**
@@ -59,6 +62,9 @@ public class DefaultJGroupsReceiver extends ReceiverAdapter implements JGroupsRe
     @Inject
     private ClassLoaderManager classLoaderManager;
 
+    @Inject
+    private RemoteEventDataCodecManager codecManager;
+
     /**
      * The logger to log.
      */
@@ -85,12 +91,32 @@ public RemoteObservationManager getRemoteObservationManager()
     public void receive(Message msg)
     {
         if (msg instanceof BytesMessage) {
-            RemoteEventData remoteEvent = (RemoteEventData) ((BytesMessage) msg)
-                .getObject(this.classLoaderManager.getURLClassLoader(null, false));
+            ClassLoader classLoader = this.classLoaderManager.getURLClassLoader(null, false);
 
-            this.logger.debug("Received JGroups remote event [{}]", remoteEvent);
+            if (this.codecManager.isEncoded(msg.getArray(), msg.getOffset(), msg.getLength())) {
+                List<RemoteEventData> remoteEvents;
+                try {
+                    remoteEvents =
+                        this.codecManager.decode(msg.getArray(), msg.getOffset(), msg.getLength(), classLoader);
+                } catch (Exception e) {
+                    this.logger.error("Failed to decode the JGroups message received from [{}]", msg.getSrc(), e);
 
-            getRemoteObservationManager().notify(remoteEvent);
+                    return;
+                }
+
+                for (RemoteEventData remoteEvent : remoteEvents) {
+                    notify(remoteEvent);
+                }
+            } else {
+                notify((RemoteEventData) ((BytesMessage) msg).getObject(classLoader));
+            }
         }
     }
+
+    private void notify(RemoteEventData remoteEvent)
+    {
+        this.logger.debug("Received JGroups remote event [{}]", remoteEvent);
+
+        getRemoteObservationManager().notify(remoteEvent);
+    }
 }
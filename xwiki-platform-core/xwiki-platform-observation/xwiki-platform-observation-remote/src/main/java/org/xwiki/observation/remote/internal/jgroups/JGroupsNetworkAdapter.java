@@ -23,8 +23,15 @@
 import java.io.InputStream;
 import java.lang.management.ManagementFactory;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -43,14 +50,22 @@
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.component.phase.Disposable;
 import org.xwiki.environment.Environment;
 import org.xwiki.observation.remote.NetworkAdapter;
 import org.xwiki.observation.remote.RemoteEventData;
 import org.xwiki.observation.remote.RemoteEventException;
+import org.xwiki.observation.remote.RemoteObservationManagerConfiguration;
+import org.xwiki.observation.remote.internal.codec.JavaRemoteEventDataCodec;
+import org.xwiki.observation.remote.internal.codec.RemoteEventDataCodecManager;
 import org.xwiki.observation.remote.jgroups.JGroupsReceiver;
 
 /**
  * JGroups based implementation of {@link NetworkAdapter}.
+ * <p>
+ * Depending on the configuration, events are either sent individually using Java serialization (the historical
+ * format) or encoded with the configured {@link org.xwiki.observation.remote.codec.RemoteEventDataCodec}, optionally
+ * accumulating the events produced during a short delay in a single message.
  *
  * @version $Id$
  * @since 2.0RC1
@@ -58,7 +73,7 @@
 @Component
 @Named("jgroups")
 @Singleton
-public class JGroupsNetworkAdapter implements NetworkAdapter
+public class JGroupsNetworkAdapter implements NetworkAdapter, Disposable
 {
     /**
      * Relative path where to find jgroups channels configurations.
@@ -77,26 +92,128 @@ public class JGroupsNetworkAdapter implements NetworkAdapter
     @Inject
     private Logger logger;
 
+    @Inject
+    private RemoteObservationManagerConfiguration configuration;
+
+    @Inject
+    private RemoteEventDataCodecManager codecManager;
+
     /**
      * The network channels.
      */
     private Map<String, JChannel> channels = new ConcurrentHashMap<>();
 
+    /**
+     * The events waiting to be sent.
+     */
+    private final List<RemoteEventData> batch = new ArrayList<>();
+
+    /**
+     * Used to send the batches one after the other without locking the batch.
+     */
+    private final Object flushLock = new Object();
+
+    private ScheduledExecutorService batchExecutor;
+
+    private ScheduledFuture<?> batchFuture;
+
     @Override
     public void send(RemoteEventData remoteEvent)
     {
         this.logger.debug("Send JGroups remote event [{}]", remoteEvent.toString());
 
-        // Send the message to the whole group
-        Message message = new BytesMessage(null,  remoteEvent);
+        long batchDelay = this.configuration.getBatchDelay();
+
+        if (batchDelay <= 0) {
+            if (JavaRemoteEventDataCodec.HINT.equals(this.configuration.getCodec())) {
+                // Send the message to the whole group using the historical format
+                send(new BytesMessage(null, remoteEvent), remoteEvent);
+            } else {
+                send(Collections.singletonList(remoteEvent));
+            }
+        } else {
+            boolean full;
+            synchronized (this.batch) {
+                this.batch.add(remoteEvent);
+
+                full = this.batch.size() >= this.configuration.getBatchMaxSize();
+                if (!full && this.batchFuture == null) {
+                    this.batchFuture = getBatchExecutor().schedule(this::flush, batchDelay, TimeUnit.MILLISECONDS);
+                }
+            }
 
+            // Don't block the threads producing events while the batch is sent
+            if (full) {
+                flush();
+            }
+        }
+    }
+
+    private ScheduledExecutorService getBatchExecutor()
+    {
+        if (this.batchExecutor == null) {
+            this.batchExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "XWiki remote events batch sender");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+
+        return this.batchExecutor;
+    }
+
+    /**
+     * Send all the events waiting in the batch.
+     */
+    private void flush()
+    {
+        // Make sure batches are sent in the order they were filled
+        synchronized (this.flushLock) {
+            List<RemoteEventData> events;
+            synchronized (this.batch) {
+                if (this.batchFuture != null) {
+                    this.batchFuture.cancel(false);
+                    this.batchFuture = null;
+                }
+
+                if (this.batch.isEmpty()) {
+                    return;
+                }
+
+                events = new ArrayList<>(this.batch);
+                this.batch.clear();
+            }
+
+            send(events);
+        }
+    }
+
+    private void send(List<RemoteEventData> remoteEvents)
+    {
+        byte[] bytes;
+        try {
+            bytes = this.codecManager.encode(remoteEvents);
+        } catch (Exception e) {
+            this.logger.error("Failed to encode remote events {}", remoteEvents, e);
+
+            return;
+        }
+
+        // Events which cannot be encoded at all are already logged by the codec manager
+        if (bytes != null) {
+            send(new BytesMessage(null, bytes), remoteEvents);
+        }
+    }
+
+    private void send(Message message, Object remoteEvents)
+    {
         // Send message to JGroups channels
         for (Map.Entry<String, JChannel> entry : this.channels.entrySet()) {
             try {
                 entry.getValue().send(message);
             } catch (Exception e) {
-                this.logger.error("Failed to send message [{}] to the channel [{}]", remoteEvent.toString(),
-                    entry.getKey(), e);
+                this.logger.error("Failed to send message [{}] to the channel [{}]", remoteEvents, entry.getKey(), e);
             }
         }
     }
@@ -226,6 +343,9 @@ private InputStream getChannelConfiguration(String channelId) throws IOException
     @Override
     public void stopAllChannels() throws RemoteEventException
     {
+        // Make sure to not lose the events waiting to be sent
+        flush();
+
         for (Map.Entry<String, JChannel> channelEntry : this.channels.entrySet()) {
             channelEntry.getValue().close();
         }
@@ -234,4 +354,17 @@ public void stopAllChannels() throws RemoteEventException
 
         this.logger.info("All channels stopped");
     }
+
+    @Override
+    public void dispose()
+    {
+        flush();
+
+        synchronized (this.batch) {
+            if (this.batchExecutor != null) {
+                this.batchExecutor.shutdownNow();
+                this.batchExecutor = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.invalidation;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * The invalidations of a cache collected by the {@link ClusterInvalidationBus} during a batch.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Unstable
+public class CacheInvalidation implements Serializable
+{
+    /**
+     * The version identifier for this Serializable class. Increment only if the <i>serialized</i> form of the class
+     * changes.
+     */
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> keys;
+
+    private final boolean all;
+
+    private final long date;
+
+    /**
+     * @param keys the keys to invalidate
+     * @param all {@code true} if the whole cache should be invalidated
+     * @param date the date (in milliseconds) of the first invalidation of the batch
+     */
+    public CacheInvalidation(Set<String> keys, boolean all, long date)
+    {
+        this.keys = all ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+        this.all = all;
+        this.date = date;
+    }
+
+    /**
+     * @return the keys to invalidate (empty if the whole cache should be invalidated)
+     */
+    public Set<String> getKeys()
+    {
+        return this.keys;
+    }
+
+    /**
+     * @return {@code true} if the whole cache should be invalidated
+     */
+    public boolean isAll()
+    {
+        return this.all;
+    }
+
+    /**
+     * @return the date (in milliseconds) of the first invalidation of the batch, on the member which produced it
+     */
+    public long getDate()
+    {
+        return this.date;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.all ? "all" : this.keys.toString();
+    }
+}
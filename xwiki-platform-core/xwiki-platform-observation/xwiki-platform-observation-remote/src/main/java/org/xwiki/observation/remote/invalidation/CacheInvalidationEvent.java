@@ -0,0 +1,64 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.invalidation;
+
+import org.xwiki.observation.event.AbstractFilterableEvent;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Event sent by the {@link ClusterInvalidationBus} to the other members of the cluster. The event source is a
+ * {@link CacheInvalidation}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Unstable
+public class CacheInvalidationEvent extends AbstractFilterableEvent
+{
+    /**
+     * The version identifier for this Serializable class. Increment only if the <i>serialized</i> form of the class
+     * changes.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Match any cache.
+     */
+    public CacheInvalidationEvent()
+    {
+        // Voluntarily empty, default constructor is called automatically.
+    }
+
+    /**
+     * @param cacheId the identifier of the cache to invalidate
+     */
+    public CacheInvalidationEvent(String cacheId)
+    {
+        super(cacheId);
+    }
+
+    /**
+     * @return the identifier of the cache to invalidate
+     */
+    public String getCacheId()
+    {
+        return getEventFilter().getFilter();
+    }
+}
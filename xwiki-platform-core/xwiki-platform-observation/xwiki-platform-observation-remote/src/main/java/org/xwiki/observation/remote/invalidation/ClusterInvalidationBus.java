@@ -0,0 +1,56 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.invalidation;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Collect the cache invalidations which need to be propagated to the other members of the cluster, deduplicate them
+ * and send them as a single message per cache.
+ * <p>
+ * Invalidations are sent after a short delay (see {@code observation.remote.invalidation.delay}) and applied on the
+ * other members by the {@link CacheInvalidationHandler} with the identifier of the cache as role hint.
+ * <p>
+ * Nothing is collected when the remote observation is disabled.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Role
+@Unstable
+public interface ClusterInvalidationBus
+{
+    /**
+     * @param cacheId the identifier of the cache
+     * @param key the key to invalidate
+     */
+    void invalidate(String cacheId, String key);
+
+    /**
+     * @param cacheId the identifier of the cache to clear
+     */
+    void invalidateAll(String cacheId);
+
+    /**
+     * Send right away all the invalidations waiting for the delay to expire.
+     */
+    void flush();
+}
@@ -23,6 +23,7 @@
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.xwiki.logging.event.LogEvent;
 import org.xwiki.observation.EventListener;
 import org.xwiki.observation.remote.test.AbstractROMTestCase;
@@ -31,6 +32,7 @@
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -92,4 +94,33 @@ void serializableEvent() throws InterruptedException
         verify(localListener).onEvent(same(event), same(unserializable), same(unserializable));
         verify(remoteListener).onEvent(eq(event), eq("some source"), eq("some data"));
     }
+
+    /**
+     * Validate sharing events encoded with the binary codec and sent in batch.
+     */
+    @Test
+    void batchedBinaryEvents() throws InterruptedException
+    {
+        getConfigurationSource1().setProperty("observation.remote.codec", "binary");
+        getConfigurationSource1().setProperty("observation.remote.batch.delay", 100L);
+
+        EventListener remoteListener = mock(EventListener.class, "remote");
+
+        TestEvent event = new TestEvent();
+
+        when(remoteListener.getName()).thenReturn("mylistener");
+        when(remoteListener.getEvents()).thenReturn(Arrays.asList(event));
+
+        getObservationManager2().addListener(remoteListener);
+
+        getObservationManager1().notify(event, "source1", "data1");
+        getObservationManager1().notify(event, "source2", "data2");
+
+        // Make sure the batch is sent and JGroups has enough time to send the message
+        Thread.sleep(1000);
+
+        InOrder inOrder = inOrder(remoteListener);
+        inOrder.verify(remoteListener).onEvent(eq(event), eq("source1"), eq("data1"));
+        inOrder.verify(remoteListener).onEvent(eq(event), eq("source2"), eq("data2"));
+    }
 }
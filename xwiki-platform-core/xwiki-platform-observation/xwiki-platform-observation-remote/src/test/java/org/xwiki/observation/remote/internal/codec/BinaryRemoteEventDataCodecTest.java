@@ -0,0 +1,212 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+import org.xwiki.observation.remote.codec.RemoteEventDataCodec;
+import org.xwiki.observation.remote.test.TestEvent;
+import org.xwiki.test.annotation.ComponentList;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectComponentManager;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link BinaryRemoteEventDataCodec}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+@ComponentList({BinaryRemoteEventDataCodec.class, JavaRemoteEventDataCodec.class,
+    BinaryRemoteEventDataCodecTest.PointSerializer.class})
+class BinaryRemoteEventDataCodecTest
+{
+    static class Point implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int x;
+
+        private final int y;
+
+        Point(int x, int y)
+        {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof Point && ((Point) obj).x == this.x && ((Point) obj).y == this.y;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.x * 31 + this.y;
+        }
+    }
+
+    @Component
+    @Named("point")
+    @Singleton
+    public static class PointSerializer implements BinaryValueSerializer
+    {
+        @Override
+        public boolean canSerialize(Object value)
+        {
+            return value instanceof Point;
+        }
+
+        @Override
+        public void write(Object value, BinaryValueOutput output) throws IOException
+        {
+            output.writeInt(((Point) value).x);
+            output.writeInt(((Point) value).y);
+        }
+
+        @Override
+        public Object read(BinaryValueInput input) throws IOException
+        {
+            return new Point(input.readInt(), input.readInt());
+        }
+    }
+
+    @InjectComponentManager
+    private MockitoComponentManager componentManager;
+
+    private RemoteEventData roundTrip(RemoteEventData event) throws Exception
+    {
+        RemoteEventDataCodec codec = this.componentManager.getInstance(RemoteEventDataCodec.class, "binary");
+
+        byte[] bytes = codec.encode(Arrays.asList(event));
+        List<RemoteEventData> events = codec.decode(bytes, 0, bytes.length, getClass().getClassLoader());
+
+        assertEquals(1, events.size());
+
+        return events.get(0);
+    }
+
+    @Test
+    void encodeDecodeStandardValues() throws Exception
+    {
+        HashMap<String, Serializable> source = new HashMap<>();
+        source.put("string", "value");
+        source.put("int", -42);
+        source.put("long", Long.MAX_VALUE);
+        source.put("true", true);
+        source.put("null", null);
+        source.put("locale", Locale.FRANCE);
+        source.put("date", new Date(1000));
+        source.put("list", new ArrayList<>(Arrays.asList("a", "b", "a")));
+        source.put("set", new HashSet<>(Arrays.asList(1, 2)));
+        source.put("bytes", new byte[] {1, 2, 3});
+
+        RemoteEventData result = roundTrip(new RemoteEventData(new TestEvent(), source, null));
+
+        assertInstanceOf(TestEvent.class, result.getEvent());
+        assertNull(result.getData());
+
+        Map<?, ?> resultSource = (Map<?, ?>) result.getSource();
+        assertEquals("value", resultSource.get("string"));
+        assertEquals(-42, resultSource.get("int"));
+        assertEquals(Long.MAX_VALUE, resultSource.get("long"));
+        assertEquals(Boolean.TRUE, resultSource.get("true"));
+        assertTrue(resultSource.containsKey("null"));
+        assertEquals(Locale.FRANCE, resultSource.get("locale"));
+        assertEquals(new Date(1000), resultSource.get("date"));
+        assertEquals(Arrays.asList("a", "b", "a"), resultSource.get("list"));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), resultSource.get("set"));
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) resultSource.get("bytes"));
+    }
+
+    @Test
+    void encodeDecodeCustomValue() throws Exception
+    {
+        RemoteEventData result = roundTrip(new RemoteEventData(new TestEvent(), new Point(1, -2), "data"));
+
+        assertEquals(new Point(1, -2), result.getSource());
+        assertEquals("data", result.getData());
+    }
+
+    @Test
+    void encodeDecodeLargeString() throws Exception
+    {
+        // Bigger than the 64KB supported by DataOutput#writeUTF
+        String value = "\u00e9t\u00e9".repeat(50000);
+
+        RemoteEventData result = roundTrip(new RemoteEventData(new TestEvent(), value, value));
+
+        assertEquals(value, result.getSource());
+        assertEquals(value, result.getData());
+    }
+
+    @Test
+    void binaryIsSmallerThanJava() throws Exception
+    {
+        List<RemoteEventData> events = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            HashMap<String, Serializable> source = new HashMap<>();
+            source.put("docname", new Point(i, i));
+            source.put("docversion", i + ".1");
+            source.put("doclanguage", "");
+            HashMap<String, Serializable> data = new HashMap<>();
+            data.put("contextwiki", "xwiki");
+            data.put("contextuser", "XWiki.Admin");
+            events.add(new RemoteEventData(new TestEvent(), source, data));
+        }
+
+        byte[] binary = this.componentManager.<RemoteEventDataCodec>getInstance(RemoteEventDataCodec.class, "binary")
+            .encode(events);
+        byte[] java =
+            this.componentManager.<RemoteEventDataCodec>getInstance(RemoteEventDataCodec.class, "java").encode(events);
+
+        assertTrue(binary.length * 2 < java.length,
+            "Binary size [" + binary.length + "] is not much smaller than Java size [" + java.length + "]");
+        assertEquals(events.size(), this.componentManager
+            .<RemoteEventDataCodec>getInstance(RemoteEventDataCodec.class, "java")
+            .decode(java, 0, java.length, getClass().getClassLoader()).size());
+    }
+}
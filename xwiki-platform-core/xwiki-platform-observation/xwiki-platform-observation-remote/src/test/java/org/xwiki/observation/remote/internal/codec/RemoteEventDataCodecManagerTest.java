@@ -0,0 +1,176 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.RemoteObservationManagerConfiguration;
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+import org.xwiki.observation.remote.test.TestEvent;
+import org.xwiki.test.LogLevel;
+import org.xwiki.test.annotation.ComponentList;
+import org.xwiki.test.junit5.LogCaptureExtension;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link RemoteEventDataCodecManager}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+@ComponentList({BinaryRemoteEventDataCodec.class, JavaRemoteEventDataCodec.class,
+    RemoteEventDataCodecManagerTest.FailingSerializer.class})
+class RemoteEventDataCodecManagerTest
+{
+    static class Failing implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof Failing;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 0;
+        }
+    }
+
+    static class NotSerializable
+    {
+    }
+
+    @Component
+    @Named("failing")
+    @Singleton
+    public static class FailingSerializer implements BinaryValueSerializer
+    {
+        @Override
+        public boolean canSerialize(Object value)
+        {
+            return value instanceof Failing;
+        }
+
+        @Override
+        public void write(Object value, BinaryValueOutput output) throws IOException
+        {
+            throw new IOException("Failing serializer");
+        }
+
+        @Override
+        public Object read(BinaryValueInput input) throws IOException
+        {
+            throw new IOException("Failing serializer");
+        }
+    }
+
+    @RegisterExtension
+    private LogCaptureExtension logCapture = new LogCaptureExtension(LogLevel.WARN);
+
+    @InjectMockComponents
+    private RemoteEventDataCodecManager codecManager;
+
+    @MockComponent
+    private RemoteObservationManagerConfiguration configuration;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        when(this.configuration.getCodec()).thenReturn(BinaryRemoteEventDataCodec.HINT);
+    }
+
+    private List<RemoteEventData> roundTrip(RemoteEventData... events) throws Exception
+    {
+        byte[] bytes = this.codecManager.encode(Arrays.asList(events));
+
+        assertTrue(this.codecManager.isEncoded(bytes, 0, bytes.length));
+
+        return this.codecManager.decode(bytes, 0, bytes.length, getClass().getClassLoader());
+    }
+
+    @Test
+    void encodeDecode() throws Exception
+    {
+        List<RemoteEventData> events =
+            roundTrip(new RemoteEventData(new TestEvent(), "source1", "data1"),
+                new RemoteEventData(new TestEvent(), "source2", null));
+
+        assertEquals(2, events.size());
+        assertEquals("source1", events.get(0).getSource());
+        assertEquals("data1", events.get(0).getData());
+        assertEquals("source2", events.get(1).getSource());
+        assertNull(events.get(1).getData());
+    }
+
+    @Test
+    void fallbackOnJavaSerializationForFailingEvent() throws Exception
+    {
+        List<RemoteEventData> events = roundTrip(new RemoteEventData(new TestEvent(), "source1", null),
+            new RemoteEventData(new TestEvent(), new Failing(), null),
+            new RemoteEventData(new TestEvent(), "source3", null));
+
+        assertEquals(3, events.size());
+        assertEquals("source1", events.get(0).getSource());
+        assertEquals(new Failing(), events.get(1).getSource());
+        assertEquals("source3", events.get(2).getSource());
+    }
+
+    @Test
+    void skipEventWhichCannotBeEncoded() throws Exception
+    {
+        HashMap<String, Object> source = new HashMap<>();
+        source.put("key", new NotSerializable());
+
+        List<RemoteEventData> events = roundTrip(new RemoteEventData(new TestEvent(), source, null),
+            new RemoteEventData(new TestEvent(), "source2", null));
+
+        assertEquals(1, events.size());
+        assertEquals("source2", events.get(0).getSource());
+
+        assertNull(this.codecManager.encode(Arrays.asList(new RemoteEventData(new TestEvent(), source, null))));
+
+        assertEquals(2, this.logCapture.size());
+        assertTrue(this.logCapture.getMessage(0).startsWith("Failed to encode remote event"));
+    }
+}
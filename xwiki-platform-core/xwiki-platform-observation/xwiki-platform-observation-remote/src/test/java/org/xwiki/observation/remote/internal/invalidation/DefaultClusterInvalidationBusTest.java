@@ -0,0 +1,136 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.invalidation;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xwiki.observation.remote.RemoteObservationManager;
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+import org.xwiki.observation.remote.invalidation.CacheInvalidationHandler;
+import org.xwiki.observation.remote.invalidation.ClusterInvalidationBus;
+import org.xwiki.observation.remote.test.AbstractROMTestCase;
+import org.xwiki.test.annotation.AllComponents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration test checking that invalidations are collected on one cluster member and applied in batch on another.
+ * 
+ * @version $Id$
+ */
+@AllComponents
+class DefaultClusterInvalidationBusTest extends AbstractROMTestCase
+{
+    private ClusterInvalidationBus bus1;
+
+    private CacheInvalidationHandler handler1;
+
+    private CacheInvalidationHandler handler2;
+
+    private CacheInvalidationHandler otherHandler2;
+
+    @Override
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        super.beforeEach();
+
+        System.setProperty("jgroups.bind_addr", "localhost");
+
+        getConfigurationSource1().setProperty("observation.remote.channels", Arrays.asList("tcp"));
+        getConfigurationSource1().setProperty("observation.remote.invalidation.delay", 100L);
+        RemoteObservationManager rom = getComponentManager2().getInstance(RemoteObservationManager.class);
+        rom.startChannel("tcp");
+
+        this.handler1 = this.componentManager1.registerMockComponent(CacheInvalidationHandler.class, "cache");
+        this.handler2 = this.componentManager2.registerMockComponent(CacheInvalidationHandler.class, "cache");
+        this.otherHandler2 = this.componentManager2.registerMockComponent(CacheInvalidationHandler.class, "other");
+
+        this.bus1 = getComponentManager1().getInstance(ClusterInvalidationBus.class);
+    }
+
+    @Test
+    void deduplicate() throws Exception
+    {
+        this.bus1.invalidate("cache", "key1");
+        this.bus1.invalidate("cache", "key2");
+        this.bus1.invalidate("cache", "key1");
+        this.bus1.invalidateAll("other");
+
+        ArgumentCaptor<CacheInvalidation> captor = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(this.handler2, timeout(5000)).invalidate(captor.capture());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("key1", "key2")), captor.getValue().getKeys());
+        assertFalse(captor.getValue().isAll());
+
+        ArgumentCaptor<CacheInvalidation> otherCaptor = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(this.otherHandler2, timeout(5000)).invalidate(otherCaptor.capture());
+        assertTrue(otherCaptor.getValue().isAll());
+
+        // The local member is not supposed to receive its own invalidations
+        verify(this.handler1, never()).invalidate(any());
+
+        ClusterInvalidationStatistics statistics1 =
+            getComponentManager1().getInstance(ClusterInvalidationStatistics.class);
+        assertEquals(2, statistics1.getMessagesSent());
+        assertEquals(1, statistics1.getKeysDeduplicated());
+
+        // The statistics are updated after the handler is called
+        ClusterInvalidationStatistics statistics2 =
+            getComponentManager2().getInstance(ClusterInvalidationStatistics.class);
+        waitFor(() -> statistics2.getMessagesReceived() == 2 && statistics2.getKeysReceived() == 2);
+        assertEquals(2, statistics2.getMessagesReceived());
+        assertEquals(2, statistics2.getKeysReceived());
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long end = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void delay() throws Exception
+    {
+        for (int i = 0; i < 1000; ++i) {
+            this.bus1.invalidate("cache", "key" + (i % 10));
+        }
+
+        ArgumentCaptor<CacheInvalidation> captor = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(this.handler2, timeout(5000)).invalidate(captor.capture());
+        assertEquals(10, captor.getValue().getKeys().size());
+
+        // Make sure nothing else is sent
+        Thread.sleep(500);
+        verify(this.handler2).invalidate(any());
+    }
+}
@@ -5482,10 +5482,8 @@ public String getURL(DocumentReference documentReference, String action, String
             }
         }
 
-        URL url = context.getURLFactory().createURL(spaces, documentReference.getName(), action, actualQueryString,
-            anchor, documentReference.getWikiReference().getName(), context);
-
-        return context.getURLFactory().getURL(url, context);
+        return context.getURLFactory().getURL(spaces, documentReference.getName(), action, actualQueryString, anchor,
+            documentReference.getWikiReference().getName(), context);
     }
 
     /**
@@ -78,6 +78,7 @@
 import org.suigeneris.jrcs.util.ToString;
 import org.xwiki.bridge.DocumentModelBridge;
 import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
 import org.xwiki.component.util.DefaultParameterizedType;
 import org.xwiki.context.Execution;
 import org.xwiki.context.ExecutionContextException;
@@ -176,6 +177,7 @@
 import com.xpn.xwiki.doc.merge.MergeConfiguration;
 import com.xpn.xwiki.doc.merge.MergeResult;
 import com.xpn.xwiki.doc.rcs.XWikiRCSNodeInfo;
+import com.xpn.xwiki.internal.cache.XDOMCache;
 import com.xpn.xwiki.internal.cache.rendering.RenderingCache;
 import com.xpn.xwiki.internal.doc.BaseObjects;
 import com.xpn.xwiki.internal.doc.XWikiAttachmentList;
@@ -2423,17 +2425,18 @@ public String getAttachmentRevisionURL(String filename, String revision, String
      */
     public String getURL(String action, String params, boolean redirect, XWikiContext context)
     {
-        URL url =
-            context.getURLFactory().createURL(getSpace(), getName(), action, params, null, getDatabase(), context);
-
         if (redirect && isRedirectAbsolute(context)) {
+            URL url =
+                context.getURLFactory().createURL(getSpace(), getName(), action, params, null, getDatabase(), context);
+
             if (url == null) {
                 return null;
             } else {
                 return url.toString();
             }
         } else {
-            return context.getURLFactory().getURL(url, context);
+            return context.getURLFactory().getURL(getSpace(), getName(), action, params, null, getDatabase(),
+                context);
         }
     }
 
@@ -2454,16 +2457,14 @@ public String getURL(String action, XWikiContext context)
 
     public String getURL(String action, String querystring, XWikiContext context)
     {
-        URL url =
-            context.getURLFactory().createURL(getSpace(), getName(), action, querystring, null, getDatabase(), context);
-        return context.getURLFactory().getURL(url, context);
+        return context.getURLFactory().getURL(getSpace(), getName(), action, querystring, null, getDatabase(),
+            context);
     }
 
     public String getURL(String action, String querystring, String anchor, XWikiContext context)
     {
-        URL url = context.getURLFactory().createURL(getSpace(), getName(), action, querystring, anchor, getDatabase(),
+        return context.getURLFactory().getURL(getSpace(), getName(), action, querystring, anchor, getDatabase(),
             context);
-        return context.getURLFactory().getURL(url, context);
     }
 
     public String getExternalURL(String action, XWikiContext context)
@@ -8935,7 +8936,7 @@ public XDOM getXDOM()
     {
         if (this.xdomCache == null) {
             try {
-                this.xdomCache = parseContent(getContent());
+                this.xdomCache = getSharedXDOM();
             } catch (XWikiException e) {
                 ErrorBlockGenerator errorBlockGenerator = Utils.getComponent(ErrorBlockGenerator.class);
                 return new XDOM(errorBlockGenerator.generateErrorBlocks(false, TM_FAILEDDOCUMENTPARSE,
@@ -8946,6 +8947,43 @@ public XDOM getXDOM()
         return this.xdomCache.clone();
     }
 
+    /**
+     * Reuse the content already parsed by another instance of the same document when possible. The returned XDOM is
+     * shared and must not be modified.
+     */
+    private XDOM getSharedXDOM() throws XWikiException
+    {
+        String content = getContent();
+
+        XDOMCache cache = getXDOMCache();
+        String key = cache != null ? cache.getKey(getDocumentReference(), getSyntax(), content) : null;
+
+        XDOM xdom = key != null ? cache.get(key) : null;
+        if (xdom == null) {
+            xdom = parseContent(content);
+
+            if (key != null) {
+                cache.set(key, xdom);
+            }
+        }
+
+        return xdom;
+    }
+
+    /**
+     * @return the shared cache of parsed contents, or {@code null} if it's not available
+     */
+    private XDOMCache getXDOMCache()
+    {
+        ComponentManager componentManager = Utils.getContextComponentManager();
+
+        if (componentManager != null && componentManager.hasComponent(XDOMCache.class)) {
+            return Utils.getComponent(XDOMCache.class);
+        }
+
+        return null;
+    }
+
     /**
      * @return true if the document has a xwiki/1.0 syntax content
      */
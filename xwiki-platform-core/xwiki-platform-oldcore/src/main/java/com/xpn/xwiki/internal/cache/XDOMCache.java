@@ -0,0 +1,190 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.rendering.block.XDOM;
+import org.xwiki.rendering.syntax.Syntax;
+
+/**
+ * Keep the parsed document contents in memory so that they can be shared between the various instances of the same
+ * document (cloned documents, translations, included or displayed pages, indexed documents, etc.).
+ * <p>
+ * A parsed content is identified by the reference of the document it comes from, its syntax and the hash of the
+ * content itself, so a modified content is always parsed again and the old version simply ends up being evicted from
+ * the cache. The cached {@link XDOM}s are shared and must never be modified: they should be cloned before being
+ * exposed.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = XDOMCache.class)
+@Singleton
+public class XDOMCache implements XDOMCacheMBean, Initializable, Disposable
+{
+    private static final String MBEAN_NAME = "type=Rendering,name=xdomCache";
+
+    private static final String CONFIGURATION_SIZE = "rendering.xdomCache.size";
+
+    private static final int DEFAULT_SIZE = 500;
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
+    private Cache<XDOM> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        int size = this.configuration.getProperty(CONFIGURATION_SIZE, DEFAULT_SIZE);
+        if (size > 0) {
+            try {
+                this.cache = this.cacheManager.createNewCache(new LRUCacheConfiguration("rendering.xdom", size));
+            } catch (CacheException e) {
+                throw new InitializationException("Failed to create the parsed contents cache", e);
+            }
+        }
+
+        this.jmxRegistration.registerMBean(this, MBEAN_NAME);
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.jmxRegistration.unregisterMBean(MBEAN_NAME);
+
+        if (this.cache != null) {
+            this.cache.dispose();
+        }
+    }
+
+    /**
+     * @param source the reference of the document the content comes from
+     * @param syntax the syntax of the content
+     * @param content the content to parse
+     * @return the key of the parsed content, or {@code null} if the cache is disabled
+     */
+    public String getKey(DocumentReference source, Syntax syntax, String content)
+    {
+        if (this.cache == null) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(source);
+        builder.append(KEY_SEPARATOR);
+        builder.append(syntax != null ? syntax.toIdString() : null);
+        builder.append(KEY_SEPARATOR);
+        builder.append(DigestUtils.sha256Hex(content));
+
+        return builder.toString();
+    }
+
+    /**
+     * @param key the key of the parsed content
+     * @return the shared parsed content which must not be modified, or {@code null} if it's not in the cache
+     */
+    public XDOM get(String key)
+    {
+        if (key == null) {
+            return null;
+        }
+
+        XDOM xdom = this.cache.get(key);
+
+        if (xdom != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+        }
+
+        return xdom;
+    }
+
+    /**
+     * @param key the key of the parsed content
+     * @param xdom the parsed content, which must not be modified once cached
+     */
+    public void set(String key, XDOM xdom)
+    {
+        if (key != null) {
+            this.cache.set(key, xdom);
+        }
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public double getHitRate()
+    {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (this.cache != null) {
+            this.cache.removeAll();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.observation.remote.codec;
+
+import java.io.IOException;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.bridge.event.AbstractDocumentEvent;
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentDeletedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.bridge.event.DocumentVersionRangeDeletedEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+
+/**
+ * Write the document events sent on the network by
+ * {@link com.xpn.xwiki.internal.observation.remote.converter.DocumentEventConverter} as their type and document
+ * reference instead of using Java serialization. Those events are the ones used by the other members of the cluster to
+ * invalidate their caches (documents, rights, etc.).
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named("documentevent")
+@Singleton
+public class DocumentEventBinaryValueSerializer implements BinaryValueSerializer
+{
+    private static final byte CREATED = 0;
+
+    private static final byte UPDATED = 1;
+
+    private static final byte DELETED = 2;
+
+    private static final byte VERSION_RANGE_DELETED = 3;
+
+    @Override
+    public boolean canSerialize(Object value)
+    {
+        Class<?> eventClass = value.getClass();
+
+        // Only events targeting a specific document can be rebuilt from their reference
+        return (eventClass == DocumentCreatedEvent.class || eventClass == DocumentUpdatedEvent.class
+            || eventClass == DocumentDeletedEvent.class || eventClass == DocumentVersionRangeDeletedEvent.class)
+            && ((AbstractDocumentEvent) value).getDocumentReference() != null
+            && !((AbstractDocumentEvent) value).isCanceled();
+    }
+
+    @Override
+    public void write(Object value, BinaryValueOutput output) throws IOException
+    {
+        AbstractDocumentEvent event = (AbstractDocumentEvent) value;
+
+        if (event instanceof DocumentCreatedEvent) {
+            output.writeInt(CREATED);
+        } else if (event instanceof DocumentUpdatedEvent) {
+            output.writeInt(UPDATED);
+        } else if (event instanceof DocumentDeletedEvent) {
+            output.writeInt(DELETED);
+        } else {
+            output.writeInt(VERSION_RANGE_DELETED);
+        }
+
+        output.writeValue(event.getDocumentReference());
+
+        if (event instanceof DocumentVersionRangeDeletedEvent) {
+            output.writeString(((DocumentVersionRangeDeletedEvent) event).getFrom());
+            output.writeString(((DocumentVersionRangeDeletedEvent) event).getTo());
+        }
+    }
+
+    @Override
+    public Object read(BinaryValueInput input) throws IOException
+    {
+        int type = input.readInt();
+        DocumentReference documentReference = (DocumentReference) input.readValue();
+
+        switch (type) {
+            case CREATED:
+                return new DocumentCreatedEvent(documentReference);
+            case UPDATED:
+                return new DocumentUpdatedEvent(documentReference);
+            case DELETED:
+                return new DocumentDeletedEvent(documentReference);
+            case VERSION_RANGE_DELETED:
+                return new DocumentVersionRangeDeletedEvent(documentReference, input.readString(),
+                    input.readString());
+            default:
+                throw new IOException("Unknown document event type [" + type + "]");
+        }
+    }
+}
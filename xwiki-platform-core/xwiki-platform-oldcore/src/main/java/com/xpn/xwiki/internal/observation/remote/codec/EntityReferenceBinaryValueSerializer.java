@@ -0,0 +1,138 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.observation.remote.codec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.model.EntityType;
+import org.xwiki.model.reference.AttachmentReference;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.model.reference.ObjectPropertyReference;
+import org.xwiki.model.reference.ObjectReference;
+import org.xwiki.model.reference.SpaceReference;
+import org.xwiki.model.reference.WikiReference;
+import org.xwiki.observation.remote.codec.BinaryValueInput;
+import org.xwiki.observation.remote.codec.BinaryValueOutput;
+import org.xwiki.observation.remote.codec.BinaryValueSerializer;
+
+/**
+ * Write the most common {@link EntityReference} types in a compact form (the names of the reference chain and their
+ * parameters) instead of using Java serialization.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named("entityreference")
+@Singleton
+public class EntityReferenceBinaryValueSerializer implements BinaryValueSerializer
+{
+    private static final List<Class<? extends EntityReference>> CLASSES =
+        List.of(EntityReference.class, WikiReference.class, SpaceReference.class, DocumentReference.class,
+            AttachmentReference.class, ObjectReference.class, ObjectPropertyReference.class);
+
+    private static final EntityType[] TYPES = EntityType.values();
+
+    @Override
+    public boolean canSerialize(Object value)
+    {
+        // Only the exact classes we know how to rebuild
+        return CLASSES.contains(value.getClass());
+    }
+
+    @Override
+    public void write(Object value, BinaryValueOutput output) throws IOException
+    {
+        EntityReference reference = (EntityReference) value;
+
+        output.writeInt(CLASSES.indexOf(reference.getClass()));
+
+        List<EntityReference> chain = reference.getReversedReferenceChain();
+        output.writeInt(chain.size());
+        for (EntityReference element : chain) {
+            output.writeInt(element.getType().ordinal());
+            output.writeString(element.getName());
+
+            Map<String, Serializable> parameters = element.getParameters();
+            output.writeInt(parameters.size());
+            for (Map.Entry<String, Serializable> parameter : parameters.entrySet()) {
+                output.writeString(parameter.getKey());
+                output.writeValue(parameter.getValue());
+            }
+        }
+    }
+
+    @Override
+    public Object read(BinaryValueInput input) throws IOException
+    {
+        int classIndex = input.readInt();
+
+        EntityReference reference = null;
+        int size = input.readInt();
+        for (int i = 0; i < size; ++i) {
+            EntityType type = TYPES[input.readInt()];
+            String name = input.readString();
+
+            int parametersSize = input.readInt();
+            Map<String, Serializable> parameters = null;
+            if (parametersSize > 0) {
+                parameters = new HashMap<>(parametersSize * 2);
+                for (int j = 0; j < parametersSize; ++j) {
+                    parameters.put(input.readString(), (Serializable) input.readValue());
+                }
+            }
+
+            reference = new EntityReference(name, type, reference, parameters);
+        }
+
+        return toTypedReference(classIndex, reference);
+    }
+
+    private EntityReference toTypedReference(int classIndex, EntityReference reference) throws IOException
+    {
+        switch (classIndex) {
+            case 0:
+                return reference;
+            case 1:
+                return new WikiReference(reference);
+            case 2:
+                return new SpaceReference(reference);
+            case 3:
+                return new DocumentReference(reference);
+            case 4:
+                return new AttachmentReference(reference);
+            case 5:
+                return new ObjectReference(reference);
+            case 6:
+                return new ObjectPropertyReference(reference);
+            default:
+                throw new IOException("Unknown entity reference class index [" + classIndex + "]");
+        }
+    }
+}
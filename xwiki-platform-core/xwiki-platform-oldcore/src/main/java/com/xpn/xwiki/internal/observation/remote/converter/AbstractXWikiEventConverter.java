@@ -36,7 +36,6 @@
 import com.xpn.xwiki.XWikiContext;
 import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.doc.XWikiDocument;
-import com.xpn.xwiki.store.XWikiCacheStore;
 import com.xpn.xwiki.util.XWikiStubContextProvider;
 
 /**
@@ -191,11 +190,8 @@ protected XWikiDocument unserializeDocument(Serializable remoteData) throws XWik
         XWikiDocument document = new XWikiDocument(docReference, locale);
         XWikiDocument origDoc = new XWikiDocument(docReference, origLocale);
 
-        // Force invalidating the cache to be sure it return (and keep) the right document
-        if (xcontext.getWiki().getStore() instanceof XWikiCacheStore) {
-            ((XWikiCacheStore) xcontext.getWiki().getStore()).invalidate(document);
-            ((XWikiCacheStore) xcontext.getWiki().getStore()).invalidate(origDoc);
-        }
+        // The document cache is invalidated through the ClusterInvalidationBus, so the cached document might not be
+        // up to date yet, but #getDocument makes sure to return the right version of the document
 
         String version = (String) remoteDataMap.get(DOC_VERSION);
         if (version != null) {
@@ -44,7 +44,6 @@
 import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.doc.XWikiDeletedDocument;
 import com.xpn.xwiki.doc.XWikiDocument;
-import com.xpn.xwiki.store.XWikiCacheStore;
 import com.xpn.xwiki.store.XWikiRecycleBinStoreInterface;
 
 /**
@@ -145,11 +144,6 @@ private XWikiDocument unserializeDeletedDocument(Serializable remoteData, XWikiC
 
         doc.setOriginalDocument(origDoc);
 
-        // Force invalidating the cache to be sure it return (and keep) the right document
-        if (xcontext.getWiki().getStore() instanceof XWikiCacheStore) {
-            ((XWikiCacheStore) xcontext.getWiki().getStore()).invalidate(doc);
-        }
-
         return doc;
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+import org.xwiki.observation.remote.invalidation.CacheInvalidationHandler;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.store.XWikiCacheStore;
+
+/**
+ * Remove from the document cache the documents modified on the other members of the cluster.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(XWikiCacheStore.CACHE_INVALIDATION_ID)
+@Singleton
+public class DocumentCacheInvalidationHandler implements CacheInvalidationHandler
+{
+    @Inject
+    private Provider<XWikiContext> xcontextProvider;
+
+    @Override
+    public void invalidate(CacheInvalidation invalidation)
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        if (xcontext != null && xcontext.getWiki() != null
+            && xcontext.getWiki().getStore() instanceof XWikiCacheStore) {
+            ((XWikiCacheStore) xcontext.getWiki().getStore()).invalidate(invalidation);
+        }
+    }
+}
@@ -42,6 +42,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -104,6 +105,7 @@
 
 import com.xpn.xwiki.XWiki;
 import com.xpn.xwiki.internal.skin.AbstractSkinResource;
+import com.xpn.xwiki.internal.skin.EnvironmentSkinResource;
 import com.xpn.xwiki.internal.skin.InternalSkinManager;
 import com.xpn.xwiki.internal.skin.WikiResource;
 import com.xpn.xwiki.user.api.XWikiRightService;
@@ -130,6 +132,29 @@ public class InternalTemplateManager implements Initializable, Disposable
 
     private static final String PROPERTY_REQUIRE_PREFIX = "require.";
 
+    private static final String CONFIGURATION_CACHE_VALIDATION = "template.cache.validation";
+
+    /**
+     * The strategies which can be used to make sure the cached filesystem templates are up to date.
+     */
+    private enum CacheValidation
+    {
+        /**
+         * Compare the last modification date of the file each time the template is accessed.
+         */
+        MODIFICATION,
+
+        /**
+         * Remove the templates from the cache when the filesystem reports that their file changed.
+         */
+        WATCH,
+
+        /**
+         * Consider that the filesystem templates never change.
+         */
+        NONE
+    }
+
     @Inject
     private Environment environment;
 
@@ -192,6 +217,9 @@ public class InternalTemplateManager implements Initializable, Disposable
     @Inject
     private CacheControl cacheControl;
 
+    @Inject
+    private TemplateCacheStatistics statistics;
+
     @Inject
     private Logger logger;
 
@@ -199,6 +227,15 @@ public class InternalTemplateManager implements Initializable, Disposable
 
     private Cache<Template> templateCache;
 
+    private CacheValidation cacheValidation;
+
+    private TemplateFileWatcher watcher;
+
+    /**
+     * The identifiers of the cached templates associated with each watched file.
+     */
+    private final Map<Path, Set<String>> watchedTemplates = new ConcurrentHashMap<>();
+
     private abstract static class AbtractTemplate<T extends TemplateContent, R extends Resource<?>> implements Template
     {
         protected R resource;
@@ -207,6 +244,12 @@ public class InternalTemplateManager implements Initializable, Disposable
 
         protected Instant instant;
 
+        /**
+         * {@code false} when there is no need to check the resource last modification date (because the resource never
+         * changes or the template is removed from the cache when it does).
+         */
+        protected boolean modificationChecked = true;
+
         public AbtractTemplate(R resource)
         {
             this.resource = resource;
@@ -234,7 +277,7 @@ public TemplateContent getContent() throws Exception
                     // Failed to get the resource instant, it's unknown
                 }
                 this.content = loadContent();
-            } else if (this.instant != null) {
+            } else if (this.modificationChecked && this.instant != null) {
                 // Check if the resource has been modified
                 Instant resourceInstant = this.resource.getInstant();
                 if (resourceInstant.isAfter(this.instant)) {
@@ -603,16 +646,104 @@ public void initialize() throws InitializationException
         } catch (CacheException e) {
             this.logger.error("Failed to create the filesystem template cache", e);
         }
+
+        // Initialize the strategy used to make sure the cached filesystem templates are up to date
+        this.cacheValidation = getCacheValidation();
+        if (this.cacheValidation == CacheValidation.WATCH && this.templateCache != null) {
+            try {
+                this.watcher = new TemplateFileWatcher(this::onFileModified, this.logger);
+            } catch (Exception e) {
+                this.logger.warn("Failed to watch the filesystem templates, their last modification date will be"
+                    + " checked instead: {}", ExceptionUtils.getRootCauseMessage(e));
+
+                this.cacheValidation = CacheValidation.MODIFICATION;
+            }
+        }
+        this.statistics.setValidation(this.cacheValidation.name().toLowerCase());
     }
 
     @Override
     public void dispose() throws ComponentLifecycleException
     {
+        if (this.watcher != null) {
+            this.watcher.close();
+        }
+
         if (this.templateCache != null) {
             this.templateCache.dispose();
         }
     }
 
+    private CacheValidation getCacheValidation()
+    {
+        String value = this.allConfiguration.getProperty(CONFIGURATION_CACHE_VALIDATION, String.class);
+
+        if (StringUtils.isNotEmpty(value)) {
+            try {
+                return CacheValidation.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                this.logger.warn("Unsupported value [{}] for the configuration property [{}]", value,
+                    CONFIGURATION_CACHE_VALIDATION);
+            }
+        }
+
+        return CacheValidation.MODIFICATION;
+    }
+
+    private void onFileModified(Path file)
+    {
+        if (file != null) {
+            Set<String> ids = this.watchedTemplates.remove(file);
+            if (ids != null) {
+                ids.forEach(this.templateCache::remove);
+                this.statistics.onInvalidation(ids.size());
+            }
+        } else {
+            // Any watched file might have been modified
+            int count = this.watchedTemplates.size();
+            this.watchedTemplates.clear();
+            this.templateCache.removeAll();
+            this.statistics.onInvalidation(count);
+        }
+    }
+
+    private boolean watch(AbstractSkinResource resource)
+    {
+        URL url = this.environment.getResource(resource.getPath());
+
+        if (url != null && "file".equals(url.getProtocol())) {
+            try {
+                Path file = Paths.get(url.toURI());
+
+                // Remember the template before watching the file to not miss any modification
+                this.watchedTemplates.computeIfAbsent(file, k -> ConcurrentHashMap.newKeySet()).add(resource.getId());
+
+                return this.watcher.watch(file);
+            } catch (Exception e) {
+                this.logger.warn("Failed to watch the template file [{}]: {}", url,
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        return false;
+    }
+
+    private EnvironmentTemplate createEnvironmentTemplate(AbstractSkinResource resource)
+    {
+        EnvironmentTemplate template = new EnvironmentTemplate(resource);
+
+        // Only the templates located in the environment are stored on the filesystem
+        if (resource instanceof EnvironmentSkinResource) {
+            if (this.cacheValidation == CacheValidation.NONE) {
+                template.modificationChecked = false;
+            } else if (this.watcher != null) {
+                template.modificationChecked = !watch(resource);
+            }
+        }
+
+        return template;
+    }
+
     private void checkRequirements(Template template) throws Exception
     {
         ComponentManager componentManager = this.componentManagerProvider.get();
@@ -1017,19 +1148,31 @@ private Template getFileSystemTemplate(String templateName)
 
         String templateId = TemplateSkinResource.createId(templatePath);
 
-        if (!checkFilesystemTemplate(templatePath)) {
-            // Force invalidating the potentially cached template since it's not valid anymore
-            this.templateCache.remove(templateId);
+        Template template;
+        if (this.cacheValidation == CacheValidation.MODIFICATION) {
+            if (!checkFilesystemTemplate(templatePath)) {
+                // Force invalidating the potentially cached template since it's not valid anymore
+                this.templateCache.remove(templateId);
 
-            return null;
-        }
+                return null;
+            }
 
-        // Try the cache
-        Template template = getCachedTemplate(templateId, () -> getResourceInstant(this.environment, templatePath));
+            // Try the cache
+            template = getCachedTemplate(templateId, () -> getResourceInstant(this.environment, templatePath));
+        } else {
+            // Try the cache (the modified and deleted files are taken care of by the watcher, if any, so the
+            // filesystem does not need to be accessed when the template is cached)
+            template = getCachedTemplate(templateId, () -> getResourceInstant(this.environment, templatePath));
+
+            if (template == null && !checkFilesystemTemplate(templatePath)) {
+                return null;
+            }
+        }
 
         // Create a new instance if it could not be found in the cache
         if (template == null) {
-            template = new EnvironmentTemplate(new TemplateSkinResource(templatePath, templateName, this.environment));
+            template =
+                createEnvironmentTemplate(new TemplateSkinResource(templatePath, templateName, this.environment));
 
             if (this.templateCache != null) {
                 this.templateCache.set(templateId, template);
@@ -1046,7 +1189,7 @@ private Template getTemplate(Resource<?> resource)
 
         if (template == null) {
             if (resource instanceof AbstractSkinResource) {
-                template = new EnvironmentTemplate((AbstractSkinResource) resource);
+                template = createEnvironmentTemplate((AbstractSkinResource) resource);
             } else {
                 template = new DefaultTemplate(resource);
             }
@@ -1067,12 +1210,16 @@ private Template getCachedTemplate(String id, Callable<Instant> resourceInstantP
             template = this.templateCache.get(id);
 
             // Check if the cached template is older than the actual resource last modification
-            if (template != null) {
+            if (template != null && isModificationChecked(template)) {
                 Instant instant = template.getInstant();
 
                 try {
-                    if (instant != null && instant.isBefore(resourceInstantProvider.call())) {
-                        template = null;
+                    if (instant != null) {
+                        this.statistics.onValidation();
+
+                        if (instant.isBefore(resourceInstantProvider.call())) {
+                            template = null;
+                        }
                     }
                 } catch (Exception e) {
                     this.logger.warn("Failed to get the instant for resource with idenfier [{}]: {}", id,
@@ -1095,11 +1242,22 @@ private Template getCachedTemplate(String id, Callable<Instant> resourceInstantP
                     }
                 }
             }
+
+            if (template != null) {
+                this.statistics.onHit();
+            } else {
+                this.statistics.onMiss();
+            }
         }
 
         return template;
     }
 
+    private boolean isModificationChecked(Template template)
+    {
+        return !(template instanceof AbtractTemplate) || ((AbtractTemplate<?, ?>) template).modificationChecked;
+    }
+
     private Template getClassloaderTemplate(String prefixPath, String templateName)
     {
         return getClassloaderTemplate(Thread.currentThread().getContextClassLoader(), prefixPath, templateName);
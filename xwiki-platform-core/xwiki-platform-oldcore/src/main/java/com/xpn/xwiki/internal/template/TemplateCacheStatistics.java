@@ -0,0 +1,148 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.template;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.management.JMXBeanRegistration;
+
+/**
+ * Gather metrics about the template cache of {@link InternalTemplateManager}, and expose them through JMX.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = TemplateCacheStatistics.class)
+@Singleton
+public class TemplateCacheStatistics implements TemplateCacheStatisticsMBean, Initializable, Disposable
+{
+    private static final String MBEAN_NAME = "type=Templates,name=cache";
+
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder validations = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private volatile String validation;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        this.jmxRegistration.registerMBean(this, MBEAN_NAME);
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.jmxRegistration.unregisterMBean(MBEAN_NAME);
+    }
+
+    /**
+     * @param validation the strategy used to make sure the cached filesystem templates are up to date
+     */
+    public void setValidation(String validation)
+    {
+        this.validation = validation;
+    }
+
+    /**
+     * A requested template was found in the cache.
+     */
+    public void onHit()
+    {
+        this.hits.increment();
+    }
+
+    /**
+     * A requested template was not found in the cache.
+     */
+    public void onMiss()
+    {
+        this.misses.increment();
+    }
+
+    /**
+     * The last modification date of a cached template was checked.
+     */
+    public void onValidation()
+    {
+        this.validations.increment();
+    }
+
+    /**
+     * @param count the number of cached templates removed because the associated file was modified or deleted
+     */
+    public void onInvalidation(int count)
+    {
+        this.invalidations.add(count);
+    }
+
+    @Override
+    public String getValidation()
+    {
+        return this.validation;
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public double getHitRate()
+    {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    @Override
+    public long getValidationCount()
+    {
+        return this.validations.sum();
+    }
+
+    @Override
+    public long getInvalidationCount()
+    {
+        return this.invalidations.sum();
+    }
+}
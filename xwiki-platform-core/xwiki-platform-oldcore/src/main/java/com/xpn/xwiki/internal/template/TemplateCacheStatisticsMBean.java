@@ -0,0 +1,60 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.template;
+
+/**
+ * Interface of the {@link TemplateCacheStatistics} MBean.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public interface TemplateCacheStatisticsMBean
+{
+    /**
+     * @return the strategy used to make sure the cached filesystem templates are up to date ({@code modification},
+     *     {@code watch} or {@code none})
+     */
+    String getValidation();
+
+    /**
+     * @return the number of requested templates found in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of requested templates not found in the cache
+     */
+    long getMissCount();
+
+    /**
+     * @return the ratio of requested templates found in the cache, between 0 and 1
+     */
+    double getHitRate();
+
+    /**
+     * @return the number of times the last modification date of a cached template was checked
+     */
+    long getValidationCount();
+
+    /**
+     * @return the number of cached templates removed because the associated file was modified or deleted
+     */
+    long getInvalidationCount();
+}
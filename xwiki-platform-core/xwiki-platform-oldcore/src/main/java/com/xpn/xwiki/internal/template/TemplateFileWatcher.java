@@ -0,0 +1,151 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.template;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+
+/**
+ * Watch the directories containing the filesystem templates and report the files which are created, modified or
+ * deleted.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class TemplateFileWatcher
+{
+    private final WatchService watchService;
+
+    private final Consumer<Path> listener;
+
+    private final Logger logger;
+
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+
+    private final Thread thread;
+
+    /**
+     * @param listener called with the path of each modified file, or with {@code null} when the modified files are
+     *     unknown (in which case any watched file should be considered modified)
+     * @param logger the logger to use to report problems
+     * @throws IOException when failing to create the watch service
+     */
+    public TemplateFileWatcher(Consumer<Path> listener, Logger logger) throws IOException
+    {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.listener = listener;
+        this.logger = logger;
+
+        this.thread = new Thread(this::run, "XWiki template watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @param file the file to watch
+     * @return {@code true} if the file is watched, {@code false} if it's not possible to watch it
+     */
+    public boolean watch(Path file)
+    {
+        Path directory = file.getParent();
+        if (directory == null) {
+            return false;
+        }
+
+        if (!this.directories.contains(directory)) {
+            try {
+                directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                this.directories.add(directory);
+            } catch (IOException | ClosedWatchServiceException | UnsupportedOperationException e) {
+                this.logger.warn("Failed to watch the directory [{}]: {}", directory,
+                    ExceptionUtils.getRootCauseMessage(e));
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void run()
+    {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                Path directory = (Path) key.watchable();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Some events were lost
+                        onModified(null);
+                    } else {
+                        onModified(directory.resolve((Path) event.context()));
+                    }
+                }
+
+                if (!key.reset()) {
+                    // The directory is not accessible anymore
+                    this.directories.remove(directory);
+                    onModified(null);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // The watcher was closed
+        }
+    }
+
+    private void onModified(Path file)
+    {
+        try {
+            this.listener.accept(file);
+        } catch (Exception e) {
+            this.logger.error("Failed to handle the modification of the template file [{}]", file, e);
+        }
+    }
+
+    /**
+     * Stop watching the files.
+     */
+    public void close()
+    {
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            this.logger.warn("Failed to close the template watch service: {}", ExceptionUtils.getRootCauseMessage(e));
+        }
+
+        this.thread.interrupt();
+    }
+}
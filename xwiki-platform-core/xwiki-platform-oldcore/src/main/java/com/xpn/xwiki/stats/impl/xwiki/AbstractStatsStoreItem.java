@@ -24,6 +24,7 @@
 
 import org.xwiki.context.Execution;
 import org.xwiki.context.ExecutionContext;
+import org.xwiki.stability.Unstable;
 
 import com.xpn.xwiki.XWikiContext;
 import com.xpn.xwiki.stats.impl.StatsUtil;
@@ -63,6 +64,14 @@ public abstract class AbstractStatsStoreItem implements XWikiStatsStoreItem
      */
     protected int period;
 
+    /**
+     * The number of statistics events represented by this item, more than one when other items were merged in it.
+     *
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    protected int count = 1;
+
     /**
      * @param name the statistic name.
      * @param periodDate the period date.
@@ -80,6 +89,36 @@ public AbstractStatsStoreItem(String name, Date periodDate, PeriodType periodTyp
         this.context = context.clone();
     }
 
+    /**
+     * Merge an item with the same identifier in this one, so that only one item (and one context) per statistic is kept
+     * in memory while the statistics are aggregated. The merged item can be discarded afterwards.
+     *
+     * @param item the item to merge, with the same identifier as this one
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    public void merge(AbstractStatsStoreItem item)
+    {
+        this.count += item.count;
+        this.periodDate = item.periodDate;
+    }
+
+    /**
+     * @param statsList the list of statistics items
+     * @return the number of statistics events represented by the passed items
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    protected static int getCount(List<XWikiStatsStoreItem> statsList)
+    {
+        int total = 0;
+        for (XWikiStatsStoreItem item : statsList) {
+            total += item instanceof AbstractStatsStoreItem ? ((AbstractStatsStoreItem) item).count : 1;
+        }
+
+        return total;
+    }
+
     @Override
     public void store(List<XWikiStatsStoreItem> statsList)
     {
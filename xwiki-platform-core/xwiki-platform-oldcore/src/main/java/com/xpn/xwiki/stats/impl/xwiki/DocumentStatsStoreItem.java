@@ -50,9 +50,9 @@ public class DocumentStatsStoreItem extends AbstractStatsStoreItem
     private String action;
 
     /**
-     * Is this part of a user visit.
+     * The number of user visits started by the events represented by this item.
      */
-    private boolean isVisit;
+    private int visits;
 
     /**
      * Create new instance of {@link DocumentStatsStoreItem}.
@@ -75,7 +75,15 @@ public DocumentStatsStoreItem(String name, Date periodDate, PeriodType periodTyp
         super(name, periodDate, periodType, context);
 
         this.action = action;
-        this.isVisit = isVisit;
+        this.visits = isVisit ? 1 : 0;
+    }
+
+    @Override
+    public void merge(AbstractStatsStoreItem item)
+    {
+        super.merge(item);
+
+        this.visits += ((DocumentStatsStoreItem) item).visits;
     }
 
     @Override
@@ -108,14 +116,12 @@ public void storeInternal(List<XWikiStatsStoreItem> stats)
         }
 
         // Increment counters
-        documentStat.setIntValue("pageViews", documentStat.getPageViews() + stats.size());
+        documentStat.setIntValue("pageViews", documentStat.getPageViews() + getCount(stats));
+        int newVisits = 0;
         for (XWikiStatsStoreItem statItem : stats) {
-            DocumentStatsStoreItem docStat = (DocumentStatsStoreItem) statItem;
-
-            if (docStat.isVisit) {
-                documentStat.incVisits();
-            }
+            newVisits += ((DocumentStatsStoreItem) statItem).visits;
         }
+        documentStat.setVisits(documentStat.getVisits() + newVisits);
 
         // Re-save statistics object
         try {
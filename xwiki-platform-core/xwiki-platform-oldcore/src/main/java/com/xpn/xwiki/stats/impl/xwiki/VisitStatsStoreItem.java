@@ -49,6 +49,11 @@ public class VisitStatsStoreItem extends AbstractStatsStoreItem
      */
     private VisitStats visitStats;
 
+    /**
+     * The previous {@link VisitStats} object to delete before storing the new one.
+     */
+    private VisitStats oldVisitStats;
+
     /**
      * Create new instance of {@link VisitStatsStoreItem}.
      *
@@ -61,6 +66,17 @@ public VisitStatsStoreItem(VisitStats visitStats, XWikiContext context)
         this.period = visitStats.getPeriod();
 
         this.visitStats = (VisitStats) visitStats.clone();
+        this.oldVisitStats = this.visitStats.getOldObject();
+    }
+
+    @Override
+    public void merge(AbstractStatsStoreItem item)
+    {
+        super.merge(item);
+
+        // Only the latest state of the visit needs to be stored, but the previous object of the first one still needs
+        // to be deleted
+        this.visitStats = ((VisitStatsStoreItem) item).visitStats;
     }
 
     @Override
@@ -74,7 +90,7 @@ public String getId()
     public void storeInternal(List<XWikiStatsStoreItem> stats)
     {
         VisitStatsStoreItem firstItem = (VisitStatsStoreItem) stats.get(0);
-        VisitStats oldVisitStats = firstItem.visitStats.getOldObject();
+        VisitStats oldVisitStats = firstItem.oldVisitStats;
 
         VisitStatsStoreItem lastItem = (VisitStatsStoreItem) stats.get(stats.size() - 1);
         VisitStats newVisitStats = lastItem.visitStats;
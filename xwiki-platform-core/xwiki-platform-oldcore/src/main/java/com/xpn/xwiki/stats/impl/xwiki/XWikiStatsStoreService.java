@@ -25,6 +25,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +59,21 @@ public class XWikiStatsStoreService extends AbstractXWikiRunnable
      */
     private ArrayBlockingQueue<XWikiStatsStoreItem> queue;
 
+    /**
+     * The time in milliseconds during which the statistics are aggregated in memory before being stored.
+     */
+    private long flushInterval;
+
+    /**
+     * The maximum number of statistics aggregated in memory before being stored, whatever the flush interval.
+     */
+    private long maxPendingItems;
+
+    /**
+     * The number of statistics which could not be stored.
+     */
+    private final AtomicLong lostItems = new AtomicLong();
+
     /**
      * The thread on which the storing service is running.
      */
@@ -77,6 +94,8 @@ public XWikiStatsStoreService(XWikiContext context)
         this.xwikiContext = context.clone();
         long queueSize = context.getWiki().ParamAsLong("stats.queue.size", 200);
         this.queue = new ArrayBlockingQueue<>((int) queueSize);
+        this.flushInterval = context.getWiki().ParamAsLong("xwiki.stats.flush.interval", 0);
+        this.maxPendingItems = context.getWiki().ParamAsLong("xwiki.stats.flush.maxItems", 10000);
     }
 
     @Override
@@ -104,7 +123,12 @@ public void start()
      */
     public void stop()
     {
+        int lost = this.queue.size();
         this.queue.clear();
+        if (lost > 0) {
+            this.lostItems.addAndGet(lost);
+            LOGGER.warn("[{}] statistics were not stored because the statistics storing thread is stopping.", lost);
+        }
         try {
             this.queue.put(new StopStatsRegisterObject());
             this.thread.join();
@@ -136,7 +160,10 @@ public void runInternal() throws InterruptedException
     }
 
     /**
-     * Store the statistics in the queue.
+     * Store the statistics in the queue. Statistics with the same identifier are merged and stored in one go, so when a
+     * flush interval is configured the statistics are aggregated in memory during that interval, making the number of
+     * database writes depend on the number of distinct statistics instead of the traffic. Only one item is kept in
+     * memory per distinct statistic, the next ones being merged in it.
      *
      * @throws InterruptedException thread has been interrupted.
      * @throws StopStatsStoreException service received stop order.
@@ -148,30 +175,64 @@ private void register() throws InterruptedException, StopStatsStoreException
         List<List<XWikiStatsStoreItem>> statsList = new ArrayList<>();
         Map<String, List<XWikiStatsStoreItem>> statsMap = new HashMap<>();
 
-        do {
-            if (stat instanceof StopStatsRegisterObject) {
-                throw new StopStatsStoreException();
-            }
-
-            String statId = stat.getId();
-
-            List<XWikiStatsStoreItem> stats = statsMap.get(statId);
+        long flushTime = System.currentTimeMillis() + this.flushInterval;
+        long pendingItems = 0;
 
-            if (stats == null) {
-                stats = new ArrayList<>();
-
-                statsMap.put(statId, stats);
-                statsList.add(stats);
+        try {
+            do {
+                if (stat instanceof StopStatsRegisterObject) {
+                    throw new StopStatsStoreException();
+                }
+
+                String statId = stat.getId();
+
+                List<XWikiStatsStoreItem> stats = statsMap.get(statId);
+
+                if (stats == null) {
+                    stats = new ArrayList<>();
+
+                    statsMap.put(statId, stats);
+                    statsList.add(stats);
+
+                    stats.add(stat);
+                } else if (stats.get(0) instanceof AbstractStatsStoreItem && stat instanceof AbstractStatsStoreItem) {
+                    // Only keep the counters of the new statistic, and not its context
+                    ((AbstractStatsStoreItem) stats.get(0)).merge((AbstractStatsStoreItem) stat);
+                } else {
+                    stats.add(stat);
+                }
+                ++pendingItems;
+
+                // Bound the memory used by the aggregated statistics
+                stat = pendingItems < this.maxPendingItems ? poll(flushTime) : null;
+            } while (stat != null);
+        } finally {
+            // Store what was aggregated so far, even when stopping
+            for (List<XWikiStatsStoreItem> stats : statsList) {
+                stats.get(0).store(stats);
             }
+        }
+    }
 
-            stats.add(stat);
+    /**
+     * @param flushTime the date (in milliseconds) after which the aggregated statistics should be stored
+     * @return the next statistic to store or {@code null} if the aggregated statistics should be stored now
+     * @throws InterruptedException thread has been interrupted.
+     */
+    private XWikiStatsStoreItem poll(long flushTime) throws InterruptedException
+    {
+        long timeout = flushTime - System.currentTimeMillis();
 
-            stat = this.queue.poll();
-        } while (stat != null);
+        return timeout > 0 ? this.queue.poll(timeout, TimeUnit.MILLISECONDS) : this.queue.poll();
+    }
 
-        for (List<XWikiStatsStoreItem> stats : statsList) {
-            stats.get(0).store(stats);
-        }
+    /**
+     * @return the number of statistics which could not be stored since the service was created
+     * @since 16.2.0RC1
+     */
+    public long getLostItemsCount()
+    {
+        return this.lostItems.get();
     }
 
     // ////////////////////////////////////////////////////////////////////////////
@@ -188,6 +249,7 @@ public void add(XWikiStatsStoreItem statsRegisterItem)
         try {
             this.queue.put(statsRegisterItem);
         } catch (InterruptedException e) {
+            this.lostItems.incrementAndGet();
             LOGGER.error("Statistics storage thread has been interrupted", e);
         }
     }
@@ -46,6 +46,8 @@
 import org.xwiki.observation.ObservationManager;
 import org.xwiki.observation.event.Event;
 import org.xwiki.observation.remote.RemoteObservationManagerContext;
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+import org.xwiki.observation.remote.invalidation.ClusterInvalidationBus;
 import org.xwiki.query.QueryManager;
 import org.xwiki.stability.Unstable;
 
@@ -71,6 +73,14 @@
 public class XWikiCacheStore extends AbstractXWikiStore
     implements XWikiCacheStoreInterface, EventListener, Initializable
 {
+    /**
+     * The identifier of the document cache in the {@link ClusterInvalidationBus}.
+     *
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    public static final String CACHE_INVALIDATION_ID = "xwiki.store.pagecache";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(XWikiCacheStore.class);
 
     /**
@@ -89,6 +99,12 @@ public class XWikiCacheStore extends AbstractXWikiStore
     @Inject
     private ObservationManager observationManager;
 
+    /**
+     * Used to invalidate the documents cached by the other members of the cluster.
+     */
+    @Inject
+    private ClusterInvalidationBus invalidationBus;
+
     @Inject
     private CacheManager cacheManager;
 
@@ -125,6 +141,7 @@ public XWikiCacheStore(XWikiStoreInterface store, XWikiContext context) throws X
         this.remoteObservationManagerContext = Utils.getComponent(RemoteObservationManagerContext.class);
         this.observationManager = Utils.getComponent(ObservationManager.class);
         this.uidStringEntityReferenceSerializer = Utils.getComponent(EntityReferenceSerializer.TYPE_STRING, "uid");
+        this.invalidationBus = Utils.getComponent(ClusterInvalidationBus.class);
         this.cacheManager = Utils.getComponent(CacheManager.class);
         this.configuration = Utils.getComponent(ConfigurationSource.class, "xwikicfg");
 
@@ -167,7 +184,7 @@ private void initCache() throws CacheException
     {
         int pageCacheCapacity = this.configuration.getProperty("xwiki.store.cache.capacity", 500);
         this.cache =
-            this.cacheManager.createNewCache(new LRUCacheConfiguration("xwiki.store.pagecache", pageCacheCapacity));
+            this.cacheManager.createNewCache(new LRUCacheConfiguration(CACHE_INVALIDATION_ID, pageCacheCapacity));
 
         int pageExistCacheCapacity = this.configuration.getProperty("xwiki.store.cache.pageexistcapacity", 10000);
         this.pageExistCache = this.cacheManager
@@ -228,6 +245,7 @@ public void renameXWikiDoc(XWikiDocument doc, DocumentReference newReference, XW
             String key = getKey(doc, context);
             getCache().remove(key);
             getPageExistCache().remove(key);
+            invalidateCluster(key);
 
             WikiReference originalWikiReference = doc.getDocumentReference().getWikiReference();
             // Flushing the cache for new document
@@ -238,6 +256,7 @@ public void renameXWikiDoc(XWikiDocument doc, DocumentReference newReference, XW
             key = getKey(newDoc, context);
             getCache().remove(key);
             getPageExistCache().remove(key);
+            invalidateCluster(key);
             context.setWikiReference(originalWikiReference);
 
             // Restore the previous XWikiContext
@@ -260,6 +279,7 @@ public void saveXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext, boolean
             String key = getKey(doc, context);
             getCache().remove(key);
             getPageExistCache().remove(key);
+            invalidateCluster(key);
 
             /*
              * We do not want to save the document in the cache at this time. If we did, this would introduce the
@@ -279,6 +299,31 @@ public void flushCache()
         getLimitSizePropertyCache().removeAll();
     }
 
+    private void invalidateCluster(String key)
+    {
+        // The bus is the only way the other members of the cluster invalidate their document cache (the remote
+        // document events don't), it deduplicates and sends in batch the invalidations
+        if (this.invalidationBus != null) {
+            this.invalidationBus.invalidate(CACHE_INVALIDATION_ID, key);
+        }
+    }
+
+    /**
+     * Apply the invalidations received from another member of the cluster.
+     *
+     * @param invalidation the keys of the documents to remove from the cache
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    public void invalidate(CacheInvalidation invalidation)
+    {
+        if (invalidation.isAll()) {
+            flushCache();
+        } else {
+            invalidation.getKeys().forEach(this::invalidate);
+        }
+    }
+
     @Override
     public void onEvent(Event event, Object source, Object data)
     {
@@ -298,8 +343,11 @@ public void onEvent(Event event, Object source, Object data)
     @Unstable
     public void invalidate(XWikiDocument document)
     {
-        String key = document.getKey();
+        invalidate(document.getKey());
+    }
 
+    private void invalidate(String key)
+    {
         if (getCache() != null) {
             getCache().remove(key);
         }
@@ -437,6 +485,7 @@ public void deleteXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext) throws
             getCache().remove(key);
             getPageExistCache().remove(key);
             getPageExistCache().set(key, Boolean.FALSE);
+            invalidateCluster(key);
         } finally {
             restoreExecutionXContext();
         }
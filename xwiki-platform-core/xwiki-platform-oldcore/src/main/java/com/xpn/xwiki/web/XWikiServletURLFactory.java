@@ -32,6 +32,8 @@
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -39,6 +41,7 @@
 import org.slf4j.LoggerFactory;
 import org.xwiki.container.servlet.HttpServletUtils;
 import org.xwiki.model.EntityType;
+import org.xwiki.model.internal.reference.MemoizedValues;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceResolver;
@@ -58,6 +61,57 @@ public class XWikiServletURLFactory extends XWikiDefaultURLFactory
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(XWikiServletURLFactory.class);
 
+    private static final String JSESSIONID = ";jsessionid=";
+
+    private static final Pattern JSESSIONID_PATTERN = Pattern.compile(JSESSIONID + ".*?(?=\\?|$)");
+
+    /**
+     * The maximum number of serialized spaces for which to remember the encoded URL path.
+     */
+    private static final int ENCODED_SPACES_MAX_SIZE = 10000;
+
+    /**
+     * The encoded URL path of the spaces, indexed by serialized spaces. It does not depend on the context so it's
+     * shared by all the factories.
+     */
+    private static final MemoizedValues<String, EncodedSpaces> ENCODED_SPACES =
+        new MemoizedValues<>(ENCODED_SPACES_MAX_SIZE);
+
+    /**
+     * The URL path corresponding to a list of spaces.
+     */
+    private static final class EncodedSpaces
+    {
+        private final String path;
+
+        private final String firstSpace;
+
+        private final boolean dotSegment;
+
+        EncodedSpaces(EntityReference spaceReference)
+        {
+            StringBuilder builder = new StringBuilder();
+            boolean dot = false;
+            if (spaceReference != null) {
+                for (EntityReference reference : spaceReference.getReversedReferenceChain()) {
+                    appendSpacePathSegment(builder, reference);
+                    dot |= isDotSegment(reference.getName());
+                }
+            }
+
+            this.path = builder.toString();
+            this.firstSpace =
+                spaceReference != null ? spaceReference.extractFirstReference(EntityType.SPACE).getName() : null;
+            this.dotSegment = dot;
+        }
+    }
+
+    /**
+     * The URL of the servlet (server URL followed by the context and servlet paths) of each wiki, used as prefix of the
+     * entity URLs. The factory is created for each request so it's fine to remember request specific values.
+     */
+    private final Map<String, String> servletURLs = new ConcurrentHashMap<>();
+
     private EntityReferenceResolver<String> relativeEntityReferenceResolver;
 
     private EntityReferenceResolver<String> currentEntityReferenceResolver;
@@ -111,6 +165,7 @@ public void init(XWikiContext context)
     {
         this.defaultURLs = null;
         this.originalURL = null;
+        this.servletURLs.clear();
 
         this.contextPath = context.getWiki().getWebAppPath(context);
 
@@ -183,6 +238,7 @@ public void setDefaultURL(String wikiId, URL baseURL)
         }
 
         this.defaultURLs.put(wikiId, baseURL);
+        this.servletURLs.clear();
     }
 
     protected URL getDefaultURL(String wikiId, XWikiContext xcontext)
@@ -295,6 +351,40 @@ public URL createURL(String spaces, String name, String action, boolean redirect
     @Override
     public URL createURL(String spaces, String name, String action, String querystring, String anchor, String xwikidb,
         XWikiContext context)
+    {
+        URL result;
+        try {
+            result = new URL(createNormalizedURL(spaces, name, action, querystring, anchor, xwikidb, context));
+        } catch (MalformedURLException e) {
+            // This should not happen
+            result = null;
+        }
+
+        return result;
+    }
+
+    @Override
+    public String getURL(String spaces, String name, String action, String querystring, String anchor,
+        String xwikidb, XWikiContext context)
+    {
+        // The extending factories might customize the created URLs or their conversion to string
+        if (getClass() != XWikiServletURLFactory.class) {
+            return getURL(createURL(spaces, name, action, querystring, anchor, xwikidb, context), context);
+        }
+
+        String url;
+        try {
+            url = createNormalizedURL(spaces, name, action, querystring, anchor, xwikidb, context);
+        } catch (MalformedURLException e) {
+            // This should not happen
+            url = null;
+        }
+
+        return getURL(url, context);
+    }
+
+    private String createNormalizedURL(String spaces, String name, String action, String querystring, String anchor,
+        String xwikidb, XWikiContext context) throws MalformedURLException
     {
         // Action and Query String transformers
         if (("view".equals(action)) && (context.getLinksAction() != null)) {
@@ -308,15 +398,14 @@ public URL createURL(String spaces, String name, String action, String querystri
             }
         }
 
-        StringBuilder path = new StringBuilder(this.contextPath);
-        addServletPath(path, xwikidb, context);
+        String wiki = xwikidb != null ? xwikidb : context.getWikiId();
 
-        // Parse the spaces list into Space References
-        EntityReference spaceReference = getRelativeEntityReferenceResolver().resolve(spaces, EntityType.SPACE);
+        EncodedSpaces encodedSpaces = getEncodedSpaces(spaces);
 
         // For how to encode the various parts of the URL, see http://stackoverflow.com/a/29948396/153102
-        addAction(path, spaceReference, action, context);
-        addSpaces(path, spaceReference);
+        StringBuilder path = new StringBuilder();
+        addAction(path, encodedSpaces.firstSpace, action, context);
+        path.append(encodedSpaces.path);
         addName(path, name, action, context);
 
         if (!StringUtils.isEmpty(querystring)) {
@@ -329,15 +418,56 @@ public URL createURL(String spaces, String name, String action, String querystri
             path.append(encodeFragment(anchor));
         }
 
-        URL result;
-        try {
-            result = normalizeURL(new URL(getServerURL(xwikidb, context), path.toString()), context);
-        } catch (MalformedURLException e) {
-            // This should not happen
-            result = null;
+        String url;
+        if (encodedSpaces.dotSegment || isDotSegment(name)) {
+            // Let URL resolve the dot segments
+            StringBuilder fullPath = new StringBuilder(this.contextPath);
+            addServletPath(fullPath, wiki, context);
+            fullPath.append(path);
+            url = new URL(getServerURL(xwikidb, context), fullPath.toString()).toExternalForm();
+        } else {
+            url = getServletURL(wiki, xwikidb, context) + path;
         }
 
-        return result;
+        return normalizeURLString(url, context);
+    }
+
+    private EncodedSpaces getEncodedSpaces(String spaces)
+    {
+        // Parse the spaces list into Space References and encode them
+        if (spaces != null) {
+            return ENCODED_SPACES.get(spaces, key -> new EncodedSpaces(resolveSpaces(key)));
+        }
+
+        return new EncodedSpaces(resolveSpaces(spaces));
+    }
+
+    private EntityReference resolveSpaces(String spaces)
+    {
+        return getRelativeEntityReferenceResolver().resolve(spaces, EntityType.SPACE);
+    }
+
+    private static boolean isDotSegment(String segment)
+    {
+        return ".".equals(segment) || "..".equals(segment);
+    }
+
+    private String getServletURL(String wiki, String xwikidb, XWikiContext context) throws MalformedURLException
+    {
+        // The server URL of a daemon thread depends on the context wiki
+        String servletURL = this.daemon ? null : this.servletURLs.get(wiki);
+
+        if (servletURL == null) {
+            StringBuilder path = new StringBuilder(this.contextPath);
+            addServletPath(path, wiki, context);
+            servletURL = new URL(getServerURL(xwikidb, context), path.toString()).toExternalForm();
+
+            if (!this.daemon) {
+                this.servletURLs.put(wiki, servletURL);
+            }
+        }
+
+        return servletURL;
     }
 
     private void addServletPath(StringBuilder path, String xwikidb, XWikiContext context)
@@ -349,7 +479,7 @@ private void addServletPath(StringBuilder path, String xwikidb, XWikiContext con
         path.append(context.getWiki().getServletPath(xwikidb, context));
     }
 
-    private void addAction(StringBuilder path, EntityReference spaceReference, String action, XWikiContext context)
+    private void addAction(StringBuilder path, String firstSpace, String action, XWikiContext context)
     {
         boolean showViewAction = context.getWiki().showViewAction(context);
 
@@ -357,23 +487,13 @@ private void addAction(StringBuilder path, EntityReference spaceReference, Strin
         // - Output "view/<first space name>" when the first space name is an action name and the action is View
         // (and showViewAction = false)
         if ((!"view".equals(action) || showViewAction)
-            || (spaceReference != null && "view".equals(action) && getActionLister().listActions()
-                .contains(spaceReference.extractFirstReference(EntityType.SPACE).getName()))) {
+            || (firstSpace != null && "view".equals(action) && getActionLister().listActions()
+                .contains(firstSpace))) {
             path.append(action).append("/");
         }
     }
 
-    /**
-     * Add the spaces to the path.
-     */
-    private void addSpaces(StringBuilder path, EntityReference spaceReference)
-    {
-        for (EntityReference reference : spaceReference.getReversedReferenceChain()) {
-            appendSpacePathSegment(path, reference);
-        }
-    }
-
-    private void appendSpacePathSegment(StringBuilder path, EntityReference spaceReference)
+    private static void appendSpacePathSegment(StringBuilder path, EntityReference spaceReference)
     {
         path.append(encodeWithinPath(spaceReference.getName())).append('/');
     }
@@ -431,7 +551,7 @@ protected void addFileName(StringBuilder path, String fileName, boolean encode,
      * @param name the path to encode
      * @return the URL-encoded path segment
      */
-    private String encodeWithinPath(String name)
+    private static String encodeWithinPath(String name)
     {
         // Note: Ideally the following would have been the correct way of writing this method but it causes the issues
         // mentioned in the javadoc of this method
@@ -452,7 +572,7 @@ private String encodeWithinPath(String name)
         }
 
         // The previous call will convert " " into "+" (and "+" into "%2B") so we need to convert "+" into "%20"
-        encodedName = encodedName.replaceAll("\\+", "%20");
+        encodedName = encodedName.replace("+", "%20");
 
         return encodedName;
     }
@@ -610,11 +730,8 @@ public URL createSkinURL(String filename, String spaces, String name, String xwi
         StringBuilder path = new StringBuilder(this.contextPath);
         addServletPath(path, xwikidb, context);
 
-        // Parse the spaces list into Space References
-        EntityReference spaceReference = getRelativeEntityReferenceResolver().resolve(spaces, EntityType.SPACE);
-
         addAction(path, null, "skin", context);
-        addSpaces(path, spaceReference);
+        path.append(getEncodedSpaces(spaces).path);
         addName(path, name, "skin", context);
         addFileName(path, filename, false, context);
         try {
@@ -746,11 +863,9 @@ private URL internalCreateAttachmentURL(String filename, String spaces, String n
         StringBuilder path = new StringBuilder(this.contextPath);
         addServletPath(path, xwikidb, context);
 
-        // Parse the spaces list into Space References
-        EntityReference spaceReference = getRelativeEntityReferenceResolver().resolve(spaces, EntityType.SPACE);
-
-        addAction(path, spaceReference, action, context);
-        addSpaces(path, spaceReference);
+        EncodedSpaces encodedSpaces = getEncodedSpaces(spaces);
+        addAction(path, encodedSpaces.firstSpace, action, context);
+        path.append(encodedSpaces.path);
         addName(path, name, action, context);
         addFileName(path, filename, context);
 
@@ -877,6 +992,54 @@ public String getURL(URL url, XWikiContext context)
         return StringUtils.defaultIfEmpty(relativeURL, "/");
     }
 
+    /**
+     * Same as {@link #getURL(URL, XWikiContext)} but for a URL created by this factory as a string.
+     */
+    private String getURL(String url, XWikiContext context)
+    {
+        String relativeURL = "";
+
+        if (url != null) {
+            URL referenceURL = getOriginalURL(context);
+            if (referenceURL == null || !url.startsWith(referenceURL.toString())) {
+                // External URL: leave it as is.
+                relativeURL = url;
+            } else {
+                // Internal XWiki URL: convert to relative by removing the protocol and the authority.
+                int pathIndex = url.indexOf('/', url.indexOf("//") + 2);
+                relativeURL = pathIndex >= 0 ? removeQueryStringEnd(url.substring(pathIndex)) : "";
+            }
+        }
+
+        return StringUtils.defaultIfEmpty(relativeURL, "/");
+    }
+
+    /**
+     * Removes the trailing parameter separator from the query string of the passed URL (and the query string itself
+     * when it's empty), like {@link #getURL(URL, XWikiContext)} does.
+     */
+    private static String removeQueryStringEnd(String url)
+    {
+        int anchorIndex = url.indexOf('#');
+        int queryIndex = url.indexOf('?');
+        if (queryIndex < 0 || (anchorIndex >= 0 && anchorIndex < queryIndex)) {
+            return url;
+        }
+
+        int queryEnd = anchorIndex >= 0 ? anchorIndex : url.length();
+        String querystring =
+            StringUtils.removeEnd(StringUtils.removeEnd(url.substring(queryIndex + 1, queryEnd), "&"), "&amp;");
+
+        StringBuilder result = new StringBuilder(url.length());
+        result.append(url, 0, queryIndex);
+        if (!querystring.isEmpty()) {
+            result.append('?').append(querystring);
+        }
+        result.append(url, queryEnd, url.length());
+
+        return result.toString();
+    }
+
     @Override
     public URL getRequestURL(XWikiContext context)
     {
@@ -979,15 +1142,22 @@ protected static URL normalizeURL(URL url, XWikiContext context) throws Malforme
      * @throws MalformedURLException if the passed URL is invalid
      */
     protected static URL normalizeURL(String url, XWikiContext context) throws MalformedURLException
+    {
+        return new URL(normalizeURLString(url, context));
+    }
+
+    private static String normalizeURLString(String url, XWikiContext context)
     {
         // For robust session tracking, all URLs emitted by a servlet should be encoded. Otherwise, URL rewriting
         // cannot be used with browsers which do not support cookies.
         String encodedURLAsString = context.getResponse().encodeURL(url);
 
         // Remove a potential jsessionid in the URL
-        encodedURLAsString = encodedURLAsString.replaceAll(";jsessionid=.*?(?=\\?|$)", "");
+        if (encodedURLAsString.contains(JSESSIONID)) {
+            encodedURLAsString = JSESSIONID_PATTERN.matcher(encodedURLAsString).replaceAll("");
+        }
 
-        return new URL(encodedURLAsString);
+        return encodedURLAsString;
     }
 
     private EntityReferenceResolver<String> getRelativeEntityReferenceResolver()
@@ -23,6 +23,8 @@
 import java.net.URL;
 import java.util.Map;
 
+import org.xwiki.stability.Unstable;
+
 import com.xpn.xwiki.XWikiContext;
 
 public interface XWikiURLFactory
@@ -251,6 +253,28 @@ URL createAttachmentRevisionURL(String filename, String spaces, String name, Str
      */
     String getURL(URL url, XWikiContext context);
 
+    /**
+     * Same as {@code getURL(createURL(spaces, name, action, querystring, anchor, xwikidb, context), context)} but
+     * leaves the implementation a chance to not create an intermediate {@link URL}.
+     *
+     * @param spaces a serialized space reference which can contain one or several spaces (e.g. "space1.space2"). If
+     *        a space name contains a dot (".") it must be passed escaped as in "space1\.with\.dot.space2"
+     * @param name the name of the document
+     * @param action the action
+     * @param querystring the URL-encoded Query String
+     * @param anchor the anchor
+     * @param xwikidb the identifier of the wiki
+     * @param context the XWiki context
+     * @return the URL as a string
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default String getURL(String spaces, String name, String action, String querystring, String anchor,
+        String xwikidb, XWikiContext context)
+    {
+        return getURL(createURL(spaces, name, action, querystring, anchor, xwikidb, context), context);
+    }
+
     /**
      * Generate the base external URL to access this server.
      *
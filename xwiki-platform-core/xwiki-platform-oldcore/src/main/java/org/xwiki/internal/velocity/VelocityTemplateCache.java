@@ -0,0 +1,343 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.internal.velocity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.xwiki.bridge.event.DocumentDeletedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.cache.event.AbstractCacheEntryListener;
+import org.xwiki.cache.event.CacheEntryEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.observation.event.Event;
+import org.xwiki.velocity.VelocityTemplate;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+
+/**
+ * Keep the compiled Velocity templates in memory so that the same script is not parsed again each time it's executed.
+ * <p>
+ * The compiled templates are identified by the Velocity engine used to compile them (there is one per skin macros.vm),
+ * the name passed to the compiler, the hash of the content and the security context (the current secure document and
+ * its content author). The templates associated with a secure document are removed from the cache when this document
+ * is modified or deleted.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = VelocityTemplateCache.class)
+@Singleton
+public class VelocityTemplateCache extends AbstractCacheEntryListener<VelocityTemplateCache.CacheEntry>
+    implements VelocityTemplateCacheMBean, Initializable, Disposable
+{
+    private static final String MBEAN_NAME = "type=Velocity,name=templateCache";
+
+    private static final String CONFIGURATION_SIZE = "velocity.templateCache.size";
+
+    private static final int DEFAULT_SIZE = 1000;
+
+    private static final String SDOC = "sdoc";
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    private static final List<Event> EVENTS = Arrays.asList(new DocumentUpdatedEvent(), new DocumentDeletedEvent());
+
+    /**
+     * An entry of the cache.
+     *
+     * @version $Id$
+     */
+    public static final class CacheEntry
+    {
+        private final DocumentReference document;
+
+        private final VelocityTemplate template;
+
+        CacheEntry(DocumentReference document, VelocityTemplate template)
+        {
+            this.document = document;
+            this.template = template;
+        }
+    }
+
+    /**
+     * Identify a compiled template in the cache.
+     *
+     * @version $Id$
+     */
+    public static final class Key
+    {
+        private final String value;
+
+        private final DocumentReference document;
+
+        Key(String value, DocumentReference document)
+        {
+            this.value = value;
+            this.document = document;
+        }
+    }
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @Inject
+    private ObservationManager observation;
+
+    @Inject
+    private Provider<XWikiContext> xcontextProvider;
+
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
+    private Cache<CacheEntry> cache;
+
+    /**
+     * The keys of the cached templates associated with each secure document.
+     */
+    private final Map<DocumentReference, Set<String>> documentIndex = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        int size = this.configuration.getProperty(CONFIGURATION_SIZE, DEFAULT_SIZE);
+        if (size > 0) {
+            try {
+                this.cache = this.cacheManager.createNewCache(new LRUCacheConfiguration("velocity.templates", size));
+                this.cache.addCacheEntryListener(this);
+            } catch (CacheException e) {
+                throw new InitializationException("Failed to create the compiled Velocity templates cache", e);
+            }
+
+            this.observation.addListener(new EventListener()
+            {
+                @Override
+                public void onEvent(Event event, Object source, Object data)
+                {
+                    invalidate(((XWikiDocument) source).getDocumentReference());
+                }
+
+                @Override
+                public String getName()
+                {
+                    return VelocityTemplateCache.class.getName();
+                }
+
+                @Override
+                public List<Event> getEvents()
+                {
+                    return EVENTS;
+                }
+            });
+        }
+
+        this.jmxRegistration.registerMBean(this, MBEAN_NAME);
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.jmxRegistration.unregisterMBean(MBEAN_NAME);
+
+        if (this.cache != null) {
+            this.observation.removeListener(VelocityTemplateCache.class.getName());
+            this.cache.dispose();
+        }
+    }
+
+    /**
+     * @param engine the key of the Velocity engine used to compile the template (each skin macros.vm has its own
+     *     engine)
+     * @param name the name of the template
+     * @param content the Velocity content to compile
+     * @return the key of the compiled template in the current security context, or {@code null} if the cache is
+     *     disabled
+     */
+    public Key getKey(String engine, String name, String content)
+    {
+        if (this.cache == null) {
+            return null;
+        }
+
+        DocumentReference document = null;
+        DocumentReference author = null;
+        XWikiContext xcontext = this.xcontextProvider.get();
+        if (xcontext != null) {
+            XWikiDocument sdoc = (XWikiDocument) xcontext.get(SDOC);
+            if (sdoc != null) {
+                document = sdoc.getDocumentReference();
+            }
+            author = xcontext.getAuthorReference();
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(engine);
+        builder.append(KEY_SEPARATOR);
+        builder.append(name);
+        builder.append(KEY_SEPARATOR);
+        builder.append(document);
+        builder.append(KEY_SEPARATOR);
+        builder.append(author);
+        builder.append(KEY_SEPARATOR);
+        builder.append(DigestUtils.sha256Hex(content));
+
+        return new Key(builder.toString(), document);
+    }
+
+    /**
+     * @param key the key of the compiled template
+     * @return the compiled template, or {@code null} if it's not in the cache
+     */
+    public VelocityTemplate get(Key key)
+    {
+        if (key == null) {
+            return null;
+        }
+
+        CacheEntry entry = this.cache.get(key.value);
+
+        if (entry != null) {
+            this.hits.increment();
+
+            return entry.template;
+        }
+
+        this.misses.increment();
+
+        return null;
+    }
+
+    /**
+     * @param key the key of the compiled template
+     * @param template the compiled template
+     */
+    public void set(Key key, VelocityTemplate template)
+    {
+        if (key != null) {
+            if (key.document != null) {
+                // Index the key before caching the template to not miss an invalidation
+                this.documentIndex.compute(key.document, (k, keys) -> {
+                    Set<String> documentKeys = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                    documentKeys.add(key.value);
+
+                    return documentKeys;
+                });
+            }
+
+            this.cache.set(key.value, new CacheEntry(key.document, template));
+        }
+    }
+
+    private void invalidate(DocumentReference document)
+    {
+        Set<String> keys = this.documentIndex.remove(document);
+
+        if (keys != null) {
+            keys.forEach(this.cache::remove);
+
+            this.invalidations.add(keys.size());
+        }
+    }
+
+    @Override
+    public void cacheEntryRemoved(CacheEntryEvent<CacheEntry> event)
+    {
+        CacheEntry entry = event.getEntry().getValue();
+
+        if (entry != null && entry.document != null) {
+            String key = event.getEntry().getKey();
+            this.documentIndex.computeIfPresent(entry.document, (k, keys) -> {
+                keys.remove(key);
+
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public double getHitRate()
+    {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    @Override
+    public long getInvalidationCount()
+    {
+        return this.invalidations.sum();
+    }
+
+    @Override
+    public void clear()
+    {
+        if (this.cache != null) {
+            this.cache.removeAll();
+            this.documentIndex.clear();
+        }
+    }
+}
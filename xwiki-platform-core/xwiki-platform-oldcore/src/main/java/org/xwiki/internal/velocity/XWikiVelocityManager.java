@@ -19,8 +19,10 @@
  */
 package org.xwiki.internal.velocity;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -32,6 +34,7 @@
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
@@ -75,6 +78,8 @@ public class XWikiVelocityManager extends DefaultVelocityManager implements Init
 {
     private static final String VELOCITYENGINE_CACHEKEY_NAME = "velocity.engine.key";
 
+    private static final String DEFAULT_VELOCITYENGINE_KEY = "default";
+
     private static final List<Event> EVENTS =
         Arrays.asList(new TemplateUpdatedEvent(), new TemplateDeletedEvent());
 
@@ -102,6 +107,9 @@ public class XWikiVelocityManager extends DefaultVelocityManager implements Init
     @Inject
     private AuthorizationManager authorizationManager;
 
+    @Inject
+    private VelocityTemplateCache templateCache;
+
     @Inject
     private Logger logger;
 
@@ -199,16 +207,9 @@ public VelocityEngine getVelocityEngine() throws XWikiVelocityException
         // macros.vm
 
         // Get the location of the skin's macros.vm file
-        XWikiContext xcontext = this.xcontextProvider.get();
+        Template skinMacrosTemplate = getCurrentSkinMacrosTemplate();
 
-        final Template skinMacrosTemplate;
-        if (xcontext != null && xcontext.getWiki() != null) {
-            skinMacrosTemplate = getSkinMacrosTemplate();
-        } else {
-            skinMacrosTemplate = null;
-        }
-
-        String cacheKey = skinMacrosTemplate != null ? skinMacrosTemplate.getId() : "default";
+        String cacheKey = getVelocityEngineKey(skinMacrosTemplate);
 
         // Get the Velocity Engine to use
         VelocityEngine velocityEngine = this.velocityEngines.get(cacheKey);
@@ -219,6 +220,42 @@ public VelocityEngine getVelocityEngine() throws XWikiVelocityException
         return velocityEngine;
     }
 
+    private Template getCurrentSkinMacrosTemplate()
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        return xcontext != null && xcontext.getWiki() != null ? getSkinMacrosTemplate() : null;
+    }
+
+    private String getVelocityEngineKey(Template skinMacrosTemplate)
+    {
+        return skinMacrosTemplate != null ? skinMacrosTemplate.getId() : DEFAULT_VELOCITYENGINE_KEY;
+    }
+
+    @Override
+    public VelocityTemplate compile(String name, Reader reader) throws XWikiVelocityException
+    {
+        String content;
+        try {
+            content = IOUtils.toString(reader);
+        } catch (IOException e) {
+            throw new XWikiVelocityException("Failed to read the Velocity content", e);
+        }
+
+        // Try the cache (the compiled template depends on the Velocity Engine, which depends on the skin macros.vm)
+        VelocityTemplateCache.Key key =
+            this.templateCache.getKey(getVelocityEngineKey(getCurrentSkinMacrosTemplate()), name, content);
+        VelocityTemplate template = this.templateCache.get(key);
+
+        if (template == null) {
+            template = super.compile(name, new StringReader(content));
+
+            this.templateCache.set(key, template);
+        }
+
+        return template;
+    }
+
     private synchronized VelocityEngine createVelocityEngine(String cacheKey, Template skinMacrosTemplate)
         throws XWikiVelocityException
     {
@@ -247,7 +284,8 @@ private void injectBaseMacros(VelocityEngine velocityEngine, Template skinMacros
         try (InputStream stream = this.environment.getResourceAsStream("/templates/macros.vm")) {
             if (stream != null) {
                 try (InputStreamReader reader = new InputStreamReader(stream)) {
-                    VelocityTemplate mainMacros = compile("", reader);
+                    // The global macros are compiled for each engine, without going through the cache
+                    VelocityTemplate mainMacros = super.compile("", reader);
 
                     velocityEngine.addGlobalMacros(mainMacros.getMacros());
                 }
@@ -260,7 +298,7 @@ private void injectBaseMacros(VelocityEngine velocityEngine, Template skinMacros
             skinMacrosTemplate.getContent().getDocumentReference()))
         {
             VelocityTemplate skinMacros =
-                compile("", new StringReader(skinMacrosTemplate.getContent().getContent()));
+                super.compile("", new StringReader(skinMacrosTemplate.getContent().getContent()));
             velocityEngine.addGlobalMacros(skinMacros.getMacros());
         }
     }
@@ -345,6 +345,8 @@ public void getPlainUserName() throws XWikiException
     public void getURLWithDotsAndBackslashInSpaceName() throws Exception
     {
         XWikiURLFactory urlFactory = mock(XWikiURLFactory.class);
+        when(urlFactory.getURL(any(), any(), any(), any(), any(), any(), any(XWikiContext.class)))
+            .thenCallRealMethod();
         context.setURLFactory(urlFactory);
 
         DocumentReference reference = new DocumentReference("wiki", Arrays.asList("space.withdot.and\\and:"), "page");
@@ -358,6 +360,8 @@ public void getURLWithDotsAndBackslashInSpaceName() throws Exception
     public void getURLWithLocale() throws Exception
     {
         XWikiURLFactory urlFactory = mock(XWikiURLFactory.class);
+        when(urlFactory.getURL(any(), any(), any(), any(), any(), any(), any(XWikiContext.class)))
+            .thenCallRealMethod();
         context.setURLFactory(urlFactory);
 
         DocumentReference reference = new DocumentReference("wiki", "Space", "Page", Locale.FRENCH);
@@ -376,6 +380,8 @@ public void getEntityURLWithDefaultAction() throws Exception
         AttachmentReference attachmentReference = new AttachmentReference("image.png", documentReference);
 
         XWikiURLFactory urlFactory = mock(XWikiURLFactory.class);
+        when(urlFactory.getURL(any(), any(), any(), any(), any(), any(), any(XWikiContext.class)))
+            .thenCallRealMethod();
         context.setURLFactory(urlFactory);
 
         this.xwiki.getURL(documentReference, this.context);
@@ -0,0 +1,125 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Named;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.rendering.block.XDOM;
+import org.xwiki.rendering.syntax.Syntax;
+import org.xwiki.test.annotation.BeforeComponent;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link XDOMCache}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class XDOMCacheTest
+{
+    private static final DocumentReference DOCUMENT = new DocumentReference("wiki", "Space", "Page");
+
+    @MockComponent
+    private CacheManager cacheManager;
+
+    @MockComponent
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @MockComponent
+    private JMXBeanRegistration jmxRegistration;
+
+    @InjectMockComponents
+    private XDOMCache xdomCache;
+
+    private final Map<String, Object> cacheMap = new HashMap<>();
+
+    @BeforeComponent
+    void beforeComponent() throws Exception
+    {
+        when(this.configuration.getProperty("rendering.xdomCache.size", 500)).thenReturn(500);
+
+        Cache<Object> cache = mock();
+        when(cache.get(any())).then(invocation -> this.cacheMap.get(invocation.getArgument(0)));
+        doAnswer(invocation -> this.cacheMap.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache)
+            .set(any(), any());
+        doAnswer(invocation -> {
+            this.cacheMap.clear();
+            return null;
+        }).when(cache).removeAll();
+        when(this.cacheManager.createNewCache(any())).thenReturn(cache);
+    }
+
+    @Test
+    void getAndSet()
+    {
+        String key = this.xdomCache.getKey(DOCUMENT, Syntax.XWIKI_2_1, "content");
+
+        assertNull(this.xdomCache.get(key));
+
+        XDOM xdom = new XDOM(Collections.emptyList());
+        this.xdomCache.set(key, xdom);
+
+        assertSame(xdom, this.xdomCache.get(this.xdomCache.getKey(DOCUMENT, Syntax.XWIKI_2_1, "content")));
+        assertNull(this.xdomCache.get(this.xdomCache.getKey(DOCUMENT, Syntax.XWIKI_2_1, "modified content")));
+        assertNull(this.xdomCache.get(this.xdomCache.getKey(DOCUMENT, Syntax.MARKDOWN_1_1, "content")));
+        assertNull(this.xdomCache
+            .get(this.xdomCache.getKey(new DocumentReference("wiki", "Space", "Other"), Syntax.XWIKI_2_1, "content")));
+
+        assertEquals(1, this.xdomCache.getHitCount());
+        assertEquals(4, this.xdomCache.getMissCount());
+        assertEquals(0.2, this.xdomCache.getHitRate());
+
+        this.xdomCache.clear();
+
+        assertNull(this.xdomCache.get(key));
+    }
+
+    @Test
+    void registerMBean()
+    {
+        verify(this.jmxRegistration).registerMBean(this.xdomCache, "type=Rendering,name=xdomCache");
+
+        this.xdomCache.dispose();
+
+        verify(this.jmxRegistration).unregisterMBean("type=Rendering,name=xdomCache");
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.template;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Validate {@link TemplateFileWatcher}.
+ *
+ * @version $Id$
+ */
+class TemplateFileWatcherTest
+{
+    @TempDir
+    Path directory;
+
+    private final BlockingQueue<Path> modified = new LinkedBlockingQueue<>();
+
+    private TemplateFileWatcher watcher;
+
+    @BeforeEach
+    void beforeEach() throws Exception
+    {
+        this.watcher = new TemplateFileWatcher(this.modified::add, mock(Logger.class));
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        this.watcher.close();
+    }
+
+    @Test
+    void watch() throws Exception
+    {
+        Path file = this.directory.resolve("template.vm");
+        Files.writeString(file, "content");
+
+        assertTrue(this.watcher.watch(file));
+
+        Files.writeString(file, "modified content");
+
+        // The watch service of some operating systems polls the filesystem so give it some time
+        assertEquals(file, this.modified.poll(30, TimeUnit.SECONDS));
+
+        this.modified.clear();
+        Files.delete(file);
+
+        assertEquals(file, this.modified.poll(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void watchWithoutParent()
+    {
+        assertFalse(this.watcher.watch(Path.of("template.vm")));
+    }
+}
@@ -61,6 +61,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.same;
@@ -167,6 +168,25 @@ void renderVelocity() throws Exception
         assertEquals("OK", this.templateManager.render("template"));
     }
 
+    @Test
+    void renderFromCache() throws Exception
+    {
+        mockVelocity("source", "OK");
+
+        setTemplateContent("source");
+
+        TemplateCacheStatistics statistics = this.componentManager.getInstance(TemplateCacheStatistics.class);
+
+        assertEquals("OK", this.templateManager.render("template"));
+
+        long hits = statistics.getHitCount();
+
+        assertEquals("OK", this.templateManager.render("template"));
+
+        assertTrue(statistics.getHitCount() > hits);
+        assertEquals("modification", statistics.getValidation());
+    }
+
     @Test
     void templateWithoutScriptRight() throws Exception
     {
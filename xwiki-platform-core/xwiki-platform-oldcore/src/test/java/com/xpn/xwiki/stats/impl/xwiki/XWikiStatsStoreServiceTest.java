@@ -0,0 +1,199 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.stats.impl.xwiki;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectComponentManager;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import com.xpn.xwiki.XWiki;
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.stats.impl.StatsUtil.PeriodType;
+import com.xpn.xwiki.web.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link XWikiStatsStoreService}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class XWikiStatsStoreServiceTest
+{
+    private static final long HOUR = 3600000L;
+
+    @InjectComponentManager
+    private MockitoComponentManager componentManager;
+
+    @MockComponent
+    private Execution execution;
+
+    @MockComponent
+    private ExecutionContextManager executionContextManager;
+
+    private XWikiContext xcontext;
+
+    private XWiki xwiki;
+
+    private XWikiStatsStoreService service;
+
+    /**
+     * The statistics stored by the service, as "name:count:items".
+     */
+    private final BlockingQueue<String> stored = new LinkedBlockingQueue<>();
+
+    /**
+     * Counted down each time the storing thread takes a statistic from the queue.
+     */
+    private CountDownLatch processed;
+
+    private class TestStatsStoreItem extends AbstractStatsStoreItem
+    {
+        TestStatsStoreItem(String name)
+        {
+            super(name, new Date(), PeriodType.DAY, xcontext);
+        }
+
+        @Override
+        public String getId()
+        {
+            if (processed != null) {
+                processed.countDown();
+            }
+
+            return this.name;
+        }
+
+        @Override
+        public void store(List<XWikiStatsStoreItem> statsList)
+        {
+            storeInternal(statsList);
+        }
+
+        @Override
+        protected void storeInternal(List<XWikiStatsStoreItem> statsList)
+        {
+            stored.add(this.name + ':' + getCount(statsList) + ':' + statsList.size());
+        }
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        Utils.setComponentManager(this.componentManager);
+
+        this.xcontext = mock(XWikiContext.class);
+        this.xwiki = mock(XWiki.class);
+        when(this.xcontext.getWiki()).thenReturn(this.xwiki);
+        when(this.xcontext.clone()).thenReturn(this.xcontext);
+        when(this.xwiki.ParamAsLong("stats.queue.size", 200)).thenReturn(200L);
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        if (this.service != null) {
+            this.service.stop();
+        }
+
+        Utils.setComponentManager(null);
+    }
+
+    private void startService(long flushInterval, long maxItems)
+    {
+        when(this.xwiki.ParamAsLong("xwiki.stats.flush.interval", 0)).thenReturn(flushInterval);
+        when(this.xwiki.ParamAsLong("xwiki.stats.flush.maxItems", 10000)).thenReturn(maxItems);
+
+        this.service = new XWikiStatsStoreService(this.xcontext);
+        this.service.start();
+    }
+
+    @Test
+    void mergeAndFlushAfterInterval() throws Exception
+    {
+        startService(500, 10000);
+
+        this.service.add(new TestStatsStoreItem("a"));
+        this.service.add(new TestStatsStoreItem("a"));
+        this.service.add(new TestStatsStoreItem("b"));
+        this.service.add(new TestStatsStoreItem("a"));
+
+        // The statistics are stored once the interval is elapsed, with only one item per statistic
+        assertEquals("a:3:1", this.stored.poll(5, TimeUnit.SECONDS));
+        assertEquals("b:1:1", this.stored.poll(5, TimeUnit.SECONDS));
+        assertNull(this.stored.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void flushWhenMaxItemsReached() throws Exception
+    {
+        startService(HOUR, 3);
+
+        this.service.add(new TestStatsStoreItem("a"));
+        this.service.add(new TestStatsStoreItem("b"));
+        this.service.add(new TestStatsStoreItem("a"));
+
+        // The statistics are stored well before the end of the interval
+        assertEquals("a:2:1", this.stored.poll(5, TimeUnit.SECONDS));
+        assertEquals("b:1:1", this.stored.poll(5, TimeUnit.SECONDS));
+
+        this.service.add(new TestStatsStoreItem("c"));
+        assertNull(this.stored.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void flushOnStop() throws Exception
+    {
+        startService(HOUR, 10000);
+
+        this.processed = new CountDownLatch(3);
+        this.service.add(new TestStatsStoreItem("a"));
+        this.service.add(new TestStatsStoreItem("b"));
+        this.service.add(new TestStatsStoreItem("a"));
+        assertTrue(this.processed.await(5, TimeUnit.SECONDS));
+        assertNull(this.stored.poll());
+
+        // The aggregated statistics are stored when the thread stops
+        this.service.stop();
+        this.service = null;
+
+        assertEquals("a:2:1", this.stored.poll());
+        assertEquals("b:1:1", this.stored.poll());
+        assertNull(this.stored.poll());
+    }
+}
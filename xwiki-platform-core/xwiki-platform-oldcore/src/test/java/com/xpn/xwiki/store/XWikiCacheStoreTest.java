@@ -19,6 +19,8 @@
  */
 package com.xpn.xwiki.store;
 
+import java.util.Set;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.xwiki.cache.Cache;
@@ -27,6 +29,8 @@
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.observation.ObservationManager;
 import org.xwiki.observation.remote.RemoteObservationManagerContext;
+import org.xwiki.observation.remote.invalidation.CacheInvalidation;
+import org.xwiki.observation.remote.invalidation.ClusterInvalidationBus;
 import org.xwiki.test.annotation.ComponentList;
 
 import com.xpn.xwiki.XWikiException;
@@ -43,6 +47,7 @@
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -64,11 +69,14 @@
 
     private Cache<Boolean> existCache;
 
+    private ClusterInvalidationBus invalidationBus;
+
     @BeforeEach
     void beforeEach() throws Exception
     {
         this.oldcore.getMocker().registerMockComponent(RemoteObservationManagerContext.class);
         this.oldcore.getMocker().registerMockComponent(ObservationManager.class);
+        this.invalidationBus = this.oldcore.getMocker().registerMockComponent(ClusterInvalidationBus.class);
 
         CacheManager cacheManager = this.oldcore.getMocker().registerMockComponent(CacheManager.class);
         cache = mock(Cache.class);
@@ -77,6 +85,8 @@ void beforeEach() throws Exception
         existCache = mock(Cache.class);
         when(cacheManager.<Boolean>createNewCache(isCacheConfiguration("xwiki.store.pageexistcache"))).thenReturn(
             existCache);
+        when(cacheManager.createNewCache(isCacheConfiguration("xwiki.store.limitsizepropertycache")))
+            .thenReturn(mock(Cache.class));
     }
 
     @Test
@@ -141,5 +151,25 @@ void saveXWikiDocumentFailing() throws XWikiException
 
         verify(this.cache).remove("4:wiki5:space4:page0:");
         verify(this.existCache).remove("4:wiki5:space4:page0:");
+        verify(this.invalidationBus).invalidate(XWikiCacheStore.CACHE_INVALIDATION_ID, "4:wiki5:space4:page0:");
+    }
+
+    @Test
+    void invalidateFromCluster() throws XWikiException
+    {
+        XWikiCacheStore store = new XWikiCacheStore(this.oldcore.getMockStore(), this.oldcore.getXWikiContext());
+
+        store.invalidate(new CacheInvalidation(Set.of("key1", "key2"), false, 0));
+
+        verify(this.cache).remove("key1");
+        verify(this.cache).remove("key2");
+        verify(this.existCache).remove("key1");
+        verify(this.existCache).remove("key2");
+        verify(this.cache, never()).removeAll();
+
+        store.invalidate(new CacheInvalidation(Set.of(), true, 0));
+
+        verify(this.cache).removeAll();
+        verify(this.existCache).removeAll();
     }
 }
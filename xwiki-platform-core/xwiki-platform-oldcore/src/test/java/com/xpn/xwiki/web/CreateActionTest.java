@@ -116,6 +116,8 @@ public void beforeEach() throws Exception
             .thenReturn(new DocumentReference("xwiki", Arrays.asList("Main"), "WebHome"));
 
         this.mockURLFactory = mock(XWikiURLFactory.class);
+        when(this.mockURLFactory.getURL(any(), any(), any(), any(), any(), any(), any(XWikiContext.class)))
+            .thenCallRealMethod();
         this.context.setURLFactory(this.mockURLFactory);
 
         this.mockRequest = mock(XWikiRequest.class);
@@ -49,6 +49,7 @@
 import com.xpn.xwiki.test.reference.ReferenceComponentList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -431,6 +432,53 @@ public void getURLWhenRequestWikiAndContextWikiAreDifferent() throws MalformedUR
         assertEquals("http://wiki2server/xwiki/bin/view/Space/Page", url);
     }
 
+    @Test
+    public void getURLFromDocumentElements() throws MalformedURLException
+    {
+        initRequest("wiki1server", -1);
+
+        XWikiContext context = this.oldcore.getXWikiContext();
+        context.setWikiId("wiki1");
+
+        // The result must be the same as when going through an URL
+        for (String spaces : new String[] {"Space", "A.B\\.C", "..", "Space with spaces/and+slash", "é"}) {
+            assertEquals(
+                this.urlFactory.getURL(
+                    this.urlFactory.createURL(spaces, "Page", "view", "a=b", null, "wiki1", context), context),
+                this.urlFactory.getURL(spaces, "Page", "view", "a=b", null, "wiki1", context));
+            // Same for the main wiki (the servlet URL prefixes are cached per wiki)
+            assertEquals(
+                this.urlFactory.getURL(
+                    this.urlFactory.createURL(spaces, "Page", "view", "a=b", null, "xwiki", context), context),
+                this.urlFactory.getURL(spaces, "Page", "view", "a=b", null, "xwiki", context));
+        }
+    }
+
+    @Test
+    public void getURLFromDocumentElementsRemovesQueryStringEnd() throws MalformedURLException
+    {
+        initRequest("wiki1server", -1);
+
+        XWikiContext context = this.oldcore.getXWikiContext();
+        context.setWikiId("wiki1");
+
+        // The trailing parameter separator is removed the same way as when going through an URL
+        for (String querystring : new String[] {"a=b&", "a=b&amp;", "a=b&&", "&", "&amp;"}) {
+            for (String anchor : new String[] {null, "anchor"}) {
+                assertEquals(
+                    this.urlFactory.getURL(
+                        this.urlFactory.createURL("Space", "Page", "view", querystring, anchor, "wiki1", context),
+                        context),
+                    this.urlFactory.getURL("Space", "Page", "view", querystring, anchor, "wiki1", context));
+            }
+        }
+
+        assertTrue(this.urlFactory.getURL("Space", "Page", "view", "a=b&", "anchor", "wiki1", context)
+            .endsWith("/Space/Page?a=b#anchor"));
+        assertTrue(
+            this.urlFactory.getURL("Space", "Page", "view", "&", null, "wiki1", context).endsWith("/Space/Page"));
+    }
+
     /** When the URL contains only the hostname, without a path, / is returned instead of the empty string. */
     @Test
     public void getURLWithEmptyPathReturnsSlash() throws MalformedURLException
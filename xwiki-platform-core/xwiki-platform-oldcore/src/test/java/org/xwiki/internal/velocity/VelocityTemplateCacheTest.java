@@ -0,0 +1,173 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.internal.velocity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.test.annotation.BeforeComponent;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.velocity.VelocityTemplate;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link VelocityTemplateCache}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class VelocityTemplateCacheTest
+{
+    private static final DocumentReference DOCUMENT = new DocumentReference("wiki", "Space", "Sheet");
+
+    private static final DocumentReference AUTHOR = new DocumentReference("wiki", "XWiki", "Author");
+
+    @MockComponent
+    private CacheManager cacheManager;
+
+    @MockComponent
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @MockComponent
+    private ObservationManager observation;
+
+    @MockComponent
+    private Provider<XWikiContext> xcontextProvider;
+
+    @MockComponent
+    private JMXBeanRegistration jmxRegistration;
+
+    @InjectMockComponents
+    private VelocityTemplateCache templateCache;
+
+    private final Map<String, Object> cacheMap = new HashMap<>();
+
+    private XWikiContext xcontext;
+
+    @BeforeComponent
+    void beforeComponent() throws Exception
+    {
+        when(this.configuration.getProperty("velocity.templateCache.size", 1000)).thenReturn(1000);
+
+        Cache<Object> cache = mock();
+        when(cache.get(any())).then(invocation -> this.cacheMap.get(invocation.getArgument(0)));
+        doAnswer(invocation -> this.cacheMap.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache)
+            .set(any(), any());
+        doAnswer(invocation -> this.cacheMap.remove(invocation.getArgument(0))).when(cache).remove(any());
+        when(this.cacheManager.createNewCache(any())).thenReturn(cache);
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.xcontext = mock();
+        when(this.xcontextProvider.get()).thenReturn(this.xcontext);
+
+        XWikiDocument sdoc = mock();
+        when(sdoc.getDocumentReference()).thenReturn(DOCUMENT);
+        when(this.xcontext.get("sdoc")).thenReturn(sdoc);
+        when(this.xcontext.getAuthorReference()).thenReturn(AUTHOR);
+    }
+
+    @Test
+    void getAndSet()
+    {
+        VelocityTemplateCache.Key key = this.templateCache.getKey("default", "name", "content");
+
+        assertNull(this.templateCache.get(key));
+
+        VelocityTemplate template = mock();
+        this.templateCache.set(key, template);
+
+        assertSame(template, this.templateCache.get(this.templateCache.getKey("default", "name", "content")));
+        assertNull(this.templateCache.get(this.templateCache.getKey("default", "name", "other content")));
+        assertNull(this.templateCache.get(this.templateCache.getKey("default", "other name", "content")));
+        // Each skin macros.vm has its own Velocity engine
+        assertNull(this.templateCache.get(this.templateCache.getKey("skin/macros.vm", "name", "content")));
+
+        // A different author does not get the same compiled template
+        when(this.xcontext.getAuthorReference()).thenReturn(new DocumentReference("wiki", "XWiki", "Other"));
+        assertNull(this.templateCache.get(this.templateCache.getKey("default", "name", "content")));
+
+        assertEquals(1, this.templateCache.getHitCount());
+        assertEquals(5, this.templateCache.getMissCount());
+    }
+
+    @Test
+    void invalidateWhenDocumentIsModified()
+    {
+        ArgumentCaptor<EventListener> listenerCaptor = ArgumentCaptor.forClass(EventListener.class);
+        verify(this.observation).addListener(listenerCaptor.capture());
+
+        VelocityTemplateCache.Key key = this.templateCache.getKey("default", "name", "content");
+        this.templateCache.set(key, mock());
+
+        XWikiDocument otherDocument = mock();
+        when(otherDocument.getDocumentReference()).thenReturn(new DocumentReference("wiki", "Space", "Other"));
+        listenerCaptor.getValue().onEvent(new DocumentUpdatedEvent(), otherDocument, null);
+
+        assertEquals(1, this.cacheMap.size());
+
+        XWikiDocument document = mock();
+        when(document.getDocumentReference()).thenReturn(DOCUMENT);
+        listenerCaptor.getValue().onEvent(new DocumentUpdatedEvent(), document, null);
+
+        assertEquals(0, this.cacheMap.size());
+        assertEquals(1, this.templateCache.getInvalidationCount());
+    }
+
+    @Test
+    void registerMBean()
+    {
+        verify(this.jmxRegistration).registerMBean(this.templateCache, "type=Velocity,name=templateCache");
+
+        this.templateCache.dispose();
+
+        verify(this.jmxRegistration).unregisterMBean("type=Velocity,name=templateCache");
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.xwiki.internal.velocity;
 
+import java.io.StringReader;
+
 import org.apache.velocity.VelocityContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,6 +56,7 @@
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -109,6 +112,9 @@
     @MockComponent
     private ConverterManager converterManager;
 
+    @MockComponent
+    private VelocityTemplateCache templateCache;
+
     @BeforeEach
     void beforeEach() throws Exception
     {
@@ -183,4 +189,28 @@ void checkMacrosInjectionWithScriptRights() throws Exception
         VelocityEngine engine = this.velocityManager.getVelocityEngine();
         verify(engine).addGlobalMacros(anyMap());
     }
+
+    @Test
+    void compileWithDifferentSkinMacros() throws Exception
+    {
+        when(this.skin.getId()).thenReturn("test");
+
+        this.velocityManager.compile("name", new StringReader("content"));
+
+        verify(this.templateCache).getKey("testMacros", "name", "content");
+
+        // Switch to a skin with a different macros.vm
+        Skin otherSkin = mock();
+        when(otherSkin.getId()).thenReturn("other");
+        when(this.skinManager.getCurrentSkin(true)).thenReturn(otherSkin);
+        Template otherSkinMacrosTemplate = mock();
+        when(otherSkinMacrosTemplate.getId()).thenReturn("otherMacros");
+        when(otherSkinMacrosTemplate.getContent()).thenReturn(this.skinMacrosTemplateContent);
+        when(this.templateManager.getSkinTemplate("macros.vm")).thenReturn(otherSkinMacrosTemplate);
+
+        this.velocityManager.compile("name", new StringReader("content"));
+
+        // The template compiled with the Velocity engine of the other skin is cached separately
+        verify(this.templateCache).getKey("otherMacros", "name", "content");
+    }
 }
@@ -19,8 +19,13 @@
  */
 package org.xwiki.query.internal;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -58,18 +63,34 @@ public String filterStatement(String statement, String language)
     @Override
     public List filterResults(List results)
     {
+        List<EntityReference> entityReferences = new ArrayList<>(results.size());
+        for (Object result : results) {
+            entityReferences.add(getEntityReference(result));
+        }
+
+        // Check the rights of all the results at once so that the rules of their common ancestors are resolved once.
+        Map<EntityReference, Boolean> viewable = this.authorization.hasAccessBatch(Right.VIEW,
+            entityReferences.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+
         List<Object> filteredResults = new LinkedList<>();
+        Iterator<EntityReference> entityReferencesIterator = entityReferences.iterator();
         for (Object result : results) {
-            EntityReference entityReference = null;
-            if (result instanceof EntityReference) {
-                entityReference = (EntityReference) result;
-            } else if (result instanceof Object[] && ((Object[]) result)[0] instanceof EntityReference) {
-                entityReference = (EntityReference) ((Object[]) result)[0];
-            }
-            if (entityReference != null && this.authorization.hasAccess(Right.VIEW, entityReference)) {
+            EntityReference entityReference = entityReferencesIterator.next();
+            if (entityReference != null && Boolean.TRUE.equals(viewable.get(entityReference))) {
                 filteredResults.add(result);
             }
         }
         return filteredResults;
     }
+
+    private EntityReference getEntityReference(Object result)
+    {
+        EntityReference entityReference = null;
+        if (result instanceof EntityReference) {
+            entityReference = (EntityReference) result;
+        } else if (result instanceof Object[] && ((Object[]) result)[0] instanceof EntityReference) {
+            entityReference = (EntityReference) ((Object[]) result)[0];
+        }
+        return entityReference;
+    }
 }
@@ -37,6 +37,7 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 /**
@@ -63,6 +64,7 @@ public void configure() throws Exception
     {
         when(this.authorization.hasAccess(Right.VIEW, authorized)).thenReturn(true);
         when(this.authorization.hasAccess(Right.VIEW, unauthorized)).thenReturn(false);
+        when(this.authorization.hasAccessBatch(any(), any())).thenCallRealMethod();
     }
 
     @Test
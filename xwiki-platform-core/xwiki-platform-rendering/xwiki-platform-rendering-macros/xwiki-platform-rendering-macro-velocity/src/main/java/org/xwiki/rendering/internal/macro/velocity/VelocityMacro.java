@@ -174,7 +174,11 @@ protected String evaluateString(VelocityMacroParameters parameters, String conte
                     cleanedContent = filter.before(cleanedContent, velocityContext);
                 }
 
-                velocityEngine.evaluate(velocityContext, writer, key, new StringReader(cleanedContent));
+                // Go through the compiler so that the parsed content can be reused by the next executions (when the
+                // Velocity manager supports it)
+                VelocityTemplate template = this.velocityManager.compile(key, new StringReader(cleanedContent));
+
+                velocityEngine.evaluate(velocityContext, writer, key, template);
             }
             result = writer.toString();
 
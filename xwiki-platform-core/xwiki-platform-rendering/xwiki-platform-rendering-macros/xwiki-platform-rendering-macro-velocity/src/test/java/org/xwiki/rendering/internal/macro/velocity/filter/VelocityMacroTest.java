@@ -130,6 +130,36 @@ public Void answer(InvocationOnMock invocation) throws Throwable
         assertEquals(resultBlocks, this.macro.execute(macroParameters, "content", context));
     }
 
+    @Test
+    void evaluateNotPrepared() throws XWikiVelocityException, MacroExecutionException
+    {
+        MacroBlock block = new MacroBlock("velocity", Map.of(), "content", false);
+
+        VelocityTemplate template = mock();
+        when(this.velocityManager.compile(eq("unknown namespace"), any())).thenReturn(template);
+        when(this.velocityManager.getVelocityEngine()).thenReturn(this.velocityEngine);
+
+        MacroTransformationContext context = new MacroTransformationContext();
+        context.setCurrentMacroBlock(block);
+
+        doAnswer(new Answer<Void>()
+        {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable
+            {
+                invocation.<Writer>getArgument(1).write("result");
+
+                return null;
+            }
+        }).when(this.velocityEngine).evaluate(any(), any(), any(), same(template));
+
+        List<Block> resultBlocks = List.of(new WordBlock("result"));
+        when(this.contentParser.parse("result", context, false, false)).thenReturn(new XDOM(resultBlocks));
+
+        // The content is compiled through the Velocity manager so that it can be reused
+        assertEquals(resultBlocks, this.macro.execute(new VelocityMacroParameters(), "content", context));
+    }
+
     @Test
     void prepare() throws MacroPreparationException, XWikiVelocityException, IllegalAccessException
     {
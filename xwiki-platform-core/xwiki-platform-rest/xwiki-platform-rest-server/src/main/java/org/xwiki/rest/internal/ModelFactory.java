@@ -25,9 +25,11 @@
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Formatter;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Vector;
@@ -998,38 +1000,68 @@ public Attachment toRestAttachment(URI baseUri, com.xpn.xwiki.api.Attachment xwi
 
     public Hierarchy toRestHierarchy(EntityReference targetEntityReference, Boolean withPrettyNames)
     {
-        XWikiContext xcontext = this.xcontextProvider.get();
-        XWiki xwiki = xcontext.getWiki();
+        return toRestHierarchy(targetEntityReference, withPrettyNames, new HashMap<>());
+    }
+
+    /**
+     * Same as {@link #toRestHierarchy(EntityReference, Boolean)} but reuse the items resolved for the previous
+     * hierarchies of the same request (e.g. the common ancestors of the pages returned by a search) instead of loading
+     * their documents again to get their pretty names.
+     *
+     * @param targetEntityReference the entity for which to return the hierarchy
+     * @param withPrettyNames {@code true} to use the titles of the documents as labels
+     * @param resolvedItems the items already resolved, completed with the items resolved by this call
+     * @return the hierarchy of the passed entity
+     * @since 16.2.0RC1
+     */
+    public Hierarchy toRestHierarchy(EntityReference targetEntityReference, Boolean withPrettyNames,
+        Map<EntityReference, HierarchyItem> resolvedItems)
+    {
         Hierarchy hierarchy = new Hierarchy();
         for (EntityReference entityReference : targetEntityReference.getReversedReferenceChain()) {
+            HierarchyItem resolvedItem = resolvedItems.computeIfAbsent(entityReference,
+                reference -> toRestHierarchyItem(reference, withPrettyNames));
+
             HierarchyItem hierarchyItem = new HierarchyItem();
-            hierarchyItem.setName(entityReference.getName());
-            hierarchyItem.setLabel(entityReference.getName());
-            hierarchyItem.setType(entityReference.getType().getLowerCase());
-            hierarchyItem.setUrl(xwiki.getURL(entityReference, xcontext));
-            if (withPrettyNames) {
-                try {
-                    if (entityReference.getType() == EntityType.SPACE
-                        || entityReference.getType() == EntityType.DOCUMENT) {
-                        XWikiDocument document =
-                            xwiki.getDocument(entityReference, xcontext).getTranslatedDocument(xcontext);
-                        hierarchyItem.setLabel(document.getRenderedTitle(Syntax.PLAIN_1_0, xcontext));
-                        hierarchyItem.setUrl(xwiki.getURL(document.getDocumentReferenceWithLocale(), xcontext));
-                    } else if (entityReference.getType() == EntityType.WIKI) {
-                        WikiDescriptor wikiDescriptor = this.wikiDescriptorManager.getById(entityReference.getName());
-                        if (wikiDescriptor != null) {
-                            hierarchyItem.setLabel(wikiDescriptor.getPrettyName());
-                        }
+            hierarchyItem.setName(resolvedItem.getName());
+            hierarchyItem.setLabel(resolvedItem.getLabel());
+            hierarchyItem.setType(resolvedItem.getType());
+            hierarchyItem.setUrl(resolvedItem.getUrl());
+            hierarchy.withItems(hierarchyItem);
+        }
+        return hierarchy;
+    }
+
+    private HierarchyItem toRestHierarchyItem(EntityReference entityReference, Boolean withPrettyNames)
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+        XWiki xwiki = xcontext.getWiki();
+        HierarchyItem hierarchyItem = new HierarchyItem();
+        hierarchyItem.setName(entityReference.getName());
+        hierarchyItem.setLabel(entityReference.getName());
+        hierarchyItem.setType(entityReference.getType().getLowerCase());
+        hierarchyItem.setUrl(xwiki.getURL(entityReference, xcontext));
+        if (withPrettyNames) {
+            try {
+                if (entityReference.getType() == EntityType.SPACE
+                    || entityReference.getType() == EntityType.DOCUMENT) {
+                    XWikiDocument document =
+                        xwiki.getDocument(entityReference, xcontext).getTranslatedDocument(xcontext);
+                    hierarchyItem.setLabel(document.getRenderedTitle(Syntax.PLAIN_1_0, xcontext));
+                    hierarchyItem.setUrl(xwiki.getURL(document.getDocumentReferenceWithLocale(), xcontext));
+                } else if (entityReference.getType() == EntityType.WIKI) {
+                    WikiDescriptor wikiDescriptor = this.wikiDescriptorManager.getById(entityReference.getName());
+                    if (wikiDescriptor != null) {
+                        hierarchyItem.setLabel(wikiDescriptor.getPrettyName());
                     }
-                } catch (Exception e) {
-                    this.logger.warn(
-                        "Failed to get the pretty name of entity [{}]. Continue using the entity name. Root cause is [{}].",
-                        entityReference, getRootCauseMessage(e));
                 }
+            } catch (Exception e) {
+                this.logger.warn(
+                    "Failed to get the pretty name of entity [{}]. Continue using the entity name. Root cause is [{}].",
+                    entityReference, getRootCauseMessage(e));
             }
-            hierarchy.withItems(hierarchyItem);
         }
-        return hierarchy;
+        return hierarchyItem;
     }
 
     /**
@@ -22,9 +22,11 @@
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Formatter;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -35,6 +37,8 @@
 import org.apache.commons.lang3.StringUtils;
 import org.xwiki.localization.LocalizationContext;
 import org.xwiki.model.EntityType;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceProvider;
 import org.xwiki.model.reference.SpaceReference;
 import org.xwiki.query.Query;
@@ -45,6 +49,7 @@
 import org.xwiki.rest.internal.ModelFactory;
 import org.xwiki.rest.internal.Utils;
 import org.xwiki.rest.internal.resources.search.SearchSource;
+import org.xwiki.rest.model.jaxb.HierarchyItem;
 import org.xwiki.rest.model.jaxb.Link;
 import org.xwiki.rest.model.jaxb.SearchResult;
 import org.xwiki.rest.resources.objects.ObjectResource;
@@ -293,6 +298,9 @@ protected List<SearchResult> getPagesSearchResults(List<Object> queryResult, Str
         List<SearchResult> result = new ArrayList<>();
         Set<String> seenPages = new HashSet<>();
         XWiki xwikiApi = Utils.getXWikiApi(componentManager);
+        // The results usually share the same ancestors and authors, so resolve their pretty names only once
+        Map<EntityReference, HierarchyItem> hierarchyItems = new HashMap<>();
+        Map<DocumentReference, String> authorNames = new HashMap<>();
 
         for (Object object : queryResult) {
             // Stop if there's a limit specified and we reach it.
@@ -334,7 +342,7 @@ protected List<SearchResult> getPagesSearchResults(List<Object> queryResult, Str
                 searchResult.setModified(calendar);
 
                 if (withPrettyNames) {
-                    searchResult.setAuthorName(Utils.getAuthorName(doc.getAuthorReference(), componentManager));
+                    searchResult.setAuthorName(getAuthorName(doc.getAuthorReference(), authorNames));
                 }
 
                 String pageUri;
@@ -352,8 +360,8 @@ protected List<SearchResult> getPagesSearchResults(List<Object> queryResult, Str
                 pageLink.setRel(Relations.PAGE);
                 searchResult.getLinks().add(pageLink);
 
-                searchResult
-                    .setHierarchy(this.modelFactory.toRestHierarchy(doc.getDocumentReference(), withPrettyNames));
+                searchResult.setHierarchy(
+                    this.modelFactory.toRestHierarchy(doc.getDocumentReference(), withPrettyNames, hierarchyItems));
 
                 result.add(searchResult);
             }
@@ -362,6 +370,12 @@ protected List<SearchResult> getPagesSearchResults(List<Object> queryResult, Str
         return result;
     }
 
+    private String getAuthorName(DocumentReference authorReference, Map<DocumentReference, String> authorNames)
+    {
+        return authorNames.computeIfAbsent(authorReference,
+            reference -> Utils.getAuthorName(reference, this.componentManager));
+    }
+
     /**
      * Search for keyword in the given scopes. Limit the search only to spaces.
      * 
@@ -516,6 +530,11 @@ protected List<SearchResult> searchObjects(String keywords, String wikiName, Str
                         .execute();
             }
 
+            // Several objects of the same page are usually found, so load and render each page only once
+            Map<String, Document> documents = new HashMap<>();
+            Map<String, String> titles = new HashMap<>();
+            Map<DocumentReference, String> authorNames = new HashMap<>();
+
             /* Build the result. */
             for (Object object : queryResult) {
                 Object[] fields = (Object[]) object;
@@ -536,8 +555,13 @@ protected List<SearchResult> searchObjects(String keywords, String wikiName, Str
                  * object data in order to avoid leaking important information such as emails to crawlers.
                  */
                 if (xwikiApi.hasAccessLevel("view", pageId) && xwikiContext.getUserReference() != null) {
-                    Document doc = xwikiApi.getDocument(pageFullName);
-                    String title = doc.getDisplayTitle();
+                    Document doc = documents.get(pageFullName);
+                    if (doc == null) {
+                        doc = xwikiApi.getDocument(pageFullName);
+                        documents.put(pageFullName, doc);
+                        titles.put(pageFullName, doc.getDisplayTitle());
+                    }
+                    String title = titles.get(pageFullName);
                     SearchResult searchResult = objectFactory.createSearchResult();
                     searchResult.setType("object");
                     searchResult.setId(id);
@@ -555,7 +579,7 @@ protected List<SearchResult> searchObjects(String keywords, String wikiName, Str
                     searchResult.setModified(calendar);
 
                     if (withPrettyNames) {
-                        searchResult.setAuthorName(Utils.getAuthorName(doc.getAuthorReference(), componentManager));
+                        searchResult.setAuthorName(getAuthorName(doc.getAuthorReference(), authorNames));
                     }
 
                     String pageUri =
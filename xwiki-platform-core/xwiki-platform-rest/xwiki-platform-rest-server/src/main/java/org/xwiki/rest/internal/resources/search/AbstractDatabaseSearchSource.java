@@ -22,7 +22,9 @@
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -110,6 +112,9 @@ public List<SearchResult> search(String partialQueryString, String wikiName, Str
 
         WikiReference wikiReference = new WikiReference(wikiName);
 
+        // The results usually share the same authors, so resolve their pretty names only once
+        Map<String, String> authorNames = new HashMap<>();
+
         /* Build the result. */
         List<SearchResult> result = new ArrayList<>();
         for (Object object : queryResult) {
@@ -122,7 +127,8 @@ public List<SearchResult> search(String partialQueryString, String wikiName, Str
 
             /* Check if the user has the right to see the found document */
             if (this.authorization.hasAccess(Right.VIEW, documentReference)) {
-                Document doc = xwikiApi.getDocument(documentReference);
+                XWikiDocument xdocument = xwikiContext.getWiki().getDocument(documentReference, xwikiContext);
+                Document doc = xdocument.newDocument(xwikiContext);
                 String title = doc.getDisplayTitle();
 
                 SearchResult searchResult = this.objectFactory.createSearchResult();
@@ -140,7 +146,8 @@ public List<SearchResult> search(String partialQueryString, String wikiName, Str
                 searchResult.setModified(calendar);
 
                 if (withPrettyNames) {
-                    searchResult.setAuthorName(xwikiApi.getUserName(doc.getAuthor(), false));
+                    searchResult.setAuthorName(
+                        authorNames.computeIfAbsent(doc.getAuthor(), author -> xwikiApi.getUserName(author, false)));
                 }
 
                 /*
@@ -148,8 +155,6 @@ public List<SearchResult> search(String partialQueryString, String wikiName, Str
                  * retrieve information such as email addresses and passwords from user's profiles.
                  */
                 if (StringUtils.isNotEmpty(className) && xwikiContext.getUserReference() != null) {
-                    XWikiDocument xdocument =
-                        xwikiContext.getWiki().getDocument(doc.getDocumentReference(), xwikiContext);
                     BaseObject baseObject = xdocument.getObject(className);
                     if (baseObject != null) {
                         searchResult.setObject(
@@ -89,6 +89,7 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @OldcoreTest
@@ -391,6 +392,41 @@ void toRestHierarchyFromDocumentWithPrettyNames() throws Exception
         assertEquals("tdoc URL", item.getUrl());
     }
 
+    @Test
+    void toRestHierarchyReusesResolvedItems() throws Exception
+    {
+        SpaceReference spaceReference = new SpaceReference("dev", "API");
+        XWikiDocument spaceDocument = mock(XWikiDocument.class, "space");
+        when(this.xwiki.getDocument(spaceReference, this.xcontext)).thenReturn(spaceDocument);
+        when(spaceDocument.getTranslatedDocument(this.xcontext)).thenReturn(spaceDocument);
+        when(spaceDocument.getRenderedTitle(Syntax.PLAIN_1_0, this.xcontext)).thenReturn("API Title");
+
+        DocumentReference page1Reference = new DocumentReference("Page1", spaceReference);
+        XWikiDocument page1 = mock(XWikiDocument.class, "page1");
+        when(this.xwiki.getDocument((EntityReference) page1Reference, this.xcontext)).thenReturn(page1);
+        when(page1.getTranslatedDocument(this.xcontext)).thenReturn(page1);
+        when(page1.getRenderedTitle(Syntax.PLAIN_1_0, this.xcontext)).thenReturn("Page 1");
+
+        DocumentReference page2Reference = new DocumentReference("Page2", spaceReference);
+        XWikiDocument page2 = mock(XWikiDocument.class, "page2");
+        when(this.xwiki.getDocument((EntityReference) page2Reference, this.xcontext)).thenReturn(page2);
+        when(page2.getTranslatedDocument(this.xcontext)).thenReturn(page2);
+        when(page2.getRenderedTitle(Syntax.PLAIN_1_0, this.xcontext)).thenReturn("Page 2");
+
+        Map<EntityReference, HierarchyItem> resolvedItems = new HashMap<>();
+        Hierarchy hierarchy1 = this.modelFactory.toRestHierarchy(page1Reference, true, resolvedItems);
+        Hierarchy hierarchy2 = this.modelFactory.toRestHierarchy(page2Reference, true, resolvedItems);
+
+        assertEquals("API Title", hierarchy1.getItems().get(1).getLabel());
+        assertEquals("Page 1", hierarchy1.getItems().get(2).getLabel());
+        assertEquals("API Title", hierarchy2.getItems().get(1).getLabel());
+        assertEquals("Page 2", hierarchy2.getItems().get(2).getLabel());
+
+        // The common ancestors are loaded only once.
+        verify(this.xwiki).getDocument(spaceReference, this.xcontext);
+        verify(this.wikiDescriptorManager).getById("dev");
+    }
+
     @Test
     void toRestAttachment()
     {
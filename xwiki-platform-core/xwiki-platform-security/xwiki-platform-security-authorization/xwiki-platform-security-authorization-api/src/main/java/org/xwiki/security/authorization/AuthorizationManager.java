@@ -19,11 +19,15 @@
  */
 package org.xwiki.security.authorization;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.xwiki.component.annotation.Role;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.EntityReference;
+import org.xwiki.stability.Unstable;
 
 /**
  * This API is for checking the access rights of any users on any XWiki entities. It replaces
@@ -75,6 +79,32 @@ void checkAccess(Right right, DocumentReference userReference, EntityReference e
      */
     boolean hasAccess(Right right, DocumentReference userReference, EntityReference entityReference);
 
+    /**
+     * Verifies if the user identified by {@code userReference} has the access identified by {@code right} on each of
+     * the given entities. The result is the same as calling {@link #hasAccess(Right, DocumentReference,
+     * EntityReference)} for each entity, but the rules of the ancestors shared by the entities (e.g. the space of
+     * sibling pages) are resolved only once. This function should be used for interface matters, like filtering a list
+     * of search results.
+     *
+     * @param <T> the type of entity references
+     * @param right the right to check
+     * @param userReference the user to check the right for
+     * @param entityReferences the entities on which to check the right
+     * @return the entities associated with {@code true} if the user has the specified right on the entity,
+     *     {@code false} otherwise, in the iteration order of the passed collection
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default <T extends EntityReference> Map<T, Boolean> hasAccessBatch(Right right, DocumentReference userReference,
+        Collection<T> entityReferences)
+    {
+        Map<T, Boolean> result = new LinkedHashMap<>();
+        for (T entityReference : entityReferences) {
+            result.put(entityReference, hasAccess(right, userReference, entityReference));
+        }
+        return result;
+    }
+
     /**
      * Register a new custom {@link Right}.
      *
@@ -20,6 +20,7 @@
 package org.xwiki.security.authorization;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
 
 /**
  * Configuration of the {@link AuthorizationManager}.
@@ -34,4 +35,15 @@
      * @return the hints to be used for looking up the authorization settler.
      */
     String getAuthorizationSettler();
+
+    /**
+     * @return {@code true} if the rule entries of the spaces holding rights and the groups of each wiki should be
+     *     loaded in the security cache in the background when the wiki is started
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default boolean isCacheWarmupEnabled()
+    {
+        return false;
+    }
 }
@@ -19,8 +19,13 @@
  */
 package org.xwiki.security.authorization;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.xwiki.component.annotation.Role;
 import org.xwiki.model.reference.EntityReference;
+import org.xwiki.stability.Unstable;
 
 /**
  * This API is for checking the access rights of current user in the current context. It replaces
@@ -80,4 +85,27 @@
      * @return {@code true} if the user has the specified right on the entity, {@code false} otherwise
      */
     boolean hasAccess(Right right, EntityReference entityReference);
+
+    /**
+     * Verifies if access identified by {@code right} on each of the given entities would be allowed in the current
+     * context. The result is the same as calling {@link #hasAccess(Right, EntityReference)} for each entity, but the
+     * rules of the ancestors shared by the entities are resolved only once.
+     * This function should be used for interface matters, use {@link #checkAccess} at security checkpoints.
+     *
+     * @param <T> the type of entity references
+     * @param right the right to check
+     * @param entityReferences the entities on which to check the right
+     * @return the entities associated with {@code true} if the right is allowed on the entity, {@code false}
+     *     otherwise, in the iteration order of the passed collection
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default <T extends EntityReference> Map<T, Boolean> hasAccessBatch(Right right, Collection<T> entityReferences)
+    {
+        Map<T, Boolean> result = new LinkedHashMap<>();
+        for (T entityReference : entityReferences) {
+            result.put(entityReference, hasAccess(right, entityReference));
+        }
+        return result;
+    }
 }
@@ -19,9 +19,14 @@
  */
 package org.xwiki.security.authorization;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -118,13 +123,57 @@ public boolean hasAccess(Right right, DocumentReference userReference, EntityRef
         try {
             return hasSecurityAccess(right, userReference, entityReference, false);
         } catch (Exception e) {
-            this.logger.error(String.format("Failed to load rights for user [%s] on [%s].",
-                (userReference == null) ? AuthorizationException.NULL_USER : userReference,
-                (entityReference == null) ? AuthorizationException.NULL_ENTITY : entityReference), e);
+            logLoadingError(userReference, entityReference, e);
             return false;
         }
     }
 
+    @Override
+    public <T extends EntityReference> Map<T, Boolean> hasAccessBatch(Right right, DocumentReference userReference,
+        Collection<T> entityReferences)
+    {
+        Map<T, Boolean> result = new LinkedHashMap<>();
+
+        if (isSuperAdmin(userReference) || right == null || right == Right.ILLEGAL
+            || isDeniedByContext(right, userReference)) {
+            boolean access = isSuperAdmin(userReference);
+            for (T entityReference : entityReferences) {
+                result.put(entityReference, access);
+            }
+            return result;
+        }
+
+        UserSecurityReference user = this.securityReferenceFactory.newUserReference(userReference);
+        // The access resolved for the ancestors of the entities, shared between the entities having the same ancestors.
+        Map<SecurityReference, SecurityAccess> ancestorsAccess = new HashMap<>();
+        for (T entityReference : entityReferences) {
+            if (!result.containsKey(entityReference)) {
+                boolean access;
+                try {
+                    SecurityAccess securityAccess =
+                        getAccess(user, this.securityReferenceFactory.newEntityReference(entityReference),
+                            ancestorsAccess);
+                    access = securityAccess.get(right) == RuleState.ALLOW;
+                    logAccess(securityAccess.get(right), userReference, entityReference, right, "access inquiry",
+                        true);
+                } catch (Exception e) {
+                    logLoadingError(userReference, entityReference, e);
+                    access = false;
+                }
+                result.put(entityReference, access);
+            }
+        }
+
+        return result;
+    }
+
+    private void logLoadingError(DocumentReference userReference, EntityReference entityReference, Exception e)
+    {
+        this.logger.error(String.format("Failed to load rights for user [%s] on [%s].",
+            (userReference == null) ? AuthorizationException.NULL_USER : userReference,
+            (entityReference == null) ? AuthorizationException.NULL_ENTITY : entityReference), e);
+    }
+
     /**
      * Verifies if the user identified by {@code userReference} has the access identified by {@code right} on the
      * entity identified by {@code entityReference}. Note that some rights may be checked higher in hierarchy of the
@@ -154,21 +203,27 @@ private boolean hasSecurityAccess(Right right, DocumentReference userReference,
             return false;
         }
 
-        if ((!right.isReadOnly() && xwikiBridge.isWikiReadOnly())
-            || (userReference == null && xwikiBridge.needsAuthentication(right))) {
+        if (isDeniedByContext(right, userReference)) {
             return false;
         }
 
         return evaluateSecurityAccess(right, userReference, entityReference, check);
     }
 
+    private boolean isDeniedByContext(Right right, DocumentReference userReference)
+    {
+        return (!right.isReadOnly() && xwikiBridge.isWikiReadOnly())
+            || (userReference == null && xwikiBridge.needsAuthentication(right));
+    }
+
     private boolean evaluateSecurityAccess(Right right, DocumentReference userReference,
         EntityReference entityReference, boolean check)
         throws AuthorizationException
     {
         SecurityAccess securityAccess = getAccess(
             securityReferenceFactory.newUserReference(userReference),
-            securityReferenceFactory.newEntityReference(entityReference)
+            securityReferenceFactory.newEntityReference(entityReference),
+            null
         );
 
         RuleState access = securityAccess.get(right);
@@ -227,17 +282,32 @@ public void unregister(Right right) throws AuthorizationException
      *
      * @param user The user identity.
      * @param entity The entity.  May be of type DOCUMENT, WIKI, or SPACE.
+     * @param ancestorsAccess The access already resolved for the ancestors of other entities, updated with the access
+     *            resolved for the ancestors of this entity. May be null.
      * @return the cached access entry.
      * @exception org.xwiki.security.authorization.AuthorizationException if an error occurs
      */
-    private SecurityAccess getAccess(UserSecurityReference user, SecurityReference entity)
-        throws AuthorizationException
+    private SecurityAccess getAccess(UserSecurityReference user, SecurityReference entity,
+        Map<SecurityReference, SecurityAccess> ancestorsAccess) throws AuthorizationException
     {
+        // The ancestors without any rule, which get the same access as the first ancestor having rules.
+        List<SecurityReference> visitedAncestors = new ArrayList<>();
         for (SecurityReference ref = entity; ref != null; ref = ref.getParentSecurityReference()) {
             if (Right.getEnabledRights(ref.getSecurityType()).isEmpty()) {
                 // Skip search on entity types that will obviously have empty/useless list of rules.
                 continue;
             }
+            boolean ancestor = ref != entity;
+            if (ancestor && ancestorsAccess != null) {
+                SecurityAccess access = ancestorsAccess.get(ref);
+                if (access != null) {
+                    logger.debug("0. Got entry for user {} on {} from ancestor {}: [{}]", user, entity, ref, access);
+
+                    addAncestorsAccess(ancestorsAccess, visitedAncestors, access);
+
+                    return access;
+                }
+            }
             SecurityRuleEntry entry = securityCache.get(ref);
             if (entry == null) {
                 SecurityAccess access = securityCacheLoader.load(user, entity).getAccess();
@@ -259,9 +329,16 @@ private SecurityAccess getAccess(UserSecurityReference user, SecurityReference e
 
                     logger.debug("3. Got entry for user {} on {} from cache: [{}]", user, entity, access);
 
+                    if (ancestor) {
+                        visitedAncestors.add(ref);
+                    }
+                    addAncestorsAccess(ancestorsAccess, visitedAncestors, access);
+
                     return access;
                 }
-            } 
+            } else if (ancestor) {
+                visitedAncestors.add(ref);
+            }
         }
 
         SecurityAccess access = securityCacheLoader.load(user, entity).getAccess();
@@ -271,6 +348,16 @@ private SecurityAccess getAccess(UserSecurityReference user, SecurityReference e
         return access;
     }
 
+    private void addAncestorsAccess(Map<SecurityReference, SecurityAccess> ancestorsAccess,
+        List<SecurityReference> ancestors, SecurityAccess access)
+    {
+        if (ancestorsAccess != null) {
+            for (SecurityReference ancestor : ancestors) {
+                ancestorsAccess.put(ancestor, access);
+            }
+        }
+    }
+
     /**
      * Log access conclusion.
      * @param access The ALLOW or DENY state
@@ -20,10 +20,12 @@
 package org.xwiki.security.authorization.cache;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.security.GroupSecurityReference;
 import org.xwiki.security.SecurityReference;
 import org.xwiki.security.UserSecurityReference;
 import org.xwiki.security.authorization.AuthorizationException;
 import org.xwiki.security.authorization.SecurityAccessEntry;
+import org.xwiki.stability.Unstable;
 
 /**
  * Loads access and rule entries into the security cache.
@@ -49,4 +51,32 @@
      */
     SecurityAccessEntry load(UserSecurityReference user, SecurityReference entity)
         throws AuthorizationException;
+
+    /**
+     * Load the cache with the rule entries of a given entity and of its parents, without settling the access of any
+     * user. This is used to warm up the cache.
+     *
+     * @param entity The entity for which to load the rules.
+     * @exception org.xwiki.security.authorization.AuthorizationException if an error occurs.
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default void loadRules(SecurityReference entity) throws AuthorizationException
+    {
+        // Nothing is loaded by default, the entries are loaded when needed.
+    }
+
+    /**
+     * Load the cache with the entry of a given group and of the groups it belongs to. This is used to warm up the
+     * cache.
+     *
+     * @param group The group to load.
+     * @exception org.xwiki.security.authorization.AuthorizationException if an error occurs.
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default void loadGroup(GroupSecurityReference group) throws AuthorizationException
+    {
+        // Nothing is loaded by default, the entries are loaded when needed.
+    }
 }
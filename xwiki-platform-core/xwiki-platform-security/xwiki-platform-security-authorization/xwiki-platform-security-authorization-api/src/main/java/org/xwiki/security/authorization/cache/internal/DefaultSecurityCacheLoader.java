@@ -160,6 +160,32 @@ public SecurityAccessEntry load(UserSecurityReference user, SecurityReference en
         }
     }
 
+    @Override
+    public void loadRules(SecurityReference entity) throws AuthorizationException
+    {
+        // See #load() for the reason of this lock.
+        this.rulesInvalidator.suspend();
+
+        try {
+            getRules(entity);
+        } finally {
+            this.rulesInvalidator.resume();
+        }
+    }
+
+    @Override
+    public void loadGroup(GroupSecurityReference group) throws AuthorizationException
+    {
+        // See #load() for the reason of this lock.
+        this.rulesInvalidator.suspend();
+
+        try {
+            loadGroupsOfUserOrGroup(group, group.getWikiReference(), null, new ArrayDeque<>());
+        } finally {
+            this.rulesInvalidator.resume();
+        }
+    }
+
     /**
      * Load entity entries, group entries, and user entries required to settle the access, settle it, add this decision
      * into the cache and return the access.
@@ -45,6 +45,9 @@ public class DefaultAuthorizationManagerConfiguration extends AbstractSecurityCo
     /** Prefix for right resolver configuration keys. */
     private static final String SETTLER = AUTHORIZATION + ".settler";
 
+    /** Configuration key of the security cache warm-up. */
+    private static final String CACHE_WARMUP = AUTHORIZATION + ".cache.warmup";
+
     /** Default hint for component manager. */
     private static final String DEFAULT_SETTLER = "default";
 
@@ -58,4 +61,10 @@ public String getAuthorizationSettler()
     {
         return configuration.getProperty(SETTLER, DEFAULT_SETTLER);
     }
+
+    @Override
+    public boolean isCacheWarmupEnabled()
+    {
+        return configuration.getProperty(CACHE_WARMUP, false);
+    }
 }
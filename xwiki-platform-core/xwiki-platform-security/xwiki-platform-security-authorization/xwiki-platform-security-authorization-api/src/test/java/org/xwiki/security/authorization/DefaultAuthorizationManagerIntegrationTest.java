@@ -21,9 +21,11 @@
 package org.xwiki.security.authorization;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -880,6 +882,36 @@ public boolean isReadOnly()
         }
     }
 
+    @Test
+    void hasAccessBatch() throws Exception
+    {
+        initialiseWikiMock("inheritancePolicyForLocalWikiAccess");
+
+        DocumentReference user = getUser("userA", "wikiDenyA");
+        List<EntityReference> entities = Arrays.asList(getDoc("any document", "any space", "wikiDenyA"),
+            getDoc("another document", "any space", "wikiDenyA"),
+            getDoc("any document", "spaceAllowA", "wikiDenyA"), getDoc("docDenyA", "spaceAllowA", "wikiDenyA"),
+            getDoc("any document", "spaceAllowANoAdmin", "wikiDenyA"),
+            getDoc("docDenyA", "spaceAllowANoAdmin", "wikiDenyA"), getDoc("docAllowA", "any space", "wikiDenyA"));
+
+        for (Right right : values()) {
+            // Check the batch first, with an empty cache, and then once the cache is filled.
+            Map<EntityReference, Boolean> access = this.authorizationManager.hasAccessBatch(right, user, entities);
+            assertEquals(entities, new ArrayList<>(access.keySet()));
+            for (EntityReference entity : entities) {
+                assertEquals(this.authorizationManager.hasAccess(right, user, entity), access.get(entity),
+                    String.format("Unexpected [%s] right on [%s].", right, getEntityReadableName(entity)));
+            }
+            assertEquals(access, this.authorizationManager.hasAccessBatch(right, user, entities));
+        }
+
+        Map<EntityReference, Boolean> superadminAccess =
+            this.authorizationManager.hasAccessBatch(ADMIN, SUPERADMIN, entities);
+        assertTrue(superadminAccess.values().stream().allMatch(Boolean::booleanValue));
+        Map<EntityReference, Boolean> illegalAccess = this.authorizationManager.hasAccessBatch(ILLEGAL, user, entities);
+        assertTrue(illegalAccess.values().stream().noneMatch(Boolean::booleanValue));
+    }
+
     @Test
     void register() throws AuthorizationException
     {
@@ -240,4 +240,31 @@ public void loadForGuestLoadsRulesForMainWiki()
         inOrder.verifyNoMoreInteractions();
         verify(authorizationSettler).settle(user, Collections.emptySet(), hierarchy);
     }
+
+    @Test
+    public void loadRules() throws Exception
+    {
+        SecurityReference space =
+            this.securityReferenceFactory.newEntityReference(new DocumentReference("wiki", "Space", "Document"))
+                .getParentSecurityReference();
+
+        SecurityRuleEntry spaceRuleEntry = mock(SecurityRuleEntry.class, "space");
+        when(spaceRuleEntry.getReference()).thenReturn(space);
+        SecurityRuleEntry wikiRuleEntry = mock(SecurityRuleEntry.class, "wiki");
+        when(wikiRuleEntry.getReference()).thenReturn(space.getWikiReference());
+
+        SecurityEntryReader securityEntryReader = mocker.getInstance(SecurityEntryReader.class);
+        when(securityEntryReader.read(space)).thenReturn(spaceRuleEntry);
+        when(securityEntryReader.read(space.getWikiReference())).thenReturn(wikiRuleEntry);
+
+        this.securityCacheLoader.loadRules(space);
+
+        SecurityCacheRulesInvalidator rulesInvalidator = mocker.getInstance(SecurityCacheRulesInvalidator.class);
+        SecurityCache securityCache = mocker.getInstance(org.xwiki.security.authorization.cache.SecurityCache.class);
+        InOrder inOrder = inOrder(rulesInvalidator, securityCache);
+        inOrder.verify(rulesInvalidator).suspend();
+        inOrder.verify(securityCache).add(wikiRuleEntry);
+        inOrder.verify(securityCache).add(spaceRuleEntry);
+        inOrder.verify(rulesInvalidator).resume();
+    }
 }
@@ -20,7 +20,10 @@
 package org.xwiki.security.authorization.internal;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -117,6 +120,28 @@ public boolean hasAccess(Right right, EntityReference entity)
         return hasAccess(right, user, entity);
     }
 
+    @Override
+    public <T extends EntityReference> Map<T, Boolean> hasAccessBatch(Right right, Collection<T> entityReferences)
+    {
+        if (CONTENT_AUTHOR_RIGHTS.contains(right)) {
+            // The user to check depends on each entity.
+            return ContextualAuthorizationManager.super.hasAccessBatch(right, entityReferences);
+        }
+
+        Map<T, EntityReference> fullReferences = new LinkedHashMap<>();
+        for (T entityReference : entityReferences) {
+            fullReferences.put(entityReference, getFullReference(entityReference));
+        }
+
+        Map<EntityReference, Boolean> access = this.authorizationManager.hasAccessBatch(right,
+            this.xcontextProvider.get().getUserReference(), fullReferences.values());
+
+        Map<T, Boolean> result = new LinkedHashMap<>();
+        fullReferences.forEach((entityReference, fullReference) -> result.put(entityReference,
+            Boolean.TRUE.equals(access.get(fullReference))));
+        return result;
+    }
+
     private boolean hasAccess(Right right, DocumentReference user, EntityReference entity)
     {
         return checkPreAccess(right) && this.authorizationManager.hasAccess(right, user, getFullReference(entity));
@@ -0,0 +1,148 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.job.AbstractJob;
+import org.xwiki.job.DefaultJobStatus;
+import org.xwiki.model.EntityType;
+import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.model.reference.EntityReferenceResolver;
+import org.xwiki.model.reference.WikiReference;
+import org.xwiki.query.Query;
+import org.xwiki.query.QueryManager;
+import org.xwiki.security.SecurityReferenceFactory;
+import org.xwiki.security.authorization.AuthorizationException;
+import org.xwiki.security.authorization.cache.SecurityCacheLoader;
+import org.xwiki.security.internal.XWikiConstants;
+
+/**
+ * Load in the security cache the rule entries of a wiki which are likely to be needed soon after its startup: the
+ * rules of the wiki, of the spaces holding rights and the entries of the groups, so that the first accesses to the wiki
+ * don't have to read them.
+ * <p>
+ * The spaces and the groups are found with one query each instead of checking each space.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(SecurityCacheWarmupJob.JOBTYPE)
+public class SecurityCacheWarmupJob
+    extends AbstractJob<SecurityCacheWarmupRequest, DefaultJobStatus<SecurityCacheWarmupRequest>>
+{
+    /**
+     * The id of the job.
+     */
+    public static final String JOBTYPE = "security.cache.warmup";
+
+    private static final String PARAMETER_CLASS_NAME = "className";
+
+    private static final String SPACES_STATEMENT = "select distinct doc.space from XWikiDocument doc, BaseObject obj "
+        + "where doc.name = :name and obj.name = doc.fullName and obj.className = :className";
+
+    private static final String GROUPS_STATEMENT = "select distinct doc.fullName from XWikiDocument doc, "
+        + "BaseObject obj where obj.name = doc.fullName and obj.className = :className";
+
+    @Inject
+    private SecurityCacheLoader loader;
+
+    @Inject
+    private SecurityReferenceFactory securityReferenceFactory;
+
+    @Inject
+    private QueryManager queryManager;
+
+    @Inject
+    private EntityReferenceResolver<String> resolver;
+
+    @Inject
+    private DocumentReferenceResolver<String> documentResolver;
+
+    @Override
+    public String getType()
+    {
+        return JOBTYPE;
+    }
+
+    @Override
+    protected void runInternal() throws Exception
+    {
+        WikiReference wikiReference = new WikiReference(getRequest().getWiki());
+
+        Query spacesQuery = this.queryManager.createQuery(SPACES_STATEMENT, Query.HQL);
+        spacesQuery.setWiki(wikiReference.getName());
+        spacesQuery.bindValue("name", XWikiConstants.SPACE_DOC);
+        spacesQuery.bindValue(PARAMETER_CLASS_NAME, XWikiConstants.GLOBAL_CLASS);
+        List<String> spaces = spacesQuery.execute();
+
+        Query groupsQuery = this.queryManager.createQuery(GROUPS_STATEMENT, Query.HQL);
+        groupsQuery.setWiki(wikiReference.getName());
+        groupsQuery.bindValue(PARAMETER_CLASS_NAME, XWikiConstants.GROUP_CLASS);
+        List<String> groups = groupsQuery.execute();
+
+        this.progressManager.pushLevelProgress(1 + spaces.size() + groups.size(), this);
+
+        try {
+            this.progressManager.startStep(this);
+            loadRules(wikiReference, wikiReference);
+            this.progressManager.endStep(this);
+
+            for (String space : spaces) {
+                this.progressManager.startStep(this);
+                loadRules(wikiReference, this.resolver.resolve(space, EntityType.SPACE, wikiReference));
+                this.progressManager.endStep(this);
+            }
+
+            for (String group : groups) {
+                this.progressManager.startStep(this);
+                try {
+                    this.loader.loadGroup(this.securityReferenceFactory
+                        .newGroupReference(this.documentResolver.resolve(group, wikiReference)));
+                } catch (AuthorizationException e) {
+                    this.logger.warn("Failed to load the group [{}] of wiki [{}] in the security cache: {}", group,
+                        wikiReference.getName(), e.getMessage());
+                }
+                this.progressManager.endStep(this);
+            }
+        } finally {
+            this.progressManager.popLevelProgress(this);
+        }
+
+        this.logger.info("Loaded the rules of [{}] spaces and [{}] groups of wiki [{}] in the security cache.",
+            spaces.size(), groups.size(), wikiReference.getName());
+    }
+
+    private void loadRules(WikiReference wikiReference, EntityReference reference)
+    {
+        try {
+            this.loader.loadRules(this.securityReferenceFactory.newEntityReference(reference));
+        } catch (AuthorizationException e) {
+            this.logger.warn("Failed to load the rules of [{}] in wiki [{}] in the security cache: {}", reference,
+                wikiReference.getName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.xwiki.bridge.event.ApplicationReadyEvent;
+import org.xwiki.bridge.event.WikiReadyEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.job.JobException;
+import org.xwiki.job.JobExecutor;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.event.Event;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
+import org.xwiki.security.internal.XWikiBridge;
+
+/**
+ * Start the warm-up of the security cache in the background when a wiki is ready, if enabled.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(SecurityCacheWarmupListener.NAME)
+@Singleton
+public class SecurityCacheWarmupListener implements EventListener
+{
+    /**
+     * The name of the listener.
+     */
+    public static final String NAME = "org.xwiki.security.authorization.internal.SecurityCacheWarmupListener";
+
+    private static final List<Event> EVENTS = Arrays.<Event>asList(new ApplicationReadyEvent(), new WikiReadyEvent());
+
+    @Inject
+    private AuthorizationManagerConfiguration configuration;
+
+    @Inject
+    private XWikiBridge xwikiBridge;
+
+    /**
+     * Lazily initialize the {@link JobExecutor} to not initialize it too early.
+     */
+    @Inject
+    private Provider<JobExecutor> jobExecutorProvider;
+
+    @Inject
+    private Logger logger;
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public List<Event> getEvents()
+    {
+        return EVENTS;
+    }
+
+    @Override
+    public void onEvent(Event event, Object source, Object data)
+    {
+        if (this.configuration.isCacheWarmupEnabled()) {
+            String wiki;
+            if (event instanceof WikiReadyEvent) {
+                wiki = ((WikiReadyEvent) event).getWikiId();
+            } else {
+                wiki = this.xwikiBridge.getMainWikiReference().getName();
+            }
+
+            try {
+                this.jobExecutorProvider.get().execute(SecurityCacheWarmupJob.JOBTYPE,
+                    new SecurityCacheWarmupRequest(wiki));
+            } catch (JobException e) {
+                this.logger.error("Failed to start the warm-up of the security cache for wiki [{}]", wiki, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import org.xwiki.job.AbstractRequest;
+import org.xwiki.job.Request;
+
+/**
+ * The request used to configure {@link SecurityCacheWarmupJob}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class SecurityCacheWarmupRequest extends AbstractRequest
+{
+    /**
+     * Serialization identifier.
+     */
+    private static final long serialVersionUID = 1L;
+
+    private static final String PROPERTY_WIKI = "wiki";
+
+    /**
+     * The default constructor.
+     */
+    public SecurityCacheWarmupRequest()
+    {
+    }
+
+    /**
+     * @param request the request to copy
+     */
+    public SecurityCacheWarmupRequest(Request request)
+    {
+        super(request);
+    }
+
+    /**
+     * @param wiki the identifier of the wiki for which to warm up the security cache
+     */
+    public SecurityCacheWarmupRequest(String wiki)
+    {
+        setWiki(wiki);
+
+        // This job's log is not isolated so we only want important log
+        setVerbose(false);
+    }
+
+    /**
+     * @param wiki the identifier of the wiki for which to warm up the security cache
+     */
+    public void setWiki(String wiki)
+    {
+        setProperty(PROPERTY_WIKI, wiki);
+    }
+
+    /**
+     * @return the identifier of the wiki for which to warm up the security cache
+     */
+    public String getWiki()
+    {
+        return getProperty(PROPERTY_WIKI);
+    }
+}
@@ -19,6 +19,10 @@
  */
 package org.xwiki.security.authorization.internal;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +30,7 @@
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.LocalDocumentReference;
 import org.xwiki.model.reference.WikiReference;
 import org.xwiki.rendering.transformation.RenderingContext;
@@ -40,9 +45,11 @@
 import com.xpn.xwiki.test.junit5.mockito.OldcoreTest;
 import com.xpn.xwiki.test.reference.ReferenceComponentList;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
@@ -104,6 +111,30 @@ void hasAccess()
             eq(new DocumentReference(localReference, this.currentWikiReference)));
     }
 
+    @Test
+    void hasAccessBatch()
+    {
+        LocalDocumentReference alice = new LocalDocumentReference("space", "Alice");
+        LocalDocumentReference bob = new LocalDocumentReference("space", "Bob");
+        DocumentReference fullAlice = new DocumentReference(alice, this.currentWikiReference);
+        DocumentReference fullBob = new DocumentReference(bob, this.currentWikiReference);
+
+        Map<EntityReference, Boolean> access = new HashMap<>();
+        access.put(fullAlice, true);
+        access.put(fullBob, false);
+        when(this.authorizationManager.hasAccessBatch(same(Right.VIEW), isNull(), any())).thenReturn(access);
+
+        Map<LocalDocumentReference, Boolean> result =
+            this.contextualAuthorizationManager.hasAccessBatch(Right.VIEW, Arrays.asList(alice, bob));
+
+        assertEquals(Arrays.asList(alice, bob), new ArrayList<>(result.keySet()));
+        assertTrue(result.get(alice));
+        assertFalse(result.get(bob));
+
+        verify(this.authorizationManager).hasAccessBatch(same(Right.VIEW), isNull(),
+            argThat(references -> new ArrayList<>(references).equals(Arrays.asList(fullAlice, fullBob))));
+    }
+
     @ParameterizedTest
     @MethodSource("contentRightsSource")
     void contentAuthorRightPreAccess(Right right)
@@ -122,26 +122,29 @@ public String getContentType()
     }
 
     @Override
-    protected String compress(String source, SxCompressor compressor, XWikiContext context)
+    protected String getSourceMap(SxCompressor compressor, XWikiContext context)
     {
-        String output = super.compress(source, compressor, context);
-
-        // Save the source map generated by the compressor so that we can return it later when the source map is
+        // Return the source map generated by the compressor so that we can return it later when the source map is
         // requested by the browser's developer tools.
         if (compressor instanceof JsCompressor) {
             String sourceMap = ((JsCompressor) compressor).getSourceMap();
             if (sourceMap != null) {
                 // The browser's developer tools will attempt to load the source code when debugging the compressed
                 // code. The source code URL is specified in the source map.
-                sourceMap = fixSourceURL(sourceMap, context);
-                // Indicate the URL to the source map using the dedicated HTTP header. This is how the browser's
-                // developer tools will know how to download the source map.
-                // See https://developer.mozilla.org/en-US/docs/Tools/Debugger/How_to/Use_a_source_map
-                context.getResponse().setHeader("X-SourceMap", saveSourceMap(sourceMap, context));
+                return fixSourceURL(sourceMap, context);
             }
         }
 
-        return output;
+        return null;
+    }
+
+    @Override
+    protected void setSourceMap(String sourceMap, XWikiContext context)
+    {
+        // Indicate the URL to the source map using the dedicated HTTP header. This is how the browser's developer tools
+        // will know how to download the source map.
+        // See https://developer.mozilla.org/en-US/docs/Tools/Debugger/How_to/Use_a_source_map
+        context.getResponse().setHeader("X-SourceMap", saveSourceMap(sourceMap, context));
     }
 
     /**
@@ -20,14 +20,19 @@
 package com.xpn.xwiki.web.sx;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.xwiki.skinx.internal.SkinExtensionResponse;
+import org.xwiki.skinx.internal.SkinExtensionResponseCache;
 
 import com.xpn.xwiki.XWikiContext;
 import com.xpn.xwiki.XWikiException;
+import com.xpn.xwiki.doc.XWikiDocument;
 import com.xpn.xwiki.internal.debug.DebugConfiguration;
 import com.xpn.xwiki.web.Utils;
 import com.xpn.xwiki.web.XWikiAction;
@@ -58,14 +63,22 @@ public abstract class AbstractSxAction extends XWikiAction
     /** What http header parameter is used to specify when the cache should expire. */
     private static final String CACHE_EXPIRES_HEADER = "Expires";
 
-    /** The response will be sent to the browser as a byte array in this character set. */
-    private static final String RESPONSE_CHARACTER_SET = "UTF-8";
+    /** What http header parameter is used to specify the entity tag of the response. */
+    private static final String ETAG_HEADER = "ETag";
+
+    /** The encoding used for the gzip compressed responses. */
+    private static final String GZIP_ENCODING = "gzip";
+
+    /** The separator used between the elements of the cache variant. */
+    private static final char VARIANT_SEPARATOR = '|';
 
     /** If the user passes this parameter in the URL, we will look for the script in the jar files. */
     private static final String JAR_RESOURCE_REQUEST_PARAMETER = "resource";
 
     private DebugConfiguration debugConfiguration;
 
+    private SkinExtensionResponseCache responseCache;
+
     /** @return the logging object of the concrete subclass. */
     protected abstract Logger getLogger();
 
@@ -83,7 +96,35 @@ public void renderExtension(SxSource sxSource, Extension sxType, XWikiContext co
     {
         XWikiResponse response = context.getResponse();
 
-        String extensionContent = sxSource.getContent();
+        CachePolicy cachePolicy = sxSource.getCachePolicy();
+        boolean minify = getDebugConfiguration().isMinify();
+
+        // Try to reuse the final bytes of a previous request
+        String cacheVariant = getCacheVariant(sxSource, cachePolicy, sxType, minify, context);
+        SkinExtensionResponse extensionResponse =
+            cacheVariant != null ? getResponseCache().get(context.getDoc().getDocumentReference(), cacheVariant) : null;
+
+        if (extensionResponse == null) {
+            String extensionContent = sxSource.getContent();
+
+            String sourceMap = null;
+            if (minify) {
+                SxCompressor compressor = sxType.getCompressor();
+                extensionContent = compress(extensionContent, compressor, context);
+                sourceMap = getSourceMap(compressor, context);
+            }
+
+            byte[] bytes = extensionContent.getBytes(StandardCharsets.UTF_8);
+            extensionResponse = new SkinExtensionResponse(bytes, sourceMap, cacheVariant != null);
+
+            if (cacheVariant != null) {
+                getResponseCache().set(context.getDoc().getDocumentReference(), cacheVariant, extensionResponse);
+            }
+        }
+
+        if (extensionResponse.getSourceMap() != null) {
+            setSourceMap(extensionResponse.getSourceMap(), context);
+        }
 
         response.setContentType(sxType.getContentType());
 
@@ -91,8 +132,6 @@ public void renderExtension(SxSource sxSource, Extension sxType, XWikiContext co
             response.setDateHeader(LAST_MODIFIED_HEADER, sxSource.getLastModifiedDate());
         }
 
-        CachePolicy cachePolicy = sxSource.getCachePolicy();
-
         if (cachePolicy != CachePolicy.FORBID) {
             response.setHeader(CACHE_CONTROL_HEADER, "public");
         }
@@ -106,23 +145,103 @@ public void renderExtension(SxSource sxSource, Extension sxType, XWikiContext co
             response.setHeader(CACHE_CONTROL_HEADER, "no-cache, no-store, must-revalidate");
         }
 
-        if (getDebugConfiguration().isMinify()) {
-            extensionContent = compress(extensionContent, sxType.getCompressor(), context);
+        writeResponse(extensionResponse, cachePolicy, context);
+    }
+
+    private void writeResponse(SkinExtensionResponse extensionResponse, CachePolicy cachePolicy,
+        XWikiContext context)
+    {
+        XWikiResponse response = context.getResponse();
+
+        byte[] content = extensionResponse.getContent();
+
+        boolean gzip = extensionResponse.getGzipContent() != null
+            && StringUtils.contains(context.getRequest().getHeader("Accept-Encoding"), GZIP_ENCODING);
+        if (extensionResponse.getGzipContent() != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
+        if (cachePolicy != CachePolicy.FORBID && extensionResponse.hasETag()) {
+            String etag = extensionResponse.getETag(gzip);
+            response.setHeader(ETAG_HEADER, etag);
+
+            if (StringUtils.contains(context.getRequest().getHeader("If-None-Match"), etag)) {
+                // The client already has this version
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        if (gzip) {
+            response.setHeader("Content-Encoding", GZIP_ENCODING);
+            content = extensionResponse.getGzipContent();
         }
 
         try {
-            response.setContentLength(extensionContent.getBytes(RESPONSE_CHARACTER_SET).length);
-            response.getOutputStream().write(extensionContent.getBytes(RESPONSE_CHARACTER_SET));
+            response.setContentLength(content.length);
+            response.getOutputStream().write(content);
         } catch (IOException ex) {
             getLogger().warn("Failed to send SX content: [{}]", ex.getMessage());
         }
     }
 
+    private String getCacheVariant(SxSource sxSource, CachePolicy cachePolicy, Extension sxType, boolean minify,
+        XWikiContext context)
+    {
+        // Only the skin extensions stored in wiki documents are cached, and only if they allow it. The parsed skin
+        // extensions are not cached because the result of the Velocity evaluation can depend on the current user (e.g.
+        // the form token, the access rights).
+        if (!(sxSource instanceof SxDocumentSource) || cachePolicy == CachePolicy.FORBID
+            || !getResponseCache().isEnabled() || ((SxDocumentSource) sxSource).isParsed()) {
+            return null;
+        }
+
+        XWikiDocument document = context.getDoc();
+
+        // The content can depend on the language, the skin and the color theme (Velocity or LESS) and on the request
+        // parameters, which are part of the URL.
+        StringBuilder variant = new StringBuilder();
+        variant.append(document.getVersion()).append(VARIANT_SEPARATOR);
+        variant.append(sxType.getClassName()).append(VARIANT_SEPARATOR);
+        variant.append(minify).append(VARIANT_SEPARATOR);
+        variant.append(context.getLocale()).append(VARIANT_SEPARATOR);
+        variant.append(context.getWiki().getSkin(context)).append(VARIANT_SEPARATOR);
+        variant.append(context.getWiki().getUserPreference("colorTheme", context)).append(VARIANT_SEPARATOR);
+        variant.append(context.getURL());
+
+        return variant.toString();
+    }
+
     protected String compress(String source, SxCompressor compressor, XWikiContext context)
     {
         return compressor.compress(source);
     }
 
+    /**
+     * @param compressor the compressor used to compress the extension content
+     * @param context the XWiki context when rendering the skin extension
+     * @return the source map generated by the last call to {@link #compress(String, SxCompressor, XWikiContext)},
+     *         {@code null} if there is none
+     * @since 16.2.0RC1
+     */
+    protected String getSourceMap(SxCompressor compressor, XWikiContext context)
+    {
+        return null;
+    }
+
+    /**
+     * Expose the source map of the extension content sent in the response. Called both when the content is compressed
+     * and when it's taken from the cache.
+     *
+     * @param sourceMap the source map of the extension content
+     * @param context the XWiki context when rendering the skin extension
+     * @since 16.2.0RC1
+     */
+    protected void setSourceMap(String sourceMap, XWikiContext context)
+    {
+        // Do nothing by default
+    }
+
     @Override
     public String render(XWikiContext context) throws XWikiException
     {
@@ -156,6 +275,15 @@ protected DebugConfiguration getDebugConfiguration()
         return this.debugConfiguration;
     }
 
+    private SkinExtensionResponseCache getResponseCache()
+    {
+        if (this.responseCache == null) {
+            this.responseCache = Utils.getComponent(SkinExtensionResponseCache.class);
+        }
+
+        return this.responseCache;
+    }
+
     /**
      * Get the type of extension, depends on the type of action.
      *
@@ -32,6 +32,7 @@
 import org.xwiki.lesscss.resources.LESSResourceReference;
 import org.xwiki.lesscss.resources.LESSResourceReferenceFactory;
 import org.xwiki.model.reference.ObjectPropertyReference;
+import org.xwiki.stability.Unstable;
 import org.xwiki.velocity.VelocityManager;
 import org.xwiki.velocity.XWikiVelocityException;
 
@@ -167,6 +168,25 @@ public String getContent()
         return resultBuilder.toString();
     }
 
+    /**
+     * @return {@code true} if at least one of the extension objects has its content parsed (i.e. evaluated with
+     *         Velocity), in which case the content can depend on the current user and request
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    public boolean isParsed()
+    {
+        List<BaseObject> objects = this.document.getObjects(this.extension.getClassName());
+        if (objects != null) {
+            for (BaseObject sxObj : objects) {
+                if (sxObj != null && sxObj.getIntValue(PARSE_CONTENT_PROPERTY_NAME) == 1) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public long getLastModifiedDate()
     {
@@ -20,6 +20,7 @@
 package org.xwiki.skinx;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
 
 /**
  * Configuration options for skin extensions.
@@ -48,4 +49,18 @@
      *         of JavaScript in strict mode for browsers that supports it, {@code false} otherwise
      */
     boolean shouldRunJavaScriptInStrictMode();
+
+    /**
+     * The final bytes (minified and compressed) of the skin extensions stored in wiki documents are kept in memory so
+     * that they are not evaluated and minified again for each request.
+     * 
+     * @return the maximum number of documents for which to cache the skin extension responses, {@code 0} to disable
+     *         the cache
+     * @since 16.2.0RC1
+     */
+    @Unstable
+    default int getResponseCacheSize()
+    {
+        return 0;
+    }
 }
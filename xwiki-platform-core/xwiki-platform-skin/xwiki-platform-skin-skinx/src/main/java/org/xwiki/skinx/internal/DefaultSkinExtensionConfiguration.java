@@ -38,6 +38,8 @@
 @Singleton
 public class DefaultSkinExtensionConfiguration implements SkinExtensionConfiguration
 {
+    private static final String PREFIX = "skinx.";
+
     @Inject
     @Named("xwikiproperties")
     private ConfigurationSource xwikiProperties;
@@ -45,6 +47,12 @@ public class DefaultSkinExtensionConfiguration implements SkinExtensionConfigura
     @Override
     public boolean shouldRunJavaScriptInStrictMode()
     {
-        return this.xwikiProperties.getProperty("skinx.jsStrictModeEnabled", false);
+        return this.xwikiProperties.getProperty(PREFIX + "jsStrictModeEnabled", false);
+    }
+
+    @Override
+    public int getResponseCacheSize()
+    {
+        return this.xwikiProperties.getProperty(PREFIX + "responseCacheSize", 500);
     }
 }
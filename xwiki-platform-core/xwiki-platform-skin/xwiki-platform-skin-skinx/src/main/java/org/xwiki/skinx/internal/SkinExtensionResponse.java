@@ -0,0 +1,123 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.skinx.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * The final bytes sent for a skin extension, along with their gzip variant and the associated source map.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class SkinExtensionResponse
+{
+    /**
+     * Under this size compressing the content does not really worth it.
+     */
+    private static final int MIN_GZIP_SIZE = 512;
+
+    private final byte[] content;
+
+    private final byte[] gzipContent;
+
+    private final String etag;
+
+    private final String sourceMap;
+
+    /**
+     * @param content the final (possibly minified) content of the skin extension
+     * @param sourceMap the source map generated when minifying the content, {@code null} if there is none
+     * @param reusable true if the response is going to be reused, in which case its gzip variant and entity tag are
+     *            computed
+     */
+    public SkinExtensionResponse(byte[] content, String sourceMap, boolean reusable)
+    {
+        this.content = content;
+        this.sourceMap = sourceMap;
+
+        if (reusable) {
+            this.etag = DigestUtils.md5Hex(content);
+            this.gzipContent = content.length >= MIN_GZIP_SIZE ? gzip(content) : null;
+        } else {
+            this.etag = null;
+            this.gzipContent = null;
+        }
+    }
+
+    private static byte[] gzip(byte[] content)
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(stream)) {
+            gzipStream.write(content);
+        } catch (IOException e) {
+            // Cannot happen with an in memory stream
+            throw new UncheckedIOException(e);
+        }
+
+        return stream.toByteArray();
+    }
+
+    /**
+     * @return the final (possibly minified) content of the skin extension
+     */
+    public byte[] getContent()
+    {
+        return this.content;
+    }
+
+    /**
+     * @return the gzip compressed content, {@code null} if the content is too small to be worth compressing
+     */
+    public byte[] getGzipContent()
+    {
+        return this.gzipContent;
+    }
+
+    /**
+     * @return true if the response has an entity tag
+     */
+    public boolean hasETag()
+    {
+        return this.etag != null;
+    }
+
+    /**
+     * @param gzip true for the entity tag of the gzip compressed content
+     * @return the entity tag (including the quotes) to use in the {@code ETag} header
+     */
+    public String getETag(boolean gzip)
+    {
+        return gzip ? '"' + this.etag + "-gzip\"" : '"' + this.etag + '"';
+    }
+
+    /**
+     * @return the source map generated when minifying the content, {@code null} if there is none
+     */
+    public String getSourceMap()
+    {
+        return this.sourceMap;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.skinx.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.skinx.SkinExtensionConfiguration;
+
+/**
+ * Keep in memory the final bytes of the skin extensions stored in wiki documents.
+ * <p>
+ * The entries are grouped by document so that all the variants (version, locale, skin, color theme, URL, etc.) of the
+ * skin extensions of a document are removed together when the document is modified.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = SkinExtensionResponseCache.class)
+@Singleton
+public class SkinExtensionResponseCache implements Initializable, Disposable
+{
+    /**
+     * Protect against an unlimited number of variants (e.g. URLs with random query strings).
+     */
+    private static final int MAX_VARIANTS = 50;
+
+    @Inject
+    private SkinExtensionConfiguration configuration;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private EntityReferenceSerializer<String> serializer;
+
+    private Cache<Map<String, SkinExtensionResponse>> cache;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        int size = this.configuration.getResponseCacheSize();
+        if (size > 0) {
+            try {
+                this.cache = this.cacheManager.createNewCache(new LRUCacheConfiguration("skinx.responses", size));
+            } catch (CacheException e) {
+                throw new InitializationException("Failed to create the skin extension response cache", e);
+            }
+        }
+    }
+
+    /**
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled()
+    {
+        return this.cache != null;
+    }
+
+    /**
+     * @param documentReference the reference of the document containing the skin extension
+     * @param variant the identifier of the variant of the skin extension
+     * @return the cached response, or {@code null} if there is none
+     */
+    public SkinExtensionResponse get(DocumentReference documentReference, String variant)
+    {
+        if (this.cache != null) {
+            Map<String, SkinExtensionResponse> variants = this.cache.get(toKey(documentReference));
+            if (variants != null) {
+                return variants.get(variant);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param documentReference the reference of the document containing the skin extension
+     * @param variant the identifier of the variant of the skin extension
+     * @param response the response to cache
+     */
+    public void set(DocumentReference documentReference, String variant, SkinExtensionResponse response)
+    {
+        if (this.cache != null) {
+            String key = toKey(documentReference);
+
+            Map<String, SkinExtensionResponse> variants = this.cache.get(key);
+            if (variants == null) {
+                variants = new ConcurrentHashMap<>();
+                this.cache.set(key, variants);
+            } else if (variants.size() >= MAX_VARIANTS) {
+                variants.clear();
+            }
+
+            variants.put(variant, response);
+        }
+    }
+
+    /**
+     * Remove all the cached responses associated with the passed document.
+     * 
+     * @param documentReference the reference of the document containing the skin extension
+     */
+    public void remove(DocumentReference documentReference)
+    {
+        if (this.cache != null) {
+            this.cache.remove(toKey(documentReference));
+        }
+    }
+
+    /**
+     * Empty the cache.
+     */
+    public void removeAll()
+    {
+        if (this.cache != null) {
+            this.cache.removeAll();
+        }
+    }
+
+    private String toKey(DocumentReference documentReference)
+    {
+        // The locale is not serialized, which is what we want since the skin extension objects are stored in the
+        // default locale of the document
+        return this.serializer.serialize(documentReference);
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        if (this.cache != null) {
+            this.cache.dispose();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.skinx.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentDeletedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.bridge.event.WikiDeletedEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.model.reference.LocalDocumentReference;
+import org.xwiki.observation.AbstractEventListener;
+import org.xwiki.observation.event.Event;
+
+import com.xpn.xwiki.doc.XWikiDocument;
+
+/**
+ * Remove from the {@link SkinExtensionResponseCache} the responses of the modified documents. Since the style sheet
+ * extensions written in LESS depend on the skin and the color theme, everything is removed when one of them is
+ * modified.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component
+@Named(SkinExtensionResponseCacheListener.NAME)
+@Singleton
+public class SkinExtensionResponseCacheListener extends AbstractEventListener
+{
+    /**
+     * The name of the listener.
+     */
+    public static final String NAME = "org.xwiki.skinx.internal.SkinExtensionResponseCacheListener";
+
+    private static final List<LocalDocumentReference> THEME_CLASSES =
+        Arrays.asList(new LocalDocumentReference("ColorThemes", "ColorThemeClass"),
+            new LocalDocumentReference("FlamingoThemesCode", "ThemeClass"),
+            new LocalDocumentReference("XWiki", "XWikiSkins"));
+
+    @Inject
+    private SkinExtensionResponseCache cache;
+
+    /**
+     * Default constructor.
+     */
+    public SkinExtensionResponseCacheListener()
+    {
+        super(NAME, Arrays.asList(new DocumentCreatedEvent(), new DocumentUpdatedEvent(), new DocumentDeletedEvent(),
+            new WikiDeletedEvent()));
+    }
+
+    @Override
+    public void onEvent(Event event, Object source, Object data)
+    {
+        if (event instanceof WikiDeletedEvent) {
+            this.cache.removeAll();
+        } else {
+            XWikiDocument document = (XWikiDocument) source;
+
+            if (isTheme(document) || isTheme(document.getOriginalDocument())) {
+                this.cache.removeAll();
+            } else {
+                this.cache.remove(document.getDocumentReference());
+            }
+        }
+    }
+
+    private boolean isTheme(XWikiDocument document)
+    {
+        return document != null
+            && THEME_CLASSES.stream().anyMatch(themeClass -> !document.getXObjects(themeClass).isEmpty());
+    }
+}
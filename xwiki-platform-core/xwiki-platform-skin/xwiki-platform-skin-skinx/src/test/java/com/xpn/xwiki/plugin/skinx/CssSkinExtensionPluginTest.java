@@ -68,6 +68,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -140,6 +141,8 @@ void setup() throws XWikiException
 
         this.context = mockitoOldcore.getXWikiContext();
         this.urlFactory = mock(XWikiURLFactory.class);
+        when(this.urlFactory.getURL(any(), any(), any(), any(), any(), any(), any(XWikiContext.class)))
+            .thenCallRealMethod();
         context.setURLFactory(urlFactory);
         XWikiRequest xWikiRequest = mock(XWikiRequest.class);
         context.setRequest(xWikiRequest);
@@ -59,6 +59,7 @@
 import com.xpn.xwiki.web.XWikiURLFactory;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -120,6 +121,8 @@ void setup() throws XWikiException
 
         this.context = mockitoOldcore.getXWikiContext();
         this.urlFactory = mock(XWikiURLFactory.class);
+        when(this.urlFactory.getURL(any(), any(), any(), any(), any(), any(), any(XWikiContext.class)))
+            .thenCallRealMethod();
         context.setURLFactory(urlFactory);
         XWikiRequest xWikiRequest = mock(XWikiRequest.class);
         context.setRequest(xWikiRequest);
@@ -0,0 +1,156 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.web;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import javax.servlet.ServletOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.skinx.internal.SkinExtensionResponseCache;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.velocity.VelocityEngine;
+import org.xwiki.velocity.VelocityManager;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+import com.xpn.xwiki.internal.debug.DebugConfiguration;
+import com.xpn.xwiki.objects.BaseObject;
+import com.xpn.xwiki.test.MockitoOldcore;
+import com.xpn.xwiki.test.junit5.mockito.InjectMockitoOldcore;
+import com.xpn.xwiki.test.junit5.mockito.OldcoreTest;
+import com.xpn.xwiki.web.sx.SxDocumentSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link SsxAction}.
+ *
+ * @version $Id$
+ */
+@OldcoreTest
+class SsxActionTest
+{
+    private static final DocumentReference DOCUMENT_REFERENCE = new DocumentReference("wiki", "Space", "Page");
+
+    @InjectMockitoOldcore
+    private MockitoOldcore oldcore;
+
+    @MockComponent
+    private DebugConfiguration debugConfiguration;
+
+    @MockComponent
+    private SkinExtensionResponseCache responseCache;
+
+    @MockComponent
+    private VelocityManager velocityManager;
+
+    private XWikiDocument document;
+
+    private BaseObject sxObject;
+
+    private ServletOutputStream outputStream;
+
+    private XWikiContext xcontext;
+
+    @BeforeEach
+    void configure() throws Exception
+    {
+        this.xcontext = this.oldcore.getXWikiContext();
+
+        when(this.responseCache.isEnabled()).thenReturn(true);
+
+        this.sxObject = mock(BaseObject.class);
+        when(this.sxObject.getLargeStringValue("code")).thenReturn("/* $xcontext.userReference */");
+        when(this.sxObject.getStringValue("contentType")).thenReturn("CSS");
+        when(this.sxObject.getStringValue("cache")).thenReturn("long");
+
+        this.document = mock(XWikiDocument.class);
+        when(this.document.getDocumentReference()).thenReturn(DOCUMENT_REFERENCE);
+        when(this.document.getPrefixedFullName()).thenReturn("wiki:Space.Page");
+        when(this.document.getVersion()).thenReturn("1.1");
+        when(this.document.getDate()).thenReturn(new Date());
+        when(this.document.getObjects(SsxAction.CSSX.getClassName())).thenReturn(List.of(this.sxObject));
+        this.xcontext.setDoc(this.document);
+
+        // The Velocity evaluation depends on the current user.
+        VelocityEngine velocityEngine = mock(VelocityEngine.class);
+        when(this.velocityManager.getVelocityEngine()).thenReturn(velocityEngine);
+        when(velocityEngine.evaluate(any(), any(), anyString(), anyString())).then(invocation -> {
+            invocation.<Writer>getArgument(1).write("/* " + this.xcontext.getUserReference().getName() + " */");
+            return true;
+        });
+
+        this.outputStream = mock(ServletOutputStream.class);
+        XWikiResponse response = mock(XWikiResponse.class);
+        when(response.getOutputStream()).thenReturn(this.outputStream);
+        this.xcontext.setResponse(response);
+        this.xcontext.setRequest(mock(XWikiRequest.class));
+    }
+
+    @Test
+    void renderParsedExtensionForDifferentUsers() throws Exception
+    {
+        when(this.sxObject.getIntValue("parse")).thenReturn(1);
+
+        SsxAction action = new SsxAction();
+
+        this.xcontext.setUserReference(new DocumentReference("wiki", "XWiki", "Alice"));
+        action.renderExtension(new SxDocumentSource(this.xcontext, SsxAction.CSSX), SsxAction.CSSX, this.xcontext);
+
+        this.xcontext.setUserReference(new DocumentReference("wiki", "XWiki", "Bob"));
+        action.renderExtension(new SxDocumentSource(this.xcontext, SsxAction.CSSX), SsxAction.CSSX, this.xcontext);
+
+        ArgumentCaptor<byte[]> contentCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(this.outputStream, times(2)).write(contentCaptor.capture());
+        assertEquals("/* Alice */\n", new String(contentCaptor.getAllValues().get(0), StandardCharsets.UTF_8));
+        assertEquals("/* Bob */\n", new String(contentCaptor.getAllValues().get(1), StandardCharsets.UTF_8));
+
+        // The parsed content must never be shared between users.
+        verify(this.responseCache, never()).get(any(), anyString());
+        verify(this.responseCache, never()).set(any(), anyString(), any());
+    }
+
+    @Test
+    void renderNotParsedExtensionIsCached() throws Exception
+    {
+        when(this.sxObject.getIntValue("parse")).thenReturn(0);
+
+        new SsxAction().renderExtension(new SxDocumentSource(this.xcontext, SsxAction.CSSX), SsxAction.CSSX,
+            this.xcontext);
+
+        verify(this.responseCache).get(eq(DOCUMENT_REFERENCE), anyString());
+        verify(this.responseCache).set(eq(DOCUMENT_REFERENCE), anyString(), any());
+    }
+}
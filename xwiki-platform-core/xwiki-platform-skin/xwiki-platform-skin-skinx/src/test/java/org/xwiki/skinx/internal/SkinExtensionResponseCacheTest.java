@@ -0,0 +1,114 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.skinx.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.internal.MapCache;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.skinx.SkinExtensionConfiguration;
+import org.xwiki.test.annotation.BeforeComponent;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link SkinExtensionResponseCache}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+class SkinExtensionResponseCacheTest
+{
+    private static final DocumentReference DOCUMENT = new DocumentReference("wiki", "Space", "Page");
+
+    @InjectMockComponents
+    private SkinExtensionResponseCache cache;
+
+    @MockComponent
+    private SkinExtensionConfiguration configuration;
+
+    @MockComponent
+    private CacheManager cacheManager;
+
+    @MockComponent
+    private EntityReferenceSerializer<String> serializer;
+
+    @BeforeComponent
+    void beforeComponent() throws CacheException
+    {
+        when(this.configuration.getResponseCacheSize()).thenReturn(10);
+        when(this.cacheManager.createNewCache(any())).thenReturn(new MapCache<>());
+        when(this.serializer.serialize(any())).thenAnswer(invocation -> invocation.getArgument(0).toString());
+    }
+
+    @Test
+    void setGetRemove()
+    {
+        assertTrue(this.cache.isEnabled());
+
+        SkinExtensionResponse response1 = new SkinExtensionResponse(new byte[] { 1 }, null, true);
+        SkinExtensionResponse response2 = new SkinExtensionResponse(new byte[] { 2 }, "map", true);
+
+        this.cache.set(DOCUMENT, "1.1", response1);
+        this.cache.set(DOCUMENT, "2.1", response2);
+
+        assertSame(response1, this.cache.get(DOCUMENT, "1.1"));
+        assertSame(response2, this.cache.get(DOCUMENT, "2.1"));
+        assertNull(this.cache.get(DOCUMENT, "3.1"));
+
+        this.cache.remove(DOCUMENT);
+
+        assertNull(this.cache.get(DOCUMENT, "1.1"));
+        assertNull(this.cache.get(DOCUMENT, "2.1"));
+    }
+
+    @Test
+    void response() throws IOException
+    {
+        byte[] content = StringUtils.repeat("body { color: red; }\n", 100).getBytes(StandardCharsets.UTF_8);
+        SkinExtensionResponse response = new SkinExtensionResponse(content, null, true);
+
+        try (GZIPInputStream stream = new GZIPInputStream(new ByteArrayInputStream(response.getGzipContent()))) {
+            assertArrayEquals(content, stream.readAllBytes());
+        }
+        assertTrue(response.getETag(false).startsWith("\""));
+        assertNotEquals(response.getETag(false), response.getETag(true));
+
+        // Small contents are not compressed
+        assertNull(new SkinExtensionResponse(new byte[] { 1 }, null, true).getGzipContent());
+    }
+}
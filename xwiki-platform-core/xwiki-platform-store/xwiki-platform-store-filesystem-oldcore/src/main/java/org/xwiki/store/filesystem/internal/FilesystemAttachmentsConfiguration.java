@@ -42,4 +42,13 @@
      * @since 11.4RC1
      */
     File getDirectory();
+
+    /**
+     * @return {@code true} if identical attachment contents should be stored only once
+     * @since 16.2.0RC1
+     */
+    default boolean isDeduplicationEnabled()
+    {
+        return false;
+    }
 }
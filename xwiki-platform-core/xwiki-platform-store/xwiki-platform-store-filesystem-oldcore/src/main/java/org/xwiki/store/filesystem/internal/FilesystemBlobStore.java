@@ -0,0 +1,345 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.filesystem.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+
+/**
+ * A content addressed store of files used to store identical attachment contents only once.
+ * <p>
+ * Each distinct content is stored in a blob file named after the SHA-256 of the content, and the files of the
+ * attachment store sharing this content are hard links to this blob. The number of references to a blob is thus
+ * the number of links to the file, maintained by the filesystem itself: deleting an attachment file simply decrements
+ * it and a blob which is not linked anymore by any attachment file is removed by {@link #collectGarbage()}. The garbage
+ * collection is only performed at startup, so the space used by the deleted contents is reclaimed on the next restart.
+ * <p>
+ * Since the attachment store never writes in an existing file but always renames a new file in place, a shared content
+ * is never modified through one of its links.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class FilesystemBlobStore
+{
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    private static final String LINK_SUFFIX = "~link";
+
+    private final Path directory;
+
+    private final Logger logger;
+
+    /**
+     * Sharing contents can be done concurrently but not while the blobs which are not used anymore are removed.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The locks of the attachment content files, used to prevent {@link #shareAll(File)} from sharing a file while it's
+     * being written.
+     */
+    private final Map<Path, ReadWriteLock> fileLocks = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory the directory where to store the blobs
+     * @param logger the logger used to report the contents which could not be shared
+     */
+    public FilesystemBlobStore(File directory, Logger logger)
+    {
+        this.directory = directory.toPath();
+        this.logger = logger;
+    }
+
+    /**
+     * @param directory the directory where to store the blobs
+     * @return {@code true} if the filesystem of the passed directory supports hard links and exposes their number
+     */
+    public static boolean isSupported(File directory)
+    {
+        try {
+            Path directoryPath = Files.createDirectories(directory.toPath());
+            Path probe = Files.createTempFile(directoryPath, "probe", null);
+            Path link = probe.resolveSibling(probe.getFileName() + LINK_SUFFIX);
+            try {
+                Files.createLink(link, probe);
+
+                return getLinkCount(probe) == 2;
+            } finally {
+                Files.deleteIfExists(link);
+                Files.delete(probe);
+            }
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the directory where the blobs are stored
+     */
+    public File getDirectory()
+    {
+        return this.directory.toFile();
+    }
+
+    /**
+     * Replace the passed file by a link to the blob with the same content, or turn it into the blob if it's the first
+     * time this content is stored. Failing to share the file is not fatal: the file is left untouched.
+     *
+     * @param file the file to share
+     * @return {@code true} if the file is now a link to the blob, {@code false} otherwise
+     */
+    public boolean share(File file)
+    {
+        this.lock.readLock().lock();
+        try {
+            Path path = file.toPath();
+            Object fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            Path blob = store(path);
+
+            if (!Files.isSameFile(blob, path)) {
+                Path link = path.resolveSibling(path.getFileName() + LINK_SUFFIX);
+                Files.deleteIfExists(link);
+                Files.createLink(link, blob);
+
+                // Make sure the file was not replaced while its content was hashed
+                if (!Objects.equals(fileKey, Files.readAttributes(path, BasicFileAttributes.class).fileKey())
+                    || Files.size(blob) != Files.size(path)) {
+                    Files.delete(link);
+
+                    return false;
+                }
+
+                Files.move(link, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            this.logger.warn("Failed to share the content of the file [{}]: {}", file,
+                ExceptionUtils.getRootCauseMessage(e));
+
+            return false;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Create a new file with the same content as an existing file without copying it.
+     *
+     * @param source the existing file
+     * @param target the file to create, it must not exist yet
+     * @return {@code true} if the target file was created, {@code false} if the content should be copied instead
+     */
+    public boolean link(File source, File target)
+    {
+        this.lock.readLock().lock();
+        try {
+            Files.createLink(target.toPath(), store(source.toPath()));
+
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            this.logger.debug("Failed to link the file [{}] to [{}]: {}", target, source,
+                ExceptionUtils.getRootCauseMessage(e));
+
+            return false;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the lock to hold while writing the passed file when {@link #shareAll(File)} might be running. This method
+     * always returns the same lock for the path on the filesystem as long as this lock is used.
+     *
+     * @param file the file to get a lock for
+     * @return a lock for the passed file
+     */
+    public ReadWriteLock getLock(File file)
+    {
+        return this.fileLocks.computeIfAbsent(toKey(file.toPath()), key -> new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Share all the attachment content files located in the passed directory which are not already shared. This is
+     * used to convert the files stored before the deduplication was enabled, while the attachment store accepts writes:
+     * each file is shared while holding its {@link #getLock(File) lock} so the files written concurrently must be
+     * written while holding the same lock. The files already shared are skipped so an interrupted conversion can simply
+     * be started again.
+     *
+     * @param root the directory where to look for attachment content files
+     * @return the number of files which were shared
+     * @throws IOException when failing to browse the directory
+     */
+    public int shareAll(File root) throws IOException
+    {
+        int count = 0;
+
+        try (Stream<Path> paths = Files.walk(root.toPath())) {
+            for (Iterator<Path> it = paths.iterator(); it.hasNext();) {
+                Path path = it.next();
+
+                if (isAttachmentContent(path) && shareLocked(path)) {
+                    ++count;
+                }
+            }
+        } finally {
+            // The locks are only needed while the conversion is running
+            this.fileLocks.clear();
+        }
+
+        return count;
+    }
+
+    private boolean shareLocked(Path path)
+    {
+        Path key = toKey(path);
+        ReadWriteLock fileLock = this.fileLocks.computeIfAbsent(key, k -> new ReentrantReadWriteLock());
+
+        fileLock.writeLock().lock();
+        try {
+            return !isShared(path) && share(path.toFile());
+        } finally {
+            fileLock.writeLock().unlock();
+
+            // Don't keep a lock for each file of the store, a writer which got it in the meantime is still excluded
+            this.fileLocks.remove(key, fileLock);
+        }
+    }
+
+    private Path toKey(Path path)
+    {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Remove the blobs which are not linked anymore by any file.
+     *
+     * @return the number of removed blobs
+     * @throws IOException when failing to browse or remove the blobs
+     */
+    public int collectGarbage() throws IOException
+    {
+        if (!Files.exists(this.directory)) {
+            return 0;
+        }
+
+        int count = 0;
+
+        this.lock.writeLock().lock();
+        try (Stream<Path> paths = Files.walk(this.directory)) {
+            for (Iterator<Path> it = paths.iterator(); it.hasNext();) {
+                Path path = it.next();
+
+                if (Files.isRegularFile(path) && getLinkCount(path) == 1) {
+                    Files.delete(path);
+
+                    ++count;
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the blob with the same content as the passed file, created from the file if it does not exist yet
+     */
+    private Path store(Path path) throws IOException
+    {
+        String hash;
+        try (InputStream stream = Files.newInputStream(path)) {
+            hash = DigestUtils.sha256Hex(stream);
+        }
+
+        // Avoid having too many files in one folder because some filesystems don't perform well with large numbers of
+        // files in one folder
+        Path blob = this.directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.createLink(blob, path);
+            } catch (FileAlreadyExistsException e) {
+                // The same content was stored in the meantime
+            }
+        }
+
+        return blob;
+    }
+
+    private boolean isAttachmentContent(Path path)
+    {
+        if (path.startsWith(this.directory) || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        // Attachment content files are named "f" followed by the version and the extension, while temporary, backup
+        // and metadata files all contain a "~"
+        String name = path.getFileName().toString();
+        if (name.charAt(0) != 'f' || name.indexOf('~') != -1) {
+            return false;
+        }
+
+        for (Path element : path) {
+            String elementName = element.toString();
+            if (elementName.equals(FilesystemStoreTools.ATTACHMENTS_DIR_NAME)
+                || elementName.equals(FilesystemStoreTools.DELETED_ATTACHMENTS_DIR_NAME)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isShared(Path path)
+    {
+        try {
+            return getLinkCount(path) > 1;
+        } catch (IOException e) {
+            // The file was probably deleted in the meantime, there is nothing to share anymore
+            return true;
+        }
+    }
+
+    private static int getLinkCount(Path path) throws IOException
+    {
+        return ((Number) Files.getAttribute(path, LINK_COUNT_ATTRIBUTE)).intValue();
+    }
+}
@@ -21,6 +21,7 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Locale;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -30,6 +31,7 @@
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.phase.Initializable;
@@ -80,6 +82,19 @@ public class FilesystemStoreTools implements Initializable
      */
     public static final String DELETED_DOCUMENTS_DIR_NAME = "deleted-documents";
 
+    /**
+     * The directory within the store root directory where the deduplicated attachment contents are stored.
+     * 
+     * @since 16.2.0RC1
+     */
+    public static final String BLOBS_DIR_NAME = "~blobs";
+
+    /**
+     * The file created in the store root directory once the files stored before the deduplication was enabled have been
+     * converted.
+     */
+    private static final String BLOBS_CONVERTED_FILE_NAME = "~blobs.converted";
+
     /**
      * When a file is being saved, the original will be moved to the same name with this after it. If the save operation
      * fails then this file will be moved back to the regular position to come as close as possible to ACID transaction
@@ -119,6 +134,16 @@ public class FilesystemStoreTools implements Initializable
      */
     private File storeRootDirectory;
 
+    /**
+     * The store of the deduplicated attachment contents, {@code null} if the deduplication is disabled.
+     */
+    private FilesystemBlobStore blobStore;
+
+    /**
+     * {@code true} while the files stored before the deduplication was enabled are being converted.
+     */
+    private volatile boolean converting;
+
     /**
      * Testing Constructor.
      *
@@ -158,11 +183,89 @@ public void initialize() throws InitializationException
 
         this.logger.info("Using filesystem store directory [{}]", this.storeRootDirectory);
 
+        this.blobStore = null;
+        this.converting = false;
+        FilesystemBlobStore garbageBlobs = null;
+        File blobsDirectory = new File(this.storeRootDirectory, BLOBS_DIR_NAME);
+        File converted = new File(this.storeRootDirectory, BLOBS_CONVERTED_FILE_NAME);
+        if (this.config.isDeduplicationEnabled()) {
+            if (FilesystemBlobStore.isSupported(blobsDirectory)) {
+                this.blobStore = new FilesystemBlobStore(blobsDirectory, this.logger);
+                garbageBlobs = this.blobStore;
+                // Browsing the whole store is only needed until it's complete since the files saved afterwards are
+                // shared directly
+                this.converting = !converted.exists();
+            } else {
+                this.logger.warn("The filesystem of directory [{}] does not support hard links,"
+                    + " the attachment contents won't be deduplicated", blobsDirectory);
+            }
+        } else {
+            // The files stored from now on are not shared so they will have to be converted if the deduplication is
+            // enabled again
+            try {
+                Files.deleteIfExists(converted.toPath());
+            } catch (IOException e) {
+                this.logger.warn("Failed to reset the attachment contents deduplication: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+
+            // The blobs stored while the deduplication was enabled are removed once the attachment files linking them
+            // are deleted or replaced
+            if (blobsDirectory.exists()) {
+                garbageBlobs = new FilesystemBlobStore(blobsDirectory, this.logger);
+            }
+        }
+
         // TODO: make this useless (by cleaning empty directories as soon as they appear)
-        if (this.config.cleanOnStartup()) {
+        boolean clean = this.config.cleanOnStartup();
+        if (clean || garbageBlobs != null) {
             final File dir = this.storeRootDirectory;
+            final FilesystemBlobStore blobs = garbageBlobs;
+
+            Thread thread = new Thread(() -> {
+                if (this.converting) {
+                    convert(blobs, dir, converted);
+                }
+                if (clean) {
+                    deleteEmptyDirs(dir, 0);
+                }
+                if (blobs != null) {
+                    collectGarbage(blobs);
+                }
+            }, "Filesystem store maintenance");
+            // The conversion can take a while and is resumed on next startup if it's interrupted
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Convert the attachment contents stored before the deduplication was enabled. The attachment store accepts writes
+     * during the conversion, the files are locked with {@link #getLockForFile(File)}.
+     */
+    private void convert(FilesystemBlobStore blobs, File dir, File converted)
+    {
+        try {
+            int shared = blobs.shareAll(dir);
+            Files.createFile(converted.toPath());
+
+            this.logger.info("Deduplicated [{}] attachment content files", shared);
+        } catch (IOException e) {
+            this.logger.error("Failed to deduplicate the attachment contents stored in [{}]", dir, e);
+        } finally {
+            this.converting = false;
+        }
+    }
+
+    private void collectGarbage(FilesystemBlobStore blobs)
+    {
+        try {
+            int removed = blobs.collectGarbage();
 
-            new Thread(() -> deleteEmptyDirs(dir, 0)).start();
+            this.logger.info("Removed [{}] unused attachment content blobs", removed);
+        } catch (Exception e) {
+            this.logger.error("Failed to remove the unused attachment content blobs from [{}]", blobs.getDirectory(),
+                e);
         }
     }
 
@@ -262,6 +365,15 @@ public File getStoreRootDirectory()
         return this.storeRootDirectory;
     }
 
+    /**
+     * @return the store of the deduplicated attachment contents, {@code null} if the deduplication is disabled
+     * @since 16.2.0RC1
+     */
+    public FilesystemBlobStore getBlobStore()
+    {
+        return this.blobStore;
+    }
+
     /**
      * Get an instance of AttachmentFileProvider which will save everything to do with an attachment in a separate
      * location which is repeatable only with the same attachment name, and containing document.
@@ -389,6 +501,11 @@ public File getDocumentContentDir(final DocumentReference documentReference)
      */
     public ReadWriteLock getLockForFile(final File toLock)
     {
+        // The files must not be replaced while the conversion is sharing them
+        if (this.converting) {
+            return this.blobStore.getLock(toLock);
+        }
+
         return this.lockProvider.getLock(toLock);
     }
 }
@@ -90,6 +90,15 @@ public FilesystemAttachmentContent clone()
         return new FilesystemAttachmentContent(this);
     }
 
+    /**
+     * @return the file where the content is stored, or {@code null} if the content was modified since it was loaded
+     * @since 16.2.0RC1
+     */
+    public File getStorageFile()
+    {
+        return this.getFileItem() == null ? this.storageFile : null;
+    }
+
     @Override
     public boolean exists()
     {
@@ -0,0 +1,91 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.legacy.store.internal;
+
+import java.io.File;
+
+import org.xwiki.store.FileSerializer;
+import org.xwiki.store.StreamProviderFileSerializer;
+import org.xwiki.store.filesystem.internal.FilesystemBlobStore;
+import org.xwiki.store.legacy.doc.internal.FilesystemAttachmentContent;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiAttachment;
+import com.xpn.xwiki.doc.XWikiAttachmentContent;
+
+/**
+ * Serialize the content of an attachment to a file, sharing it with the other files having the same content when the
+ * deduplication is enabled.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class AttachmentContentFileSerializer implements FileSerializer
+{
+    private final XWikiAttachment attachment;
+
+    private final XWikiContext context;
+
+    private final FilesystemBlobStore blobStore;
+
+    /**
+     * @param attachment the attachment whose content should be serialized
+     * @param context the XWikiContext needed to get the content from the attachment
+     * @param blobStore the store of the deduplicated contents, {@code null} if the deduplication is disabled
+     */
+    public AttachmentContentFileSerializer(XWikiAttachment attachment, XWikiContext context,
+        FilesystemBlobStore blobStore)
+    {
+        this.attachment = attachment;
+        this.context = context;
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public void serialize(File file) throws Exception
+    {
+        if (this.blobStore != null) {
+            // A content which was not modified since it was loaded from the store (e.g. when copying or moving an
+            // attachment) does not need to be copied
+            File storageFile = getStorageFile();
+            if (storageFile != null && storageFile.exists() && this.blobStore.link(storageFile, file)) {
+                return;
+            }
+        }
+
+        new StreamProviderFileSerializer(new AttachmentContentStreamProvider(this.attachment, this.context))
+            .serialize(file);
+
+        if (this.blobStore != null) {
+            this.blobStore.share(file);
+        }
+    }
+
+    private File getStorageFile()
+    {
+        XWikiAttachmentContent content = this.attachment.getAttachment_content();
+
+        if (content instanceof FilesystemAttachmentContent) {
+            return ((FilesystemAttachmentContent) content).getStorageFile();
+        }
+
+        return null;
+    }
+}
@@ -72,8 +72,10 @@ class SaveDeletedAttachmentContentRunnable extends StartableTransactionRunnable
         new AttachmentArchiveSaveRunnable(archive, fileTools, provider, versionSerializer, context).runIn(this);
 
         // Save the attachment's content.
-        final StreamProvider contentProvider = new AttachmentContentStreamProvider(attachment, context);
-        this.addSaver(contentProvider, fileTools, provider.getAttachmentContentFile());
+        final File contentFile = provider.getAttachmentContentFile();
+        new FileSaveTransactionRunnable(contentFile, fileTools.getTempFile(contentFile),
+            fileTools.getBackupFile(contentFile), fileTools.getLockForFile(contentFile),
+            new AttachmentContentFileSerializer(attachment, context, fileTools.getBlobStore())).runIn(this);
     }
 
     /**
@@ -65,4 +65,11 @@ void getDirectory() throws IOException
         when(configurationSource.getProperty("store.file.directory")).thenReturn(tempDir.toString());
         assertEquals(tempDir.toFile(), configuration.getDirectory());
     }
+
+    @Test
+    void isDeduplicationEnabled()
+    {
+        when(configurationSource.getProperty("store.file.deduplication", Boolean.FALSE)).thenReturn(true);
+        assertTrue(configuration.isDeduplicationEnabled());
+    }
 }
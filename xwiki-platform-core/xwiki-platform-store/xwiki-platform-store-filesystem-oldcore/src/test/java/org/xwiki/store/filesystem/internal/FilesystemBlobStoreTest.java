@@ -0,0 +1,172 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.filesystem.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link FilesystemBlobStore}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class FilesystemBlobStoreTest
+{
+    @XWikiTempDir
+    private File storeDirectory;
+
+    private File blobsDirectory;
+
+    private FilesystemBlobStore blobStore;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.blobsDirectory = new File(this.storeDirectory, FilesystemStoreTools.BLOBS_DIR_NAME);
+
+        assumeTrue(FilesystemBlobStore.isSupported(this.blobsDirectory), "Hard links are not supported");
+
+        this.blobStore = new FilesystemBlobStore(this.blobsDirectory, mock(Logger.class));
+    }
+
+    private File write(String path, String content) throws IOException
+    {
+        File file = new File(this.storeDirectory, path);
+        FileUtils.write(file, content, StandardCharsets.UTF_8);
+
+        return file;
+    }
+
+    private int getLinkCount(File file) throws IOException
+    {
+        return ((Number) Files.getAttribute(file.toPath(), "unix:nlink")).intValue();
+    }
+
+    @Test
+    void shareIdenticalContents() throws IOException
+    {
+        File file1 = write("wiki/a/b/c/attachments/d/e/f/f.png", "content");
+        File file2 = write("wiki/g/h/i/attachments/j/k/l/fv1.1.png", "content");
+        File file3 = write("wiki/g/h/i/attachments/j/k/l/fv1.2.png", "other content");
+
+        assertTrue(this.blobStore.share(file1));
+        assertTrue(this.blobStore.share(file2));
+        assertTrue(this.blobStore.share(file3));
+
+        assertTrue(Files.isSameFile(file1.toPath(), file2.toPath()));
+        assertEquals(3, getLinkCount(file1));
+        assertEquals(2, getLinkCount(file3));
+        assertEquals("content", FileUtils.readFileToString(file2, StandardCharsets.UTF_8));
+        assertEquals("other content", FileUtils.readFileToString(file3, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void link() throws IOException
+    {
+        File source = write("wiki/a/b/c/attachments/d/e/f/f.png", "content");
+        File target = new File(this.storeDirectory, "wiki/g/h/i/attachments/j/k/l/f.png");
+        target.getParentFile().mkdirs();
+
+        assertTrue(this.blobStore.link(source, target));
+
+        assertTrue(Files.isSameFile(source.toPath(), target.toPath()));
+        assertEquals(3, getLinkCount(source));
+
+        // The target must not exist
+        assertFalse(this.blobStore.link(source, target));
+    }
+
+    @Test
+    void shareAllAndCollectGarbage() throws IOException
+    {
+        File file1 = write("wiki/a/b/c/attachments/d/e/f/f.png", "content");
+        File file2 = write("wiki/g/h/i/deleted-attachments/j/k/l/0/f.png", "content");
+        File metadata = write("wiki/g/h/i/attachments/j/k/l/~METADATA.xml", "content");
+        File document = write("wiki/g/h/i/deleted-documents/0/content.xml", "content");
+
+        assertEquals(2, this.blobStore.shareAll(this.storeDirectory));
+
+        assertTrue(Files.isSameFile(file1.toPath(), file2.toPath()));
+        assertEquals(1, getLinkCount(metadata));
+        assertEquals(1, getLinkCount(document));
+
+        // Already shared files are skipped
+        assertEquals(0, this.blobStore.shareAll(this.storeDirectory));
+
+        assertEquals(0, this.blobStore.collectGarbage());
+
+        Files.delete(file1.toPath());
+        assertEquals(0, this.blobStore.collectGarbage());
+
+        Files.delete(file2.toPath());
+        assertEquals(1, this.blobStore.collectGarbage());
+    }
+
+    @Test
+    void shareAllWaitsForTheFilesBeingWritten() throws Exception
+    {
+        File file = write("wiki/a/b/c/attachments/d/e/f/f.png", "content");
+
+        ReadWriteLock fileLock = this.blobStore.getLock(file);
+        assertSame(fileLock, this.blobStore.getLock(new File(file.getParentFile(), "../f/f.png")));
+
+        fileLock.writeLock().lock();
+        CompletableFuture<Integer> shared;
+        try {
+            shared = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return this.blobStore.shareAll(this.storeDirectory);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            Thread.sleep(100);
+
+            assertFalse(shared.isDone());
+            assertEquals(1, getLinkCount(file));
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+
+        assertEquals(1, shared.get(5, TimeUnit.SECONDS));
+        assertEquals(2, getLinkCount(file));
+    }
+}
@@ -39,10 +39,12 @@
 import org.xwiki.display.internal.DocumentContentDisplayer;
 import org.xwiki.display.internal.DocumentTitleDisplayer;
 import org.xwiki.internal.script.XWikiScriptContextInitializer;
+import org.xwiki.internal.velocity.VelocityTemplateCache;
 import org.xwiki.internal.velocity.XWikiVelocityManager;
 import org.xwiki.localization.internal.DefaultContextualLocalizationManager;
 import org.xwiki.localization.internal.DefaultLocalizationManager;
 import org.xwiki.localization.internal.DefaultTranslationBundleContext;
+import org.xwiki.localization.internal.TranslationIndexManager;
 import org.xwiki.logging.internal.DefaultLoggerConfiguration;
 import org.xwiki.model.internal.DefaultModelContext;
 import org.xwiki.observation.internal.DefaultObservationManager;
@@ -113,6 +115,7 @@
 
 import com.xpn.xwiki.doc.DefaultDocumentAccessBridge;
 import com.xpn.xwiki.internal.DefaultXWikiStubContextProvider;
+import com.xpn.xwiki.internal.cache.XDOMCache;
 import com.xpn.xwiki.internal.localization.XWikiLocalizationContext;
 import com.xpn.xwiki.internal.security.authorization.DefaultAuthorExecutor;
 import com.xpn.xwiki.internal.sheet.ClassSheetBinder;
@@ -125,6 +128,7 @@
 import com.xpn.xwiki.internal.template.DefaultTemplateManager;
 import com.xpn.xwiki.internal.template.InternalTemplateManager;
 import com.xpn.xwiki.internal.template.TemplateAsyncRenderer;
+import com.xpn.xwiki.internal.template.TemplateCacheStatistics;
 import com.xpn.xwiki.internal.template.TemplateContext;
 import com.xpn.xwiki.internal.template.VelocityTemplateEvaluator;
 import com.xpn.xwiki.objects.meta.BooleanMetaClass;
@@ -214,6 +218,7 @@
     // Model
     DefaultDocumentAccessBridge.class,
     DefaultModelContext.class,
+    XDOMCache.class,
 
     // Velocity
     DefaultScriptContextManager.class,
@@ -222,6 +227,7 @@
     InternalVelocityEngine.class,
     DefaultVelocityContextFactory.class,
     XWikiVelocityManager.class,
+    VelocityTemplateCache.class,
     DefaultAuthorExecutor.class,
     VelocityExecutionContextInitializer.class,
     XWikiNumberTool.class,
@@ -284,6 +290,7 @@
     DefaultContextualLocalizationManager.class,
     DefaultLocalizationManager.class,
     DefaultTranslationBundleContext.class,
+    TranslationIndexManager.class,
     XWikiLocalizationContext.class,
 
     // Property Class Providers (needed when the page has xobjects)
@@ -303,6 +310,7 @@
     TemplateContext.class,
     VelocityTemplateEvaluator.class,
     TemplateAsyncRenderer.class,
+    TemplateCacheStatistics.class,
     DefaultCacheControl.class
 })
 @Inherited
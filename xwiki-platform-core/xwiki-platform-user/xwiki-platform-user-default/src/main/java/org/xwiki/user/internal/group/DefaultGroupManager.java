@@ -19,9 +19,13 @@
  */
 package org.xwiki.user.internal.group;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -63,6 +67,9 @@ public class DefaultGroupManager implements GroupManager
     @Inject
     private MembersCache membersCache;
 
+    @Inject
+    private GroupMembershipIndex membershipIndex;
+
     @Inject
     private WikiDescriptorManager wikis;
 
@@ -160,9 +167,55 @@ public Collection<DocumentReference> getGroups(DocumentReference reference, Obje
         if (reference == null) {
             return Collections.emptyList();
         }
+
+        // Try the membership index
+        Collection<DocumentReference> groups = getIndexedGroups(reference, wikiTarget, recurse);
+        if (groups != null) {
+            return groups;
+        }
+
         return getGroups(reference, wikiTarget, recurse, null);
     }
 
+    private Collection<DocumentReference> getIndexedGroups(DocumentReference reference, Object wikiTarget,
+        boolean recurse) throws GroupException
+    {
+        if (!this.membershipIndex.isEnabled()) {
+            return null;
+        }
+
+        List<GroupMembershipGraph> graphs = new ArrayList<>();
+        for (String wiki : getSearchWikis(reference, wikiTarget, true)) {
+            GroupMembershipGraph graph = this.membershipIndex.getGraph(wiki);
+            if (graph == null) {
+                // Not ready yet
+                return null;
+            }
+            graphs.add(graph);
+        }
+
+        if (graphs.size() == 1) {
+            return graphs.get(0).getGroups(reference, recurse);
+        }
+
+        // Groups of a wiki can be members of groups located in another wiki
+        Set<DocumentReference> groups = new LinkedHashSet<>();
+        Deque<DocumentReference> queue = new ArrayDeque<>();
+        queue.add(reference);
+        while (!queue.isEmpty()) {
+            DocumentReference current = queue.poll();
+            for (GroupMembershipGraph graph : graphs) {
+                for (DocumentReference group : graph.getGroups(current, recurse)) {
+                    if (!group.equals(reference) && groups.add(group) && recurse) {
+                        queue.add(group);
+                    }
+                }
+            }
+        }
+
+        return Collections.unmodifiableSet(groups);
+    }
+
     private Collection<DocumentReference> getGroups(DocumentReference reference, Object wikiTarget, boolean recurse,
         Set<DocumentReference> rootGroups) throws GroupException
     {
@@ -300,9 +353,54 @@ private Collection<DocumentReference> get(GroupCacheEntry entry, boolean recurse
     @Override
     public Collection<DocumentReference> getMembers(DocumentReference reference, boolean recurse) throws GroupException
     {
+        // Try the membership index
+        Collection<DocumentReference> members = getIndexedMembers(reference, recurse);
+        if (members != null) {
+            return members;
+        }
+
         return getMembers(reference, recurse, null);
     }
 
+    private Collection<DocumentReference> getIndexedMembers(DocumentReference reference, boolean recurse)
+    {
+        if (!this.membershipIndex.isEnabled()) {
+            return null;
+        }
+
+        String wiki = reference.getWikiReference().getName();
+        GroupMembershipGraph graph = this.membershipIndex.getGraph(wiki);
+        if (graph == null) {
+            // Not ready yet
+            return null;
+        }
+
+        Collection<DocumentReference> members = graph.getMembers(reference, recurse);
+        if (!recurse || members.stream().allMatch(member -> member.getWikiReference().getName().equals(wiki))) {
+            return members;
+        }
+
+        // Some members are located in other wikis and can be groups with their own members
+        Set<DocumentReference> allMembers = new LinkedHashSet<>(members);
+        Deque<DocumentReference> queue = new ArrayDeque<>(members);
+        while (!queue.isEmpty()) {
+            DocumentReference member = queue.poll();
+            String memberWiki = member.getWikiReference().getName();
+            GroupMembershipGraph memberGraph =
+                memberWiki.equals(wiki) ? graph : this.membershipIndex.getGraph(memberWiki);
+            if (memberGraph == null) {
+                return null;
+            }
+            for (DocumentReference subMember : memberGraph.getMembers(member, true)) {
+                if (!subMember.equals(reference) && allMembers.add(subMember)) {
+                    queue.add(subMember);
+                }
+            }
+        }
+
+        return Collections.unmodifiableSet(allMembers);
+    }
+
     private Collection<DocumentReference> getMembers(DocumentReference reference, boolean recurse,
         Set<DocumentReference> rootMembers) throws GroupException
     {
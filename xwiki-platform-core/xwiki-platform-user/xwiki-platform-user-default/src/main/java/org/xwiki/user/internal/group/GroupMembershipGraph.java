@@ -0,0 +1,286 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.user.internal.group;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.xwiki.model.reference.DocumentReference;
+
+/**
+ * The membership graph of the groups located in a wiki, with its transitive closure.
+ * <p>
+ * The closure is computed when the graph is created and then maintained incrementally when a membership is added or
+ * removed so that getting the (direct or recursive) groups or members of an entity does not require any computation.
+ * The returned collections are immutable snapshots. A modification is applied to a copy of the graph which then
+ * replaces the current one at once, so that readers never see a partially updated closure.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class GroupMembershipGraph
+{
+    /**
+     * The content of the graph. The maps are never modified once the state is published.
+     * 
+     * @version $Id$
+     */
+    private static final class State
+    {
+        private final Map<DocumentReference, Set<DocumentReference>> directMembers;
+
+        private final Map<DocumentReference, Set<DocumentReference>> directGroups;
+
+        private final Map<DocumentReference, Set<DocumentReference>> allMembers;
+
+        private final Map<DocumentReference, Set<DocumentReference>> allGroups;
+
+        State()
+        {
+            this.directMembers = new HashMap<>();
+            this.directGroups = new HashMap<>();
+            this.allMembers = new HashMap<>();
+            this.allGroups = new HashMap<>();
+        }
+
+        State(State state)
+        {
+            // The sets are immutable so a shallow copy is enough
+            this.directMembers = new HashMap<>(state.directMembers);
+            this.directGroups = new HashMap<>(state.directGroups);
+            this.allMembers = new HashMap<>(state.allMembers);
+            this.allGroups = new HashMap<>(state.allGroups);
+        }
+
+        void addMember(DocumentReference group, DocumentReference member)
+        {
+            Set<DocumentReference> ancestors = withSelf(group, get(this.allGroups, group));
+            Set<DocumentReference> descendants = withSelf(member, get(this.allMembers, member));
+
+            addEdge(group, member);
+
+            // Every ancestor of the group gets every descendant of the member and the other way around
+            for (DocumentReference ancestor : ancestors) {
+                addAll(this.allMembers, ancestor, descendants);
+            }
+            for (DocumentReference descendant : descendants) {
+                addAll(this.allGroups, descendant, ancestors);
+            }
+        }
+
+        void removeMember(DocumentReference group, DocumentReference member)
+        {
+            Set<DocumentReference> ancestors = withSelf(group, get(this.allGroups, group));
+            Set<DocumentReference> descendants = withSelf(member, get(this.allMembers, member));
+
+            removeEdge(this.directMembers, group, member);
+            removeEdge(this.directGroups, member, group);
+
+            // Other paths might still exist so only the impacted entries are recomputed
+            for (DocumentReference ancestor : ancestors) {
+                updateAllMembers(ancestor);
+            }
+            for (DocumentReference descendant : descendants) {
+                updateAllGroups(descendant);
+            }
+        }
+
+        void addEdge(DocumentReference group, DocumentReference member)
+        {
+            addAll(this.directMembers, group, Collections.singleton(member));
+            addAll(this.directGroups, member, Collections.singleton(group));
+        }
+
+        void updateAllMembers(DocumentReference group)
+        {
+            put(this.allMembers, group, traverse(group, this.directMembers));
+        }
+
+        void updateAllGroups(DocumentReference member)
+        {
+            put(this.allGroups, member, traverse(member, this.directGroups));
+        }
+    }
+
+    private final String wiki;
+
+    private volatile State state;
+
+    /**
+     * @param wiki the identifier of the wiki where the groups are located
+     * @param memberships the direct members of each group located in the wiki
+     */
+    public GroupMembershipGraph(String wiki,
+        Map<DocumentReference, ? extends Collection<DocumentReference>> memberships)
+    {
+        this.wiki = wiki;
+
+        State newState = new State();
+        for (Map.Entry<DocumentReference, ? extends Collection<DocumentReference>> entry : memberships.entrySet()) {
+            for (DocumentReference member : entry.getValue()) {
+                newState.addEdge(entry.getKey(), member);
+            }
+        }
+
+        // Compute the transitive closure
+        for (DocumentReference group : newState.directMembers.keySet()) {
+            newState.updateAllMembers(group);
+        }
+        for (DocumentReference member : newState.directGroups.keySet()) {
+            newState.updateAllGroups(member);
+        }
+
+        this.state = newState;
+    }
+
+    /**
+     * @return the identifier of the wiki where the groups are located
+     */
+    public String getWiki()
+    {
+        return this.wiki;
+    }
+
+    /**
+     * @param member the reference of the member
+     * @param recurse true if the groups of the groups should also be returned
+     * @return the groups located in this wiki which contain the passed member
+     */
+    public Collection<DocumentReference> getGroups(DocumentReference member, boolean recurse)
+    {
+        State currentState = this.state;
+
+        return get(recurse ? currentState.allGroups : currentState.directGroups, member);
+    }
+
+    /**
+     * @param group the reference of the group
+     * @param recurse true if the members of the member groups (located in this wiki) should also be returned
+     * @return the members of the passed group
+     */
+    public Collection<DocumentReference> getMembers(DocumentReference group, boolean recurse)
+    {
+        State currentState = this.state;
+
+        return get(recurse ? currentState.allMembers : currentState.directMembers, group);
+    }
+
+    private static Set<DocumentReference> get(Map<DocumentReference, Set<DocumentReference>> map,
+        DocumentReference reference)
+    {
+        return map.getOrDefault(reference, Collections.emptySet());
+    }
+
+    /**
+     * Update the direct members of a group and the impacted part of the transitive closure.
+     * 
+     * @param group the reference of the group
+     * @param previousMembers the members the group had before the modification
+     * @param newMembers the members the group has after the modification
+     * @return false if the previous members don't match what the graph contains, in which case nothing is modified
+     *         since the graph cannot be trusted anymore
+     */
+    public synchronized boolean updateMembers(DocumentReference group, Set<DocumentReference> previousMembers,
+        Set<DocumentReference> newMembers)
+    {
+        if (!get(this.state.directMembers, group).equals(previousMembers)) {
+            return false;
+        }
+
+        // Build the new closure aside and publish it at once
+        State newState = new State(this.state);
+        for (DocumentReference member : previousMembers) {
+            if (!newMembers.contains(member)) {
+                newState.removeMember(group, member);
+            }
+        }
+        for (DocumentReference member : newMembers) {
+            if (!previousMembers.contains(member)) {
+                newState.addMember(group, member);
+            }
+        }
+        this.state = newState;
+
+        return true;
+    }
+
+    private static void removeEdge(Map<DocumentReference, Set<DocumentReference>> map, DocumentReference key,
+        DocumentReference value)
+    {
+        Set<DocumentReference> values = new LinkedHashSet<>(get(map, key));
+        values.remove(value);
+        put(map, key, values);
+    }
+
+    private static void addAll(Map<DocumentReference, Set<DocumentReference>> map, DocumentReference key,
+        Set<DocumentReference> values)
+    {
+        Set<DocumentReference> currentValues = get(map, key);
+        Set<DocumentReference> newValues = new LinkedHashSet<>(currentValues);
+        newValues.addAll(values);
+        // An entity is never its own group or member, even with cross references between groups
+        newValues.remove(key);
+        if (newValues.size() != currentValues.size()) {
+            put(map, key, newValues);
+        }
+    }
+
+    private static void put(Map<DocumentReference, Set<DocumentReference>> map, DocumentReference key,
+        Set<DocumentReference> values)
+    {
+        if (values.isEmpty()) {
+            map.remove(key);
+        } else {
+            map.put(key, Collections.unmodifiableSet(values));
+        }
+    }
+
+    private static Set<DocumentReference> traverse(DocumentReference reference,
+        Map<DocumentReference, Set<DocumentReference>> edges)
+    {
+        Set<DocumentReference> result = new LinkedHashSet<>();
+
+        Deque<DocumentReference> queue = new ArrayDeque<>(get(edges, reference));
+        while (!queue.isEmpty()) {
+            DocumentReference current = queue.poll();
+            // Protect against cross references between groups
+            if (!current.equals(reference) && result.add(current)) {
+                queue.addAll(get(edges, current));
+            }
+        }
+
+        return result;
+    }
+
+    private static Set<DocumentReference> withSelf(DocumentReference reference, Set<DocumentReference> references)
+    {
+        Set<DocumentReference> result = new LinkedHashSet<>(references.size() + 1);
+        result.add(reference);
+        result.addAll(references);
+
+        return result;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.user.internal.group;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.WikiReference;
+import org.xwiki.query.Query;
+import org.xwiki.query.QueryException;
+import org.xwiki.query.QueryManager;
+
+/**
+ * Maintain a {@link GroupMembershipGraph} for each wiki.
+ * <p>
+ * The graph of a wiki is loaded in background the first time it's needed and then updated with the modifications of
+ * the group documents. If a modification cannot be applied (because the graph does not match the previous version of
+ * the group) the graph is discarded and rebuilt in background. {@link #getGraph(String)} returns {@code null} while a
+ * graph is not ready, in which case the caller is expected to fallback on the group caches.
+ * 
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = GroupMembershipIndex.class)
+@Singleton
+public class GroupMembershipIndex implements Initializable, Disposable
+{
+    private static final String PROPERTY_ENABLED = "user.group.membershipIndex.enabled";
+
+    private static final String MEMBERSHIPS_QUERY = "select doc.fullName, prop.value "
+        + "from XWikiDocument doc, BaseObject obj, StringProperty prop "
+        + "where doc.fullName = obj.name and obj.className = 'XWiki.XWikiGroups' and obj.id = prop.id.id "
+        + "and prop.name = 'member'";
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private static class WikiEntry
+    {
+        private volatile GroupMembershipGraph graph;
+
+        private volatile boolean loading;
+
+        /**
+         * Incremented each time a group of the wiki is modified, to detect modifications done while loading the graph.
+         */
+        private final AtomicLong version = new AtomicLong();
+    }
+
+    @Inject
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @Inject
+    private QueryManager queryManager;
+
+    @Inject
+    private DocumentReferenceResolver<String> resolver;
+
+    @Inject
+    private ExecutionContextManager executionContextManager;
+
+    @Inject
+    private Execution execution;
+
+    @Inject
+    private Logger logger;
+
+    private final Map<String, WikiEntry> wikis = new ConcurrentHashMap<>();
+
+    private boolean enabled;
+
+    private ExecutorService executor;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        this.enabled = this.configuration.getProperty(PROPERTY_ENABLED, false);
+
+        if (this.enabled) {
+            this.executor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("Group Membership Index Thread").daemon(true).priority(Thread.MIN_PRIORITY).build());
+        }
+    }
+
+    /**
+     * @return true if the index is enabled
+     */
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * @param wiki the identifier of the wiki
+     * @return the graph of the groups located in the passed wiki, or {@code null} if it's not ready (in which case its
+     *         loading is started in background)
+     */
+    public GroupMembershipGraph getGraph(String wiki)
+    {
+        if (!this.enabled) {
+            return null;
+        }
+
+        WikiEntry entry = this.wikis.computeIfAbsent(wiki, k -> new WikiEntry());
+
+        GroupMembershipGraph graph = entry.graph;
+        if (graph == null) {
+            scheduleLoad(wiki, entry);
+        }
+
+        return graph;
+    }
+
+    /**
+     * Apply the modification of a group document to the index.
+     * 
+     * @param group the reference of the group document
+     * @param previousMembers the members the group had before the modification
+     * @param newMembers the members the group has after the modification
+     */
+    public void updateMembers(DocumentReference group, Set<DocumentReference> previousMembers,
+        Set<DocumentReference> newMembers)
+    {
+        if (!this.enabled || previousMembers.equals(newMembers)) {
+            return;
+        }
+
+        WikiEntry entry = this.wikis.get(group.getWikiReference().getName());
+
+        if (entry != null) {
+            entry.version.incrementAndGet();
+
+            GroupMembershipGraph graph = entry.graph;
+            if (graph != null && !graph.updateMembers(group, previousMembers, newMembers)) {
+                this.logger.debug("The membership index of wiki [{}] is not consistent with group [{}], rebuilding it",
+                    graph.getWiki(), group);
+
+                entry.graph = null;
+                scheduleLoad(graph.getWiki(), entry);
+            }
+        }
+    }
+
+    /**
+     * Forget the graph of a wiki.
+     * 
+     * @param wiki the identifier of the wiki
+     */
+    public void remove(String wiki)
+    {
+        WikiEntry entry = this.wikis.remove(wiki);
+
+        if (entry != null) {
+            entry.version.incrementAndGet();
+        }
+    }
+
+    private synchronized void scheduleLoad(String wiki, WikiEntry entry)
+    {
+        if (!entry.loading && !this.executor.isShutdown()) {
+            entry.loading = true;
+
+            this.executor.execute(() -> load(wiki, entry));
+        }
+    }
+
+    private void load(String wiki, WikiEntry entry)
+    {
+        try {
+            this.executionContextManager.initialize(new ExecutionContext());
+
+            for (int i = 0; i < MAX_LOAD_ATTEMPTS && entry.graph == null && this.wikis.get(wiki) == entry; ++i) {
+                long version = entry.version.get();
+
+                GroupMembershipGraph graph = new GroupMembershipGraph(wiki, getMemberships(wiki));
+
+                // Make sure no group was modified while loading the graph
+                if (entry.version.get() == version) {
+                    entry.graph = graph;
+                }
+            }
+        } catch (Exception e) {
+            this.logger.warn("Failed to load the group membership index of wiki [{}]: {}", wiki,
+                ExceptionUtils.getRootCauseMessage(e));
+        } finally {
+            entry.loading = false;
+
+            this.execution.removeContext();
+        }
+    }
+
+    private Map<DocumentReference, Collection<DocumentReference>> getMemberships(String wiki) throws QueryException
+    {
+        Query query = this.queryManager.createQuery(MEMBERSHIPS_QUERY, Query.HQL);
+        query.setWiki(wiki);
+
+        WikiReference wikiReference = new WikiReference(wiki);
+
+        Map<DocumentReference, Collection<DocumentReference>> memberships = new LinkedHashMap<>();
+        for (Object[] result : query.<Object[]>execute()) {
+            String memberString = (String) result[1];
+            if (StringUtils.isNotEmpty(memberString)) {
+                DocumentReference group = this.resolver.resolve((String) result[0], wikiReference);
+                memberships.computeIfAbsent(group, k -> new LinkedHashSet<>())
+                    .add(this.resolver.resolve(memberString, group));
+            }
+        }
+
+        return memberships;
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+
+        this.wikis.clear();
+    }
+}
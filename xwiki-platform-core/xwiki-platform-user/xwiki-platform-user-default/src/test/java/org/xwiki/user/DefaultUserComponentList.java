@@ -40,6 +40,7 @@
 import org.xwiki.user.internal.document.SecureUserDocumentUserPropertiesResolver;
 import org.xwiki.user.internal.document.UserPreferencesConfigurationSource;
 import org.xwiki.user.internal.group.DefaultGroupManager;
+import org.xwiki.user.internal.group.GroupMembershipIndex;
 import org.xwiki.user.internal.group.GroupsCache;
 import org.xwiki.user.internal.group.MembersCache;
 
@@ -75,6 +76,7 @@
     NormalUserConfigurationSourceAuthorization.class,
     // Group Script Service
     DefaultGroupManager.class,
+    GroupMembershipIndex.class,
     GroupsCache.class,
     MembersCache.class,
     SpacesConfigurationSource.class
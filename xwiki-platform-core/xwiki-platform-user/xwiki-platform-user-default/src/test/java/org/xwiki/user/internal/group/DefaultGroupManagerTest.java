@@ -25,6 +25,7 @@
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -88,6 +89,9 @@
     @MockComponent
     private CacheManager cacheManager;
 
+    @MockComponent
+    private GroupMembershipIndex membershipIndex;
+
     @InjectMockComponents
     private DefaultGroupManager manager;
 
@@ -348,4 +352,33 @@ void getGroupsWithGuest() throws GroupException
         groups = this.manager.getGroups(null, null, true);
         assertTrue(groups.isEmpty());
     }
+
+    @Test
+    void getGroupsAndMembersFromIndex() throws GroupException
+    {
+        when(this.membershipIndex.isEnabled()).thenReturn(true);
+        when(this.membershipIndex.getGraph("xwiki")).thenReturn(new GroupMembershipGraph("xwiki",
+            Map.of(GLOBAL_GROUP_1, List.of(GLOBAL_USER_1), GLOBAL_GROUP_2, List.of(GLOBAL_GROUP_1, WIKI_GROUP_1))));
+        when(this.membershipIndex.getGraph("wiki"))
+            .thenReturn(new GroupMembershipGraph("wiki", Map.of(WIKI_GROUP_1, List.of(GLOBAL_USER_1))));
+        this.wikis.add("wiki");
+
+        assertGetGroups(GLOBAL_GROUP_1, GLOBAL_USER_1, WikiTarget.ENTITY, false);
+        assertGetGroups(Arrays.asList(GLOBAL_GROUP_1, GLOBAL_GROUP_2), GLOBAL_USER_1, WikiTarget.ENTITY, true);
+        assertGetMembers(Arrays.asList(GLOBAL_GROUP_1, WIKI_GROUP_1), GLOBAL_GROUP_2, false);
+
+        // Results spanning several wikis are aggregated
+        assertEquals(Set.of(GLOBAL_GROUP_1, WIKI_GROUP_1),
+            new HashSet<>(this.manager.getGroups(GLOBAL_USER_1, null, false)));
+        assertEquals(Set.of(GLOBAL_GROUP_1, GLOBAL_GROUP_2, WIKI_GROUP_1),
+            new HashSet<>(this.manager.getGroups(GLOBAL_USER_1, null, true)));
+        assertEquals(Set.of(GLOBAL_GROUP_1, WIKI_GROUP_1, GLOBAL_USER_1),
+            new HashSet<>(this.manager.getMembers(GLOBAL_GROUP_2, true)));
+
+        // Fallback on the caches when the index is not ready
+        when(this.membershipIndex.getGraph("wiki")).thenReturn(null);
+        mockGroups("wiki", GLOBAL_USER_1, Arrays.asList(WIKI_GROUP_2));
+
+        assertGetGroups(WIKI_GROUP_2, GLOBAL_USER_1, "wiki", false);
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.user.internal.group;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.model.reference.DocumentReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link GroupMembershipGraph}.
+ * 
+ * @version $Id$
+ */
+class GroupMembershipGraphTest
+{
+    private static final DocumentReference USER1 = new DocumentReference("wiki", "XWiki", "user1");
+
+    private static final DocumentReference USER2 = new DocumentReference("wiki", "XWiki", "user2");
+
+    private static final DocumentReference GROUP1 = new DocumentReference("wiki", "XWiki", "group1");
+
+    private static final DocumentReference GROUP2 = new DocumentReference("wiki", "XWiki", "group2");
+
+    private static final DocumentReference GROUP3 = new DocumentReference("wiki", "XWiki", "group3");
+
+    @Test
+    void closure()
+    {
+        // group3 -> group2 -> group1 -> user1
+        // group3 -> group1
+        GroupMembershipGraph graph = new GroupMembershipGraph("wiki",
+            Map.of(GROUP1, List.of(USER1), GROUP2, List.of(GROUP1), GROUP3, List.of(GROUP2, GROUP1)));
+
+        assertEquals(Set.of(GROUP1), graph.getGroups(USER1, false));
+        assertEquals(Set.of(GROUP1, GROUP2, GROUP3), graph.getGroups(USER1, true));
+        assertEquals(Set.of(GROUP2, GROUP1), graph.getMembers(GROUP3, false));
+        assertEquals(Set.of(GROUP2, GROUP1, USER1), graph.getMembers(GROUP3, true));
+        assertTrue(graph.getGroups(USER2, true).isEmpty());
+        assertTrue(graph.getMembers(USER1, true).isEmpty());
+
+        // The same instance is returned as long as nothing changes
+        assertSame(graph.getGroups(USER1, true), graph.getGroups(USER1, true));
+    }
+
+    @Test
+    void crossReference()
+    {
+        GroupMembershipGraph graph =
+            new GroupMembershipGraph("wiki", Map.of(GROUP1, List.of(GROUP2), GROUP2, List.of(GROUP1, USER1)));
+
+        assertEquals(Set.of(GROUP2), graph.getGroups(GROUP1, true));
+        assertEquals(Set.of(GROUP1), graph.getMembers(GROUP2, false));
+        assertEquals(Set.of(GROUP1, USER1), graph.getMembers(GROUP2, true));
+        assertEquals(Set.of(GROUP2, USER1), graph.getMembers(GROUP1, true));
+        assertEquals(Set.of(GROUP1, GROUP2), graph.getGroups(USER1, true));
+    }
+
+    @Test
+    void updateMembers()
+    {
+        GroupMembershipGraph graph =
+            new GroupMembershipGraph("wiki", Map.of(GROUP1, List.of(USER1), GROUP3, List.of(GROUP2, GROUP1)));
+
+        // Add group1 to group2
+        assertTrue(graph.updateMembers(GROUP2, Set.of(), Set.of(GROUP1, USER2)));
+
+        assertEquals(Set.of(GROUP1, GROUP2, GROUP3), graph.getGroups(USER1, true));
+        assertEquals(Set.of(GROUP2, GROUP3), graph.getGroups(USER2, true));
+        assertEquals(Set.of(GROUP1, GROUP2, USER1, USER2), graph.getMembers(GROUP3, true));
+
+        // Remove group1 from group3: group1 is still a member of group3 through group2
+        assertTrue(graph.updateMembers(GROUP3, Set.of(GROUP2, GROUP1), Set.of(GROUP2)));
+
+        assertEquals(Set.of(GROUP1, GROUP2, GROUP3), graph.getGroups(USER1, true));
+        assertEquals(Set.of(GROUP1, GROUP2, USER1, USER2), graph.getMembers(GROUP3, true));
+
+        // Remove group1 from group2
+        assertTrue(graph.updateMembers(GROUP2, Set.of(GROUP1, USER2), Set.of(USER2)));
+
+        assertEquals(Set.of(GROUP1), graph.getGroups(USER1, true));
+        assertEquals(Set.of(GROUP2, USER2), graph.getMembers(GROUP3, true));
+        assertEquals(Set.of(GROUP2, GROUP3), graph.getGroups(USER2, true));
+
+        // Delete group2
+        assertTrue(graph.updateMembers(GROUP2, Set.of(USER2), Set.of()));
+
+        assertTrue(graph.getGroups(USER2, true).isEmpty());
+        assertEquals(Set.of(GROUP2), graph.getMembers(GROUP3, true));
+    }
+
+    @Test
+    void updateMembersWhenInconsistent()
+    {
+        GroupMembershipGraph graph = new GroupMembershipGraph("wiki", Map.of(GROUP1, List.of(USER1)));
+
+        assertFalse(graph.updateMembers(GROUP1, Set.of(USER2), Set.of()));
+
+        assertEquals(Set.of(GROUP1), graph.getGroups(USER1, true));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.webjars.internal;
+
+/**
+ * An interface used to expose the WebJars resource cache as a JMX resource.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public interface JMXWebJarsResourceCacheMBean
+{
+    /**
+     * @return the number of bytes stored in the cache
+     */
+    long getSize();
+
+    /**
+     * @return the number of resources stored in the cache
+     */
+    int getResourceCount();
+
+    /**
+     * @return the number of requested resources found in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of requested resources not found in the cache
+     */
+    long getMissCount();
+
+    /**
+     * @return the ratio of requested resources found in the cache, between 0 and 1
+     */
+    double getHitRate();
+
+    /**
+     * Clear the whole cache.
+     */
+    void clear();
+}
@@ -0,0 +1,152 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.webjars.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A static WebJar resource kept in memory by {@link WebJarsResourceCache}.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+public class WebJarsCachedResource
+{
+    /**
+     * Under this size compressing the content does not really worth it.
+     */
+    private static final int MIN_GZIP_SIZE = 512;
+
+    /**
+     * The media types whose content is already compressed: images (except SVG), fonts, audio, video and archives.
+     */
+    private static final String[] COMPRESSED_MEDIA_TYPES = {"image/", "font/", "application/font-",
+        "application/x-font-", "application/vnd.ms-fontobject", "audio/", "video/", "application/zip",
+        "application/gzip", "application/x-gzip", "application/java-archive", "application/x-bzip2",
+        "application/x-xz", "application/x-7z-compressed", "application/x-rar-compressed", "application/pdf"};
+
+    private final byte[] content;
+
+    private final byte[] gzipContent;
+
+    private final String contentType;
+
+    private final String etag;
+
+    private final long date;
+
+    /**
+     * @param content the content of the resource
+     * @param contentType the content type of the resource
+     * @param date the date of the last modification of the resource
+     */
+    public WebJarsCachedResource(byte[] content, String contentType, long date)
+    {
+        this.content = content;
+        this.contentType = contentType;
+        this.etag = DigestUtils.md5Hex(content);
+        this.date = date;
+
+        byte[] gzip = null;
+        if (content.length >= MIN_GZIP_SIZE && isCompressible(contentType)) {
+            gzip = gzip(content);
+            if (gzip.length >= content.length) {
+                // Not worth it
+                gzip = null;
+            }
+        }
+        this.gzipContent = gzip;
+    }
+
+    private static boolean isCompressible(String contentType)
+    {
+        // Compressing again an already compressed content costs CPU for (almost) nothing.
+        return contentType != null && (contentType.startsWith("image/svg+xml")
+            || !StringUtils.startsWithAny(contentType, COMPRESSED_MEDIA_TYPES));
+    }
+
+    private static byte[] gzip(byte[] content)
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(stream)) {
+            gzipStream.write(content);
+        } catch (IOException e) {
+            // Cannot happen with an in memory stream
+            throw new UncheckedIOException(e);
+        }
+
+        return stream.toByteArray();
+    }
+
+    /**
+     * @return the content of the resource
+     */
+    public byte[] getContent()
+    {
+        return this.content;
+    }
+
+    /**
+     * @return the gzip compressed content of the resource, {@code null} if the resource is not worth compressing
+     */
+    public byte[] getGzipContent()
+    {
+        return this.gzipContent;
+    }
+
+    /**
+     * @return the content type of the resource
+     */
+    public String getContentType()
+    {
+        return this.contentType;
+    }
+
+    /**
+     * @param gzip true for the entity tag of the gzip compressed content
+     * @return the entity tag (including the quotes) computed from the content of the resource
+     */
+    public String getETag(boolean gzip)
+    {
+        return gzip ? '"' + this.etag + "-gzip\"" : '"' + this.etag + '"';
+    }
+
+    /**
+     * @return the date of the last modification of the resource
+     */
+    public long getDate()
+    {
+        return this.date;
+    }
+
+    /**
+     * @return the number of bytes used by the resource
+     */
+    public long getSize()
+    {
+        return this.content.length + (this.gzipContent != null ? this.gzipContent.length : 0);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.webjars.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
+
+/**
+ * A cache of the static WebJar resources bounded by the number of bytes it contains.
+ * <p>
+ * Static WebJar resources are immutable for a given namespace, WebJar version (which is part of the resource path) and
+ * path, so the entries only need to be removed when extensions are installed or uninstalled.
+ *
+ * @version $Id$
+ * @since 16.2.0RC1
+ */
+@Component(roles = WebJarsResourceCache.class)
+@Singleton
+public class WebJarsResourceCache implements Initializable, Disposable
+{
+    private static final String PROPERTY_MAX_SIZE = "webjars.cache.maxSize";
+
+    /**
+     * 32MB by default.
+     */
+    private static final long DEFAULT_MAX_SIZE = 32L * 1024 * 1024;
+
+    private static final String JMX_NAME = "type=WebJars,name=cache";
+
+    @Inject
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
+    private long maxSize;
+
+    private long maxEntrySize;
+
+    /**
+     * Access ordered to implement the LRU eviction.
+     */
+    private final Map<String, WebJarsCachedResource> resources = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long size;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        this.maxSize = this.configuration.getProperty(PROPERTY_MAX_SIZE, DEFAULT_MAX_SIZE);
+        // Make sure a single big resource cannot evict everything else
+        this.maxEntrySize = this.maxSize / 8;
+
+        if (isEnabled()) {
+            this.jmxRegistration.registerMBean(new JMXWebJarsResourceCache(this), JMX_NAME);
+        }
+    }
+
+    /**
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled()
+    {
+        return this.maxSize > 0;
+    }
+
+    /**
+     * @param namespace the namespace of the resource
+     * @param resourceName the path of the resource in the WebJar
+     * @return the cached resource or {@code null} if it's not in the cache
+     */
+    public synchronized WebJarsCachedResource get(String namespace, String resourceName)
+    {
+        WebJarsCachedResource resource = this.resources.get(toKey(namespace, resourceName));
+
+        if (resource != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+        }
+
+        return resource;
+    }
+
+    /**
+     * @return the maximum size of a resource stored in the cache, in bytes
+     */
+    public long getMaxResourceSize()
+    {
+        return this.maxEntrySize;
+    }
+
+    /**
+     * @param namespace the namespace of the resource
+     * @param resourceName the path of the resource in the WebJar
+     * @param resource the resource to cache
+     */
+    public synchronized void set(String namespace, String resourceName, WebJarsCachedResource resource)
+    {
+        if (!isEnabled() || resource.getSize() > this.maxEntrySize) {
+            return;
+        }
+
+        WebJarsCachedResource previous = this.resources.put(toKey(namespace, resourceName), resource);
+        if (previous != null) {
+            this.size -= previous.getSize();
+        }
+        this.size += resource.getSize();
+
+        // Evict the least recently used resources
+        Iterator<WebJarsCachedResource> iterator = this.resources.values().iterator();
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            this.size -= iterator.next().getSize();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Empty the cache.
+     */
+    public synchronized void clear()
+    {
+        this.resources.clear();
+        this.size = 0;
+    }
+
+    /**
+     * @return the number of bytes stored in the cache
+     */
+    public synchronized long getSize()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return the number of resources stored in the cache
+     */
+    public synchronized int getResourceCount()
+    {
+        return this.resources.size();
+    }
+
+    /**
+     * @return the number of requested resources found in the cache
+     */
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the number of requested resources not found in the cache
+     */
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    private String toKey(String namespace, String resourceName)
+    {
+        return namespace + ':' + resourceName;
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        if (isEnabled()) {
+            this.jmxRegistration.unregisterMBean(JMX_NAME);
+        }
+
+        clear();
+    }
+}
@@ -19,18 +19,37 @@
  */
 package org.xwiki.webjars.internal;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.jar.JarEntry;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.tika.mime.MediaType;
 import org.xwiki.classloader.ClassLoaderManager;
 import org.xwiki.component.annotation.Component;
+import org.xwiki.container.Container;
+import org.xwiki.container.Request;
+import org.xwiki.container.Response;
+import org.xwiki.container.servlet.ServletRequest;
+import org.xwiki.container.servlet.ServletResponse;
+import org.xwiki.resource.ResourceReference;
+import org.xwiki.resource.ResourceReferenceHandlerChain;
 import org.xwiki.resource.ResourceReferenceHandlerException;
 import org.xwiki.resource.ResourceType;
 import org.xwiki.resource.servlet.AbstractServletResourceReferenceHandler;
@@ -56,6 +75,13 @@ public class WebJarsResourceReferenceHandler extends AbstractServletResourceRefe
 
     private static final String LESS_FILE_EXTENSION = ".less";
 
+    private static final String GZIP_ENCODING = "gzip";
+
+    /**
+     * One year duration can be considered as permanent caching.
+     */
+    private static final long CACHE_DURATION = 365 * 24 * 3600 * 1000L;
+
     @Inject
     private ClassLoaderManager classLoaderManager;
 
@@ -67,17 +93,198 @@ public class WebJarsResourceReferenceHandler extends AbstractServletResourceRefe
     @Named("velocity")
     private WebJarsResourceFilter velocityFilter;
 
+    @Inject
+    private WebJarsResourceCache resourceCache;
+
+    @Inject
+    private Container container;
+
     @Override
     public List<ResourceType> getSupportedResourceReferences()
     {
         return Arrays.asList(WebJarsResourceReference.TYPE);
     }
 
+    @Override
+    public void handle(ResourceReference resourceReference, ResourceReferenceHandlerChain chain)
+        throws ResourceReferenceHandlerException
+    {
+        if (serveCachedResource((WebJarsResourceReference) resourceReference)) {
+            // Be a good citizen, continue the chain, in case some lower-priority handler has something to do for this
+            // resource reference.
+            chain.handleNext(resourceReference);
+        } else {
+            super.handle(resourceReference, chain);
+        }
+    }
+
+    private boolean serveCachedResource(WebJarsResourceReference resourceReference)
+        throws ResourceReferenceHandlerException
+    {
+        Request request = this.container.getRequest();
+        Response response = this.container.getResponse();
+        if (!this.resourceCache.isEnabled() || !isResourceCacheable(resourceReference)
+            || resourceReference.getParameterValue("fileName") != null || !(request instanceof ServletRequest)
+            || !(response instanceof ServletResponse)) {
+            return false;
+        }
+
+        HttpServletRequest httpRequest = ((ServletRequest) request).getHttpServletRequest();
+        ServletResponse servletResponse = (ServletResponse) response;
+
+        String namespace = resourceReference.getNamespace();
+        String resourceName = getResourceName(resourceReference);
+        WebJarsCachedResource resource = this.resourceCache.get(namespace, resourceName);
+        if (resource != null) {
+            sendCachedResource(resource, resourceReference, httpRequest, servletResponse);
+
+            return true;
+        }
+
+        URL resourceURL = getClassLoader(namespace).getResource(getResourcePath(resourceReference));
+        if (resourceURL == null) {
+            // Let the default implementation deal with it
+            return false;
+        }
+
+        try {
+            URLConnection connection = resourceURL.openConnection();
+            try (InputStream resourceStream = connection.getInputStream()) {
+                long size = connection.getContentLengthLong();
+                long date = getLastModified(connection);
+                if (size >= 0 && size <= this.resourceCache.getMaxResourceSize()) {
+                    byte[] content = IOUtils.toByteArray(resourceStream, size);
+                    resource = new WebJarsCachedResource(content,
+                        getContentType(new ByteArrayInputStream(content), resourceReference), date);
+                    this.resourceCache.set(namespace, resourceName, resource);
+
+                    sendCachedResource(resource, resourceReference, httpRequest, servletResponse);
+                } else {
+                    // Too big resources (or resources with an unknown size) are streamed from the already open
+                    // connection without being loaded in memory
+                    sendStreamedResource(resourceStream, size, date, resourceReference, httpRequest,
+                        servletResponse);
+                }
+            }
+        } catch (IOException e) {
+            // Let the default implementation deal with it
+            return false;
+        }
+
+        return true;
+    }
+
+    private void sendCachedResource(WebJarsCachedResource resource, WebJarsResourceReference resourceReference,
+        HttpServletRequest httpRequest, ServletResponse response) throws ResourceReferenceHandlerException
+    {
+        HttpServletResponse httpResponse = response.getHttpServletResponse();
+        boolean gzip = resource.getGzipContent() != null
+            && StringUtils.contains(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), GZIP_ENCODING);
+        String etag = resource.getETag(gzip);
+
+        setCacheHeaders(resource.getDate(), httpResponse);
+        httpResponse.setHeader(HttpHeaders.ETAG, etag);
+        if (resource.getGzipContent() != null) {
+            httpResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (StringUtils.contains(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)
+            || !isModifiedSince(resource.getDate(), httpRequest)) {
+            // The browser already has this version of the resource.
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+            byte[] content = resource.getContent();
+            if (gzip) {
+                httpResponse.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+                content = resource.getGzipContent();
+            }
+
+            response.setContentType(resource.getContentType());
+            httpResponse.setContentLength(content.length);
+            try {
+                response.getOutputStream().write(content);
+            } catch (IOException e) {
+                throw new ResourceReferenceHandlerException(
+                    String.format("Failed to send resource [%s]", getResourceName(resourceReference)), e);
+            }
+        }
+    }
+
+    private void sendStreamedResource(InputStream resourceStream, long size, long date,
+        WebJarsResourceReference resourceReference, HttpServletRequest httpRequest, ServletResponse response)
+        throws IOException, ResourceReferenceHandlerException
+    {
+        HttpServletResponse httpResponse = response.getHttpServletResponse();
+
+        setCacheHeaders(date, httpResponse);
+
+        if (!isModifiedSince(date, httpRequest)) {
+            // The browser already has this version of the resource.
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+            // Make sure the content type can be detected without consuming the stream.
+            InputStream stream = new BufferedInputStream(resourceStream);
+            response.setContentType(getContentType(stream, resourceReference));
+            if (size >= 0) {
+                httpResponse.setContentLengthLong(size);
+            }
+            try {
+                IOUtils.copy(stream, response.getOutputStream());
+            } catch (IOException e) {
+                throw new ResourceReferenceHandlerException(
+                    String.format("Failed to send resource [%s]", getResourceName(resourceReference)), e);
+            }
+        }
+    }
+
+    private void setCacheHeaders(long date, HttpServletResponse httpResponse)
+    {
+        httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, "public");
+        httpResponse.setDateHeader(HttpHeaders.EXPIRES, new Date().getTime() + CACHE_DURATION);
+        httpResponse.setDateHeader(HttpHeaders.LAST_MODIFIED, date);
+    }
+
+    private boolean isModifiedSince(long date, HttpServletRequest httpRequest)
+    {
+        long modifiedSince;
+        try {
+            modifiedSince = httpRequest.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            // Ignore invalid dates
+            modifiedSince = -1;
+        }
+
+        // The HTTP dates have a precision of one second.
+        return modifiedSince < 0 || date / 1000 > modifiedSince / 1000;
+    }
+
+    private long getLastModified(URLConnection connection) throws IOException
+    {
+        long date = 0;
+        if (connection instanceof JarURLConnection) {
+            JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+            if (entry != null) {
+                date = entry.getTime();
+            }
+        }
+        if (date <= 0) {
+            // Fallback on the date of the JAR (or of the file)
+            date = connection.getLastModified();
+        }
+
+        // Consider that the resource was modified when it was loaded if its date is unknown.
+        return date > 0 ? date : System.currentTimeMillis();
+    }
+
     @Override
     protected InputStream getResourceStream(WebJarsResourceReference resourceReference)
     {
-        String resourcePath = String.format("%s%s", WEBJARS_RESOURCE_PREFIX, getResourceName(resourceReference));
-        return getClassLoader(resourceReference.getNamespace()).getResourceAsStream(resourcePath);
+        return getClassLoader(resourceReference.getNamespace()).getResourceAsStream(getResourcePath(resourceReference));
+    }
+
+    private String getResourcePath(WebJarsResourceReference resourceReference)
+    {
+        return String.format("%s%s", WEBJARS_RESOURCE_PREFIX, getResourceName(resourceReference));
     }
 
     @Override
@@ -21,6 +21,7 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
@@ -29,7 +30,9 @@
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.input.CharSequenceInputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.velocity.exception.VelocityException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +47,7 @@
 import org.xwiki.resource.ResourceReferenceHandlerChain;
 import org.xwiki.resource.ResourceReferenceHandlerException;
 import org.xwiki.test.junit5.LogCaptureExtension;
+import org.xwiki.test.junit5.XWikiTempDir;
 import org.xwiki.test.junit5.mockito.ComponentTest;
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
 import org.xwiki.test.junit5.mockito.MockComponent;
@@ -52,7 +56,9 @@
 import static ch.qos.logback.classic.Level.ERROR;
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -92,6 +98,9 @@
     @MockComponent
     private Container container;
 
+    @MockComponent
+    private WebJarsResourceCache resourceCache;
+
     @Mock
     private ServletRequest request;
 
@@ -107,6 +116,9 @@
     @RegisterExtension
     private LogCaptureExtension logCapture = new LogCaptureExtension(DEBUG);
 
+    @XWikiTempDir
+    private File tmpDir;
+
     @BeforeEach
     void setUp() throws Exception
     {
@@ -317,4 +329,190 @@ void handleVerifyResourceIsClosed() throws Exception
 
         verify(inputStream, times(2)).close();
     }
+
+    private File createResourceFile(String content, long date) throws Exception
+    {
+        File file = new File(this.tmpDir, "angular.js");
+        FileUtils.write(file, content, StandardCharsets.UTF_8);
+        file.setLastModified(date);
+        when(this.classLoader.getResource("META-INF/resources/webjars/angular/2.1.11/angular.js"))
+            .thenReturn(file.toURI().toURL());
+
+        return file;
+    }
+
+    @Test
+    void executeWithResourceCache() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+        when(this.resourceCache.getMaxResourceSize()).thenReturn(1000L);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        File file = createResourceFile("content", 1000000000000L);
+
+        this.handler.handle(reference, this.chain);
+
+        assertEquals("content", this.response.getOutputStream().toString());
+        verify(this.response).setContentType("application/javascript");
+
+        ArgumentCaptor<WebJarsCachedResource> cachedResource = ArgumentCaptor.forClass(WebJarsCachedResource.class);
+        verify(this.resourceCache).set(eq("wiki:wiki"), eq("angular/2.1.11/angular.js"), cachedResource.capture());
+        assertEquals("application/javascript", cachedResource.getValue().getContentType());
+        assertEquals(file.lastModified(), cachedResource.getValue().getDate());
+
+        HttpServletResponse httpResponse = this.response.getHttpServletResponse();
+        verify(httpResponse).setHeader("Cache-Control", "public");
+        verify(httpResponse).setHeader("ETag", cachedResource.getValue().getETag(false));
+        verify(httpResponse).setDateHeader("Last-Modified", file.lastModified());
+        verify(this.chain).handleNext(reference);
+    }
+
+    @Test
+    void executeWithTooBigResource() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+        when(this.resourceCache.getMaxResourceSize()).thenReturn(3L);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        File file = createResourceFile("content", 1000000000000L);
+
+        this.handler.handle(reference, this.chain);
+
+        // The resource is streamed from the open connection without being cached.
+        assertEquals("content", this.response.getOutputStream().toString());
+        verify(this.response).setContentType("application/javascript");
+        verify(this.resourceCache, never()).set(any(), any(), any());
+        verify(this.classLoader, never()).getResourceAsStream(any());
+
+        HttpServletResponse httpResponse = this.response.getHttpServletResponse();
+        verify(httpResponse).setHeader("Cache-Control", "public");
+        verify(httpResponse).setDateHeader("Last-Modified", file.lastModified());
+        verify(httpResponse).setContentLengthLong(7);
+        verify(this.chain).handleNext(reference);
+    }
+
+    @Test
+    void return304WhenTooBigResourceNotModifiedSince() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+        when(this.resourceCache.getMaxResourceSize()).thenReturn(3L);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        File file = createResourceFile("content", 1000000000000L);
+        when(this.request.getHttpServletRequest().getDateHeader("If-Modified-Since"))
+            .thenReturn(file.lastModified());
+
+        this.handler.handle(reference, this.chain);
+
+        verify(this.response.getHttpServletResponse()).setStatus(304);
+        assertEquals("", this.response.getOutputStream().toString());
+        verify(this.chain).handleNext(reference);
+    }
+
+    @Test
+    void cachedResourceIsCompressedOnlyWhenWorthIt()
+    {
+        byte[] content = StringUtils.repeat("var a = 1;\n", 100).getBytes();
+
+        assertNotNull(new WebJarsCachedResource(content, "application/javascript", 0).getGzipContent());
+        assertNotNull(new WebJarsCachedResource(content, "image/svg+xml", 0).getGzipContent());
+        // Too small
+        assertNull(new WebJarsCachedResource("content".getBytes(), "text/css", 0).getGzipContent());
+        // Already compressed
+        assertNull(new WebJarsCachedResource(content, "image/png", 0).getGzipContent());
+        assertNull(new WebJarsCachedResource(content, "font/woff2", 0).getGzipContent());
+        assertNull(new WebJarsCachedResource(content, "application/zip", 0).getGzipContent());
+    }
+
+    @Test
+    void executeWithCachedResource() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        String content = StringUtils.repeat("var a = 1;\n", 100);
+        WebJarsCachedResource resource =
+            new WebJarsCachedResource(content.getBytes(), "application/javascript", 1000000000000L);
+        when(this.resourceCache.get("wiki:wiki", "angular/2.1.11/angular.js")).thenReturn(resource);
+        when(this.request.getHttpServletRequest().getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        this.handler.handle(reference, this.chain);
+
+        HttpServletResponse httpResponse = this.response.getHttpServletResponse();
+        verify(httpResponse).setHeader("Content-Encoding", "gzip");
+        verify(httpResponse).setHeader("ETag", resource.getETag(true));
+        verify(httpResponse).setContentLength(resource.getGzipContent().length);
+        verifyNoInteractions(this.classLoader);
+        verify(this.chain).handleNext(reference);
+    }
+
+    @Test
+    void return304WhenETagMatches() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        WebJarsCachedResource resource =
+            new WebJarsCachedResource("content".getBytes(), "application/javascript", 1000000000000L);
+        when(this.resourceCache.get("wiki:wiki", "angular/2.1.11/angular.js")).thenReturn(resource);
+        when(this.request.getHttpServletRequest().getHeader("If-None-Match")).thenReturn(resource.getETag(false));
+        when(this.request.getHttpServletRequest().getDateHeader("If-Modified-Since")).thenReturn(-1L);
+
+        this.handler.handle(reference, this.chain);
+
+        verify(this.response.getHttpServletResponse()).setStatus(304);
+        assertEquals("", this.response.getOutputStream().toString());
+        verify(this.chain).handleNext(reference);
+    }
+
+    @Test
+    void return304WhenCachedResourceNotModifiedSince() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        WebJarsCachedResource resource =
+            new WebJarsCachedResource("content".getBytes(), "application/javascript", 1000000000123L);
+        when(this.resourceCache.get("wiki:wiki", "angular/2.1.11/angular.js")).thenReturn(resource);
+        // HTTP dates don't have milliseconds.
+        when(this.request.getHttpServletRequest().getDateHeader("If-Modified-Since")).thenReturn(1000000000000L);
+
+        this.handler.handle(reference, this.chain);
+
+        verify(this.response.getHttpServletResponse()).setStatus(304);
+        assertEquals("", this.response.getOutputStream().toString());
+        verify(this.chain).handleNext(reference);
+    }
+
+    @Test
+    void sendCachedResourceWhenModifiedSince() throws Exception
+    {
+        when(this.resourceCache.isEnabled()).thenReturn(true);
+
+        WebJarsResourceReference reference =
+            new WebJarsResourceReference("wiki:wiki", asList("angular", "2.1.11", "angular.js"));
+
+        WebJarsCachedResource resource =
+            new WebJarsCachedResource("content".getBytes(), "application/javascript", 1000000000000L);
+        when(this.resourceCache.get("wiki:wiki", "angular/2.1.11/angular.js")).thenReturn(resource);
+        when(this.request.getHttpServletRequest().getDateHeader("If-Modified-Since")).thenReturn(999999999000L);
+
+        this.handler.handle(reference, this.chain);
+
+        verify(this.response.getHttpServletResponse(), never()).setStatus(304);
+        assertEquals("content", this.response.getOutputStream().toString());
+        verify(this.chain).handleNext(reference);
+    }
 }